@@ -0,0 +1,75 @@
+package com.financeapp.personal.analytics;
+import com.financeapp.personal.entity.Money;
+import java.time.YearMonth;
+/**
+ * CategorySpendingTrend is a months × categories matrix of expenses, with month-over-month
+ * changes and trailing averages, all in cents
+ *
+ * It is built from a slightly longer history than it shows, so the first
+ * shown month also has a previous month to compare with and a full window
+ * to average over. Categories are indexed by Category ordinal.
+ *
+ * @param firstMonth          the first shown month
+ * @param spendingCents       [month][category] expenses
+ * @param changeCents         [month][category] expenses minus the previous month's
+ * @param rollingAverageCents [month][category] mean of this month and the {@code rollingMonths - 1}
+ *                            before it, rounded half up to the cent
+ */
+public record CategorySpendingTrend(YearMonth firstMonth,
+                                    int rollingMonths,
+                                    long[][] spendingCents,
+                                    long[][] changeCents,
+                                    long[][] rollingAverageCents) {
+
+    /**
+     * Months of history needed before the first shown month
+     */
+    public static int historyMonthsBefore(int rollingMonths) {
+        return Math.max(1, rollingMonths - 1);
+    }
+
+    /**
+     * Derive changes and trailing averages in one pass over the history
+     *
+     * @param history totals per month, starting at {@code historyStart}; the last {@code months} are shown
+     */
+    public static CategorySpendingTrend compute(YearMonth historyStart, long[][] history, int months, int rollingMonths) {
+        int offset = history.length - months;
+        if (months < 1 || rollingMonths < 1 || offset < historyMonthsBefore(rollingMonths)) {
+            throw new IllegalArgumentException("Need " + historyMonthsBefore(rollingMonths)
+                    + " months of history before the first shown month");
+        }
+        int categories = history[0].length;
+
+        // Sliding window sums: start with the months before the first shown one
+        long[] windowSums = new long[categories];
+        for (int h = offset - rollingMonths + 1; h < offset; h++) {
+            for (int c = 0; c < categories; c++) {
+                windowSums[c] += history[h][c];
+            }
+        }
+
+        long[][] spending = new long[months][];
+        long[][] change = new long[months][categories];
+        long[][] rollingAverage = new long[months][categories];
+        for (int m = 0; m < months; m++) {
+            int h = offset + m;
+            spending[m] = history[h].clone();
+            for (int c = 0; c < categories; c++) {
+                change[m][c] = history[h][c] - history[h - 1][c];
+                windowSums[c] += history[h][c];
+                rollingAverage[m][c] = Money.ofCents(windowSums[c]).dividedBy(rollingMonths).getCents();
+                windowSums[c] -= history[h - rollingMonths + 1][c];
+            }
+        }
+        return new CategorySpendingTrend(historyStart.plusMonths(offset), rollingMonths, spending, change, rollingAverage);
+    }
+
+    public int months() {
+        return spendingCents.length;
+    }
+
+    public YearMonth month(int index) {
+        return firstMonth.plusMonths(index);
+    }
+}
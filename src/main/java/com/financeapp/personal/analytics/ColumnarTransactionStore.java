@@ -0,0 +1,287 @@
+package com.financeapp.personal.analytics;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.event.EventConsumer;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.FinancialDataChangedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.service.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * ColumnarTransactionStore keeps active users' transaction history in memory
+ *
+ * This is an optional analytics cache (analytics.columnar.enabled):
+ * - A user's columns are loaded lazily on first use with scalar queries
+ * - Newly posted transactions are appended as they commit
+ * - Transactions posted while a load is running are replayed onto its result
+ * - Account changes drop the user's columns so they reload on next use
+ * - Least recently used users are evicted to stay within the memory budget
+ */
+@Component
+public class ColumnarTransactionStore implements EventConsumer {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate loadTransaction;
+    private final boolean enabled;
+    private final long memoryBudgetBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, UserTransactionColumns> columnsByUser = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<Long, Optional<UserTransactionColumns>> inFlightLoads = new SingleFlight<>();
+    private final Map<Long, PendingLoad> pendingLoads = new HashMap<>();
+    private long usedBytes;
+
+    @Autowired
+    public ColumnarTransactionStore(TransactionRepository transactionRepository,
+                                    AccountRepository accountRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${analytics.columnar.enabled:false}") boolean enabled,
+                                    @Value("${analytics.columnar.max-memory-mb:64}") long maxMemoryMb) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.enabled = enabled;
+        this.memoryBudgetBytes = maxMemoryMb * 1024 * 1024;
+
+        // Load balances and rows from one consistent snapshot
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get a user's columns, loading them on first use
+     *
+     * @return empty when the store is disabled or the user cannot be held in columns
+     */
+    public Optional<UserTransactionColumns> columnsFor(Long userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        UserTransactionColumns cached = get(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return inFlightLoads.execute(userId, () -> {
+            UserTransactionColumns existing = get(userId);
+            if (existing != null) {
+                return Optional.of(existing);
+            }
+
+            // Register before the snapshot starts so nothing posted after it is missed
+            PendingLoad pending = beginLoad(userId);
+            try {
+                UserTransactionColumns loaded = loadTransaction.execute(status -> load(userId));
+                return Optional.ofNullable(finishLoad(userId, pending, loaded));
+            } finally {
+                abandonLoad(userId, pending);
+            }
+        });
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "columnar-analytics";
+    }
+
+    @Override
+    public void consume(List<FinanceEvent> events) {
+        for (FinanceEvent event : events) {
+            if (event instanceof TransactionPostedEvent posted) {
+                onTransactionPosted(posted);
+            } else if (event instanceof TransactionsImportedEvent imported) {
+                onTransactionsImported(imported);
+            } else if (event instanceof FinancialDataChangedEvent changed) {
+                onFinancialDataChanged(changed);
+            }
+        }
+    }
+
+    /**
+     * Keep loaded columns current as transactions are posted
+     */
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        UserTransactionColumns columns;
+        lock.lock();
+        try {
+            columns = columnsByUser.get(event.userId());
+            if (columns == null) {
+                PendingLoad pending = pendingLoads.get(event.userId());
+                if (pending != null) {
+                    pending.posted.add(event); // The running load's snapshot may predate this commit
+                }
+                return; // Not loaded; the next load will include this transaction
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        boolean appended = columns.append(event.transactionId(), event.accountId(), Money.toCents(event.amount()),
+                event.transactionType(), event.category(), event.transactionDate(), true);
+        if (!appended) {
+            evict(event.userId()); // Account created after load
+        }
+    }
+
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        event.transactions().forEach(this::onTransactionPosted);
+    }
+
+    /**
+     * Account changes can alter balances outside of transactions, so reload lazily
+     */
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public void evict(Long userId) {
+        lock.lock();
+        try {
+            UserTransactionColumns removed = columnsByUser.remove(userId);
+            if (removed != null) {
+                usedBytes -= removed.estimatedBytes();
+            }
+            PendingLoad pending = pendingLoads.get(userId);
+            if (pending != null) {
+                pending.invalidated = true; // The running load may have read the old accounts
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PendingLoad beginLoad(Long userId) {
+        PendingLoad pending = new PendingLoad();
+        lock.lock();
+        try {
+            pendingLoads.put(userId, pending);
+        } finally {
+            lock.unlock();
+        }
+        return pending;
+    }
+
+    /**
+     * Replay what was posted during the load and cache the result
+     *
+     * Appends skip ids the snapshot already read, so a transaction that is both
+     * in the snapshot and replayed counts once. A load invalidated by an account
+     * change is not cached; the caller falls back to the database this time.
+     */
+    private UserTransactionColumns finishLoad(Long userId, PendingLoad pending, UserTransactionColumns loaded) {
+        lock.lock();
+        try {
+            pendingLoads.remove(userId, pending);
+            if (loaded == null || pending.invalidated) {
+                return null;
+            }
+            for (TransactionPostedEvent event : pending.posted) {
+                if (!loaded.append(event.transactionId(), event.accountId(), Money.toCents(event.amount()),
+                        event.transactionType(), event.category(), event.transactionDate(), true)) {
+                    return null; // Account created after the snapshot
+                }
+            }
+            put(userId, loaded);
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandonLoad(Long userId, PendingLoad pending) {
+        lock.lock();
+        try {
+            pendingLoads.remove(userId, pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserTransactionColumns get(Long userId) {
+        lock.lock();
+        try {
+            return columnsByUser.get(userId); // Access-ordered: marks the user as recently used
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Long userId, UserTransactionColumns columns) {
+        long bytes = columns.estimatedBytes();
+        lock.lock();
+        try {
+            UserTransactionColumns previous = columnsByUser.put(userId, columns);
+            usedBytes += bytes - (previous == null ? 0 : previous.estimatedBytes());
+
+            // Evict least recently used users until we fit, but always keep the newest entry
+            Iterator<Map.Entry<Long, UserTransactionColumns>> eldest = columnsByUser.entrySet().iterator();
+            while (usedBytes > memoryBudgetBytes && columnsByUser.size() > 1 && eldest.hasNext()) {
+                Map.Entry<Long, UserTransactionColumns> entry = eldest.next();
+                if (entry.getKey().equals(userId)) {
+                    continue;
+                }
+                usedBytes -= entry.getValue().estimatedBytes();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserTransactionColumns load(Long userId) {
+        List<AccountRepository.AccountBalanceRow> accounts = accountRepository.findBalanceRowsByUserId(userId);
+        if (accounts.size() > UserTransactionColumns.MAX_ACCOUNTS) {
+            return null;
+        }
+
+        long[] accountIds = new long[accounts.size()];
+        Account.AccountType[] accountTypes = new Account.AccountType[accounts.size()];
+        String[] accountCurrencies = new String[accounts.size()];
+        long[] balances = new long[accounts.size()];
+        for (int i = 0; i < accounts.size(); i++) {
+            AccountRepository.AccountBalanceRow account = accounts.get(i);
+            accountIds[i] = account.getId();
+            accountTypes[i] = account.getAccountType();
+            accountCurrencies[i] = account.getCurrency().intern();
+            balances[i] = account.getCurrentBalance() == null ? 0 : Money.toCents(account.getCurrentBalance());
+        }
+
+        List<TransactionRepository.TransactionRow> rows = transactionRepository.findRowsByUserId(userId);
+        UserTransactionColumns columns = new UserTransactionColumns(accountIds, accountTypes, accountCurrencies, balances, rows.size());
+        for (TransactionRepository.TransactionRow row : rows) {
+            columns.append(row.getId(), row.getAccountId(), Money.toCents(row.getAmount()),
+                    row.getTransactionType(), row.getCategory(), row.getTransactionDate(), false);
+        }
+        return columns;
+    }
+
+    /**
+     * Events consumed for a user while their columns are being loaded
+     */
+    private static final class PendingLoad {
+        final List<TransactionPostedEvent> posted = new ArrayList<>();
+        boolean invalidated;
+    }
+}
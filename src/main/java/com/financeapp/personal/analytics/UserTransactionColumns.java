@@ -0,0 +1,274 @@
+package com.financeapp.personal.analytics;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * UserTransactionColumns holds one user's transaction history in primitive arrays
+ *
+ * Each transaction is a row across parallel columns:
+ * - amount in cents (long)
+ * - transaction date as epoch day (int)
+ * - category, type and account as small indexes (byte)
+ *
+ * Aggregations are plain loops over these arrays, with no entity hydration,
+ * BigDecimal arithmetic or date objects per row. Amounts are held in each
+ * account's currency; aggregations convert into the reporting currency with
+ * the caller's rate snapshot, resolving each account's currency once per call.
+ * Reads take a shared lock so appends from the write path are safe.
+ */
+public class UserTransactionColumns {
+
+    /** Account indexes are stored in a byte and read back unsigned */
+    public static final int MAX_ACCOUNTS = 256;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte INCOME = (byte) Transaction.TransactionType.INCOME.ordinal();
+    private static final int CATEGORY_COUNT = Transaction.Category.values().length;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Account table
+    private final long[] accountIds;
+    private final String[] accountCurrencies;
+    private final boolean[] accountIsLiability;
+    private final long[] accountBalanceCents;
+
+    // Transaction columns
+    private long[] amountCents;
+    private int[] epochDays;
+    private byte[] categories;
+    private byte[] types;
+    private byte[] accountIndexes;
+    private int size;
+
+    // Ids of the rows held, kept sorted to skip transactions already loaded or appended
+    private long[] sortedTransactionIds;
+
+    public UserTransactionColumns(long[] accountIds, Account.AccountType[] accountTypes, String[] accountCurrencies,
+                                  long[] accountBalanceCents, int expectedRows) {
+        if (accountIds.length > MAX_ACCOUNTS) {
+            throw new IllegalArgumentException("Too many accounts for columnar storage: " + accountIds.length);
+        }
+        this.accountIds = accountIds;
+        this.accountCurrencies = accountCurrencies;
+        this.accountBalanceCents = accountBalanceCents;
+        this.accountIsLiability = new boolean[accountIds.length];
+        for (int i = 0; i < accountTypes.length; i++) {
+            accountIsLiability[i] = accountTypes[i] == Account.AccountType.CREDIT_CARD;
+        }
+
+        int capacity = Math.max(INITIAL_CAPACITY, expectedRows);
+        this.amountCents = new long[capacity];
+        this.epochDays = new int[capacity];
+        this.categories = new byte[capacity];
+        this.types = new byte[capacity];
+        this.accountIndexes = new byte[capacity];
+        this.sortedTransactionIds = new long[capacity];
+    }
+
+    /**
+     * Append a transaction row
+     *
+     * A transaction already held is skipped. Ids are not committed in id order,
+     * so this checks the ids actually loaded or appended rather than the highest one.
+     *
+     * @param applyToBalance true for newly posted transactions, false while
+     *                       loading history already reflected in the balances
+     * @return false if the account is unknown to this user's columns
+     */
+    public boolean append(long transactionId, long accountId, long cents, Transaction.TransactionType type,
+                          Transaction.Category category, LocalDate date, boolean applyToBalance) {
+        lock.writeLock().lock();
+        try {
+            int accountIndex = indexOfAccount(accountId);
+            if (accountIndex < 0) {
+                return false;
+            }
+            int slot = Arrays.binarySearch(sortedTransactionIds, 0, size, transactionId);
+            if (slot >= 0) {
+                return true; // Already part of the loaded history or appended before
+            }
+
+            ensureCapacity(size + 1);
+            int insertAt = -slot - 1; // History loads in id order, so this is usually the end
+            System.arraycopy(sortedTransactionIds, insertAt, sortedTransactionIds, insertAt + 1, size - insertAt);
+            sortedTransactionIds[insertAt] = transactionId;
+            amountCents[size] = cents;
+            epochDays[size] = (int) date.toEpochDay();
+            categories[size] = (byte) category.ordinal();
+            types[size] = (byte) type.ordinal();
+            accountIndexes[size] = (byte) accountIndex;
+            size++;
+
+            if (applyToBalance) {
+                accountBalanceCents[accountIndex] += type == Transaction.TransactionType.INCOME ? cents : -cents;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Expense totals per category (indexed by Category ordinal) for an inclusive date range
+     */
+    public long[] expensesByCategory(LocalDate from, LocalDate to, FxRateSnapshot rates) {
+        int[] currencyByAccount = rates.indexesOf(accountCurrencies);
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        long[] totals = new long[CATEGORY_COUNT];
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int day = epochDays[i];
+                if (types[i] != INCOME && day >= fromDay && day <= toDay) {
+                    totals[categories[i]] += rates.toReportingCents(amountCents[i],
+                            currencyByAccount[accountIndexes[i] & 0xFF], day);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return totals;
+    }
+
+    /**
+     * Total of one transaction type for an inclusive date range
+     */
+    public long sumByType(Transaction.TransactionType type, LocalDate from, LocalDate to, FxRateSnapshot rates) {
+        int[] currencyByAccount = rates.indexesOf(accountCurrencies);
+        byte wanted = (byte) type.ordinal();
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int day = epochDays[i];
+                if (types[i] == wanted && day >= fromDay && day <= toDay) {
+                    total += rates.toReportingCents(amountCents[i],
+                            currencyByAccount[accountIndexes[i] & 0xFF], day);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return total;
+    }
+
+    /**
+     * Expense totals per month and category starting at a month
+     *
+     * @return array of [months][categories] with categories indexed by Category ordinal
+     */
+    public long[][] expensesByMonthAndCategory(YearMonth firstMonth, int months, FxRateSnapshot rates) {
+        int[] currencyByAccount = rates.indexesOf(accountCurrencies);
+        long[][] totals = new long[months][CATEGORY_COUNT];
+        // Month boundaries as epoch days, so the row loop is integer compares only
+        int[] boundaries = new int[months + 1];
+        for (int m = 0; m <= months; m++) {
+            boundaries[m] = (int) firstMonth.plusMonths(m).atDay(1).toEpochDay();
+        }
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int day = epochDays[i];
+                if (types[i] == INCOME || day < boundaries[0] || day >= boundaries[months]) {
+                    continue;
+                }
+                totals[monthIndex(boundaries, day)][categories[i]] += rates.toReportingCents(amountCents[i],
+                        currencyByAccount[accountIndexes[i] & 0xFF], day);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return totals;
+    }
+
+    /**
+     * Net worth in reporting currency cents at a day's rates: assets minus credit card balances
+     */
+    public long netWorthCents(FxRateSnapshot rates, LocalDate asOf) {
+        int[] currencyByAccount = rates.indexesOf(accountCurrencies);
+        long day = asOf.toEpochDay();
+        lock.readLock().lock();
+        try {
+            long netWorth = 0;
+            for (int a = 0; a < accountIds.length; a++) {
+                long balance = rates.toReportingCents(accountBalanceCents[a], currencyByAccount[a], day);
+                netWorth += accountIsLiability[a] ? -balance : balance;
+            }
+            return netWorth;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of transaction rows held
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint, used for the store's memory budget
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            // 8 + 4 + 1 + 1 + 1 + 8 bytes per row slot, plus the account table (interned currency codes) and object headers
+            return amountCents.length * 23L + accountIds.length * 21L + 256;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int indexOfAccount(long accountId) {
+        for (int a = 0; a < accountIds.length; a++) {
+            if (accountIds[a] == accountId) {
+                return a;
+            }
+        }
+        return -1;
+    }
+
+    private static int monthIndex(int[] boundaries, int day) {
+        int low = 0;
+        int high = boundaries.length - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (boundaries[mid] <= day) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= amountCents.length) {
+            return;
+        }
+        int capacity = Math.max(required, amountCents.length + (amountCents.length >> 1));
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        types = Arrays.copyOf(types, capacity);
+        accountIndexes = Arrays.copyOf(accountIndexes, capacity);
+        sortedTransactionIds = Arrays.copyOf(sortedTransactionIds, capacity);
+    }
+}
@@ -0,0 +1,40 @@
+package com.financeapp.personal.categorization;
+import com.financeapp.personal.search.SearchTokenizer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * CategoryFeatures turns a transaction into the tokens the classifier counts
+ *
+ * - description words, skipping store numbers and single characters
+ * - an amount bucket (powers of two of whole dollars), so "rent" sized
+ *   amounts and "coffee" sized amounts pull in different directions
+ */
+public final class CategoryFeatures {
+
+    private CategoryFeatures() {
+    }
+
+    public static List<String> extract(String description, BigDecimal amount) {
+        List<String> features = new ArrayList<>();
+        for (String token : SearchTokenizer.tokenize(description)) {
+            if (token.length() > 1 && !isNumber(token)) {
+                features.add(token);
+            }
+        }
+        if (amount != null && amount.signum() > 0) {
+            long dollars = Math.max(1, amount.longValue());
+            features.add("$" + (63 - Long.numberOfLeadingZeros(dollars)));
+        }
+        return features;
+    }
+
+    private static boolean isNumber(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,7 @@
+package com.financeapp.personal.categorization;
+import com.financeapp.personal.entity.Transaction;
+/**
+ * A suggested category and the model's confidence in it (0 to 1)
+ */
+public record CategorySuggestion(Transaction.Category category, double confidence) {
+}
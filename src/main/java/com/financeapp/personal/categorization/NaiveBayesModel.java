@@ -0,0 +1,180 @@
+package com.financeapp.personal.categorization;
+import com.financeapp.personal.entity.Transaction;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * NaiveBayesModel is a multinomial naive Bayes classifier over transaction features
+ *
+ * The model is just counts, so training is incremental: adding or removing
+ * a labelled transaction adjusts a handful of counters. Scoring a
+ * transaction is one map lookup per feature and a loop over the categories.
+ *
+ * A model can be scored on its own (Laplace smoothing), or with a
+ * background model as its prior. A user's model uses the global model as a
+ * prior, so a new user gets global suggestions and their own labels take
+ * over as they accumulate.
+ */
+public class NaiveBayesModel {
+
+    private static final int CATEGORIES = Transaction.Category.values().length;
+    // Even at 1e-12 per feature, a product of eight likelihoods stays well clear of double underflow
+    private static final int LOG_BATCH_MASK = 7;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, int[]> featureCounts = new HashMap<>();
+    private final int[] documentCounts = new int[CATEGORIES];
+    private final long[] featureTotals = new long[CATEGORIES];
+    private int documents;
+
+    /**
+     * Learn from one labelled transaction
+     */
+    public void add(List<String> features, Transaction.Category category) {
+        update(features, category, 1);
+    }
+
+    /**
+     * Forget a labelled transaction, e.g. when its category is corrected
+     *
+     * Counts never go below zero: forgetting something the model never learned (it was
+     * trained after the correction, say) leaves the counts as they are.
+     */
+    public void remove(List<String> features, Transaction.Category category) {
+        update(features, category, -1);
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Log posterior (up to a constant) of each category for a transaction
+     *
+     * @param background     prior model, or null for Laplace smoothing
+     * @param priorStrength  how many pseudo-observations the background is worth
+     * @param allowed        categories to score; others are negative infinity
+     */
+    public double[] logPosterior(List<String> features, NaiveBayesModel background, double priorStrength,
+                                 boolean[] allowed) {
+        double[] scores = new double[CATEGORIES];
+
+        lock.readLock().lock();
+        if (background != null) {
+            background.lock.readLock().lock();
+        }
+        try {
+            int[][] counts = new int[features.size()][];
+            int[][] backgroundCounts = background == null ? null : new int[features.size()][];
+            for (int f = 0; f < features.size(); f++) {
+                counts[f] = featureCounts.get(features.get(f));
+                if (background != null) {
+                    backgroundCounts[f] = background.featureCounts.get(features.get(f));
+                }
+            }
+
+            for (int c = 0; c < CATEGORIES; c++) {
+                if (!allowed[c]) {
+                    scores[c] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+
+                // Multiply likelihoods and take the log once per batch of features instead of once per feature
+                double score = 0;
+                double product;
+                if (background == null) {
+                    product = laplacePrior(c);
+                    double denominator = featureTotals[c] + featureCounts.size() + 1;
+                    for (int f = 0; f < counts.length; f++) {
+                        product *= ((counts[f] == null ? 0 : counts[f][c]) + 1) / denominator;
+                        if ((f & LOG_BATCH_MASK) == LOG_BATCH_MASK) {
+                            score += Math.log(product);
+                            product = 1;
+                        }
+                    }
+                } else {
+                    product = (documentCounts[c] + priorStrength * background.laplacePrior(c)) / (documents + priorStrength);
+                    double denominator = featureTotals[c] + priorStrength;
+                    double backgroundDenominator = background.featureTotals[c] + background.featureCounts.size() + 1;
+                    for (int f = 0; f < counts.length; f++) {
+                        int own = counts[f] == null ? 0 : counts[f][c];
+                        int prior = backgroundCounts[f] == null ? 0 : backgroundCounts[f][c];
+                        double backgroundProbability = (prior + 1) / backgroundDenominator;
+                        product *= (own + priorStrength * backgroundProbability) / denominator;
+                        if ((f & LOG_BATCH_MASK) == LOG_BATCH_MASK) {
+                            score += Math.log(product);
+                            product = 1;
+                        }
+                    }
+                }
+                scores[c] = score + Math.log(product);
+            }
+        } finally {
+            if (background != null) {
+                background.lock.readLock().unlock();
+            }
+            lock.readLock().unlock();
+        }
+        return scores;
+    }
+
+    private double laplacePrior(int category) {
+        return (documentCounts[category] + 1.0) / (documents + CATEGORIES);
+    }
+
+    private void update(List<String> features, Transaction.Category category, int delta) {
+        int c = category.ordinal();
+        lock.writeLock().lock();
+        try {
+            if (delta < 0) {
+                forget(features, c);
+                return;
+            }
+            documents += delta;
+            documentCounts[c] += delta;
+            featureTotals[c] += (long) delta * features.size();
+            for (String feature : features) {
+                featureCounts.computeIfAbsent(feature, f -> new int[CATEGORIES])[c] += delta;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Take one document out of a category, only as far as the counts go; called under the write lock
+     */
+    private void forget(List<String> features, int c) {
+        if (documentCounts[c] == 0) {
+            return;
+        }
+        documents--;
+        documentCounts[c]--;
+        for (String feature : features) {
+            int[] counts = featureCounts.get(feature);
+            if (counts == null || counts[c] == 0) {
+                continue;
+            }
+            counts[c]--;
+            featureTotals[c]--;
+            if (isEmpty(counts)) {
+                featureCounts.remove(feature);
+            }
+        }
+    }
+
+    private static boolean isEmpty(int[] counts) {
+        for (int count : counts) {
+            if (count > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,312 @@
+package com.financeapp.personal.categorization;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.EventConsumer;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.repository.OutboxEventRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.service.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+/**
+ * TransactionCategorizer suggests a category from a transaction's description and amount
+ *
+ * This runs in-process, so suggestions take microseconds instead of an LLM round-trip:
+ * - A global model is trained once from every labelled transaction
+ * - Each user's model is trained from their own transactions, with the global model as its prior
+ * - Posted transactions and category corrections update both models as they commit
+ * - Each model remembers the last outbox event it learned from, so a redelivered event,
+ *   or one that happened before the model was trained, is not counted twice
+ */
+@Component
+public class TransactionCategorizer implements EventConsumer {
+
+    private static final Transaction.Category[] CATEGORIES = Transaction.Category.values();
+
+    private final TransactionRepository transactionRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate loadTransaction;
+    private final double userPriorStrength;
+    private final int maxUserModels;
+
+    private volatile TrainedModel globalModel;
+    private final SingleFlight<String, TrainedModel> globalTraining = new SingleFlight<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, TrainedModel> userModels;
+    private final SingleFlight<Long, TrainedModel> inFlightUserLoads = new SingleFlight<>();
+
+    @Autowired
+    public TransactionCategorizer(TransactionRepository transactionRepository,
+                                  OutboxEventRepository outboxEventRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${categorizer.user-prior-strength:10}") double userPriorStrength,
+                                  @Value("${categorizer.max-user-models:10000}") int maxUserModels) {
+        this.transactionRepository = transactionRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.userPriorStrength = userPriorStrength;
+        this.maxUserModels = maxUserModels;
+        // One snapshot for the training rows and the outbox position they correspond to
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        // Access-ordered: the least recently used user's model is dropped first
+        this.userModels = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, TrainedModel> eldest) {
+                return size() > maxUserModels;
+            }
+        };
+    }
+
+    /**
+     * Suggest categories for a transaction being entered, most likely first
+     *
+     * @param transactionType limits suggestions to income or expense categories, or null for all
+     * @param limit           maximum number of suggestions
+     */
+    public List<CategorySuggestion> suggest(Long userId, String description, BigDecimal amount,
+                                            Transaction.TransactionType transactionType, int limit) {
+        NaiveBayesModel global = globalModel().model;
+        NaiveBayesModel userModel = userModelFor(userId).model;
+        List<String> features = CategoryFeatures.extract(description, amount);
+        double[] scores = userModel.logPosterior(features, global, userPriorStrength, allowedFor(transactionType));
+        return topSuggestions(scores, limit);
+    }
+
+    /**
+     * Most likely category, e.g. for rows of a bulk import that arrive without one
+     *
+     * Falls back to "other" for the transaction type if the models give no suggestion.
+     */
+    public Transaction.Category categorize(Long userId, String description, BigDecimal amount,
+                                           Transaction.TransactionType transactionType) {
+        List<CategorySuggestion> suggestions = suggest(userId, description, amount, transactionType, 1);
+        if (suggestions.isEmpty()) {
+            return transactionType == Transaction.TransactionType.INCOME
+                    ? Transaction.Category.OTHER_INCOME
+                    : Transaction.Category.OTHER_EXPENSE;
+        }
+        return suggestions.get(0).category();
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "categorizer";
+    }
+
+    /**
+     * Events from outside the outbox carry no id and are always learned
+     */
+    @Override
+    public void consume(List<FinanceEvent> events) {
+        consume(events, new long[events.size()]);
+    }
+
+    @Override
+    public void consume(List<FinanceEvent> events, long[] eventIds) {
+        for (int i = 0; i < events.size(); i++) {
+            FinanceEvent event = events.get(i);
+            if (event instanceof TransactionPostedEvent posted) {
+                onTransactionPosted(posted, eventIds[i]);
+            } else if (event instanceof TransactionEditedEvent edited) {
+                onTransactionEdited(edited, eventIds[i]);
+            } else if (event instanceof TransactionsImportedEvent imported) {
+                onTransactionsImported(imported, eventIds[i]);
+            }
+        }
+    }
+
+    public void onTransactionPosted(TransactionPostedEvent event, long eventId) {
+        List<String> features = CategoryFeatures.extract(event.description(), event.amount());
+        for (NaiveBayesModel model : modelsLearning(event.userId(), eventId)) {
+            model.add(features, event.category());
+        }
+    }
+
+    public void onTransactionEdited(TransactionEditedEvent event, long eventId) {
+        List<String> previous = CategoryFeatures.extract(event.previousDescription(), event.previousAmount());
+        List<String> current = CategoryFeatures.extract(event.description(), event.amount());
+        for (NaiveBayesModel model : modelsLearning(event.userId(), eventId)) {
+            model.remove(previous, event.previousCategory());
+            model.add(current, event.category());
+        }
+    }
+
+    public void onTransactionsImported(TransactionsImportedEvent event, long eventId) {
+        List<NaiveBayesModel> models = modelsLearning(event.userId(), eventId);
+        for (TransactionPostedEvent posted : event.transactions()) {
+            List<String> features = CategoryFeatures.extract(posted.description(), posted.amount());
+            for (NaiveBayesModel model : models) {
+                model.add(features, posted.category());
+            }
+        }
+    }
+
+    /**
+     * The trained models that have not learned from an outbox event yet, marked as learning from it now
+     *
+     * Models that are not trained yet will read the transaction when they are.
+     */
+    private List<NaiveBayesModel> modelsLearning(Long userId, long eventId) {
+        List<NaiveBayesModel> models = new ArrayList<>(2);
+        TrainedModel global = globalModel;
+        if (global != null && global.learns(eventId)) {
+            models.add(global.model);
+        }
+        TrainedModel userModel = cachedUserModel(userId);
+        if (userModel != null && userModel.learns(eventId)) {
+            models.add(userModel.model);
+        }
+        return models;
+    }
+
+    private TrainedModel globalModel() {
+        TrainedModel trained = globalModel;
+        if (trained != null) {
+            return trained;
+        }
+        return globalTraining.execute("global", () -> {
+            if (globalModel == null) {
+                globalModel = loadTransaction.execute(status -> {
+                    TrainedModel model = new TrainedModel(outboxEventRepository.findMaxId());
+                    try (Stream<TransactionRepository.CategorizationRow> rows = transactionRepository.streamCategorizationRows()) {
+                        rows.forEach(row -> model.model.add(
+                                CategoryFeatures.extract(row.getDescription(), row.getAmount()), row.getCategory()));
+                    }
+                    return model;
+                });
+            }
+            return globalModel;
+        });
+    }
+
+    private TrainedModel userModelFor(Long userId) {
+        TrainedModel cached = cachedUserModel(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        return inFlightUserLoads.execute(userId, () -> {
+            TrainedModel existing = cachedUserModel(userId);
+            if (existing != null) {
+                return existing;
+            }
+            TrainedModel model = loadTransaction.execute(status -> {
+                TrainedModel trained = new TrainedModel(outboxEventRepository.findMaxId());
+                for (TransactionRepository.CategorizationRow row : transactionRepository.findCategorizationRowsByUserId(userId)) {
+                    trained.model.add(CategoryFeatures.extract(row.getDescription(), row.getAmount()), row.getCategory());
+                }
+                return trained;
+            });
+            lock.lock();
+            try {
+                userModels.put(userId, model);
+            } finally {
+                lock.unlock();
+            }
+            return model;
+        });
+    }
+
+    private TrainedModel cachedUserModel(Long userId) {
+        lock.lock();
+        try {
+            return userModels.get(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A trained model and the last outbox event it learned from
+     *
+     * Training reads the outbox position in the same snapshot as the transactions, so
+     * events up to it are already in the counts. (A transaction still committing with a
+     * lower id is the exception; the model then misses that one document.)
+     */
+    private static final class TrainedModel {
+
+        final NaiveBayesModel model = new NaiveBayesModel();
+        // Only the consumer thread reads or moves it once the model is published
+        private long lastEventId;
+
+        TrainedModel(long trainedThroughEventId) {
+            this.lastEventId = trainedThroughEventId;
+        }
+
+        /**
+         * Whether the model should learn from the event; an id of 0 means an event outside the outbox
+         */
+        boolean learns(long eventId) {
+            if (eventId != 0 && eventId <= lastEventId) {
+                return false;
+            }
+            lastEventId = Math.max(lastEventId, eventId);
+            return true;
+        }
+    }
+
+    private static boolean[] allowedFor(Transaction.TransactionType transactionType) {
+        boolean[] allowed = new boolean[CATEGORIES.length];
+        if (transactionType == null) {
+            Arrays.fill(allowed, true);
+            return allowed;
+        }
+        Transaction.Category[] categories = transactionType == Transaction.TransactionType.INCOME
+                ? Transaction.Category.getIncomeCategories()
+                : Transaction.Category.getExpenseCategories();
+        for (Transaction.Category category : categories) {
+            allowed[category.ordinal()] = true;
+        }
+        return allowed;
+    }
+
+    /**
+     * Normalize log scores into probabilities and keep the best few
+     */
+    private static List<CategorySuggestion> topSuggestions(double[] scores, int limit) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            max = Math.max(max, score);
+        }
+        double total = 0;
+        double[] probabilities = new double[scores.length];
+        for (int c = 0; c < scores.length; c++) {
+            probabilities[c] = Math.exp(scores[c] - max);
+            total += probabilities[c];
+        }
+
+        List<CategorySuggestion> suggestions = new ArrayList<>(limit);
+        boolean[] taken = new boolean[scores.length];
+        for (int n = 0; n < Math.max(1, limit); n++) {
+            int best = -1;
+            for (int c = 0; c < scores.length; c++) {
+                if (!taken[c] && probabilities[c] > 0 && (best < 0 || probabilities[c] > probabilities[best])) {
+                    best = c;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            taken[best] = true;
+            suggestions.add(new CategorySuggestion(CATEGORIES[best], probabilities[best] / total));
+        }
+        return suggestions;
+    }
+}
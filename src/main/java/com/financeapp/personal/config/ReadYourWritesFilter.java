@@ -0,0 +1,31 @@
+package com.financeapp.personal.config;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+/**
+ * ReadYourWritesFilter restores a session's primary pin at the start of each request
+ *
+ * The pin is set when a write commits (see {@link ReplicaRoutingDataSource}); this carries it
+ * to the next request, typically the GET that follows a POST, and clears it from the pooled
+ * request thread afterwards.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        if (session != null && session.getAttribute(ReplicaRoutingDataSource.PINNED_UNTIL_ATTRIBUTE) instanceof Long pinnedUntil) {
+            ReplicaRoutingDataSource.pinToPrimaryUntil(pinnedUntil);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clearPin();
+        }
+    }
+}
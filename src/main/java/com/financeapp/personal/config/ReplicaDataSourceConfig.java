@@ -0,0 +1,77 @@
+package com.financeapp.personal.config;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+/**
+ * Routes read-only transactions to a replica when app.datasource.replica.url is set
+ *
+ * - Writes and non-transactional access use the primary (spring.datasource.*)
+ * - @Transactional(readOnly = true) work uses the replica pool
+ * - After a write commits, the writer reads from the primary for app.datasource.replica.max-lag-ms
+ * Without the property nothing here is created and the single auto-configured pool is used.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    // Pools are beans of their own so they are closed on shutdown
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        replica.setDriverClassName(primaryProperties.determineDriverClassName());
+        replica.setMaximumPoolSize(maximumPoolSize);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMillis) {
+        // Defer choosing a pool until the first statement, when the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, maxLagMillis));
+    }
+
+    /**
+     * Return the connection after every transaction, so the next one in the same
+     * EntityManager (e.g. with open-session-in-view) is routed on its own
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
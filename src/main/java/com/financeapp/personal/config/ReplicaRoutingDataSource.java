@@ -0,0 +1,106 @@
+package com.financeapp.personal.config;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import javax.sql.DataSource;
+import java.util.Map;
+/**
+ * ReplicaRoutingDataSource sends read-only transactions to a replica and everything else to the primary
+ *
+ * - The routing decision is made when a connection is first used, so this must sit behind a
+ *   LazyConnectionDataSourceProxy; by then the transaction's read-only flag is known
+ * - A committed read-write transaction pins the thread (and, in a web request, the session) to
+ *   the primary for the replica's maximum lag, so a user reading right after a post sees their
+ *   own write; statements are not inspected, so a read-write transaction that only read pins too
+ * - Connections used outside a transaction go to the primary
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Which pool a connection comes from
+     */
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    // Session attribute carrying the pin across requests (e.g. the GET after a POST redirect)
+    static final String PINNED_UNTIL_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".PINNED_UNTIL";
+
+    private static final ThreadLocal<Long> PINNED_UNTIL = new ThreadLocal<>();
+
+    private final Object writeTrackingKey = new Object();
+    private final long maxLagMillis;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.maxLagMillis = maxLagMillis;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Route this thread's reads to the primary until the given time (epoch millis)
+     */
+    public static void pinToPrimaryUntil(long epochMillis) {
+        Long current = PINNED_UNTIL.get();
+        if (current == null || current < epochMillis) {
+            PINNED_UNTIL.set(epochMillis);
+        }
+    }
+
+    public static void clearPin() {
+        PINNED_UNTIL.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return Target.PRIMARY;
+        }
+        Long pinnedUntil = PINNED_UNTIL.get();
+        return pinnedUntil != null && pinnedUntil > System.currentTimeMillis() ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    /**
+     * Pin to the primary once the current read-write transaction commits
+     */
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(writeTrackingKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeTrackingKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Before after-commit event listeners, which may read what was just written
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCompletion() {
+                // No more statements after this point; writes in after-commit listeners are tracked on their own
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeTrackingKey);
+            }
+
+            @Override
+            public void afterCommit() {
+                long pinnedUntil = System.currentTimeMillis() + maxLagMillis;
+                pinToPrimaryUntil(pinnedUntil);
+                RequestAttributes request = RequestContextHolder.getRequestAttributes();
+                if (request != null) {
+                    request.setAttribute(PINNED_UNTIL_ATTRIBUTE, pinnedUntil, RequestAttributes.SCOPE_SESSION);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeTrackingKey);
+            }
+        });
+    }
+}
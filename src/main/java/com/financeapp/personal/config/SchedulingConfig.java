@@ -0,0 +1,10 @@
+package com.financeapp.personal.config;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+/**
+ * Enables @Scheduled jobs such as the nightly insight sweep
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
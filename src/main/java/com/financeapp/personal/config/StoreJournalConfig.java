@@ -0,0 +1,46 @@
+package com.financeapp.personal.config;
+import com.financeapp.personal.journal.JournalingEventListener;
+import com.financeapp.personal.journal.StoreJournal;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.util.List;
+/**
+ * Registers the store journal's entity listener with Hibernate when journal.enabled is set
+ */
+@Configuration
+public class StoreJournalConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer storeJournalListener(StoreJournal storeJournal) {
+        return properties -> {
+            if (!storeJournal.isEnabled()) {
+                return;
+            }
+            JournalingEventListener listener = new JournalingEventListener(storeJournal);
+            Integrator integrator = new Integrator() {
+                @Override
+                public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                      SessionFactoryImplementor sessionFactory) {
+                    EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                    registry.appendListeners(EventType.POST_INSERT, listener);
+                    registry.appendListeners(EventType.POST_UPDATE, listener);
+                    registry.appendListeners(EventType.POST_DELETE, listener);
+                }
+
+                @Override
+                public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+                }
+            };
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator));
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.service.AccountService;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.util.List;
+/**
+ * AccountApiController serves accounts as JSON for mobile and integration clients
+ *
+ * - GET /api/v1/accounts lists the user's accounts by name
+ * - GET /api/v1/accounts/{id} returns one, or 404
+ * Responses are built from projection rows; no Account entity is loaded.
+ */
+@RestController
+@RequestMapping("/api/v1/accounts")
+public class AccountApiController {
+
+    private final AccountService accountService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public AccountApiController(AccountService accountService, UserService userService,
+                                DataVersionService dataVersionService) {
+        this.accountService = accountService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping
+    public List<AccountRepository.AccountSummaryRow> list(ServletWebRequest request) {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        Long userId = getTestUserId();
+        if (dataVersionService.checkNotModified(userId, request)) {
+            return null;
+        }
+        return accountService.findAccountRows(userId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AccountRepository.AccountSummaryRow> get(@PathVariable Long id, ServletWebRequest request) {
+        Long userId = getTestUserId();
+        if (dataVersionService.checkNotModified(userId, request)) {
+            return null;
+        }
+        return ResponseEntity.of(accountService.findAccountRow(userId, id));
+    }
+
+    /**
+     * Helper method to get test user ID (replace with actual authentication)
+     */
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
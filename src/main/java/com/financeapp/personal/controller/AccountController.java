@@ -3,15 +3,21 @@ import com.financeapp.personal.dto.AccountForm;
 import com.financeapp.personal.entity.Account;
 import com.financeapp.personal.entity.User;
 import com.financeapp.personal.service.AccountService;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.FxRateService;
 import com.financeapp.personal.service.UserService;
+import com.financeapp.personal.view.RenderedFragmentCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 /**
  * AccountController handles account management operations
@@ -28,23 +34,48 @@ public class AccountController {
 
     private final AccountService accountService;
     private final UserService userService;
+    private final DataVersionService dataVersionService;
+    private final RenderedFragmentCache fragmentCache;
+    private final FxRateService fxRateService;
 
     @Autowired
-    public AccountController(AccountService accountService, UserService userService) {
+    public AccountController(AccountService accountService, UserService userService,
+                             DataVersionService dataVersionService, RenderedFragmentCache fragmentCache,
+                             FxRateService fxRateService) {
         this.accountService = accountService;
         this.userService = userService;
+        this.dataVersionService = dataVersionService;
+        this.fragmentCache = fragmentCache;
+        this.fxRateService = fxRateService;
     }
 
     /**
      * Display all accounts for a user
      */
     @GetMapping
-    public String listAccounts(Model model) {
+    public String listAccounts(Model model, ServletWebRequest request) {
+        // Unchanged since the browser's copy: 304 without touching the database
+        if (dataVersionService.checkNotModified(getTestUserId(), request)) {
+            return null;
+        }
+
         // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
         User user = getTestUser();
 
         List<Account> accounts = accountService.findAccountsByUser(user);
+        Map<Long, Long> transactionCounts = accountService.countTransactionsByAccount(user.getId());
+        // Unchanged accounts reuse their rendered card. A batch that nets to zero adds rows
+        // without moving the balance or version, so the count is part of the card's key too
+        List<String> accountCards = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            long transactionCount = transactionCounts.getOrDefault(account.getId(), 0L);
+            List<Long> cardVersion = account.getVersion() == null ? null
+                    : List.of(account.getVersion(), transactionCount);
+            accountCards.add(fragmentCache.render("accounts/card", "card", account.getId(), cardVersion,
+                    Map.of("account", account, "transactionCount", transactionCount), request));
+        }
         model.addAttribute("accounts", accounts);
+        model.addAttribute("accountCards", accountCards);
         model.addAttribute("user", user);
 
         return "accounts/list";
@@ -57,6 +88,7 @@ public class AccountController {
     public String showNewAccountForm(Model model) {
         model.addAttribute("accountForm", new AccountForm());
         model.addAttribute("accountTypes", Account.AccountType.values());
+        model.addAttribute("currencies", fxRateService.getSupportedCurrencies());
         return "accounts/form";
     }
 
@@ -72,6 +104,7 @@ public class AccountController {
         // Check for validation errors
         if (result.hasErrors()) {
             model.addAttribute("accountTypes", Account.AccountType.values());
+            model.addAttribute("currencies", fxRateService.getSupportedCurrencies());
             return "accounts/form";
         }
 
@@ -90,6 +123,7 @@ public class AccountController {
         } catch (Exception e) {
             model.addAttribute("errorMessage", "Error creating account: " + e.getMessage());
             model.addAttribute("accountTypes", Account.AccountType.values());
+            model.addAttribute("currencies", fxRateService.getSupportedCurrencies());
             return "accounts/form";
         }
     }
@@ -109,6 +143,7 @@ public class AccountController {
         Account account = accountOpt.get();
         model.addAttribute("accountForm", new AccountForm(account));
         model.addAttribute("accountTypes", Account.AccountType.values());
+        model.addAttribute("currencies", fxRateService.getSupportedCurrencies());
         model.addAttribute("accountId", id);
         model.addAttribute("editing", true);
 
@@ -127,6 +162,7 @@ public class AccountController {
 
         if (result.hasErrors()) {
             model.addAttribute("accountTypes", Account.AccountType.values());
+            model.addAttribute("currencies", fxRateService.getSupportedCurrencies());
             model.addAttribute("accountId", id);
             model.addAttribute("editing", true);
             return "accounts/form";
@@ -154,6 +190,7 @@ public class AccountController {
         } catch (Exception e) {
             model.addAttribute("errorMessage", "Error updating account: " + e.getMessage());
             model.addAttribute("accountTypes", Account.AccountType.values());
+            model.addAttribute("currencies", fxRateService.getSupportedCurrencies());
             model.addAttribute("accountId", id);
             model.addAttribute("editing", true);
             return "accounts/form";
@@ -167,4 +204,9 @@ public class AccountController {
         return userService.findByEmail("test@example.com")
                 .orElseThrow(() -> new RuntimeException("Test user not found"));
     }
-}
\ No newline at end of file
+
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.BudgetView;
+import com.financeapp.personal.service.BudgetService;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.time.YearMonth;
+/**
+ * BudgetApiController serves budgets as JSON
+ *
+ * - GET /api/v1/budgets?month=2025-06 returns the month's budgets with spending so far
+ *   (the current month when no month is given)
+ */
+@RestController
+@RequestMapping("/api/v1/budgets")
+public class BudgetApiController {
+
+    private final BudgetService budgetService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public BudgetApiController(BudgetService budgetService, UserService userService,
+                               DataVersionService dataVersionService) {
+        this.budgetService = budgetService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping
+    public BudgetView get(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+                          ServletWebRequest request) {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        Long userId = getTestUserId();
+        if (dataVersionService.checkNotModified(userId, request)) {
+            return null;
+        }
+        return budgetService.getBudgetStatus(userId, month != null ? month : YearMonth.now());
+    }
+
+    /**
+     * Helper method to get test user ID (replace with actual authentication)
+     */
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.CashFlowForecastView;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.service.CashFlowForecastService;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+/**
+ * CashFlowForecastController serves projected balances as JSON
+ *
+ * - GET /api/v1/forecast?months=6 returns daily balances per account and the net worth curve
+ * - GET /api/v1/forecast/payday-check answers whether any account goes negative before the next paycheck
+ */
+@RestController
+@RequestMapping("/api/v1/forecast")
+public class CashFlowForecastController {
+
+    private final CashFlowForecastService cashFlowForecastService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public CashFlowForecastController(CashFlowForecastService cashFlowForecastService, UserService userService,
+                                      DataVersionService dataVersionService) {
+        this.cashFlowForecastService = cashFlowForecastService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping
+    public CashFlowForecastView forecast(@RequestParam(defaultValue = "6") int months, ServletWebRequest request) {
+        // The forecast starts today; the data version's ETag changes daily as well
+        if (dataVersionService.checkNotModified(getTestUserId(), request)) {
+            return null;
+        }
+
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        User user = getTestUser();
+        return CashFlowForecastView.of(cashFlowForecastService.forecast(user, months));
+    }
+
+    @GetMapping("/payday-check")
+    public CashFlowForecastService.PaydayCheck paydayCheck(ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(getTestUserId(), request)) {
+            return null;
+        }
+        return cashFlowForecastService.checkBeforePayday(getTestUser());
+    }
+
+    /**
+     * Helper method to get test user (replace with actual authentication)
+     */
+    private User getTestUser() {
+        return userService.findByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
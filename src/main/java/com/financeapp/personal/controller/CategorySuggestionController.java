@@ -0,0 +1,53 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.categorization.CategorySuggestion;
+import com.financeapp.personal.categorization.TransactionCategorizer;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.math.BigDecimal;
+import java.util.List;
+/**
+ * CategorySuggestionController suggests a category while a transaction is being entered
+ *
+ * Example: GET /api/v1/transactions/category-suggestions?description=Starbucks%20Seattle&amount=5.25&transactionType=EXPENSE
+ */
+@RestController
+@RequestMapping("/api/v1/transactions")
+public class CategorySuggestionController {
+
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private final TransactionCategorizer transactionCategorizer;
+    private final UserService userService;
+
+    @Autowired
+    public CategorySuggestionController(TransactionCategorizer transactionCategorizer, UserService userService) {
+        this.transactionCategorizer = transactionCategorizer;
+        this.userService = userService;
+    }
+
+    @GetMapping("/category-suggestions")
+    public List<CategorySuggestion> suggest(@RequestParam String description,
+                                            @RequestParam(required = false) BigDecimal amount,
+                                            @RequestParam(required = false) Transaction.TransactionType transactionType,
+                                            @RequestParam(defaultValue = "3") int limit) {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        User user = getTestUser();
+
+        return transactionCategorizer.suggest(user.getId(), description, amount, transactionType,
+                Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Helper method to get test user (replace with actual authentication)
+     */
+    private User getTestUser() {
+        return userService.findByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.CategoryTrendView;
+import com.financeapp.personal.service.CategoryTrendService;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.FxRateService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+/**
+ * CategoryTrendController serves category spending over time as JSON
+ *
+ * - GET /api/v1/insights/category-trend?months=12 returns spending per expense category
+ *   per month, with month-over-month changes and trailing averages
+ */
+@RestController
+@RequestMapping("/api/v1/insights")
+public class CategoryTrendController {
+
+    private final CategoryTrendService categoryTrendService;
+    private final FxRateService fxRateService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public CategoryTrendController(CategoryTrendService categoryTrendService, FxRateService fxRateService,
+                                   UserService userService, DataVersionService dataVersionService) {
+        this.categoryTrendService = categoryTrendService;
+        this.fxRateService = fxRateService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping("/category-trend")
+    public CategoryTrendView categoryTrend(@RequestParam(defaultValue = "12") int months, ServletWebRequest request) {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        Long userId = getTestUserId();
+        if (dataVersionService.checkNotModified(userId, request)) {
+            return null;
+        }
+        return CategoryTrendView.of(categoryTrendService.trend(userId, months), fxRateService.getReportingCurrency());
+    }
+
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.event.EventDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+/**
+ * EventConsumerStatusController reports how far each event consumer lags behind the outbox
+ *
+ * Example: GET /api/v1/system/event-consumers
+ */
+@RestController
+@RequestMapping("/api/v1/system")
+public class EventConsumerStatusController {
+
+    private final EventDispatcher eventDispatcher;
+
+    @Autowired
+    public EventConsumerStatusController(EventDispatcher eventDispatcher) {
+        this.eventDispatcher = eventDispatcher;
+    }
+
+    @GetMapping("/event-consumers")
+    public List<EventDispatcher.ConsumerLag> consumerLag() {
+        return eventDispatcher.getLag();
+    }
+}
@@ -0,0 +1,60 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.InsightsView;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.InsightPrecomputeService;
+import com.financeapp.personal.service.SpendingAnomalyService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+/**
+ * InsightApiController serves the precomputed insights as JSON
+ *
+ * - GET /api/v1/insights returns the stored dashboard insights, the health score and
+ *   recent spending anomalies (up to anomalies=, default 10)
+ * Like the insights page, it never waits on ChatGPT.
+ */
+@RestController
+@RequestMapping("/api/v1/insights")
+public class InsightApiController {
+
+    private static final int MAX_ANOMALIES = 100;
+
+    private final InsightPrecomputeService insightPrecomputeService;
+    private final SpendingAnomalyService spendingAnomalyService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public InsightApiController(InsightPrecomputeService insightPrecomputeService,
+                                SpendingAnomalyService spendingAnomalyService,
+                                UserService userService,
+                                DataVersionService dataVersionService) {
+        this.insightPrecomputeService = insightPrecomputeService;
+        this.spendingAnomalyService = spendingAnomalyService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping
+    public InsightsView get(@RequestParam(defaultValue = "10") int anomalies, ServletWebRequest request) {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        Long userId = getTestUserId();
+        if (dataVersionService.checkNotModified(userId, request)) {
+            return null;
+        }
+        return InsightsView.of(insightPrecomputeService.getOrComputeRow(userId),
+                spendingAnomalyService.findRecentAnomalyRows(userId, Math.max(1, Math.min(anomalies, MAX_ANOMALIES))));
+    }
+
+    /**
+     * Helper method to get test user ID (replace with actual authentication)
+     */
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
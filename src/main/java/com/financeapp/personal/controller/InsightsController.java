@@ -1,47 +1,76 @@
 package com.financeapp.personal.controller;
+import com.financeapp.personal.entity.InsightSnapshot;
 import com.financeapp.personal.entity.User;
-import com.financeapp.personal.service.FinancialInsightsService;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.InsightPrecomputeService;
+import com.financeapp.personal.service.SpendingAnomalyService;
 import com.financeapp.personal.service.UserService;
+import com.financeapp.personal.view.RenderedFragmentCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.util.Map;
 /**
  * InsightsController handles AI-powered financial insights
+ *
+ * Insights are precomputed in the background and served from storage,
+ * so the dashboard does not wait on ChatGPT.
  */
 @Controller
 @RequestMapping("/insights")
 public class InsightsController {
 
-    private final FinancialInsightsService financialInsightsService;
+    private static final int MAX_ANOMALIES_SHOWN = 10;
+
+    private final InsightPrecomputeService insightPrecomputeService;
+    private final SpendingAnomalyService spendingAnomalyService;
     private final UserService userService;
+    private final DataVersionService dataVersionService;
+    private final RenderedFragmentCache fragmentCache;
 
     @Autowired
-    public InsightsController(FinancialInsightsService financialInsightsService, UserService userService) {
-        this.financialInsightsService = financialInsightsService;
+    public InsightsController(InsightPrecomputeService insightPrecomputeService,
+                              SpendingAnomalyService spendingAnomalyService,
+                              UserService userService,
+                              DataVersionService dataVersionService,
+                              RenderedFragmentCache fragmentCache) {
+        this.insightPrecomputeService = insightPrecomputeService;
+        this.spendingAnomalyService = spendingAnomalyService;
         this.userService = userService;
+        this.dataVersionService = dataVersionService;
+        this.fragmentCache = fragmentCache;
     }
 
     /**
      * Display AI-powered financial insights
      */
     @GetMapping
-    public String showInsights(Model model) {
+    public String showInsights(Model model, ServletWebRequest request) {
+        // New snapshots bump the data version too, so a 304 never hides fresh insights
+        if (dataVersionService.checkNotModified(getTestUserId(), request)) {
+            return null;
+        }
+
         User user = getTestUser();
 
+        // Flags are current as of the last posted transaction and don't depend on ChatGPT
+        model.addAttribute("anomalies", spendingAnomalyService.findRecentAnomalies(user.getId(), MAX_ANOMALIES_SHOWN));
+
         try {
-            // Generate insights (these will call ChatGPT API)
-            String generalInsights = financialInsightsService.generateFinancialInsights(user);
-            String spendingAnalysis = financialInsightsService.analyzeMonthlySpending(user);
-            String budgetRecommendations = financialInsightsService.generateBudgetRecommendations(user);
-            int healthScore = financialInsightsService.calculateFinancialHealthScore(user);
+            // Serve stored insights; only the very first visit generates them inline
+            InsightSnapshot snapshot = insightPrecomputeService.getOrCompute(user);
 
             model.addAttribute("user", user);
-            model.addAttribute("generalInsights", generalInsights);
-            model.addAttribute("spendingAnalysis", spendingAnalysis);
-            model.addAttribute("budgetRecommendations", budgetRecommendations);
-            model.addAttribute("healthScore", healthScore);
+            model.addAttribute("generalInsightsPanel", renderPanel("general", snapshot, request));
+            model.addAttribute("spendingAnalysisPanel", renderPanel("spending", snapshot, request));
+            model.addAttribute("budgetRecommendationsPanel", renderPanel("budget", snapshot, request));
+            model.addAttribute("healthScore", snapshot.getHealthScore());
+            model.addAttribute("generatedAt", snapshot.getGeneratedAt());
 
         } catch (Exception e) {
             model.addAttribute("errorMessage", "Unable to generate insights at this time. Please check your API configuration.");
@@ -51,8 +80,39 @@ public class InsightsController {
         return "insights/dashboard";
     }
 
+    /**
+     * Queue a background regeneration of the user's insights
+     */
+    @PostMapping("/refresh")
+    public String refreshInsights(RedirectAttributes redirectAttributes) {
+        User user = getTestUser();
+
+        if (insightPrecomputeService.requestRefresh(user.getId())) {
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Your insights are being refreshed. Reload the page in a moment to see the update.");
+        } else {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Insight generation is busy right now. Please try again shortly.");
+        }
+
+        return "redirect:/insights";
+    }
+
+    /**
+     * One AI panel, reused until the snapshot is regenerated
+     */
+    private String renderPanel(String panel, InsightSnapshot snapshot, ServletWebRequest request) {
+        return fragmentCache.render("insights/panels", panel, snapshot.getId(), snapshot.getVersion(),
+                Map.of("snapshot", snapshot), request);
+    }
+
     private User getTestUser() {
         return userService.findByEmail("test@example.com")
                 .orElseThrow(() -> new RuntimeException("Test user not found"));
     }
-}
\ No newline at end of file
+
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.RecurringSeriesView;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.RecurringSeriesService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.util.List;
+/**
+ * RecurringSeriesController lists detected recurring payments and income as JSON
+ */
+@RestController
+@RequestMapping("/api/v1/recurring-series")
+public class RecurringSeriesController {
+
+    private final RecurringSeriesService recurringSeriesService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public RecurringSeriesController(RecurringSeriesService recurringSeriesService, UserService userService,
+                                     DataVersionService dataVersionService) {
+        this.recurringSeriesService = recurringSeriesService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping
+    public List<RecurringSeriesView> listCurrentSeries(ServletWebRequest request) {
+        if (dataVersionService.checkNotModified(getTestUserId(), request)) {
+            return null;
+        }
+
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        User user = getTestUser();
+
+        return recurringSeriesService.findCurrentSeries(user.getId()).stream()
+                .map(RecurringSeriesView::of)
+                .toList();
+    }
+
+    /**
+     * Helper method to get test user (replace with actual authentication)
+     */
+    private User getTestUser() {
+        return userService.findByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
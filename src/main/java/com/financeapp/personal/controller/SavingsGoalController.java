@@ -0,0 +1,71 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.SavingsGoalView;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.SavingsGoalService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+/**
+ * SavingsGoalController serves savings goal simulations as JSON
+ *
+ * - GET /api/v1/savings-goal?amount=10000&date=2027-06-30 returns the chance of having the amount
+ *   by the date, with net worth percentile bands for each month until then
+ * - Dates more than SavingsGoalService.MAX_MONTHS away are rejected with 400
+ */
+@RestController
+@RequestMapping("/api/v1/savings-goal")
+public class SavingsGoalController {
+
+    private final SavingsGoalService savingsGoalService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public SavingsGoalController(SavingsGoalService savingsGoalService, UserService userService,
+                                 DataVersionService dataVersionService) {
+        this.savingsGoalService = savingsGoalService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> simulate(@RequestParam BigDecimal amount,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                      ServletWebRequest request) {
+        // The simulation starts today and its seed is fixed; the data version's ETag changes daily as well
+        if (dataVersionService.checkNotModified(getTestUserId(), request)) {
+            return null;
+        }
+
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        User user = getTestUser();
+        try {
+            return ResponseEntity.ok(SavingsGoalView.of(savingsGoalService.simulate(user, amount, date), date));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Helper method to get test user (replace with actual authentication)
+     */
+    private User getTestUser() {
+        return userService.findByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
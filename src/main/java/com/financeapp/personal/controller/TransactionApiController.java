@@ -0,0 +1,110 @@
+package com.financeapp.personal.controller;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.TransactionService;
+import com.financeapp.personal.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+/**
+ * TransactionApiController lists transactions as JSON for mobile and integration clients
+ *
+ * Example: GET /api/v1/transactions?accountId=3&category=GROCERIES&from=2025-01-01&to=2025-03-31&limit=500
+ * - Newest first; every filter is optional
+ * - The response is {"items": [...], "count": n, "hasMore": true|false}; hasMore means
+ *   the limit cut the list short
+ * Rows are streamed from the database straight into the response with a Jackson
+ * generator, so a large page is never held in memory as entities or DTOs.
+ */
+@RestController
+@RequestMapping("/api/v1/transactions")
+public class TransactionApiController {
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final TransactionService transactionService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public TransactionApiController(TransactionService transactionService, UserService userService,
+                                    DataVersionService dataVersionService, ObjectMapper objectMapper) {
+        this.transactionService = transactionService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public void list(@RequestParam(required = false) Long accountId,
+                     @RequestParam(required = false) Transaction.Category category,
+                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                     @RequestParam(defaultValue = "500") int limit,
+                     ServletWebRequest request,
+                     HttpServletResponse response) throws IOException {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        Long userId = getTestUserId();
+        if (dataVersionService.checkNotModified(userId, request)) {
+            return;
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream(),
+                JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("items");
+            // One row past the limit tells whether there are more
+            int[] rows = {0};
+            transactionService.forEachTransactionRow(userId, accountId, category, from, to, pageSize + 1, row -> {
+                if (rows[0]++ < pageSize) {
+                    writeRow(json, row);
+                }
+            });
+            json.writeEndArray();
+            json.writeNumberField("count", Math.min(rows[0], pageSize));
+            json.writeBooleanField("hasMore", rows[0] > pageSize);
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeRow(JsonGenerator json, TransactionRepository.ApiTransactionRow row) {
+        try {
+            json.writeStartObject();
+            json.writeNumberField("id", row.id());
+            json.writeNumberField("accountId", row.accountId());
+            json.writeStringField("description", row.description());
+            json.writeNumberField("amount", row.amount());
+            json.writeStringField("transactionType", row.transactionType().name());
+            json.writeStringField("category", row.category().name());
+            json.writeStringField("transactionDate", row.transactionDate().toString());
+            json.writeEndObject();
+        } catch (IOException e) {
+            // The client went away; stop reading rows
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Helper method to get test user ID (replace with actual authentication)
+     */
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.TransactionForm;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.service.AccountService;
+import com.financeapp.personal.service.TransactionService;
+import com.financeapp.personal.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.util.List;
+import java.util.Optional;
+/**
+ * TransactionController handles entering and editing single transactions through forms
+ *
+ * - Posting moves the account balance and publishes the change to derived data
+ * - Editing moves the balance by the difference; the account stays the same
+ */
+@Controller
+@RequestMapping("/transactions")
+public class TransactionController {
+
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final UserService userService;
+
+    @Autowired
+    public TransactionController(TransactionService transactionService, AccountService accountService,
+                                 UserService userService) {
+        this.transactionService = transactionService;
+        this.accountService = accountService;
+        this.userService = userService;
+    }
+
+    /**
+     * Show form for entering a new transaction, optionally on a preselected account
+     */
+    @GetMapping("/new")
+    public String showNewTransactionForm(@RequestParam(required = false) Long accountId, Model model) {
+        TransactionForm transactionForm = new TransactionForm();
+        transactionForm.setAccountId(accountId);
+        model.addAttribute("transactionForm", transactionForm);
+        addFormOptions(model, getTestUser());
+        return "transactions/form";
+    }
+
+    /**
+     * Process new transaction entry
+     */
+    @PostMapping("/new")
+    public String createTransaction(@Valid @ModelAttribute TransactionForm transactionForm,
+                                    BindingResult result,
+                                    Model model,
+                                    RedirectAttributes redirectAttributes) {
+        User user = getTestUser();
+        List<Account> accounts = accountService.findAccountsByUser(user);
+        if (transactionForm.getAccountId() != null
+                && accounts.stream().noneMatch(account -> account.getId().equals(transactionForm.getAccountId()))) {
+            result.rejectValue("accountId", "account.notFound", "Please select one of your accounts");
+        }
+
+        if (result.hasErrors()) {
+            addFormOptions(model, accounts);
+            return "transactions/form";
+        }
+
+        try {
+            Transaction saved = transactionService.postTransaction(transactionForm.getAccountId(),
+                    transactionForm.toTransaction());
+
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Transaction '" + saved.getDescription() + "' added successfully!");
+
+            return "redirect:/accounts";
+
+        } catch (Exception e) {
+            model.addAttribute("errorMessage", "Error adding transaction: " + e.getMessage());
+            addFormOptions(model, accounts);
+            return "transactions/form";
+        }
+    }
+
+    /**
+     * Show form for editing an existing transaction
+     */
+    @GetMapping("/{id}/edit")
+    public String showEditTransactionForm(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
+        User user = getTestUser();
+        Optional<Transaction> transactionOpt = transactionService.findByIdForUser(user.getId(), id);
+
+        if (transactionOpt.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Transaction not found");
+            return "redirect:/accounts";
+        }
+
+        model.addAttribute("transactionForm", new TransactionForm(transactionOpt.get()));
+        addFormOptions(model, user);
+        model.addAttribute("transactionId", id);
+        model.addAttribute("editing", true);
+
+        return "transactions/form";
+    }
+
+    /**
+     * Process transaction update
+     */
+    @PostMapping("/{id}/edit")
+    public String updateTransaction(@PathVariable Long id,
+                                    @Valid @ModelAttribute TransactionForm transactionForm,
+                                    BindingResult result,
+                                    Model model,
+                                    RedirectAttributes redirectAttributes) {
+        User user = getTestUser();
+
+        if (result.hasErrors()) {
+            addFormOptions(model, user);
+            model.addAttribute("transactionId", id);
+            model.addAttribute("editing", true);
+            return "transactions/form";
+        }
+
+        try {
+            if (transactionService.findByIdForUser(user.getId(), id).isEmpty()) {
+                redirectAttributes.addFlashAttribute("errorMessage", "Transaction not found");
+                return "redirect:/accounts";
+            }
+
+            Transaction saved = transactionService.updateTransaction(id, transactionForm.toTransaction());
+
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Transaction '" + saved.getDescription() + "' updated successfully!");
+
+            return "redirect:/accounts";
+
+        } catch (Exception e) {
+            model.addAttribute("errorMessage", "Error updating transaction: " + e.getMessage());
+            addFormOptions(model, user);
+            model.addAttribute("transactionId", id);
+            model.addAttribute("editing", true);
+            return "transactions/form";
+        }
+    }
+
+    private void addFormOptions(Model model, User user) {
+        addFormOptions(model, accountService.findAccountsByUser(user));
+    }
+
+    private void addFormOptions(Model model, List<Account> accounts) {
+        model.addAttribute("accounts", accounts);
+        model.addAttribute("transactionTypes", Transaction.TransactionType.values());
+        model.addAttribute("incomeCategories", Transaction.Category.getIncomeCategories());
+        model.addAttribute("expenseCategories", Transaction.Category.getExpenseCategories());
+    }
+
+    /**
+     * Helper method to get test user (replace with actual authentication)
+     */
+    private User getTestUser() {
+        return userService.findByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.TransactionBatchRequest;
+import com.financeapp.personal.dto.TransactionBatchResult;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.service.TransactionIngestService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+/**
+ * TransactionIngestController accepts batches of transactions from bank-sync clients
+ *
+ * Example: POST /api/v1/transactions/batch with {"transactions": [...]}
+ * - Always safe to retry: rows that already went in come back as DUPLICATE
+ * - 409 when a concurrent write to the same accounts won; nothing was stored, so resend the batch
+ */
+@RestController
+@RequestMapping("/api/v1/transactions")
+public class TransactionIngestController {
+
+    private final TransactionIngestService transactionIngestService;
+    private final UserService userService;
+
+    @Autowired
+    public TransactionIngestController(TransactionIngestService transactionIngestService, UserService userService) {
+        this.transactionIngestService = transactionIngestService;
+        this.userService = userService;
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> ingest(@RequestBody TransactionBatchRequest request) {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        User user = getTestUser();
+
+        try {
+            TransactionBatchResult result = transactionIngestService.ingest(user, request.transactions());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DuplicateKeyException | ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "The accounts changed while this batch was posted; retry the batch"));
+        }
+    }
+
+    /**
+     * Helper method to get test user (replace with actual authentication)
+     */
+    private User getTestUser() {
+        return userService.findByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.financeapp.personal.controller;
+import com.financeapp.personal.dto.TransactionSearchPage;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.service.DataVersionService;
+import com.financeapp.personal.service.TransactionService;
+import com.financeapp.personal.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.time.LocalDate;
+/**
+ * TransactionSearchController exposes full-text transaction search as JSON
+ *
+ * Example: GET /api/v1/transactions/search?q=starb*&category=DINING_OUT&from=2025-01-01&page=0&size=20
+ * - "term*" matches by prefix, "term~" tolerates typos (or fuzzy=true for all terms)
+ * - Results are newest first
+ */
+@RestController
+@RequestMapping("/api/v1/transactions")
+public class TransactionSearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TransactionService transactionService;
+    private final UserService userService;
+    private final DataVersionService dataVersionService;
+
+    @Autowired
+    public TransactionSearchController(TransactionService transactionService, UserService userService,
+                                       DataVersionService dataVersionService) {
+        this.transactionService = transactionService;
+        this.userService = userService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @GetMapping("/search")
+    public TransactionSearchPage search(@RequestParam(name = "q", defaultValue = "") String query,
+                                        @RequestParam(required = false) Transaction.Category category,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        @RequestParam(defaultValue = "false") boolean fuzzy,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "20") int size,
+                                        ServletWebRequest request) {
+        // For simplicity, we'll use the test user. In a real app, you'd get this from authentication
+        Long userId = getTestUserId();
+        // Caches key on the full URL, so one tag per data version covers every query
+        if (dataVersionService.checkNotModified(userId, request)) {
+            return null;
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return transactionService.searchTransactions(userId, query, fuzzy, category, from, to,
+                Math.max(0, page), pageSize);
+    }
+
+    /**
+     * Helper method to get test user ID (replace with actual authentication)
+     */
+    private Long getTestUserId() {
+        return userService.findIdByEmail("test@example.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found"));
+    }
+}
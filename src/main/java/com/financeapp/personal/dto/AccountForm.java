@@ -1,8 +1,10 @@
 package com.financeapp.personal.dto;
 import com.financeapp.personal.entity.Account;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import java.math.BigDecimal;
 /**
  * AccountForm DTO for handling account creation forms
@@ -22,8 +24,13 @@ public class AccountForm {
 
     @NotNull(message = "Initial balance is required")
     @DecimalMin(value = "0.0", message = "Initial balance cannot be negative")
+    @Digits(integer = 8, fraction = 2, message = "Initial balance must be in whole cents, at most 99999999.99")
     private BigDecimal initialBalance;
 
+    @NotBlank(message = "Please select a currency")
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a three-letter ISO code")
+    private String currency = Account.DEFAULT_CURRENCY;
+
     // Default constructor
     public AccountForm() {}
 
@@ -32,6 +39,7 @@ public class AccountForm {
         this.accountName = account.getAccountName();
         this.accountType = account.getAccountType();
         this.initialBalance = account.getInitialBalance();
+        this.currency = account.getCurrency();
     }
 
     // Getters and Setters
@@ -44,6 +52,9 @@ public class AccountForm {
     public BigDecimal getInitialBalance() { return initialBalance; }
     public void setInitialBalance(BigDecimal initialBalance) { this.initialBalance = initialBalance; }
 
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
     /**
      * Convert form data to Account entity
      */
@@ -53,6 +64,7 @@ public class AccountForm {
         account.setAccountType(this.accountType);
         account.setInitialBalance(this.initialBalance);
         account.setCurrentBalance(this.initialBalance);
+        account.setCurrency(this.currency);
         return account;
     }
 }
\ No newline at end of file
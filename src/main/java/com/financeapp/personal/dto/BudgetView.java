@@ -0,0 +1,20 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.entity.Transaction;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+/**
+ * A month's budgets as JSON, with spending so far in the reporting currency
+ */
+public record BudgetView(YearMonth month, String currency, List<Line> budgets) {
+
+    /**
+     * One category's budget; remaining is negative once it is overspent
+     */
+    public record Line(Long id,
+                       Transaction.Category category,
+                       BigDecimal budget,
+                       BigDecimal spent,
+                       BigDecimal remaining) {
+    }
+}
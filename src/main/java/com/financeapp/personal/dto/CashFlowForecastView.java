@@ -0,0 +1,47 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.forecast.AccountForecast;
+import com.financeapp.personal.forecast.CashFlowForecast;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * A cash flow forecast as JSON: daily balances per account and the net worth curve
+ *
+ * Balances are listed one per day, starting with the current balance on {@code startDate}.
+ */
+public record CashFlowForecastView(LocalDate startDate,
+                                   LocalDate endDate,
+                                   List<BigDecimal> netWorth,
+                                   List<AccountView> accounts) {
+
+    public record AccountView(Long accountId,
+                              String accountName,
+                              Account.AccountType accountType,
+                              BigDecimal lowestBalance,
+                              LocalDate lowestDate,
+                              List<BigDecimal> balances) {
+    }
+
+    public static CashFlowForecastView of(CashFlowForecast forecast) {
+        List<AccountView> accounts = new ArrayList<>(forecast.accounts().size());
+        for (AccountForecast account : forecast.accounts()) {
+            int lowest = account.lowestDay(forecast.days() + 1);
+            accounts.add(new AccountView(account.accountId(), account.accountName(), account.accountType(),
+                    Money.ofCents(account.dailyBalanceCents()[lowest]).toBigDecimal(), forecast.dateOf(lowest),
+                    toAmounts(account.dailyBalanceCents())));
+        }
+        return new CashFlowForecastView(forecast.startDate(), forecast.dateOf(forecast.days()),
+                toAmounts(forecast.netWorthCents()), accounts);
+    }
+
+    private static List<BigDecimal> toAmounts(long[] cents) {
+        List<BigDecimal> amounts = new ArrayList<>(cents.length);
+        for (long value : cents) {
+            amounts.add(Money.ofCents(value).toBigDecimal());
+        }
+        return amounts;
+    }
+}
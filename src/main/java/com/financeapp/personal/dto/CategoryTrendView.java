@@ -0,0 +1,70 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.analytics.CategorySpendingTrend;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * A category spending trend as JSON, amounts in the reporting currency
+ *
+ * Values are listed per category, one per month in {@code months}; categories
+ * with no spending in any shown month are left out.
+ */
+public record CategoryTrendView(String currency,
+                                int rollingMonths,
+                                List<YearMonth> months,
+                                List<BigDecimal> totals,
+                                List<CategoryView> categories) {
+
+    public record CategoryView(Transaction.Category category,
+                               String displayName,
+                               List<BigDecimal> spending,
+                               List<BigDecimal> monthOverMonth,
+                               List<BigDecimal> rollingAverage) {
+    }
+
+    public static CategoryTrendView of(CategorySpendingTrend trend, String currency) {
+        int months = trend.months();
+        List<YearMonth> shownMonths = new ArrayList<>(months);
+        long[] totalCents = new long[months];
+        for (int m = 0; m < months; m++) {
+            shownMonths.add(trend.month(m));
+            for (long cents : trend.spendingCents()[m]) {
+                totalCents[m] += cents;
+            }
+        }
+
+        List<CategoryView> categories = new ArrayList<>();
+        for (Transaction.Category category : Transaction.Category.getExpenseCategories()) {
+            int c = category.ordinal();
+            boolean spent = false;
+            for (int m = 0; m < months && !spent; m++) {
+                spent = trend.spendingCents()[m][c] != 0;
+            }
+            if (spent) {
+                categories.add(new CategoryView(category, category.getDisplayName(),
+                        column(trend.spendingCents(), c), column(trend.changeCents(), c),
+                        column(trend.rollingAverageCents(), c)));
+            }
+        }
+        return new CategoryTrendView(currency, trend.rollingMonths(), shownMonths, toAmounts(totalCents), categories);
+    }
+
+    private static List<BigDecimal> column(long[][] cents, int category) {
+        List<BigDecimal> amounts = new ArrayList<>(cents.length);
+        for (long[] month : cents) {
+            amounts.add(Money.ofCents(month[category]).toBigDecimal());
+        }
+        return amounts;
+    }
+
+    private static List<BigDecimal> toAmounts(long[] cents) {
+        List<BigDecimal> amounts = new ArrayList<>(cents.length);
+        for (long value : cents) {
+            amounts.add(Money.ofCents(value).toBigDecimal());
+        }
+        return amounts;
+    }
+}
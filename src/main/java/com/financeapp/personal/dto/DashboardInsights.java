@@ -0,0 +1,30 @@
+package com.financeapp.personal.dto;
+/**
+ * DashboardInsights DTO carrying the three AI panels shown on the dashboard
+ *
+ * Panels come from the local insight rules; {@code aiRefined} is set once ChatGPT has reworded at least one of them.
+ */
+public class DashboardInsights {
+
+    private final String generalInsights;
+    private final String spendingAnalysis;
+    private final String budgetRecommendations;
+    private final boolean aiRefined;
+
+    public DashboardInsights(String generalInsights, String spendingAnalysis, String budgetRecommendations,
+                             boolean aiRefined) {
+        this.generalInsights = generalInsights;
+        this.spendingAnalysis = spendingAnalysis;
+        this.budgetRecommendations = budgetRecommendations;
+        this.aiRefined = aiRefined;
+    }
+
+    // Getters
+    public String getGeneralInsights() { return generalInsights; }
+
+    public String getSpendingAnalysis() { return spendingAnalysis; }
+
+    public String getBudgetRecommendations() { return budgetRecommendations; }
+
+    public boolean isAiRefined() { return aiRefined; }
+}
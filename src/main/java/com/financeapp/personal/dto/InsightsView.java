@@ -0,0 +1,43 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.repository.InsightSnapshotRepository;
+import com.financeapp.personal.repository.SpendingAnomalyRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+/**
+ * The stored dashboard insights and recent spending anomalies as JSON
+ */
+public record InsightsView(String generalInsights,
+                           String spendingAnalysis,
+                           String budgetRecommendations,
+                           int healthScore,
+                           boolean aiRefined,
+                           LocalDateTime generatedAt,
+                           List<Anomaly> anomalies) {
+
+    /**
+     * A flagged expense and the usual amount it was compared with
+     */
+    public record Anomaly(Long transactionId,
+                          String description,
+                          Transaction.Category category,
+                          BigDecimal amount,
+                          BigDecimal usualAmount,
+                          String comparedWith,
+                          LocalDate transactionDate) {
+    }
+
+    public static InsightsView of(InsightSnapshotRepository.SnapshotRow snapshot,
+                                  List<SpendingAnomalyRepository.AnomalyRow> anomalyRows) {
+        List<Anomaly> anomalies = anomalyRows.stream()
+                .map(row -> new Anomaly(row.transactionId(), row.description(), row.category(),
+                        row.amount().toBigDecimal(), row.usualAmount().toBigDecimal(), row.comparedWith(),
+                        row.transactionDate()))
+                .toList();
+        return new InsightsView(snapshot.generalInsights(), snapshot.spendingAnalysis(),
+                snapshot.budgetRecommendations(), snapshot.healthScore(), snapshot.aiRefined(),
+                snapshot.generatedAt(), anomalies);
+    }
+}
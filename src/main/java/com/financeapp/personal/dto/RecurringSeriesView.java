@@ -0,0 +1,37 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.entity.RecurringSeries;
+import com.financeapp.personal.entity.Transaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * A detected recurring payment or income, returned as JSON
+ */
+public record RecurringSeriesView(Long id,
+                                  Long accountId,
+                                  String merchant,
+                                  String lastDescription,
+                                  Transaction.TransactionType transactionType,
+                                  Transaction.Category category,
+                                  RecurringSeries.Period period,
+                                  int occurrences,
+                                  BigDecimal averageAmount,
+                                  BigDecimal monthlyEquivalent,
+                                  LocalDate lastDate,
+                                  LocalDate nextExpectedDate) {
+
+    public static RecurringSeriesView of(RecurringSeries series) {
+        return new RecurringSeriesView(
+                series.getId(),
+                series.getAccount().getId(),
+                series.getMerchantKey(),
+                series.getDisplayName(),
+                series.getTransactionType(),
+                series.getCategory(),
+                series.getPeriod(),
+                series.getOccurrences(),
+                series.getAverageAmount().toBigDecimal(),
+                series.getMonthlyEquivalent().toBigDecimal(),
+                series.getLastDate(),
+                series.getNextExpectedDate());
+    }
+}
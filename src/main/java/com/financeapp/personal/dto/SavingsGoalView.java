@@ -0,0 +1,46 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.forecast.SavingsGoalSimulation;
+import com.financeapp.personal.forecast.SavingsGoalSimulator;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * A savings goal simulation as JSON: the chance of reaching the goal and net worth bands per month
+ *
+ * Months are listed from today; {@code percentiles} follows {@code bands} (10th to 90th).
+ * {@code endDate} is the effective horizon: the first whole month from today on or after {@code targetDate}.
+ */
+public record SavingsGoalView(BigDecimal goal,
+                              LocalDate startDate,
+                              LocalDate targetDate,
+                              LocalDate endDate,
+                              int trajectories,
+                              double probability,
+                              List<Integer> bands,
+                              List<MonthView> months) {
+
+    public record MonthView(LocalDate date,
+                            double goalProbability,
+                            List<BigDecimal> percentiles) {
+    }
+
+    public static SavingsGoalView of(SavingsGoalSimulation simulation, LocalDate targetDate) {
+        List<Integer> bands = new ArrayList<>(SavingsGoalSimulator.PERCENTILES.length);
+        for (int percentile : SavingsGoalSimulator.PERCENTILES) {
+            bands.add(percentile);
+        }
+        List<MonthView> months = new ArrayList<>(simulation.months() + 1);
+        for (int month = 0; month <= simulation.months(); month++) {
+            List<BigDecimal> percentiles = new ArrayList<>(bands.size());
+            for (long[] band : simulation.percentileCents()) {
+                percentiles.add(Money.ofCents(band[month]).toBigDecimal());
+            }
+            months.add(new MonthView(simulation.dateOf(month), simulation.goalProbability()[month], percentiles));
+        }
+        return new SavingsGoalView(Money.ofCents(simulation.goalCents()).toBigDecimal(), simulation.startDate(),
+                targetDate, simulation.dateOf(simulation.months()), simulation.trajectories(), simulation.probability(),
+                bands, months);
+    }
+}
@@ -0,0 +1,38 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.entity.Transaction;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+/**
+ * A batch of transactions from a bank-sync client, posted as JSON
+ *
+ * Example item:
+ * {"idempotencyKey": "chase-7781-20250114-0042", "accountId": 3, "description": "STARBUCKS #1234",
+ *  "amount": 5.25, "transactionType": "EXPENSE", "transactionDate": "2025-01-14"}
+ */
+public record TransactionBatchRequest(List<Item> transactions) {
+
+    /**
+     * One transaction; without a category the local categorizer picks one
+     */
+    public record Item(@Size(max = 100, message = "Idempotency key must be at most 100 characters")
+                       String idempotencyKey,
+                       @NotNull(message = "Account is required")
+                       Long accountId,
+                       @NotBlank(message = "Description is required")
+                       @Size(max = 255, message = "Description must be at most 255 characters")
+                       String description,
+                       @NotNull(message = "Amount is required")
+                       @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+                       BigDecimal amount,
+                       @NotNull(message = "Transaction type is required")
+                       Transaction.TransactionType transactionType,
+                       Transaction.Category category,
+                       @NotNull(message = "Transaction date is required")
+                       LocalDate transactionDate) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.financeapp.personal.dto;
+import java.util.List;
+/**
+ * Outcome of a transaction batch, one item per submitted row in the same order
+ *
+ * Rows are independent: rejected rows do not stop valid ones, and resending the
+ * whole batch reports the rows that already went through as duplicates.
+ */
+public record TransactionBatchResult(int created, int duplicates, int rejected, List<ItemResult> items) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        REJECTED
+    }
+
+    /**
+     * @param transactionId the new transaction, or the stored one a duplicate idempotency key refers to
+     * @param error         why the row was rejected
+     */
+    public record ItemResult(int index, Status status, Long transactionId, String error) {
+    }
+}
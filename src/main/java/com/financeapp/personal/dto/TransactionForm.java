@@ -1,6 +1,7 @@
 package com.financeapp.personal.dto;
 import com.financeapp.personal.entity.Transaction;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -16,6 +17,7 @@ public class TransactionForm {
 
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 8, fraction = 2, message = "Amount must be in whole cents, at most 99999999.99")
     private BigDecimal amount;
 
     @NotNull(message = "Please select transaction type")
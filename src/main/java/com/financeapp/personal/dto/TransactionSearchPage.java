@@ -0,0 +1,27 @@
+package com.financeapp.personal.dto;
+import com.financeapp.personal.entity.Transaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+/**
+ * One page of transaction search results, returned as JSON
+ */
+public record TransactionSearchPage(List<Item> content, int page, int size, int totalElements) {
+
+    public int getTotalPages() {
+        return size == 0 ? 0 : (totalElements + size - 1) / size;
+    }
+
+    /**
+     * A matching transaction
+     */
+    public record Item(Long id,
+                       String description,
+                       BigDecimal amount,
+                       Transaction.TransactionType transactionType,
+                       Transaction.Category category,
+                       LocalDate transactionDate,
+                       Long accountId,
+                       String accountName) {
+    }
+}
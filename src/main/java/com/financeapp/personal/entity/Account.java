@@ -1,12 +1,15 @@
 package com.financeapp.personal.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
+import java.util.Locale;
 /**
  * Account entity represents a bank account (checking, savings, credit card)
  *
@@ -20,6 +23,8 @@ import java.util.List;
 @Table(name = "accounts")
 public class Account {
 
+    public static final String DEFAULT_CURRENCY = "USD";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,15 +39,25 @@ public class Account {
     private AccountType accountType;
 
     @DecimalMin(value = "0.0", inclusive = false, message = "Initial balance must be positive")
+    @Digits(integer = 8, fraction = 2, message = "Initial balance must be in whole cents, at most 99999999.99")
     @Column(name = "initial_balance", precision = 10, scale = 2)
     private BigDecimal initialBalance;
 
     @Column(name = "current_balance", precision = 10, scale = 2)
     private BigDecimal currentBalance;
 
+    // ISO 4217 code of the balances and of every transaction on this account
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency = DEFAULT_CURRENCY;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Incremented on every update; also keys the rendered account card cache
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     // Many accounts belong to one user
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -106,9 +121,15 @@ public class Account {
     public BigDecimal getCurrentBalance() { return currentBalance; }
     public void setCurrentBalance(BigDecimal currentBalance) { this.currentBalance = currentBalance; }
 
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
@@ -122,11 +143,13 @@ public class Account {
         transactions.add(transaction);
         transaction.setAccount(this);
 
-        // Update current balance based on transaction type
+        // Update current balance based on transaction type (exact cents, overflow-checked)
+        Money balance = Money.of(this.currentBalance);
+        Money amount = Money.of(transaction.getAmount());
         if (transaction.getTransactionType() == Transaction.TransactionType.INCOME) {
-            this.currentBalance = this.currentBalance.add(transaction.getAmount());
+            this.currentBalance = balance.plus(amount).toBigDecimal();
         } else {
-            this.currentBalance = this.currentBalance.subtract(transaction.getAmount());
+            this.currentBalance = balance.minus(amount).toBigDecimal();
         }
     }
 
@@ -134,7 +157,15 @@ public class Account {
      * Get formatted balance for display
      */
     public String getFormattedCurrentBalance() {
-        return String.format("$%.2f", currentBalance);
+        return formatAmount(currentBalance);
+    }
+
+    /**
+     * Format an amount in this account's currency, e.g. "$12.50" or "CHF 12.50"
+     */
+    public String formatAmount(BigDecimal amount) {
+        String symbol = Currency.getInstance(currency).getSymbol(Locale.US);
+        return String.format("%s%.2f", symbol.equals(currency) ? currency + " " : symbol, amount);
     }
 
     /**
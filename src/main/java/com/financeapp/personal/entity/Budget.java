@@ -3,6 +3,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 /**
@@ -12,6 +13,7 @@ import java.time.YearMonth;
  * - Composite business logic
  * - YearMonth for monthly budgets
  * - Calculated fields and business rules
+ * - Money value type mapped through an attribute converter
  */
 @Entity
 @Table(name = "budgets", uniqueConstraints = {
@@ -29,9 +31,9 @@ public class Budget {
     private Transaction.Category category;
 
     @NotNull(message = "Budget amount is required")
-    @DecimalMin(value = "0.01", message = "Budget amount must be greater than 0")
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "budget_amount", precision = 10, scale = 2, nullable = false)
-    private BigDecimal budgetAmount;
+    private Money budgetAmount;
 
     @NotNull(message = "Budget month is required")
     @Column(name = "budget_month", nullable = false)
@@ -58,7 +60,7 @@ public class Budget {
     public Budget(Transaction.Category category, BigDecimal budgetAmount, YearMonth budgetMonth, User user) {
         this();
         this.category = category;
-        this.budgetAmount = budgetAmount;
+        this.budgetAmount = budgetAmount == null ? null : Money.of(budgetAmount);
         this.budgetMonth = budgetMonth;
         this.user = user;
     }
@@ -70,8 +72,11 @@ public class Budget {
     public Transaction.Category getCategory() { return category; }
     public void setCategory(Transaction.Category category) { this.category = category; }
 
-    public BigDecimal getBudgetAmount() { return budgetAmount; }
-    public void setBudgetAmount(BigDecimal budgetAmount) { this.budgetAmount = budgetAmount; }
+    @DecimalMin(value = "0.01", message = "Budget amount must be greater than 0")
+    public BigDecimal getBudgetAmount() { return budgetAmount == null ? null : budgetAmount.toBigDecimal(); }
+    public void setBudgetAmount(BigDecimal budgetAmount) { this.budgetAmount = budgetAmount == null ? null : Money.of(budgetAmount); }
+
+    public Money getBudgetMoney() { return budgetAmount; }
 
     public YearMonth getBudgetMonth() { return budgetMonth; }
     public void setBudgetMonth(YearMonth budgetMonth) { this.budgetMonth = budgetMonth; }
@@ -86,17 +91,17 @@ public class Budget {
      * Get formatted budget amount for display
      */
     public String getFormattedBudgetAmount() {
-        return String.format("$%.2f", budgetAmount);
+        return String.format("$%.2f", budgetAmount.toBigDecimal());
     }
 
     /**
      * Calculate percentage of budget used (requires spending amount)
      */
     public double calculateUsagePercentage(BigDecimal spentAmount) {
-        if (budgetAmount.compareTo(BigDecimal.ZERO) == 0) {
+        if (budgetAmount.isZero()) {
             return 0.0;
         }
-        return spentAmount.divide(budgetAmount, 4, BigDecimal.ROUND_HALF_UP)
+        return spentAmount.divide(budgetAmount.toBigDecimal(), 4, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100))
                 .doubleValue();
     }
@@ -105,14 +110,14 @@ public class Budget {
      * Check if budget is exceeded
      */
     public boolean isExceeded(BigDecimal spentAmount) {
-        return spentAmount.compareTo(budgetAmount) > 0;
+        return Money.of(spentAmount).compareTo(budgetAmount) > 0;
     }
 
     /**
      * Get remaining budget amount
      */
     public BigDecimal getRemainingAmount(BigDecimal spentAmount) {
-        return budgetAmount.subtract(spentAmount);
+        return budgetAmount.minus(Money.of(spentAmount)).toBigDecimal();
     }
 
     @Override
@@ -0,0 +1,57 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * FxRate is the US dollar value of one unit of a currency on a day
+ *
+ * Rates are stored against a fixed quote currency (USD), so changing the
+ * reporting currency needs no reload: cross rates are derived when the
+ * in-memory snapshot is built. A currency's rate holds until its next dated row.
+ */
+@Entity
+@Table(name = "fx_rates", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_fx_rates_currency_date", columnNames = {"currency", "rate_date"})
+})
+public class FxRate {
+
+    public static final String QUOTE_CURRENCY = "USD";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ISO 4217 code
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(name = "usd_per_unit", nullable = false, precision = 18, scale = 8)
+    private BigDecimal usdPerUnit;
+
+    /**
+     * Default constructor for JPA
+     */
+    public FxRate() {}
+
+    public FxRate(String currency, LocalDate rateDate, BigDecimal usdPerUnit) {
+        this.currency = currency;
+        this.rateDate = rateDate;
+        this.usdPerUnit = usdPerUnit;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public LocalDate getRateDate() { return rateDate; }
+    public void setRateDate(LocalDate rateDate) { this.rateDate = rateDate; }
+
+    public BigDecimal getUsdPerUnit() { return usdPerUnit; }
+    public void setUsdPerUnit(BigDecimal usdPerUnit) { this.usdPerUnit = usdPerUnit; }
+}
@@ -0,0 +1,78 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+/**
+ * HealthScore records a user's financial health score at a point in time
+ *
+ * Rows are appended by the batch scoring job, so the table keeps the full
+ * history; the most recent row is the current score.
+ */
+@Entity
+@Table(name = "health_scores", indexes = {
+        @Index(name = "idx_health_scores_user_computed", columnList = "user_id, computed_at")
+})
+public class HealthScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private int score;
+
+    @Column(name = "savings_rate", precision = 7, scale = 4)
+    private BigDecimal savingsRate;
+
+    @Column(name = "net_worth", precision = 12, scale = 2)
+    private BigDecimal netWorth;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    /**
+     * Default constructor for JPA
+     */
+    public HealthScore() {
+        this.computedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Constructor for recording a computed score
+     */
+    public HealthScore(User user, int score, BigDecimal savingsRate, BigDecimal netWorth, LocalDateTime computedAt) {
+        this.user = user;
+        this.score = score;
+        this.savingsRate = savingsRate;
+        this.netWorth = netWorth;
+        this.computedAt = computedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+
+    public BigDecimal getSavingsRate() { return savingsRate; }
+    public void setSavingsRate(BigDecimal savingsRate) { this.savingsRate = savingsRate; }
+
+    public BigDecimal getNetWorth() { return netWorth; }
+    public void setNetWorth(BigDecimal netWorth) { this.netWorth = netWorth; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+
+    @Override
+    public String toString() {
+        return String.format("HealthScore{id=%d, score=%d, computedAt=%s}", id, score, computedAt);
+    }
+}
@@ -0,0 +1,97 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+/**
+ * InsightSnapshot stores the precomputed dashboard insights for a user
+ *
+ * The dashboard serves these stored results instead of calling ChatGPT
+ * on the request path. One snapshot is kept per user and overwritten
+ * each time the insights are regenerated.
+ */
+@Entity
+@Table(name = "insight_snapshots")
+public class InsightSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
+    private User user;
+
+    @Lob
+    @Column(name = "general_insights")
+    private String generalInsights;
+
+    @Lob
+    @Column(name = "spending_analysis")
+    private String spendingAnalysis;
+
+    @Lob
+    @Column(name = "budget_recommendations")
+    private String budgetRecommendations;
+
+    @Column(name = "health_score", nullable = false)
+    private int healthScore;
+
+    // False while the panels are the local rule-based text, true once ChatGPT has refined them
+    @Column(name = "ai_refined", nullable = false)
+    private boolean aiRefined;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    // Incremented on every regeneration; also keys the rendered insight panel cache
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    /**
+     * Default constructor for JPA
+     */
+    public InsightSnapshot() {
+        this.generatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Constructor for creating a snapshot for a user
+     */
+    public InsightSnapshot(User user) {
+        this();
+        this.user = user;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public String getGeneralInsights() { return generalInsights; }
+    public void setGeneralInsights(String generalInsights) { this.generalInsights = generalInsights; }
+
+    public String getSpendingAnalysis() { return spendingAnalysis; }
+    public void setSpendingAnalysis(String spendingAnalysis) { this.spendingAnalysis = spendingAnalysis; }
+
+    public String getBudgetRecommendations() { return budgetRecommendations; }
+    public void setBudgetRecommendations(String budgetRecommendations) { this.budgetRecommendations = budgetRecommendations; }
+
+    public int getHealthScore() { return healthScore; }
+    public void setHealthScore(int healthScore) { this.healthScore = healthScore; }
+
+    public boolean isAiRefined() { return aiRefined; }
+    public void setAiRefined(boolean aiRefined) { this.aiRefined = aiRefined; }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public String toString() {
+        return String.format("InsightSnapshot{id=%d, healthScore=%d, generatedAt=%s}", id, healthScore, generatedAt);
+    }
+}
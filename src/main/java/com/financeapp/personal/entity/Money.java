@@ -0,0 +1,129 @@
+package com.financeapp.personal.entity;
+import java.math.BigDecimal;
+/**
+ * Money is an exact monetary amount stored as a whole number of cents
+ *
+ * Arithmetic is plain long math with overflow checks, so aggregation loops
+ * avoid the BigDecimal allocation on every add. Conversion from BigDecimal
+ * is exact: amounts with fractions of a cent are rejected rather than
+ * silently rounded. Instances are immutable.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Create an amount from a number of cents
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Create an amount from a BigDecimal with at most two decimal places
+     *
+     * @throws ArithmeticException if the value has fractions of a cent or does not fit in a long
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(toCents(amount));
+    }
+
+    /**
+     * Convert a BigDecimal with at most two decimal places to cents
+     *
+     * @throws ArithmeticException if the value has fractions of a cent or does not fit in a long
+     */
+    public static long toCents(BigDecimal amount) {
+        // Moving the point leaves scale 0 for cent amounts, so this avoids the BigInteger of unscaledValue()
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money times(long multiplier) {
+        return ofCents(Math.multiplyExact(cents, multiplier));
+    }
+
+    /**
+     * Divide by a whole number, rounding half up to the nearest cent
+     */
+    public Money dividedBy(long divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = cents / divisor;
+        long remainder = cents % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (cents < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return ofCents(quotient);
+    }
+
+    /**
+     * Ratio of this amount to another, e.g. a savings rate
+     */
+    public double ratioTo(Money other) {
+        return (double) cents / other.cents;
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && cents == other.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Plain decimal form, e.g. "1234.50", matching how BigDecimal amounts print
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
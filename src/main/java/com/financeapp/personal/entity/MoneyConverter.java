@@ -0,0 +1,24 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+/**
+ * Maps Money attributes to DECIMAL(10,2) columns
+ *
+ * Apply with @Convert(converter = MoneyConverter.class) on attributes that
+ * are not aggregated in JPQL; SUM and comparison queries are typed on
+ * BigDecimal columns.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+}
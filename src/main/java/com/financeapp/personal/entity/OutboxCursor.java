@@ -0,0 +1,45 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+/**
+ * OutboxCursor records how far one event consumer has read the outbox
+ *
+ * It moves only after a batch has been handled, so a restart resumes
+ * with the batch that was in progress (at-least-once delivery).
+ */
+@Entity
+@Table(name = "outbox_cursors")
+public class OutboxCursor {
+
+    @Id
+    @Column(name = "consumer_name", length = 100)
+    private String consumerName;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Default constructor for JPA
+     */
+    public OutboxCursor() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public OutboxCursor(String consumerName) {
+        this();
+        this.consumerName = consumerName;
+    }
+
+    // Getters and Setters
+    public String getConsumerName() { return consumerName; }
+    public void setConsumerName(String consumerName) { this.consumerName = consumerName; }
+
+    public long getLastEventId() { return lastEventId; }
+    public void setLastEventId(long lastEventId) { this.lastEventId = lastEventId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
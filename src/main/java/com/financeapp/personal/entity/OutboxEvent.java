@@ -0,0 +1,62 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+/**
+ * OutboxEvent is a domain event recorded in the same database transaction as the change it describes
+ *
+ * Rows are written just before commit, so an event exists exactly when its change
+ * committed. The EventDispatcher delivers them to consumers in id order and deletes
+ * them once every consumer has passed them.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // The event as JSON
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Default constructor for JPA
+     */
+    public OutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public OutboxEvent(String eventType, Long userId, String payload) {
+        this();
+        this.eventType = eventType;
+        this.userId = userId;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,272 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+/**
+ * RecurringSeries tracks one repeating payment on an account (rent, a subscription, salary)
+ *
+ * A series groups transactions with the same normalized description and a
+ * similar amount. Each new occurrence is fed to {@link #record}, which
+ * checks the gap from the previous one against the known periods. Once
+ * enough consecutive gaps fit one period, the series becomes ACTIVE.
+ *
+ * Candidates (one-off or irregular charges) are stored too, so the next
+ * transaction can extend a series without rescanning history.
+ */
+@Entity
+@Table(name = "recurring_series", indexes = {
+        @Index(name = "idx_recurring_series_account_merchant", columnList = "account_id, merchant_key")
+})
+public class RecurringSeries {
+
+    /** Amounts within this share of the running average belong to the same series */
+    private static final double AMOUNT_TOLERANCE = 0.10;
+    private static final long MIN_AMOUNT_TOLERANCE_CENTS = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(name = "merchant_key", nullable = false, length = 100)
+    private String merchantKey;
+
+    @Column(name = "display_name", nullable = false)
+    private String displayName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private Transaction.TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.Category category;
+
+    @Enumerated(EnumType.STRING)
+    private Period period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.CANDIDATE;
+
+    @Column(nullable = false)
+    private int occurrences;
+
+    // Consecutive gaps that matched the current period
+    @Column(nullable = false)
+    private int streak;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "average_amount", precision = 10, scale = 2, nullable = false)
+    private Money averageAmount = Money.ZERO;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "last_amount", precision = 10, scale = 2, nullable = false)
+    private Money lastAmount = Money.ZERO;
+
+    @Column(name = "first_date", nullable = false)
+    private LocalDate firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    @Column(name = "next_expected_date")
+    private LocalDate nextExpectedDate;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * How often a series repeats, and how many days early or late an occurrence may be
+     */
+    public enum Period {
+        WEEKLY("Weekly", 1, 3, 52.0 / 12),
+        BIWEEKLY("Every 2 weeks", 2, 3, 26.0 / 12),
+        MONTHLY("Monthly", 3, 2, 1.0),
+        ANNUAL("Annual", 7, 1, 1.0 / 12);
+
+        private final String displayName;
+        private final int toleranceDays;
+        private final int intervalsToConfirm;
+        private final double perMonth;
+
+        Period(String displayName, int toleranceDays, int intervalsToConfirm, double perMonth) {
+            this.displayName = displayName;
+            this.toleranceDays = toleranceDays;
+            this.intervalsToConfirm = intervalsToConfirm;
+            this.perMonth = perMonth;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public LocalDate next(LocalDate date) {
+            return advance(date, 1);
+        }
+
+        /**
+         * The date {@code periods} occurrences after {@code date}, counted from it rather than
+         * step by step, so a charge on the 31st doesn't drift to the 28th after February
+         */
+        public LocalDate advance(LocalDate date, long periods) {
+            return switch (this) {
+                case WEEKLY -> date.plusWeeks(periods);
+                case BIWEEKLY -> date.plusWeeks(2 * periods);
+                case MONTHLY -> date.plusMonths(periods);
+                case ANNUAL -> date.plusYears(periods);
+            };
+        }
+
+        boolean matches(LocalDate previous, LocalDate date) {
+            return Math.abs(ChronoUnit.DAYS.between(next(previous), date)) <= toleranceDays;
+        }
+
+        /**
+         * The period that a single gap fits, or null
+         */
+        static Period classify(LocalDate previous, LocalDate date) {
+            for (Period period : values()) {
+                if (period.matches(previous, date)) {
+                    return period;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * CANDIDATE until enough regular occurrences have been seen
+     */
+    public enum Status {
+        CANDIDATE, ACTIVE
+    }
+
+    /**
+     * Default constructor for JPA
+     */
+    public RecurringSeries() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Start a series from its first transaction
+     */
+    public RecurringSeries(Account account, String merchantKey, Transaction.TransactionType transactionType) {
+        this();
+        this.account = account;
+        this.merchantKey = merchantKey;
+        this.transactionType = transactionType;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Account getAccount() { return account; }
+    public void setAccount(Account account) { this.account = account; }
+
+    public String getMerchantKey() { return merchantKey; }
+    public String getDisplayName() { return displayName; }
+    public Transaction.TransactionType getTransactionType() { return transactionType; }
+    public Transaction.Category getCategory() { return category; }
+    public Period getPeriod() { return period; }
+    public Status getStatus() { return status; }
+    public int getOccurrences() { return occurrences; }
+    public Money getAverageAmount() { return averageAmount; }
+    public Money getLastAmount() { return lastAmount; }
+    public LocalDate getFirstDate() { return firstDate; }
+    public LocalDate getLastDate() { return lastDate; }
+    public LocalDate getNextExpectedDate() { return nextExpectedDate; }
+    public Long getLastTransactionId() { return lastTransactionId; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    /**
+     * Whether an amount is close enough to this series' running average
+     */
+    public boolean amountMatches(Money amount) {
+        long tolerance = Math.max(MIN_AMOUNT_TOLERANCE_CENTS, (long) (averageAmount.getCents() * AMOUNT_TOLERANCE));
+        return Math.abs(amount.getCents() - averageAmount.getCents()) <= tolerance;
+    }
+
+    /**
+     * Add the next occurrence, in date order
+     *
+     * @return false if the transaction is on the same day as the last one, so it
+     *         cannot be the next occurrence of this series
+     */
+    public boolean record(Long transactionId, LocalDate date, Money amount, String description,
+                          Transaction.Category category) {
+        if (occurrences > 0) {
+            if (!date.isAfter(lastDate)) {
+                return false;
+            }
+
+            // An occurrence one period late still continues the series (a skipped month)
+            boolean continues = period != null
+                    && (period.matches(lastDate, date) || period.matches(period.next(lastDate), date));
+            if (continues) {
+                streak++;
+            } else {
+                period = Period.classify(lastDate, date);
+                streak = period == null ? 0 : 1;
+                status = Status.CANDIDATE;
+            }
+        } else {
+            firstDate = date;
+        }
+
+        occurrences++;
+        // Running mean in cents: avg += (x - avg) / n
+        averageAmount = averageAmount.plus(amount.minus(averageAmount).dividedBy(occurrences));
+        lastAmount = amount;
+        lastDate = date;
+        lastTransactionId = transactionId;
+        displayName = description;
+        this.category = category;
+
+        if (period != null && streak >= period.intervalsToConfirm) {
+            status = Status.ACTIVE;
+        }
+        nextExpectedDate = period == null ? null : period.next(date);
+        updatedAt = LocalDateTime.now();
+        return true;
+    }
+
+    /**
+     * Active and not overdue by more than one period
+     */
+    public boolean isCurrent(LocalDate today) {
+        return status == Status.ACTIVE && nextExpectedDate != null
+                && !period.next(nextExpectedDate).plusDays(period.toleranceDays).isBefore(today);
+    }
+
+    /**
+     * Average amount spread over a month, e.g. weekly amounts times 52/12
+     */
+    public Money getMonthlyEquivalent() {
+        if (period == null) {
+            return Money.ZERO;
+        }
+        return Money.ofCents(Math.round(averageAmount.getCents() * period.perMonth));
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringSeries{" +
+                "id=" + id +
+                ", merchantKey='" + merchantKey + '\'' +
+                ", period=" + period +
+                ", status=" + status +
+                ", occurrences=" + occurrences +
+                ", averageAmount=" + averageAmount +
+                '}';
+    }
+}
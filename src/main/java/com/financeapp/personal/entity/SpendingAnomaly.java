@@ -0,0 +1,122 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+/**
+ * SpendingAnomaly records an expense that was unusually large when it was posted
+ *
+ * The score is measured against the user's running statistics for the
+ * transaction's category or merchant, whichever deviated most.
+ */
+@Entity
+@Table(name = "spending_anomalies", indexes = {
+        @Index(name = "idx_spending_anomalies_user_date", columnList = "user_id, transaction_date"),
+        @Index(name = "idx_spending_anomalies_transaction", columnList = "transaction_id")
+})
+public class SpendingAnomaly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.Category category;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 10, scale = 2, nullable = false)
+    private Money amount;
+
+    // Mean of the statistic the transaction was compared with
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "usual_amount", precision = 10, scale = 2, nullable = false)
+    private Money usualAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SpendingStat.Scope scope;
+
+    // The category name or merchant key the transaction was compared with
+    @Column(name = "compared_with", nullable = false, length = 100)
+    private String comparedWith;
+
+    @Column(name = "z_score", nullable = false)
+    private double zScore;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+
+    /**
+     * Default constructor for JPA
+     */
+    public SpendingAnomaly() {
+        this.detectedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Constructor for flagging a transaction against the statistic it deviated from
+     */
+    public SpendingAnomaly(User user, Long transactionId, String description, Transaction.Category category,
+                           Money amount, LocalDate transactionDate, SpendingStat stat, double zScore) {
+        this();
+        this.user = user;
+        this.transactionId = transactionId;
+        this.description = description;
+        this.category = category;
+        this.amount = amount;
+        this.transactionDate = transactionDate;
+        this.usualAmount = stat.getMean();
+        this.scope = stat.getScope();
+        this.comparedWith = stat.getStatKey();
+        this.zScore = zScore;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Long getTransactionId() { return transactionId; }
+    public String getDescription() { return description; }
+    public Transaction.Category getCategory() { return category; }
+    public Money getAmount() { return amount; }
+    public Money getUsualAmount() { return usualAmount; }
+    public SpendingStat.Scope getScope() { return scope; }
+    public String getComparedWith() { return comparedWith; }
+    public double getZScore() { return zScore; }
+    public LocalDate getTransactionDate() { return transactionDate; }
+    public LocalDateTime getDetectedAt() { return detectedAt; }
+
+    /**
+     * Human-readable reason, e.g. "4.2σ above your usual Groceries charge of $85.10"
+     */
+    public String getExplanation() {
+        String usualFor = scope == SpendingStat.Scope.CATEGORY ? category.getDisplayName() : comparedWith;
+        return String.format("%.1fσ above your usual %s charge of $%s", zScore, usualFor, usualAmount);
+    }
+
+    @Override
+    public String toString() {
+        return "SpendingAnomaly{" +
+                "transactionId=" + transactionId +
+                ", amount=" + amount +
+                ", zScore=" + zScore +
+                ", comparedWith='" + comparedWith + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,169 @@
+package com.financeapp.personal.entity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+/**
+ * SpendingStat keeps running statistics of a user's expenses in one category or at one merchant
+ *
+ * The mean and variance are maintained with Welford's algorithm, so each
+ * posted transaction updates a row in O(1) and history is never re-read:
+ *   n += 1;  delta = x - mean;  mean += delta / n;  m2 += delta * (x - mean)
+ * Removing an amount (an edited transaction) runs the same update backwards.
+ * Amounts are tracked in cents.
+ *
+ * Updates are not idempotent, so each statistic remembers the outbox id of the
+ * last event applied to it; a redelivered event is recognized and skipped.
+ */
+@Entity
+@Table(name = "spending_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_spending_stats_user_scope_key", columnNames = {"user_id", "scope", "stat_key"})
+})
+public class SpendingStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Scope scope;
+
+    // Category name, or normalized merchant key
+    @Column(name = "stat_key", nullable = false, length = 100)
+    private String statKey;
+
+    @Column(name = "sample_count", nullable = false)
+    private long count;
+
+    @Column(name = "mean_cents", nullable = false)
+    private double meanCents;
+
+    // Sum of squared differences from the mean
+    @Column(name = "m2", nullable = false)
+    private double m2;
+
+    // Outbox id of the last event included; 0 when none has been
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * What a statistic is grouped by
+     */
+    public enum Scope {
+        CATEGORY, MERCHANT
+    }
+
+    /**
+     * Default constructor for JPA
+     */
+    public SpendingStat() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Constructor for an empty statistic
+     */
+    public SpendingStat(User user, Scope scope, String statKey) {
+        this();
+        this.user = user;
+        this.scope = scope;
+        this.statKey = statKey;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public Scope getScope() { return scope; }
+    public String getStatKey() { return statKey; }
+    public long getCount() { return count; }
+    public double getMeanCents() { return meanCents; }
+    public long getLastEventId() { return lastEventId; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    /**
+     * Whether the outbox event is already included; an id of 0 means an event outside the outbox
+     */
+    public boolean hasApplied(long eventId) {
+        return eventId != 0 && eventId <= lastEventId;
+    }
+
+    /**
+     * Record that everything up to the outbox event is included
+     */
+    public void markApplied(long eventId) {
+        lastEventId = Math.max(lastEventId, eventId);
+    }
+
+    /**
+     * Include one amount
+     */
+    public void add(Money amount) {
+        double x = amount.getCents();
+        count++;
+        double delta = x - meanCents;
+        meanCents += delta / count;
+        m2 += delta * (x - meanCents);
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Exclude an amount that was previously added
+     */
+    public void remove(Money amount) {
+        if (count <= 1) {
+            count = 0;
+            meanCents = 0;
+            m2 = 0;
+        } else {
+            double x = amount.getCents();
+            double previousMean = (count * meanCents - x) / (count - 1);
+            m2 -= (x - meanCents) * (x - previousMean);
+            meanCents = previousMean;
+            count--;
+            // Rounding can leave a tiny negative remainder
+            m2 = Math.max(0, m2);
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Sample standard deviation in cents
+     */
+    public double getStandardDeviationCents() {
+        return count < 2 ? 0 : Math.sqrt(m2 / (count - 1));
+    }
+
+    public Money getMean() {
+        return Money.ofCents(Math.round(meanCents));
+    }
+
+    /**
+     * Standard deviations above the mean, with the deviation floored at {@code minDeviationCents}
+     * so that near-constant amounts (a fixed subscription) don't turn a small change into a huge score
+     */
+    public double zScore(Money amount, double minDeviationCents) {
+        double deviation = Math.max(getStandardDeviationCents(), minDeviationCents);
+        return (amount.getCents() - meanCents) / deviation;
+    }
+
+    @Override
+    public String toString() {
+        return "SpendingStat{" +
+                "scope=" + scope +
+                ", statKey='" + statKey + '\'' +
+                ", count=" + count +
+                ", meanCents=" + meanCents +
+                ", stdDevCents=" + getStandardDeviationCents() +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.financeapp.personal.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
@@ -16,7 +17,10 @@ import java.time.LocalDateTime;
  * - Validation rules
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        indexes = @Index(name = "idx_transactions_dedup_hash", columnList = "dedup_hash"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_transactions_account_idempotency_key",
+                columnNames = {"idempotency_key", "account_id"}))
 public class Transaction {
 
     @Id
@@ -29,6 +33,7 @@ public class Transaction {
 
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 8, fraction = 2, message = "Amount must be in whole cents, at most 99999999.99")
     @Column(precision = 10, scale = 2, nullable = false)
     private BigDecimal amount;
 
@@ -49,6 +54,14 @@ public class Transaction {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Client-supplied key from bulk ingestion; a retried row with the same key is not posted twice
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // Fingerprint of account, date, signed amount and normalized description, for duplicate detection
+    @Column(name = "dedup_hash", nullable = false)
+    private long dedupHash;
+
     // Many transactions belong to one account
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
@@ -162,6 +175,12 @@ public class Transaction {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public long getDedupHash() { return dedupHash; }
+    public void setDedupHash(long dedupHash) { this.dedupHash = dedupHash; }
+
     public Account getAccount() { return account; }
     public void setAccount(Account account) { this.account = account; }
 
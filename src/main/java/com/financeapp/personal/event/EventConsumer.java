@@ -0,0 +1,41 @@
+package com.financeapp.personal.event;
+import java.util.List;
+/**
+ * EventConsumer keeps derived data current from outbox events, off the write path
+ *
+ * - Each consumer runs on its own thread and receives events in micro-batches, in commit order
+ * - Delivery is at least once: a batch that throws, or that a restart interrupts, is delivered
+ *   again, so handling an event twice must be harmless
+ * - Consumers are independent; a slow one delays only itself
+ */
+public interface EventConsumer {
+
+    /**
+     * Stable name; keys this consumer's position in the outbox
+     */
+    String getConsumerName();
+
+    /**
+     * Handle a batch; throwing leaves the consumer's position unchanged and retries the batch
+     */
+    void consume(List<FinanceEvent> events);
+
+    /**
+     * Handle a batch along with each event's outbox id
+     *
+     * Ids increase in delivery order and a redelivered event keeps its id, so a consumer that
+     * adds to what it keeps (counts, running statistics) overrides this, stores the last id it
+     * applied next to that data and skips events at or below it.
+     */
+    default void consume(List<FinanceEvent> events, long[] eventIds) {
+        consume(events);
+    }
+
+    /**
+     * Whether pages or JSON responses show what this consumer maintains, so their
+     * data versions must move once a batch is applied
+     */
+    default boolean changesViews() {
+        return false;
+    }
+}
@@ -0,0 +1,314 @@
+package com.financeapp.personal.event;
+import com.financeapp.personal.entity.OutboxCursor;
+import com.financeapp.personal.entity.OutboxEvent;
+import com.financeapp.personal.repository.OutboxCursorRepository;
+import com.financeapp.personal.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * EventDispatcher delivers outbox events to every EventConsumer, after commit and off the write path
+ *
+ * - One thread per consumer reads the outbox from its own cursor in micro-batches
+ * - The cursor moves in the database only after the consumer handled the batch (at least once)
+ * - Commits wake the threads; a poll interval covers anything a wake-up missed
+ * - Ids are taken just before commit, so a lower id can still be in flight; a consumer stops
+ *   at such a gap until it fills or is old enough to be a rolled-back transaction
+ * - Events every consumer has passed are deleted by a periodic cleanup
+ */
+@Component
+public class EventDispatcher {
+
+    private static final long STOP_TIMEOUT_MS = 5000;
+
+    private final List<EventConsumer> consumers;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxCursorRepository outboxCursorRepository;
+    private final OutboxCodec codec;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate primaryTransaction;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final Duration gapTimeout;
+    private final long retryBackoffMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUps = lock.newCondition();
+    private long wakeUpCount; // Guarded by lock
+
+    private final List<ConsumerWorker> workers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * How far behind a consumer is
+     *
+     * @param pendingEvents          events committed but not yet handled
+     * @param oldestPendingAgeMillis age of the oldest unhandled event, 0 when caught up
+     */
+    public record ConsumerLag(String consumerName,
+                              long lastDeliveredEventId,
+                              long pendingEvents,
+                              long oldestPendingAgeMillis,
+                              long deliveredEvents,
+                              long failedBatches,
+                              int lastBatchSize,
+                              long lastBatchMillis) {
+    }
+
+    @Autowired
+    public EventDispatcher(List<EventConsumer> consumers,
+                           OutboxEventRepository outboxEventRepository,
+                           OutboxCursorRepository outboxCursorRepository,
+                           OutboxCodec codec,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${outbox.batch-size:200}") int batchSize,
+                           @Value("${outbox.poll-interval-ms:1000}") long pollIntervalMillis,
+                           @Value("${outbox.gap-timeout-ms:5000}") long gapTimeoutMillis,
+                           @Value("${outbox.retry-backoff-ms:1000}") long retryBackoffMillis) {
+        this.consumers = consumers;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxCursorRepository = outboxCursorRepository;
+        this.codec = codec;
+        this.eventPublisher = eventPublisher;
+        // Not read-only: a lagging replica would hide fresh events and widen the gaps
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis);
+        this.gapTimeout = Duration.ofMillis(gapTimeoutMillis);
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (EventConsumer consumer : consumers) {
+            OutboxCursor cursor = primaryTransaction.execute(status -> outboxCursorRepository
+                    .findById(consumer.getConsumerName())
+                    .orElseGet(() -> outboxCursorRepository.save(new OutboxCursor(consumer.getConsumerName()))));
+            ConsumerWorker worker = new ConsumerWorker(consumer, cursor.getLastEventId());
+            Thread thread = new Thread(worker, "event-consumer-" + consumer.getConsumerName());
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+    }
+
+    /**
+     * Let consumer threads look for new events now
+     */
+    public void wakeUp() {
+        lock.lock();
+        try {
+            wakeUpCount++;
+            wakeUps.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<ConsumerLag> getLag() {
+        long latestId = primaryTransaction.execute(status -> outboxEventRepository.findMaxId());
+        LocalDateTime now = LocalDateTime.now();
+        List<ConsumerLag> lag = new ArrayList<>();
+        for (ConsumerWorker worker : workers) {
+            long cursor = worker.cursor;
+            long oldestAgeMillis = cursor >= latestId ? 0 : primaryTransaction.execute(status ->
+                    outboxEventRepository.findFirstByIdGreaterThanOrderByIdAsc(cursor)
+                            .map(event -> Duration.between(event.getCreatedAt(), now).toMillis())
+                            .orElse(0L));
+            lag.add(new ConsumerLag(worker.consumer.getConsumerName(), cursor, Math.max(0, latestId - cursor),
+                    oldestAgeMillis, worker.delivered.get(), worker.failedBatches.get(), worker.lastBatchSize,
+                    worker.lastBatchMillis));
+        }
+        return lag;
+    }
+
+    /**
+     * Wait until every consumer has handled every event committed so far
+     *
+     * @return false if the timeout passed first
+     */
+    public boolean awaitCaughtUp(Duration timeout) throws InterruptedException {
+        long latestId = primaryTransaction.execute(status -> outboxEventRepository.findMaxId());
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (workers.stream().anyMatch(worker -> worker.cursor < latestId)) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            wakeUp();
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * Delete events that every consumer has handled
+     */
+    @Scheduled(cron = "${outbox.cleanup-cron:0 */10 * * * *}")
+    public void deleteDeliveredEvents() {
+        if (workers.isEmpty()) {
+            return;
+        }
+        long handledByAll = workers.stream().mapToLong(worker -> worker.cursor).min().orElse(0);
+        try {
+            primaryTransaction.executeWithoutResult(status -> outboxEventRepository.deleteUpTo(handledByAll));
+        } catch (Exception e) {
+            System.err.println("Error deleting delivered outbox events: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (ConsumerWorker worker : workers) {
+            worker.thread.interrupt();
+        }
+        for (ConsumerWorker worker : workers) {
+            worker.thread.join(STOP_TIMEOUT_MS);
+        }
+    }
+
+    /**
+     * The delivery loop for one consumer
+     */
+    private final class ConsumerWorker implements Runnable {
+
+        final EventConsumer consumer;
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong failedBatches = new AtomicLong();
+        Thread thread;
+        volatile long cursor;
+        volatile int lastBatchSize;
+        volatile long lastBatchMillis;
+
+        ConsumerWorker(EventConsumer consumer, long cursor) {
+            this.consumer = consumer;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    long wakeUpsSeen = currentWakeUps();
+                    List<OutboxEvent> batch = primaryTransaction.execute(status -> outboxEventRepository
+                            .findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, batchSize)));
+                    List<OutboxEvent> ready = untilGap(batch);
+                    if (ready.isEmpty()) {
+                        awaitWakeUp(wakeUpsSeen);
+                        continue;
+                    }
+                    deliver(ready);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    failedBatches.incrementAndGet();
+                    System.err.println("Event consumer " + consumer.getConsumerName() + " failed, retrying: " + e.getMessage());
+                    try {
+                        Thread.sleep(retryBackoffMillis);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void deliver(List<OutboxEvent> ready) {
+            List<FinanceEvent> events = new ArrayList<>(ready.size());
+            long[] eventIds = new long[ready.size()];
+            Set<Long> userIds = new LinkedHashSet<>();
+            for (OutboxEvent row : ready) {
+                try {
+                    events.add(codec.decode(row.getEventType(), row.getPayload()));
+                    eventIds[events.size() - 1] = row.getId();
+                    userIds.add(row.getUserId());
+                } catch (IllegalArgumentException e) {
+                    // Retrying cannot fix a row that does not parse; skip it rather than block the consumer
+                    System.err.println("Skipping outbox event " + row.getId() + ": " + e.getMessage());
+                }
+            }
+
+            long start = System.nanoTime();
+            if (!events.isEmpty()) {
+                consumer.consume(events, Arrays.copyOf(eventIds, events.size()));
+            }
+            long lastId = ready.get(ready.size() - 1).getId();
+            primaryTransaction.executeWithoutResult(status -> {
+                OutboxCursor saved = outboxCursorRepository.findById(consumer.getConsumerName())
+                        .orElseGet(() -> new OutboxCursor(consumer.getConsumerName()));
+                saved.setLastEventId(lastId);
+                saved.setUpdatedAt(LocalDateTime.now());
+                outboxCursorRepository.save(saved);
+            });
+            cursor = lastId;
+            delivered.addAndGet(events.size());
+            lastBatchSize = events.size();
+            lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            if (consumer.changesViews() && !userIds.isEmpty()) {
+                eventPublisher.publishEvent(new EventsDeliveredEvent(consumer.getConsumerName(), userIds));
+            }
+        }
+
+        /**
+         * The events up to the first id that may still commit
+         */
+        private List<OutboxEvent> untilGap(List<OutboxEvent> batch) {
+            LocalDateTime settledBefore = LocalDateTime.now().minus(gapTimeout);
+            long expectedId = cursor + 1;
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxEvent event = batch.get(i);
+                if (event.getId() != expectedId && event.getCreatedAt().isAfter(settledBefore)) {
+                    return batch.subList(0, i);
+                }
+                expectedId = event.getId() + 1;
+            }
+            return batch;
+        }
+    }
+
+    private long currentWakeUps() {
+        lock.lock();
+        try {
+            return wakeUpCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitWakeUp(long wakeUpsSeen) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = pollIntervalNanos;
+            while (running && wakeUpCount == wakeUpsSeen && remaining > 0) {
+                remaining = wakeUps.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
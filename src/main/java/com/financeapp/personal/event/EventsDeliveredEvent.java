@@ -0,0 +1,10 @@
+package com.financeapp.personal.event;
+import java.util.Set;
+/**
+ * Published after a consumer that changes views has applied a batch
+ *
+ * Derived data lands after the write committed, so cached responses built
+ * in between are stale now.
+ */
+public record EventsDeliveredEvent(String consumerName, Set<Long> userIds) {
+}
@@ -0,0 +1,14 @@
+package com.financeapp.personal.event;
+/**
+ * Marker for events that go through the transactional outbox
+ *
+ * Publishing one records it in the outbox inside the publishing transaction;
+ * after commit the EventDispatcher delivers it to every EventConsumer.
+ */
+public interface FinanceEvent {
+
+    /**
+     * The user whose data changed
+     */
+    Long userId();
+}
@@ -0,0 +1,9 @@
+package com.financeapp.personal.event;
+/**
+ * Published whenever a user's accounts, transactions or budgets change
+ *
+ * Listeners use it to refresh data derived from the user's finances,
+ * such as precomputed dashboard insights.
+ */
+public record FinancialDataChangedEvent(Long userId) implements FinanceEvent {
+}
@@ -0,0 +1,60 @@
+package com.financeapp.personal.event;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+/**
+ * OutboxCodec turns outbox events into JSON and back
+ *
+ * Only the event types listed here can be stored or read, by a stable type
+ * name rather than a class name, so renaming a record does not strand rows.
+ */
+@Component
+public class OutboxCodec {
+
+    private static final Map<String, Class<? extends FinanceEvent>> TYPES = Map.of(
+            "TransactionPosted", TransactionPostedEvent.class,
+            "TransactionEdited", TransactionEditedEvent.class,
+            "TransactionsImported", TransactionsImportedEvent.class,
+            "FinancialDataChanged", FinancialDataChangedEvent.class);
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String typeOf(FinanceEvent event) {
+        for (Map.Entry<String, Class<? extends FinanceEvent>> type : TYPES.entrySet()) {
+            if (type.getValue() == event.getClass()) {
+                return type.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Not an outbox event type: " + event.getClass().getName());
+    }
+
+    public String encode(FinanceEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown type or a payload that no longer parses
+     */
+    public FinanceEvent decode(String eventType, String payload) {
+        Class<? extends FinanceEvent> type = TYPES.get(eventType);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown outbox event type: " + eventType);
+        }
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable " + eventType + " payload: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.financeapp.personal.event;
+import com.financeapp.personal.entity.OutboxEvent;
+import com.financeapp.personal.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+/**
+ * OutboxRecorder writes published FinanceEvents to the outbox table
+ *
+ * - Before commit, inside the publishing transaction: the event commits or rolls back with its change
+ * - After commit it wakes the dispatcher, so delivery does not wait for the next poll
+ * The write path pays for one insert per event, however many consumers there are.
+ */
+@Component
+public class OutboxRecorder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxCodec codec;
+    private final EventDispatcher eventDispatcher;
+
+    @Autowired
+    public OutboxRecorder(OutboxEventRepository outboxEventRepository, OutboxCodec codec, EventDispatcher eventDispatcher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.codec = codec;
+        this.eventDispatcher = eventDispatcher;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void record(FinanceEvent event) {
+        outboxEventRepository.save(new OutboxEvent(codec.typeOf(event), event.userId(), codec.encode(event)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(FinanceEvent event) {
+        eventDispatcher.wakeUp();
+    }
+}
@@ -0,0 +1,43 @@
+package com.financeapp.personal.event;
+import com.financeapp.personal.entity.Transaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * Published after an existing transaction is edited
+ *
+ * Carries the new values, so listeners can replace what they derived
+ * from the old ones, and the previous description, amount, type and
+ * category for listeners that need to undo what they learned from them.
+ */
+public record TransactionEditedEvent(Long transactionId,
+                                     Long accountId,
+                                     Long userId,
+                                     BigDecimal amount,
+                                     Transaction.TransactionType transactionType,
+                                     Transaction.Category category,
+                                     LocalDate transactionDate,
+                                     String description,
+                                     String previousDescription,
+                                     BigDecimal previousAmount,
+                                     Transaction.TransactionType previousTransactionType,
+                                     Transaction.Category previousCategory) implements FinanceEvent {
+
+    public static TransactionEditedEvent of(Transaction transaction, String previousDescription,
+                                            BigDecimal previousAmount,
+                                            Transaction.TransactionType previousTransactionType,
+                                            Transaction.Category previousCategory) {
+        return new TransactionEditedEvent(
+                transaction.getId(),
+                transaction.getAccount().getId(),
+                transaction.getAccount().getUser().getId(),
+                transaction.getAmount(),
+                transaction.getTransactionType(),
+                transaction.getCategory(),
+                transaction.getTransactionDate(),
+                transaction.getDescription(),
+                previousDescription,
+                previousAmount,
+                previousTransactionType,
+                previousCategory);
+    }
+}
@@ -0,0 +1,31 @@
+package com.financeapp.personal.event;
+import com.financeapp.personal.entity.Transaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * Published after a transaction is posted to an account
+ *
+ * Carries the posted values rather than the entity, so listeners can keep
+ * derived data (analytics, indexes) current without reloading anything.
+ */
+public record TransactionPostedEvent(Long transactionId,
+                                     Long accountId,
+                                     Long userId,
+                                     BigDecimal amount,
+                                     Transaction.TransactionType transactionType,
+                                     Transaction.Category category,
+                                     LocalDate transactionDate,
+                                     String description) implements FinanceEvent {
+
+    public static TransactionPostedEvent of(Transaction transaction) {
+        return new TransactionPostedEvent(
+                transaction.getId(),
+                transaction.getAccount().getId(),
+                transaction.getAccount().getUser().getId(),
+                transaction.getAmount(),
+                transaction.getTransactionType(),
+                transaction.getCategory(),
+                transaction.getTransactionDate(),
+                transaction.getDescription());
+    }
+}
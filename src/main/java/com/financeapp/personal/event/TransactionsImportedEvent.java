@@ -0,0 +1,11 @@
+package com.financeapp.personal.event;
+import java.util.List;
+/**
+ * Published once after a bulk import commits, instead of one TransactionPostedEvent per row
+ *
+ * Listeners that keep derived data per transaction can apply the whole batch
+ * in one pass (one lock, one database transaction, one rescan per account)
+ * rather than thousands of separate updates.
+ */
+public record TransactionsImportedEvent(Long userId, List<TransactionPostedEvent> transactions) implements FinanceEvent {
+}
@@ -0,0 +1,47 @@
+package com.financeapp.personal.forecast;
+import com.financeapp.personal.entity.Account;
+/**
+ * One account's projected end-of-day balances
+ *
+ * Index 0 is the current balance; index i is the balance at the end of the
+ * i-th day after the forecast's start date.
+ */
+public record AccountForecast(Long accountId,
+                              String accountName,
+                              Account.AccountType accountType,
+                              long[] dailyBalanceCents) {
+
+    /**
+     * Whether a negative balance on this account is an overdraft; a credit card's sign means something else
+     */
+    public boolean canOverdraw() {
+        return accountType != Account.AccountType.CREDIT_CARD;
+    }
+
+    /**
+     * First day index in [0, endExclusive) with a negative balance, or -1
+     */
+    public int firstNegativeDay(int endExclusive) {
+        int end = Math.min(endExclusive, dailyBalanceCents.length);
+        for (int day = 0; day < end; day++) {
+            if (dailyBalanceCents[day] < 0) {
+                return day;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Day index in [0, endExclusive) with the lowest balance
+     */
+    public int lowestDay(int endExclusive) {
+        int end = Math.min(endExclusive, dailyBalanceCents.length);
+        int lowest = 0;
+        for (int day = 1; day < end; day++) {
+            if (dailyBalanceCents[day] < dailyBalanceCents[lowest]) {
+                lowest = day;
+            }
+        }
+        return lowest;
+    }
+}
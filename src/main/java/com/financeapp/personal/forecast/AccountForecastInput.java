@@ -0,0 +1,29 @@
+package com.financeapp.personal.forecast;
+import com.financeapp.personal.entity.Account;
+import java.util.List;
+/**
+ * Everything needed to project one account's balance
+ *
+ * @param balanceCents             current balance
+ * @param recurringFlows           flows placed on their expected dates
+ * @param seasonalNetCentsByMonth  typical non-recurring income minus spending for each calendar
+ *                                 month (index 0 is January), spread evenly over the month's days
+ * @param reportingRate            reporting currency per unit of the account's currency, applied
+ *                                 when balances are added into net worth
+ */
+public record AccountForecastInput(Long accountId,
+                                   String accountName,
+                                   Account.AccountType accountType,
+                                   long balanceCents,
+                                   List<RecurringFlow> recurringFlows,
+                                   long[] seasonalNetCentsByMonth,
+                                   double reportingRate) {
+
+    /**
+     * An account in the reporting currency
+     */
+    public AccountForecastInput(Long accountId, String accountName, Account.AccountType accountType, long balanceCents,
+                                List<RecurringFlow> recurringFlows, long[] seasonalNetCentsByMonth) {
+        this(accountId, accountName, accountType, balanceCents, recurringFlows, seasonalNetCentsByMonth, 1.0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.financeapp.personal.forecast;
+import java.time.LocalDate;
+import java.util.List;
+/**
+ * Projected balances of all of a user's accounts and the resulting net worth curve
+ *
+ * @param netWorthCents net worth at the end of each day, indexed like {@link AccountForecast#dailyBalanceCents()}
+ */
+public record CashFlowForecast(LocalDate startDate,
+                               int days,
+                               List<AccountForecast> accounts,
+                               long[] netWorthCents) {
+
+    public LocalDate dateOf(int day) {
+        return startDate.plusDays(day);
+    }
+
+    /**
+     * Index of a date in the daily arrays, clamped to the forecast
+     */
+    public int dayOf(LocalDate date) {
+        long day = date.toEpochDay() - startDate.toEpochDay();
+        return (int) Math.max(0, Math.min(days + 1L, day));
+    }
+}
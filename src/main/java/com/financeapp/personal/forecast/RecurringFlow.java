@@ -0,0 +1,11 @@
+package com.financeapp.personal.forecast;
+import com.financeapp.personal.entity.RecurringSeries;
+import java.time.LocalDate;
+/**
+ * A recurring payment or income expected on an account
+ *
+ * @param nextDate    the next expected date; it may already be past if the flow is late
+ * @param signedCents positive for income, negative for payments
+ */
+public record RecurringFlow(LocalDate nextDate, RecurringSeries.Period period, long signedCents) {
+}
@@ -0,0 +1,13 @@
+package com.financeapp.personal.forecast;
+/**
+ * What a savings goal simulation samples from, in the reporting currency
+ *
+ * @param startCents              today's net worth
+ * @param incomeCentsByMonth      total income of each month of history
+ * @param spendingCentsByCategory for each spending category, its total in each month of history
+ *                                (zero for months without spending in it)
+ */
+public record SavingsGoalInput(long startCents,
+                               long[] incomeCentsByMonth,
+                               long[][] spendingCentsByCategory) {
+}
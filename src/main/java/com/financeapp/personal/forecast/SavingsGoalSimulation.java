@@ -0,0 +1,28 @@
+package com.financeapp.personal.forecast;
+import java.time.LocalDate;
+/**
+ * Simulated net worth of a user's savings trajectories, month by month
+ *
+ * Index 0 of the monthly arrays is today; index m is m months later.
+ *
+ * @param percentileCents net worth at each of {@link SavingsGoalSimulator#PERCENTILES}, per month
+ * @param goalProbability share of trajectories at or above the goal, per month
+ */
+public record SavingsGoalSimulation(LocalDate startDate,
+                                    int months,
+                                    int trajectories,
+                                    long goalCents,
+                                    long[][] percentileCents,
+                                    double[] goalProbability) {
+
+    public LocalDate dateOf(int month) {
+        return startDate.plusMonths(month);
+    }
+
+    /**
+     * Chance of having reached the goal by the last month
+     */
+    public double probability() {
+        return goalProbability[months];
+    }
+}
@@ -0,0 +1,182 @@
+package com.financeapp.personal.fx;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+/**
+ * FxRateSnapshot is an immutable table of daily conversion rates into the reporting currency
+ *
+ * Rates sit in one primitive array indexed by currency and day, so converting
+ * a row is an array read and a multiply:
+ * - Index 0 is always the reporting currency (rate 1, never multiplied)
+ * - Every day between the first and last known rate has a value; a currency's
+ *   rate holds until its next dated rate, and its first rate also covers earlier days
+ * - Days before the table use the first day, days after it use the last day
+ *
+ * Callers resolve currency codes to indexes once per query, not per row.
+ * A new snapshot replaces the old one when rates change; readers keep
+ * whichever snapshot they started with.
+ */
+public final class FxRateSnapshot {
+
+    /** Index of the reporting currency */
+    public static final int REPORTING = 0;
+
+    private final String reportingCurrency;
+    private final List<String> currencies;
+    private final Map<String, Integer> indexes;
+    private final int firstEpochDay;
+    private final int days;
+    // rates[currency * days + day]: reporting currency units per unit
+    private final double[] rates;
+
+    private FxRateSnapshot(String reportingCurrency, List<String> currencies, int firstEpochDay, int days, double[] rates) {
+        this.reportingCurrency = reportingCurrency;
+        this.currencies = Collections.unmodifiableList(currencies);
+        this.indexes = new HashMap<>();
+        for (int c = 0; c < currencies.size(); c++) {
+            indexes.put(currencies.get(c), c);
+        }
+        this.firstEpochDay = firstEpochDay;
+        this.days = days;
+        this.rates = rates;
+    }
+
+    /**
+     * Build a snapshot from dated rates quoted in a common currency
+     *
+     * @param quoteCurrency  the currency the rates are quoted in; its own rate is 1
+     * @param ratesByCurrency quote currency units per unit, by currency and date
+     * @throws IllegalArgumentException if the reporting currency has no rates
+     */
+    public static FxRateSnapshot build(String reportingCurrency, String quoteCurrency,
+                                       Map<String, NavigableMap<LocalDate, Double>> ratesByCurrency) {
+        if (!reportingCurrency.equals(quoteCurrency) && !hasRates(ratesByCurrency, reportingCurrency)) {
+            throw new IllegalArgumentException("No FX rates for reporting currency " + reportingCurrency);
+        }
+
+        List<String> currencies = new ArrayList<>();
+        currencies.add(reportingCurrency);
+        if (!reportingCurrency.equals(quoteCurrency)) {
+            currencies.add(quoteCurrency);
+        }
+        ratesByCurrency.keySet().stream()
+                .filter(currency -> !currencies.contains(currency) && hasRates(ratesByCurrency, currency))
+                .sorted()
+                .forEach(currencies::add);
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (NavigableMap<LocalDate, Double> dated : ratesByCurrency.values()) {
+            if (!dated.isEmpty()) {
+                first = Math.min(first, dated.firstKey().toEpochDay());
+                last = Math.max(last, dated.lastKey().toEpochDay());
+            }
+        }
+        if (first == Long.MAX_VALUE) {
+            first = last = LocalDate.now().toEpochDay();
+        }
+        int firstEpochDay = Math.toIntExact(first);
+        int days = Math.toIntExact(last - first + 1);
+
+        // Quote currency per unit for every currency and day, carried forward between dated rates
+        double[] quoted = new double[currencies.size() * days];
+        for (int c = 0; c < currencies.size(); c++) {
+            NavigableMap<LocalDate, Double> dated = ratesByCurrency.get(currencies.get(c));
+            if (currencies.get(c).equals(quoteCurrency) || dated == null || dated.isEmpty()) {
+                Arrays.fill(quoted, c * days, (c + 1) * days, 1.0);
+                continue;
+            }
+            double rate = dated.firstEntry().getValue();
+            LocalDate day = LocalDate.ofEpochDay(firstEpochDay);
+            for (int d = 0; d < days; d++, day = day.plusDays(1)) {
+                Double dayRate = dated.get(day);
+                if (dayRate != null) {
+                    rate = dayRate;
+                }
+                quoted[c * days + d] = rate;
+            }
+        }
+
+        // Cross through the quote currency into the reporting currency
+        double[] rates = new double[quoted.length];
+        for (int c = 0; c < currencies.size(); c++) {
+            for (int d = 0; d < days; d++) {
+                rates[c * days + d] = c == REPORTING ? 1.0 : quoted[c * days + d] / quoted[REPORTING * days + d];
+            }
+        }
+        return new FxRateSnapshot(reportingCurrency, currencies, firstEpochDay, days, rates);
+    }
+
+    /**
+     * A snapshot that knows only the reporting currency
+     */
+    public static FxRateSnapshot reportingOnly(String reportingCurrency) {
+        return new FxRateSnapshot(reportingCurrency, List.of(reportingCurrency),
+                (int) LocalDate.now().toEpochDay(), 1, new double[]{1.0});
+    }
+
+    public String getReportingCurrency() {
+        return reportingCurrency;
+    }
+
+    /**
+     * Currency codes with rates, reporting currency first
+     */
+    public List<String> getCurrencies() {
+        return currencies;
+    }
+
+    public boolean supports(String currency) {
+        return indexes.containsKey(currency);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the currency has no rates
+     */
+    public int indexOf(String currency) {
+        Integer index = indexes.get(currency);
+        if (index == null) {
+            throw new IllegalArgumentException("No FX rates for currency " + currency);
+        }
+        return index;
+    }
+
+    /**
+     * Resolve currency codes once, e.g. one per account, before a loop over rows
+     */
+    public int[] indexesOf(String[] currencyCodes) {
+        int[] resolved = new int[currencyCodes.length];
+        for (int i = 0; i < currencyCodes.length; i++) {
+            resolved[i] = indexOf(currencyCodes[i]);
+        }
+        return resolved;
+    }
+
+    /**
+     * Reporting currency units per unit of a currency on a day
+     */
+    public double rate(int currency, long epochDay) {
+        long day = Math.min(days - 1, Math.max(0, epochDay - firstEpochDay));
+        return rates[currency * days + (int) day];
+    }
+
+    /**
+     * Convert an amount in cents into reporting currency cents, rounded to the nearest cent
+     */
+    public long toReportingCents(long cents, int currency, long epochDay) {
+        if (currency == REPORTING) {
+            return cents;
+        }
+        return Math.round(cents * rate(currency, epochDay));
+    }
+
+    private static boolean hasRates(Map<String, NavigableMap<LocalDate, Double>> ratesByCurrency, String currency) {
+        NavigableMap<LocalDate, Double> dated = ratesByCurrency.get(currency);
+        return dated != null && !dated.isEmpty();
+    }
+}
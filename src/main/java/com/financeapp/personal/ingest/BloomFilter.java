@@ -0,0 +1,65 @@
+package com.financeapp.personal.ingest;
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * BloomFilter answers "definitely not seen" or "maybe seen" for 64-bit keys
+ *
+ * - Sized from the expected number of keys and the target false-positive rate
+ * - Probe positions come from double hashing of the (already well-mixed) key
+ * - Bits are set with CAS on an AtomicLongArray, so concurrent puts and reads need no lock
+ * Keys can never be removed; a false positive only costs the caller an exact lookup.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        long keys = Math.max(1, expectedKeys);
+        double bits = -keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (long) Math.ceil(bits / 64)));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / (double) keys * Math.log(2)));
+    }
+
+    public void put(long key) {
+        long h1 = key;
+        long h2 = secondHash(key);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long h1 = key;
+        long h2 = secondHash(key);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long estimatedBytes() {
+        return bitCount / 8;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // Odd, so successive probes cycle through different positions
+    private static long secondHash(long key) {
+        long h = Long.rotateLeft(key, 32) * 0x9e3779b97f4a7c15L;
+        return (h ^ (h >>> 29)) | 1;
+    }
+}
@@ -0,0 +1,152 @@
+package com.financeapp.personal.ingest;
+import com.financeapp.personal.service.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * DuplicateIndex finds transactions that are already stored, by fingerprint or idempotency key
+ *
+ * - A Bloom filter over every stored fingerprint and idempotency key sits in front of the
+ *   database, so rows that were never seen (the common case) cost no query at all
+ * - "Maybe seen" rows are checked exactly against the dedup_hash index and the
+ *   (account, idempotency_key) unique constraint, in chunked IN queries
+ * - The filter is filled once from the table on first use; every write path records its
+ *   keys before commit, so a rolled-back write only leaves a harmless false positive
+ */
+@Component
+public class DuplicateIndex {
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BloomFilter seen;
+
+    private volatile boolean loaded;
+    private final SingleFlight<String, Boolean> loading = new SingleFlight<>();
+
+    private final AtomicLong filteredOut = new AtomicLong();
+    private final AtomicLong checkedInDatabase = new AtomicLong();
+
+    @Autowired
+    public DuplicateIndex(NamedParameterJdbcTemplate jdbcTemplate,
+                          @Value("${ingest.bloom.expected-keys:2000000}") long expectedKeys,
+                          @Value("${ingest.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seen = new BloomFilter(expectedKeys, falsePositiveRate);
+    }
+
+    /**
+     * Remember a stored transaction; call this from every write path, inside its transaction
+     */
+    public void record(Long accountId, long fingerprint, String idempotencyKey) {
+        seen.put(fingerprint);
+        if (idempotencyKey != null) {
+            seen.put(TransactionFingerprint.ofIdempotencyKey(accountId, idempotencyKey));
+        }
+    }
+
+    /**
+     * How many stored transactions share each fingerprint; fingerprints with none are left out
+     */
+    public Map<Long, Integer> countExisting(Collection<Long> fingerprints) {
+        ensureLoaded();
+        List<Long> candidates = new ArrayList<>();
+        for (Long fingerprint : fingerprints) {
+            if (seen.mightContain(fingerprint)) {
+                candidates.add(fingerprint);
+            }
+        }
+        filteredOut.addAndGet(fingerprints.size() - candidates.size());
+        checkedInDatabase.addAndGet(candidates.size());
+
+        Map<Long, Integer> counts = new HashMap<>();
+        for (List<Long> chunk : chunks(candidates)) {
+            jdbcTemplate.query("SELECT dedup_hash, COUNT(*) FROM transactions WHERE dedup_hash IN (:hashes) GROUP BY dedup_hash",
+                    new MapSqlParameterSource("hashes", chunk),
+                    row -> {
+                        counts.put(row.getLong(1), row.getInt(2));
+                    });
+        }
+        return counts;
+    }
+
+    /**
+     * Stored transaction IDs by idempotency key, for the keys already used on this account
+     */
+    public Map<String, Long> findExistingKeys(Long accountId, Collection<String> idempotencyKeys) {
+        ensureLoaded();
+        List<String> candidates = new ArrayList<>();
+        for (String key : idempotencyKeys) {
+            if (seen.mightContain(TransactionFingerprint.ofIdempotencyKey(accountId, key))) {
+                candidates.add(key);
+            }
+        }
+        filteredOut.addAndGet(idempotencyKeys.size() - candidates.size());
+        checkedInDatabase.addAndGet(candidates.size());
+
+        Map<String, Long> existing = new HashMap<>();
+        for (List<String> chunk : chunks(candidates)) {
+            jdbcTemplate.query("SELECT idempotency_key, id FROM transactions WHERE account_id = :accountId AND idempotency_key IN (:keys)",
+                    new MapSqlParameterSource("accountId", accountId).addValue("keys", chunk),
+                    row -> {
+                        existing.put(row.getString(1), row.getLong(2));
+                    });
+        }
+        return existing;
+    }
+
+    /**
+     * Keys answered by the Bloom filter alone since startup
+     */
+    public long getFilteredOutCount() {
+        return filteredOut.get();
+    }
+
+    /**
+     * Keys that needed an exact database check since startup
+     */
+    public long getCheckedInDatabaseCount() {
+        return checkedInDatabase.get();
+    }
+
+    public long getFilterBytes() {
+        return seen.estimatedBytes();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loading.execute("all", () -> {
+            if (!loaded) {
+                // Not read-only: a lagging replica would leave recent keys out, and a missing key is a missed duplicate
+                jdbcTemplate.getJdbcTemplate().query(connection -> {
+                    var statement = connection.prepareStatement("SELECT account_id, dedup_hash, idempotency_key FROM transactions");
+                    statement.setFetchSize(LOAD_FETCH_SIZE);
+                    return statement;
+                }, row -> {
+                    record(row.getLong(1), row.getLong(2), row.getString(3));
+                });
+                loaded = true;
+            }
+            return true;
+        });
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < values.size(); start += QUERY_CHUNK_SIZE) {
+            chunks.add(values.subList(start, Math.min(values.size(), start + QUERY_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,87 @@
+package com.financeapp.personal.ingest;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.search.SearchTokenizer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * TransactionFingerprint reduces a transaction to a 64-bit duplicate-detection key
+ *
+ * The key covers the account, the date, the signed amount in cents and the
+ * normalized description, so "STARBUCKS #12  Seattle" and "Starbucks 12 SEATTLE"
+ * on the same day for the same amount are the same transaction. Unlike the
+ * merchant key, numbers are kept: two cheques on one day differ by their number.
+ *
+ * Keys are FNV-1a over the fields with a final avalanche, so they can be used
+ * directly as Bloom filter hashes.
+ */
+public final class TransactionFingerprint {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // Separates the idempotency-key space from the content space in the shared Bloom filter
+    private static final long KEY_DOMAIN = 0x6b65793a00000000L;
+
+    private TransactionFingerprint() {
+    }
+
+    public static long of(Transaction transaction) {
+        return of(transaction.getAccount().getId(), transaction.getTransactionDate(), transaction.getAmount(),
+                transaction.getTransactionType(), transaction.getDescription());
+    }
+
+    public static long of(Long accountId, LocalDate date, BigDecimal amount,
+                          Transaction.TransactionType transactionType, String description) {
+        long cents = Money.toCents(amount);
+        long hash = FNV_OFFSET;
+        hash = mixLong(hash, accountId);
+        hash = mixLong(hash, date.toEpochDay());
+        hash = mixLong(hash, transactionType == Transaction.TransactionType.INCOME ? cents : -cents);
+        for (String term : SearchTokenizer.tokenize(description)) {
+            hash = mixString(hash, term);
+            hash = mixByte(hash, ' ');
+        }
+        return finish(hash);
+    }
+
+    /**
+     * Key for a client idempotency key on one account
+     */
+    public static long ofIdempotencyKey(Long accountId, String idempotencyKey) {
+        long hash = mixLong(FNV_OFFSET ^ KEY_DOMAIN, accountId);
+        return finish(mixString(hash, idempotencyKey));
+    }
+
+    private static long mixLong(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash = mixByte(hash, (int) (value >>> shift));
+        }
+        return hash;
+    }
+
+    private static long mixString(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = mixByte(hash, c);
+            if (c > 0xff) {
+                hash = mixByte(hash, c >>> 8);
+            }
+        }
+        return hash;
+    }
+
+    private static long mixByte(long hash, int value) {
+        return (hash ^ (value & 0xff)) * FNV_PRIME;
+    }
+
+    // MurmurHash3 finalizer: every input bit affects every output bit
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
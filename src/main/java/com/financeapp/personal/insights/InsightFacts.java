@@ -0,0 +1,31 @@
+package com.financeapp.personal.insights;
+import java.time.LocalDate;
+/**
+ * InsightFacts holds the totals the local insight rules work from, in reporting currency cents
+ *
+ * Per-category arrays are indexed by Category ordinal.
+ *
+ * @param asOf                      the last day included
+ * @param windowMonths              length of the income and expense window ending on {@code asOf}
+ * @param windowIncomeCents         income over the window
+ * @param windowExpenseCents        expenses per category over the window
+ * @param monthToDateCents          expenses per category from the first of the month through {@code asOf}
+ * @param previousMonthToDateCents  expenses per category over the same days of the previous month
+ * @param budgetCents               this month's budget per category, 0 where none is set
+ */
+public record InsightFacts(LocalDate asOf,
+                           int windowMonths,
+                           long windowIncomeCents,
+                           long[] windowExpenseCents,
+                           long[] monthToDateCents,
+                           long[] previousMonthToDateCents,
+                           long[] budgetCents) {
+
+    /**
+     * Last day of the previous month's comparison period: the same day of month, or its last day
+     */
+    public static LocalDate previousMonthToDateEnd(LocalDate asOf) {
+        LocalDate previousMonthStart = asOf.withDayOfMonth(1).minusMonths(1);
+        return previousMonthStart.withDayOfMonth(Math.min(asOf.getDayOfMonth(), previousMonthStart.lengthOfMonth()));
+    }
+}
@@ -0,0 +1,283 @@
+package com.financeapp.personal.insights;
+import com.financeapp.personal.dto.DashboardInsights;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+/**
+ * LocalInsightEngine turns a user's totals into the three dashboard panels with fixed rules
+ *
+ * - Assessment: savings rate over the income window and the 50/30/20 split
+ *   of needs, wants and savings
+ * - Spending analysis: month-to-date spending against the same days of last
+ *   month, categories that spiked, and the largest categories
+ * - Budget recommendations: each budget against the share of the month gone,
+ *   and dollar targets for a 50/30/20 plan
+ * The same facts always give the same text. Nothing here does I/O, so the
+ * panels are ready in microseconds; the LLM may reword them afterwards.
+ */
+public final class LocalInsightEngine {
+
+    // Essentials for the 50/30/20 split; every other expense category counts as a want
+    static final Set<Transaction.Category> NEEDS = EnumSet.of(
+            Transaction.Category.GROCERIES, Transaction.Category.TRANSPORTATION, Transaction.Category.UTILITIES,
+            Transaction.Category.RENT_MORTGAGE, Transaction.Category.HEALTHCARE, Transaction.Category.EDUCATION);
+
+    private static final double NEEDS_SHARE = 0.50;
+    private static final double WANTS_SHARE = 0.30;
+    private static final double SAVINGS_SHARE = 0.20;
+
+    // A spike is at least 50% and $50 above the same point last month
+    private static final double SPIKE_RATIO = 1.5;
+    private static final long SPIKE_MIN_INCREASE_CENTS = 5_000;
+    private static final int MAX_SPIKES = 3;
+    private static final int TOP_CATEGORIES = 3;
+
+    // A budget is ahead of pace when its used share exceeds the month's elapsed share by this much
+    private static final double PACE_TOLERANCE = 0.10;
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("MMM d", Locale.ENGLISH);
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+
+    private LocalInsightEngine() {
+    }
+
+    public static DashboardInsights generate(InsightFacts facts) {
+        return new DashboardInsights(assessment(facts), spendingAnalysis(facts), budgetRecommendations(facts), false);
+    }
+
+    static String assessment(InsightFacts facts) {
+        MonthlySplit split = MonthlySplit.of(facts);
+        StringBuilder text = new StringBuilder();
+        if (split.income <= 0) {
+            text.append("No income was recorded in the last ").append(facts.windowMonths())
+                    .append(" months, so a savings rate and the 50/30/20 split can't be worked out.");
+            if (split.expenses() > 0) {
+                text.append(" Spending averaged ").append(dollars(split.expenses())).append(" a month over that time.");
+            }
+            return text.append(" Record your paychecks to get income-based advice.").toString();
+        }
+
+        long saved = split.income - split.expenses();
+        text.append("Savings rate: ").append(percent(saved, split.income)).append(" of income over the last ")
+                .append(facts.windowMonths()).append(" months (").append(dollars(saved)).append(" of ")
+                .append(dollars(split.income)).append(" a month).");
+        long savingsTarget = share(split.income, SAVINGS_SHARE);
+        if (saved >= savingsTarget) {
+            text.append(" That meets the 20% savings target; automatic transfers on payday keep it there.");
+        } else if (saved >= 0) {
+            text.append(" That is below the 20% target; saving another ").append(dollars(savingsTarget - saved))
+                    .append(" a month would reach it.");
+        } else {
+            text.append(" You spent ").append(dollars(-saved))
+                    .append(" a month more than you earned; wants are the quickest place to close the gap.");
+        }
+
+        text.append("\n\nSplit of income: needs ").append(percent(split.needs, split.income))
+                .append(", wants ").append(percent(split.wants, split.income))
+                .append(", savings ").append(percent(saved, split.income)).append(" (guideline 50/30/20).");
+        long needsOver = split.needs - share(split.income, NEEDS_SHARE);
+        long wantsOver = split.wants - share(split.income, WANTS_SHARE);
+        if (wantsOver > 0 && wantsOver >= needsOver) {
+            Transaction.Category largest = largest(facts.windowExpenseCents(), false);
+            text.append("\n• Wants are ").append(dollars(wantsOver)).append(" a month above 30% of income; the largest is ")
+                    .append(largest.getDisplayName()).append(" at ")
+                    .append(dollars(monthly(facts.windowExpenseCents()[largest.ordinal()], facts.windowMonths())))
+                    .append(" a month.");
+        } else if (needsOver > 0) {
+            Transaction.Category largest = largest(facts.windowExpenseCents(), true);
+            text.append("\n• Needs are ").append(dollars(needsOver)).append(" a month above 50% of income; the largest is ")
+                    .append(largest.getDisplayName()).append(" at ")
+                    .append(dollars(monthly(facts.windowExpenseCents()[largest.ordinal()], facts.windowMonths())))
+                    .append(" a month.");
+        } else {
+            text.append("\n• Needs and wants are both within the guideline.");
+        }
+        return text.toString();
+    }
+
+    static String spendingAnalysis(InsightFacts facts) {
+        long[] current = facts.monthToDateCents();
+        long[] previous = facts.previousMonthToDateCents();
+        long spent = sum(current);
+        if (spent == 0) {
+            return "No expenses recorded yet this month.";
+        }
+
+        long before = sum(previous);
+        StringBuilder text = new StringBuilder("Spent ").append(dollars(spent)).append(" this month through ")
+                .append(DAY.format(facts.asOf()));
+        if (before > 0) {
+            text.append(", against ").append(dollars(before)).append(" over the same days last month (")
+                    .append(change(spent, before)).append(").");
+        } else {
+            text.append(", with nothing spent over the same days last month.");
+        }
+
+        List<Transaction.Category> spikes = new ArrayList<>();
+        for (Transaction.Category category : Transaction.Category.getExpenseCategories()) {
+            long now = current[category.ordinal()];
+            long then = previous[category.ordinal()];
+            if (now - then >= SPIKE_MIN_INCREASE_CENTS && (then == 0 || now >= then * SPIKE_RATIO)) {
+                spikes.add(category);
+            }
+        }
+        if (spikes.isEmpty()) {
+            text.append("\n\nNo category is up by more than 50% and $50.00 on the same point last month.");
+        } else {
+            spikes.sort(Comparator.comparingLong((Transaction.Category c) -> previous[c.ordinal()] - current[c.ordinal()]));
+            text.append("\n\nUp sharply on the same point last month:");
+            for (Transaction.Category category : spikes.subList(0, Math.min(MAX_SPIKES, spikes.size()))) {
+                long now = current[category.ordinal()];
+                long then = previous[category.ordinal()];
+                text.append("\n• ").append(category.getDisplayName()).append(": ").append(dollars(now));
+                text.append(then == 0 ? " (none last month)" : " vs " + dollars(then) + " (" + change(now, then) + ")");
+            }
+        }
+
+        List<Transaction.Category> largest = new ArrayList<>(List.of(Transaction.Category.getExpenseCategories()));
+        largest.removeIf(category -> current[category.ordinal()] == 0);
+        largest.sort(Comparator.comparingLong((Transaction.Category c) -> -current[c.ordinal()]));
+        text.append("\n\nLargest this month:");
+        for (Transaction.Category category : largest.subList(0, Math.min(TOP_CATEGORIES, largest.size()))) {
+            text.append("\n• ").append(category.getDisplayName()).append(": ").append(dollars(current[category.ordinal()]))
+                    .append(" (").append(percent(current[category.ordinal()], spent)).append(" of spending)");
+        }
+        return text.toString();
+    }
+
+    static String budgetRecommendations(InsightFacts facts) {
+        YearMonth month = YearMonth.from(facts.asOf());
+        int day = facts.asOf().getDayOfMonth();
+        int daysLeft = month.lengthOfMonth() - day;
+        double elapsed = day / (double) month.lengthOfMonth();
+        long[] spent = facts.monthToDateCents();
+        long[] budgets = facts.budgetCents();
+
+        StringBuilder text = new StringBuilder();
+        if (sum(budgets) == 0) {
+            text.append("No budgets are set for ").append(MONTH.format(month)).append('.');
+        } else {
+            text.append("Budgets for ").append(MONTH.format(month)).append(", with ")
+                    .append(Math.round(elapsed * 100)).append("% of the month gone:");
+            long unbudgeted = 0;
+            for (Transaction.Category category : Transaction.Category.getExpenseCategories()) {
+                long budget = budgets[category.ordinal()];
+                long used = spent[category.ordinal()];
+                if (budget <= 0) {
+                    unbudgeted += used;
+                    continue;
+                }
+                text.append("\n• ").append(category.getDisplayName()).append(": ").append(dollars(used))
+                        .append(" of ").append(dollars(budget)).append(" (").append(percent(used, budget)).append(")");
+                if (used > budget) {
+                    text.append(", over by ").append(dollars(used - budget));
+                } else if (used / (double) budget > elapsed + PACE_TOLERANCE) {
+                    text.append(", ahead of pace; ").append(dollars(budget - used)).append(" left for ")
+                            .append(daysLeft).append(daysLeft == 1 ? " day" : " days");
+                } else {
+                    text.append(", on track");
+                }
+            }
+            if (unbudgeted > 0) {
+                text.append("\n• Spending in categories without a budget: ").append(dollars(unbudgeted));
+            }
+        }
+
+        MonthlySplit split = MonthlySplit.of(facts);
+        if (split.income <= 0) {
+            return text.append("\n\nOnce income is recorded, a 50/30/20 plan with dollar targets will appear here.").toString();
+        }
+        long wantsTarget = share(split.income, WANTS_SHARE);
+        text.append("\n\n50/30/20 plan for ").append(dollars(split.income)).append(" monthly income: needs ")
+                .append(dollars(share(split.income, NEEDS_SHARE))).append(", wants ").append(dollars(wantsTarget))
+                .append(", savings ").append(dollars(share(split.income, SAVINGS_SHARE)))
+                .append(". Recently: needs ").append(dollars(split.needs)).append(", wants ").append(dollars(split.wants))
+                .append(", savings ").append(dollars(split.income - split.expenses())).append(" a month.");
+
+        // Suggest a limit for the largest unbudgeted want, scaled down if wants are over target
+        Transaction.Category want = largest(facts.windowExpenseCents(), false);
+        long wantMonthly = monthly(facts.windowExpenseCents()[want.ordinal()], facts.windowMonths());
+        if (wantMonthly > 0 && budgets[want.ordinal()] <= 0) {
+            long suggested = split.wants > wantsTarget
+                    ? Math.round(wantMonthly * (wantsTarget / (double) split.wants))
+                    : wantMonthly;
+            text.append("\n• A ").append(want.getDisplayName()).append(" budget of ").append(dollars(suggested))
+                    .append(" a month would fit the plan (recently ").append(dollars(wantMonthly)).append(").");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Average monthly income, needs and wants over the window
+     */
+    private record MonthlySplit(long income, long needs, long wants) {
+
+        static MonthlySplit of(InsightFacts facts) {
+            long[] expenses = facts.windowExpenseCents();
+            return new MonthlySplit(monthly(facts.windowIncomeCents(), facts.windowMonths()),
+                    monthly(sum(expenses, true), facts.windowMonths()),
+                    monthly(sum(expenses, false), facts.windowMonths()));
+        }
+
+        long expenses() {
+            return needs + wants;
+        }
+    }
+
+    private static long sum(long[] byCategory) {
+        return Math.addExact(sum(byCategory, true), sum(byCategory, false));
+    }
+
+    /**
+     * Total of the needs ({@code needs} true) or the wants among the expense categories
+     */
+    private static long sum(long[] byCategory, boolean needs) {
+        long total = 0;
+        for (Transaction.Category category : Transaction.Category.getExpenseCategories()) {
+            if (NEEDS.contains(category) == needs) {
+                total = Math.addExact(total, byCategory[category.ordinal()]);
+            }
+        }
+        return total;
+    }
+
+    private static Transaction.Category largest(long[] byCategory, boolean needs) {
+        Transaction.Category largest = null;
+        for (Transaction.Category category : Transaction.Category.getExpenseCategories()) {
+            if (NEEDS.contains(category) == needs
+                    && (largest == null || byCategory[category.ordinal()] > byCategory[largest.ordinal()])) {
+                largest = category;
+            }
+        }
+        return largest;
+    }
+
+    private static long monthly(long cents, int months) {
+        return Money.ofCents(cents).dividedBy(Math.max(1, months)).getCents();
+    }
+
+    private static long share(long cents, double fraction) {
+        return Math.round(cents * fraction);
+    }
+
+    private static String dollars(long cents) {
+        return (cents < 0 ? "-$" : "$") + String.format(Locale.ENGLISH, "%,.2f", Money.ofCents(Math.abs(cents)).toBigDecimal());
+    }
+
+    private static String percent(long part, long whole) {
+        return Math.round(part * 100.0 / whole) + "%";
+    }
+
+    private static String change(long now, long before) {
+        long change = Math.round((now - before) * 100.0 / before);
+        return (change >= 0 ? "+" : "") + change + "%";
+    }
+}
@@ -0,0 +1,221 @@
+package com.financeapp.personal.journal;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+/**
+ * JournalCodec reads and writes journal records in the binary form shared by segments and snapshots
+ *
+ * - Amounts are whole cents, dates are epoch days, timestamps are UTC epoch seconds plus nanos
+ * - Enums are written by position; every file starts with the constant names it was written
+ *   with, so a file stays readable after constants are added or reordered
+ * A decoder is built from a file's header; writing always uses the current constants.
+ */
+final class JournalCodec {
+
+    private static final byte DELETED = 0;
+    private static final byte USER = 1;
+    private static final byte ACCOUNT = 2;
+    private static final byte BUDGET = 3;
+    private static final byte TRANSACTION = 4;
+    private static final byte END = -1;
+
+    private final JournalRecord.Table[] tables;
+    private final Account.AccountType[] accountTypes;
+    private final Transaction.TransactionType[] transactionTypes;
+    private final Transaction.Category[] categories;
+
+    private JournalCodec(JournalRecord.Table[] tables, Account.AccountType[] accountTypes,
+                         Transaction.TransactionType[] transactionTypes, Transaction.Category[] categories) {
+        this.tables = tables;
+        this.accountTypes = accountTypes;
+        this.transactionTypes = transactionTypes;
+        this.categories = categories;
+    }
+
+    /**
+     * Write the enum constant names a file's records refer to
+     */
+    static void writeHeader(DataOutput out) throws IOException {
+        writeNames(out, JournalRecord.Table.values());
+        writeNames(out, Account.AccountType.values());
+        writeNames(out, Transaction.TransactionType.values());
+        writeNames(out, Transaction.Category.values());
+    }
+
+    /**
+     * Decoder for a file written with the header at the current position
+     *
+     * @throws IllegalStateException if the file names a constant that no longer exists
+     */
+    static JournalCodec readHeader(DataInput in) throws IOException {
+        return new JournalCodec(
+                readNames(in, JournalRecord.Table.class),
+                readNames(in, Account.AccountType.class),
+                readNames(in, Transaction.TransactionType.class),
+                readNames(in, Transaction.Category.class));
+    }
+
+    static void write(DataOutput out, JournalRecord record) throws IOException {
+        if (record instanceof JournalRecord.UserRow user) {
+            out.writeByte(USER);
+            out.writeLong(user.id());
+            out.writeUTF(user.firstName());
+            out.writeUTF(user.lastName());
+            out.writeUTF(user.email());
+            writeDateTime(out, user.createdAt());
+        } else if (record instanceof JournalRecord.AccountRow account) {
+            out.writeByte(ACCOUNT);
+            out.writeLong(account.id());
+            out.writeLong(account.userId());
+            out.writeUTF(account.accountName());
+            out.writeByte(account.accountType().ordinal());
+            writeNullableAmount(out, account.initialBalance());
+            writeNullableAmount(out, account.currentBalance());
+            out.writeUTF(account.currency());
+            writeDateTime(out, account.createdAt());
+            out.writeBoolean(account.version() != null);
+            if (account.version() != null) {
+                out.writeLong(account.version());
+            }
+        } else if (record instanceof JournalRecord.BudgetRow budget) {
+            out.writeByte(BUDGET);
+            out.writeLong(budget.id());
+            out.writeLong(budget.userId());
+            out.writeByte(budget.category().ordinal());
+            out.writeLong(Money.toCents(budget.budgetAmount()));
+            out.writeInt(budget.budgetMonth().getYear() * 12 + budget.budgetMonth().getMonthValue() - 1);
+            writeDateTime(out, budget.createdAt());
+        } else if (record instanceof JournalRecord.TransactionRow transaction) {
+            out.writeByte(TRANSACTION);
+            out.writeLong(transaction.id());
+            out.writeLong(transaction.accountId());
+            out.writeUTF(transaction.description());
+            out.writeLong(Money.toCents(transaction.amount()));
+            out.writeByte(transaction.transactionType().ordinal());
+            out.writeByte(transaction.category().ordinal());
+            out.writeInt((int) transaction.transactionDate().toEpochDay());
+            writeDateTime(out, transaction.createdAt());
+            out.writeBoolean(transaction.idempotencyKey() != null);
+            if (transaction.idempotencyKey() != null) {
+                out.writeUTF(transaction.idempotencyKey());
+            }
+            out.writeLong(transaction.dedupHash());
+        } else if (record instanceof JournalRecord.Deleted deleted) {
+            out.writeByte(DELETED);
+            out.writeByte(deleted.table().ordinal());
+            out.writeLong(deleted.id());
+        }
+    }
+
+    /**
+     * Mark the end of a run of records whose count was not known up front
+     */
+    static void writeEnd(DataOutput out) throws IOException {
+        out.writeByte(END);
+    }
+
+    /**
+     * @return the next record, or null at an end mark
+     * @throws IllegalStateException for an unknown record kind, i.e. a damaged file
+     */
+    JournalRecord read(DataInput in) throws IOException {
+        byte kind = in.readByte();
+        switch (kind) {
+            case END:
+                return null;
+            case USER:
+                return new JournalRecord.UserRow(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF(), readDateTime(in));
+            case ACCOUNT: {
+                long id = in.readLong();
+                long userId = in.readLong();
+                String accountName = in.readUTF();
+                Account.AccountType accountType = accountTypes[in.readUnsignedByte()];
+                BigDecimal initialBalance = readNullableAmount(in);
+                BigDecimal currentBalance = readNullableAmount(in);
+                String currency = in.readUTF();
+                LocalDateTime createdAt = readDateTime(in);
+                Long version = in.readBoolean() ? in.readLong() : null;
+                return new JournalRecord.AccountRow(id, userId, accountName, accountType, initialBalance, currentBalance,
+                        currency, createdAt, version);
+            }
+            case BUDGET: {
+                long id = in.readLong();
+                long userId = in.readLong();
+                Transaction.Category category = categories[in.readUnsignedByte()];
+                BigDecimal amount = Money.ofCents(in.readLong()).toBigDecimal();
+                int month = in.readInt();
+                return new JournalRecord.BudgetRow(id, userId, category, amount, YearMonth.of(month / 12, month % 12 + 1),
+                        readDateTime(in));
+            }
+            case TRANSACTION: {
+                long id = in.readLong();
+                long accountId = in.readLong();
+                String description = in.readUTF();
+                BigDecimal amount = Money.ofCents(in.readLong()).toBigDecimal();
+                Transaction.TransactionType transactionType = transactionTypes[in.readUnsignedByte()];
+                Transaction.Category category = categories[in.readUnsignedByte()];
+                LocalDate transactionDate = LocalDate.ofEpochDay(in.readInt());
+                LocalDateTime createdAt = readDateTime(in);
+                String idempotencyKey = in.readBoolean() ? in.readUTF() : null;
+                return new JournalRecord.TransactionRow(id, accountId, description, amount, transactionType, category,
+                        transactionDate, createdAt, idempotencyKey, in.readLong());
+            }
+            case DELETED:
+                return new JournalRecord.Deleted(tables[in.readUnsignedByte()], in.readLong());
+            default:
+                throw new IllegalStateException("Unknown journal record kind " + kind);
+        }
+    }
+
+    private static void writeNullableAmount(DataOutput out, BigDecimal amount) throws IOException {
+        out.writeBoolean(amount != null);
+        if (amount != null) {
+            out.writeLong(Money.toCents(amount));
+        }
+    }
+
+    private static BigDecimal readNullableAmount(DataInput in) throws IOException {
+        return in.readBoolean() ? Money.ofCents(in.readLong()).toBigDecimal() : null;
+    }
+
+    private static void writeDateTime(DataOutput out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeNames(DataOutput out, Enum<?>[] constants) throws IOException {
+        out.writeByte(constants.length);
+        for (Enum<?> constant : constants) {
+            out.writeUTF(constant.name());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> E[] readNames(DataInput in, Class<E> type) throws IOException {
+        int count = in.readUnsignedByte();
+        E[] constants = (E[]) Array.newInstance(type, count);
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            try {
+                constants[i] = Enum.valueOf(type, name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Journal refers to " + type.getSimpleName() + "." + name
+                        + ", which no longer exists");
+            }
+        }
+        return constants;
+    }
+}
@@ -0,0 +1,139 @@
+package com.financeapp.personal.journal;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Budget;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+/**
+ * One row change in the store journal: the whole row after an insert or update, or a delete
+ *
+ * Rows carry every column, so replaying a record that a snapshot already
+ * contains is harmless, and the last record for a row decides its state.
+ */
+public sealed interface JournalRecord {
+
+    /**
+     * The journaled tables, in the order a snapshot writes them
+     */
+    enum Table {
+        USERS, ACCOUNTS, BUDGETS, TRANSACTIONS
+    }
+
+    Table table();
+
+    long id();
+
+    /**
+     * Row for a journaled entity, or null for entities the journal does not cover
+     */
+    static JournalRecord rowOf(Object entity) {
+        if (entity instanceof Transaction transaction) {
+            return TransactionRow.of(transaction);
+        } else if (entity instanceof Account account) {
+            return AccountRow.of(account);
+        } else if (entity instanceof Budget budget) {
+            return BudgetRow.of(budget);
+        } else if (entity instanceof User user) {
+            return UserRow.of(user);
+        }
+        return null;
+    }
+
+    /**
+     * Delete for a journaled entity, or null for entities the journal does not cover
+     */
+    static JournalRecord deleteOf(Object entity, Object id) {
+        Table table = entity instanceof Transaction ? Table.TRANSACTIONS
+                : entity instanceof Account ? Table.ACCOUNTS
+                : entity instanceof Budget ? Table.BUDGETS
+                : entity instanceof User ? Table.USERS
+                : null;
+        return table == null ? null : new Deleted(table, ((Number) id).longValue());
+    }
+
+    record UserRow(long id,
+                   String firstName,
+                   String lastName,
+                   String email,
+                   LocalDateTime createdAt) implements JournalRecord {
+
+        public static UserRow of(User user) {
+            return new UserRow(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getCreatedAt());
+        }
+
+        @Override
+        public Table table() {
+            return Table.USERS;
+        }
+    }
+
+    record AccountRow(long id,
+                      long userId,
+                      String accountName,
+                      Account.AccountType accountType,
+                      BigDecimal initialBalance,
+                      BigDecimal currentBalance,
+                      String currency,
+                      LocalDateTime createdAt,
+                      Long version) implements JournalRecord {
+
+        public static AccountRow of(Account account) {
+            return new AccountRow(account.getId(), account.getUser().getId(), account.getAccountName(),
+                    account.getAccountType(), account.getInitialBalance(), account.getCurrentBalance(),
+                    account.getCurrency(), account.getCreatedAt(), account.getVersion());
+        }
+
+        @Override
+        public Table table() {
+            return Table.ACCOUNTS;
+        }
+    }
+
+    record BudgetRow(long id,
+                     long userId,
+                     Transaction.Category category,
+                     BigDecimal budgetAmount,
+                     YearMonth budgetMonth,
+                     LocalDateTime createdAt) implements JournalRecord {
+
+        public static BudgetRow of(Budget budget) {
+            return new BudgetRow(budget.getId(), budget.getUser().getId(), budget.getCategory(), budget.getBudgetAmount(),
+                    budget.getBudgetMonth(), budget.getCreatedAt());
+        }
+
+        @Override
+        public Table table() {
+            return Table.BUDGETS;
+        }
+    }
+
+    record TransactionRow(long id,
+                          long accountId,
+                          String description,
+                          BigDecimal amount,
+                          Transaction.TransactionType transactionType,
+                          Transaction.Category category,
+                          LocalDate transactionDate,
+                          LocalDateTime createdAt,
+                          String idempotencyKey,
+                          long dedupHash) implements JournalRecord {
+
+        public static TransactionRow of(Transaction transaction) {
+            return new TransactionRow(transaction.getId(), transaction.getAccount().getId(), transaction.getDescription(),
+                    transaction.getAmount(), transaction.getTransactionType(), transaction.getCategory(),
+                    transaction.getTransactionDate(), transaction.getCreatedAt(), transaction.getIdempotencyKey(),
+                    transaction.getDedupHash());
+        }
+
+        @Override
+        public Table table() {
+            return Table.TRANSACTIONS;
+        }
+    }
+
+    record Deleted(Table table, long id) implements JournalRecord {
+    }
+}
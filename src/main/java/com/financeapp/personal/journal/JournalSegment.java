@@ -0,0 +1,172 @@
+package com.financeapp.personal.journal;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+/**
+ * JournalSegment is one memory-mapped, append-only journal file
+ *
+ * - A fixed-size header (magic, format version, sequence, enum names) is followed by frames of
+ *   [payload length][CRC-32 of payload][payload], one frame per committed transaction
+ * - The file is sized and mapped up front, so appending is a copy into the mapping; the
+ *   page cache keeps it if the process dies, and sync-on-commit forces it to disk as well
+ * - Reading stops at a zero length (never written) or at a frame whose checksum does not
+ *   match (cut short by a crash); a segment is only appended to by the process that created it
+ */
+final class JournalSegment {
+
+    static final int HEADER_BYTES = 4096;
+    private static final int MAGIC = 0x464A4C47; // "FJLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FRAME_OVERHEAD = 8;
+
+    private final long sequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position = HEADER_BYTES;
+
+    /**
+     * What reading a segment found
+     *
+     * @param validEnd offset just past the last intact frame
+     * @param torn     whether reading stopped at a damaged frame rather than the end of the data
+     */
+    record Scan(long sequence, int validEnd, int frames, boolean torn) {
+    }
+
+    /**
+     * Receives each intact frame's payload
+     */
+    interface FrameHandler {
+        void frame(JournalCodec codec, DataInput payload) throws IOException;
+    }
+
+    private JournalSegment(long sequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create and map a new segment of {@code size} bytes
+     */
+    static JournalSegment create(Path path, long sequence, int size) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(header);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(sequence);
+        JournalCodec.writeHeader(out);
+        if (header.size() > HEADER_BYTES) {
+            throw new IllegalStateException("Journal header needs " + header.size() + " bytes");
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, HEADER_BYTES * 2));
+            buffer.put(0, header.toByteArray());
+            buffer.force(0, HEADER_BYTES);
+            return new JournalSegment(sequence, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Space a payload needs, for sizing a segment that must hold it
+     */
+    static int bytesFor(int payloadLength) {
+        return HEADER_BYTES + FRAME_OVERHEAD + payloadLength;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Append one frame
+     *
+     * @return false, writing nothing, if the segment has no room left for it
+     */
+    boolean append(byte[] payload, boolean sync) {
+        if (buffer.capacity() - position < FRAME_OVERHEAD + payload.length) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        // Length last, so a reader never sees a length before its payload is in place
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + FRAME_OVERHEAD, payload);
+        buffer.putInt(position, payload.length);
+        if (sync) {
+            buffer.force(position, FRAME_OVERHEAD + payload.length);
+        }
+        position += FRAME_OVERHEAD + payload.length;
+        return true;
+    }
+
+    /**
+     * Force what was appended to disk and release the file
+     */
+    void close() throws IOException {
+        buffer.force(0, position);
+        channel.close();
+    }
+
+    /**
+     * Hand every intact frame of a segment file to {@code handler}, in order
+     *
+     * @throws IllegalStateException if the file is not a journal segment
+     */
+    static Scan scan(Path path, FrameHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException(path.getFileName() + " is not a journal segment");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            byte[] header = new byte[HEADER_BYTES];
+            buffer.get(0, header);
+            DataInputStream headerIn = new DataInputStream(new ByteArrayInputStream(header));
+            if (headerIn.readInt() != MAGIC || headerIn.readInt() != FORMAT_VERSION) {
+                throw new IllegalStateException(path.getFileName() + " is not a journal segment");
+            }
+            long sequence = headerIn.readLong();
+            JournalCodec codec = JournalCodec.readHeader(headerIn);
+
+            int position = HEADER_BYTES;
+            int frames = 0;
+            CRC32 crc = new CRC32();
+            while (position <= size - FRAME_OVERHEAD) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    return new Scan(sequence, position, frames, false);
+                }
+                if (length < 0 || length > size - position - FRAME_OVERHEAD) {
+                    return new Scan(sequence, position, frames, true);
+                }
+                byte[] payload = new byte[length];
+                buffer.get(position + FRAME_OVERHEAD, payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    return new Scan(sequence, position, frames, true);
+                }
+                handler.frame(codec, new DataInputStream(new ByteArrayInputStream(payload)));
+                position += FRAME_OVERHEAD + length;
+                frames++;
+            }
+            return new Scan(sequence, position, frames, false);
+        }
+    }
+}
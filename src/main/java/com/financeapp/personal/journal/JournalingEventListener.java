@@ -0,0 +1,52 @@
+package com.financeapp.personal.journal;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+/**
+ * JournalingEventListener passes the rows Hibernate writes for journaled entities to the StoreJournal
+ *
+ * Events fire as statements are issued, including the flush at commit, so each row is
+ * captured as written; the journal appends them once the transaction commits.
+ * Cascaded deletes (a user's accounts and transactions) arrive as events of their own.
+ */
+public class JournalingEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final StoreJournal storeJournal;
+
+    public JournalingEventListener(StoreJournal storeJournal) {
+        this.storeJournal = storeJournal;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        JournalRecord row = JournalRecord.rowOf(event.getEntity());
+        if (row != null) {
+            storeJournal.record(event.getSession(), row);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        JournalRecord row = JournalRecord.rowOf(event.getEntity());
+        if (row != null) {
+            storeJournal.record(event.getSession(), row);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        JournalRecord deleted = JournalRecord.deleteOf(event.getEntity(), event.getId());
+        if (deleted != null) {
+            storeJournal.record(event.getSession(), deleted);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,447 @@
+package com.financeapp.personal.journal;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import org.hibernate.Session;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+/**
+ * StoreJournal keeps users, accounts, budgets and transactions across restarts of the in-memory database
+ *
+ * This is optional (journal.enabled, on in the prod profile):
+ * - Each committed transaction that changed those tables is appended to a memory-mapped
+ *   segment as one frame holding the changed rows, in commit order; the write path pays for
+ *   encoding its rows and a sequential copy, under a lock held only across the commit itself
+ * - Snapshots write the four tables in a compact binary form on journal.snapshot-cron and at
+ *   shutdown, then delete the segments they cover
+ * - On startup, before anything reads the database, the latest snapshot is bulk-loaded in
+ *   JDBC batches and the segments written after it are replayed
+ * Hibernate writes are captured by JournalingEventListener; writes that bypass Hibernate must
+ * call record() themselves. Derived tables (statistics, recurring series, insight snapshots)
+ * are not journaled; their startup scans rebuild them from the restored rows.
+ */
+@Component
+public class StoreJournal implements SmartInitializingSingleton {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x464A534E; // "FJSN"
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    private static final int SNAPSHOT_BUFFER_BYTES = 1 << 16;
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean syncOnCommit;
+    private final int loadBatchSize;
+    private final boolean snapshotOnShutdown;
+
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final Map<Session, PendingCommit> pendingBySession = new ConcurrentHashMap<>();
+    private JournalSegment segment; // Guarded by commitLock; null until the store is restored
+    private long changesSinceSnapshot; // Guarded by commitLock
+
+    /**
+     * Rows changed by one Hibernate transaction, appended once it commits
+     */
+    private final class PendingCommit implements Synchronization {
+        final Session session;
+        final List<JournalRecord> records = new ArrayList<>();
+        byte[] payload;
+        boolean locked;
+
+        PendingCommit(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            // Runs after the final flush; encode first so the lock only spans the commit and the copy
+            payload = encode(records);
+            commitLock.lock();
+            locked = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            pendingBySession.remove(session);
+            try {
+                if (status == Status.STATUS_COMMITTED && payload != null) {
+                    append(payload);
+                }
+            } finally {
+                if (locked) {
+                    locked = false;
+                    commitLock.unlock();
+                }
+            }
+        }
+    }
+
+    @Autowired
+    public StoreJournal(DataSource dataSource,
+                        @Value("${journal.enabled:false}") boolean enabled,
+                        @Value("${journal.dir:data/journal}") String directory,
+                        @Value("${journal.segment-size-mb:64}") int segmentSizeMb,
+                        @Value("${journal.sync-on-commit:false}") boolean syncOnCommit,
+                        @Value("${journal.load-batch-size:1000}") int loadBatchSize,
+                        @Value("${journal.snapshot-on-shutdown:true}") boolean snapshotOnShutdown) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = Math.max(1, segmentSizeMb) << 20;
+        this.syncOnCommit = syncOnCommit;
+        this.loadBatchSize = loadBatchSize;
+        this.snapshotOnShutdown = snapshotOnShutdown;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add a changed row to the session's transaction; it is journaled if and when that commits
+     */
+    public void record(Session session, JournalRecord record) {
+        if (!enabled) {
+            return;
+        }
+        if (!session.getTransaction().isActive()) {
+            commitLock.lock();
+            try {
+                append(encode(List.of(record)));
+            } finally {
+                commitLock.unlock();
+            }
+            return;
+        }
+        pendingBySession.computeIfAbsent(session, s -> {
+            PendingCommit pending = new PendingCommit(s);
+            s.getTransaction().registerSynchronization(pending);
+            return pending;
+        }).records.add(record);
+    }
+
+    /**
+     * Restore the store once all beans exist, i.e. after the schema is created and before requests
+     *
+     * @throws IllegalStateException if the journal cannot be read; starting empty would lose it
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            restore();
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Could not restore the store from " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Write a snapshot and drop the journal it covers; skipped when nothing changed since the last one
+     */
+    @Scheduled(cron = "${journal.snapshot-cron:0 */15 * * * *}")
+    public void snapshot() {
+        if (!enabled || !snapshotLock.tryLock()) {
+            return;
+        }
+        try {
+            long sequence;
+            commitLock.lock();
+            try {
+                if (segment == null || changesSinceSnapshot == 0) {
+                    return;
+                }
+                // Commits from here on go to the new segment; the snapshot read starts after this
+                sequence = segment.sequence() + 1;
+                startSegment(sequence, segmentBytes);
+                changesSinceSnapshot = 0;
+            } finally {
+                commitLock.unlock();
+            }
+
+            long started = System.nanoTime();
+            Path snapshot = snapshotPath(sequence);
+            Path partial = snapshot.resolveSibling(snapshot.getFileName() + ".partial");
+            long rows = writeSnapshot(partial, sequence);
+            Files.move(partial, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            deleteCoveredFiles(sequence);
+            System.out.println("Store snapshot " + snapshot.getFileName() + " wrote " + rows + " rows in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+        } catch (IOException | SQLException | UncheckedIOException e) {
+            System.err.println("Error writing store snapshot: " + e.getMessage());
+            commitLock.lock();
+            try {
+                // The journal still covers everything; try again next time
+                changesSinceSnapshot++;
+            } finally {
+                commitLock.unlock();
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot before the schema is dropped, so the next start loads one file instead of replaying
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void snapshotOnShutdown() {
+        if (snapshotOnShutdown) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        commitLock.lock();
+        try {
+            if (segment != null) {
+                segment.close();
+                segment = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing store journal: " + e.getMessage());
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void restore() throws IOException, SQLException {
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            // Left by a snapshot that did not finish
+            for (Path partial : files.filter(path -> path.getFileName().toString().endsWith(".partial")).toList()) {
+                Files.delete(partial);
+            }
+        }
+        List<Long> snapshots = sequences(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        List<Long> segments = sequences(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+
+        long firstSegment = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        long snapshotRows = 0;
+        long replayedRecords = 0;
+        int replayedSegments = 0;
+        try (Connection connection = dataSource.getConnection();
+             StoreTables tables = StoreTables.openForLoading(connection, loadBatchSize)) {
+            if (!snapshots.isEmpty()) {
+                snapshotRows = loadSnapshot(snapshotPath(firstSegment), firstSegment, tables);
+            }
+            for (long sequence : segments) {
+                if (sequence < firstSegment) {
+                    continue;
+                }
+                long before = tables.getLoadedRows();
+                JournalSegment.Scan scan = JournalSegment.scan(segmentPath(sequence), (codec, payload) -> {
+                    int count = payload.readInt();
+                    for (int i = 0; i < count; i++) {
+                        apply(tables, codec.read(payload));
+                    }
+                });
+                if (scan.torn()) {
+                    System.err.println("Store journal " + segmentPath(sequence).getFileName()
+                            + " ends in an incomplete frame at byte " + scan.validEnd() + "; the rest was not replayed");
+                }
+                replayedRecords += tables.getLoadedRows() - before;
+                replayedSegments++;
+            }
+            tables.finish();
+        }
+
+        // Never append to a segment from an earlier run: its tail may be torn
+        long nextSequence = Math.max(firstSegment, segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1);
+        commitLock.lock();
+        try {
+            startSegment(nextSequence, segmentBytes);
+            // Replayed segments are only dropped by a snapshot, so take one at the next chance
+            changesSinceSnapshot = replayedRecords;
+        } finally {
+            commitLock.unlock();
+        }
+        System.out.println("Store restored " + snapshotRows + " snapshot rows and " + replayedRecords
+                + " journal records from " + replayedSegments + " segments in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) + " ms");
+    }
+
+    private static void apply(StoreTables tables, JournalRecord record) throws IOException {
+        try {
+            tables.apply(record);
+        } catch (SQLException e) {
+            throw new IOException("Could not replay " + record.table() + " row " + record.id(), e);
+        }
+    }
+
+    private long loadSnapshot(Path path, long expectedSequence, StoreTables tables) throws IOException, SQLException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path),
+                SNAPSHOT_BUFFER_BYTES))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT_VERSION
+                    || in.readLong() != expectedSequence) {
+                throw new IllegalStateException(path.getFileName() + " is not a store snapshot");
+            }
+            JournalCodec codec = JournalCodec.readHeader(in);
+            long rows = 0;
+            for (JournalRecord row = codec.read(in); row != null; row = codec.read(in)) {
+                tables.insert(row);
+                rows++;
+            }
+            if (in.readLong() != rows) {
+                throw new IllegalStateException(path.getFileName() + " is incomplete");
+            }
+            return rows;
+        }
+    }
+
+    private long writeSnapshot(Path path, long sequence) throws IOException, SQLException {
+        try (Connection connection = dataSource.getConnection();
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path),
+                     SNAPSHOT_BUFFER_BYTES))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT_VERSION);
+            out.writeLong(sequence);
+            JournalCodec.writeHeader(out);
+
+            // One consistent view of all four tables
+            int isolation = connection.getTransactionIsolation();
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            long rows;
+            try {
+                rows = StoreTables.readAll(connection, row -> JournalCodec.write(out, row));
+                connection.commit();
+            } finally {
+                connection.setTransactionIsolation(isolation);
+                connection.setAutoCommit(true);
+            }
+            JournalCodec.writeEnd(out);
+            out.writeLong(rows);
+            out.flush();
+            return rows;
+        } finally {
+            forceToDisk(path);
+        }
+    }
+
+    /**
+     * Called with commitLock held
+     */
+    private void append(byte[] payload) {
+        if (segment == null) {
+            System.err.println("Store journal is not open; a commit of " + payload.length + " bytes was not journaled");
+            return;
+        }
+        try {
+            if (!segment.append(payload, syncOnCommit)) {
+                startSegment(segment.sequence() + 1, Math.max(segmentBytes, JournalSegment.bytesFor(payload.length)));
+                segment.append(payload, syncOnCommit);
+            }
+            changesSinceSnapshot++;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error appending to store journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Called with commitLock held
+     */
+    private void startSegment(long sequence, int size) throws IOException {
+        JournalSegment next = JournalSegment.create(segmentPath(sequence), sequence, size);
+        if (segment != null) {
+            segment.close();
+        }
+        segment = next;
+    }
+
+    private static byte[] encode(List<JournalRecord> records) {
+        if (records.isEmpty()) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * records.size());
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(records.size());
+            for (JournalRecord record : records) {
+                JournalCodec.write(out, record);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Delete snapshots and segments older than the snapshot for {@code sequence}
+     */
+    private void deleteCoveredFiles(long sequence) throws IOException {
+        for (long older : sequences(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (older < sequence) {
+                Files.deleteIfExists(snapshotPath(older));
+            }
+        }
+        for (long older : sequences(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (older < sequence) {
+                Files.deleteIfExists(segmentPath(older));
+            }
+        }
+    }
+
+    private List<Long> sequences(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long sequence) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+    }
+
+    private static void forceToDisk(Path path) throws IOException {
+        if (Files.exists(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.financeapp.personal.journal;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Transaction;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Locale;
+/**
+ * StoreTables moves journal rows into and out of the journaled tables with plain JDBC
+ *
+ * - Loading batches consecutive statements of the same kind and commits per batch; a change
+ *   of table or operation runs the pending batch first, so replay keeps the journal's order
+ * - Foreign keys are not checked while loading: a snapshot and the journal after it only
+ *   agree once both are applied
+ * - Identity columns restart after the highest loaded id, so new rows do not collide
+ * The column lists follow the schema Hibernate generates for the four entities (H2).
+ */
+final class StoreTables implements AutoCloseable {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String[] USER_COLUMNS = {"id", "first_name", "last_name", "email", "created_at"};
+    private static final String[] ACCOUNT_COLUMNS = {"id", "user_id", "account_name", "account_type", "initial_balance",
+            "current_balance", "currency", "created_at", "version"};
+    private static final String[] BUDGET_COLUMNS = {"id", "user_id", "category", "budget_amount", "budget_month",
+            "created_at"};
+    private static final String[] TRANSACTION_COLUMNS = {"id", "account_id", "description", "amount", "transaction_type",
+            "category", "transaction_date", "created_at", "idempotency_key", "dedup_hash"};
+
+    private static final int INSERT = 0;
+    private static final int MERGE = 1;
+    private static final int DELETE = 2;
+
+    /**
+     * Receives rows read from the tables
+     */
+    interface RowSink {
+        void row(JournalRecord row) throws IOException;
+    }
+
+    private final Connection connection;
+    private final int batchSize;
+    private final PreparedStatement[] statements = new PreparedStatement[JournalRecord.Table.values().length * 3];
+    private int pendingStatement = -1;
+    private int pendingRows;
+    private long loadedRows;
+    private boolean integrityOff;
+
+    private StoreTables(Connection connection, int batchSize) {
+        this.connection = connection;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Start loading into empty tables over {@code connection}
+     */
+    static StoreTables openForLoading(Connection connection, int batchSize) throws SQLException {
+        StoreTables tables = new StoreTables(connection, batchSize);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+        tables.integrityOff = true;
+        return tables;
+    }
+
+    /**
+     * Insert a snapshot row
+     */
+    void insert(JournalRecord row) throws SQLException {
+        add(INSERT, row);
+    }
+
+    /**
+     * Apply a journal record: upsert a row by id, or delete it
+     */
+    void apply(JournalRecord record) throws SQLException {
+        add(record instanceof JournalRecord.Deleted ? DELETE : MERGE, record);
+    }
+
+    /**
+     * Run the last batch, restart the identity columns and turn foreign key checks back on
+     */
+    void finish() throws SQLException {
+        flush();
+        try (Statement statement = connection.createStatement()) {
+            for (JournalRecord.Table table : JournalRecord.Table.values()) {
+                long nextId;
+                try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + name(table))) {
+                    result.next();
+                    nextId = result.getLong(1);
+                }
+                statement.execute("ALTER TABLE " + name(table) + " ALTER COLUMN id RESTART WITH " + nextId);
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            integrityOff = false;
+        }
+        connection.commit();
+    }
+
+    long getLoadedRows() {
+        return loadedRows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (PreparedStatement statement : statements) {
+            if (statement != null) {
+                statement.close();
+            }
+        }
+        if (integrityOff) {
+            connection.rollback();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+        connection.setAutoCommit(true);
+    }
+
+    /**
+     * Stream every row of the journaled tables to {@code sink}, users first and transactions last
+     *
+     * @return the number of rows read
+     */
+    static long readAll(Connection connection, RowSink sink) throws SQLException, IOException {
+        long rows = 0;
+        for (JournalRecord.Table table : JournalRecord.Table.values()) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT " + String.join(", ", columns(table)) + " FROM " + name(table) + " ORDER BY id")) {
+                statement.setFetchSize(FETCH_SIZE);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        sink.row(read(table, result));
+                        rows++;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void add(int operation, JournalRecord record) throws SQLException {
+        int index = record.table().ordinal() * 3 + operation;
+        if (index != pendingStatement) {
+            flush();
+            pendingStatement = index;
+        }
+        PreparedStatement statement = statements[index];
+        if (statement == null) {
+            statement = connection.prepareStatement(sql(record.table(), operation));
+            statements[index] = statement;
+        }
+        if (operation == DELETE) {
+            statement.setLong(1, record.id());
+        } else {
+            bind(statement, record);
+        }
+        statement.addBatch();
+        loadedRows++;
+        if (++pendingRows >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pendingRows > 0) {
+            statements[pendingStatement].executeBatch();
+            connection.commit();
+            pendingRows = 0;
+        }
+    }
+
+    private static String sql(JournalRecord.Table table, int operation) {
+        if (operation == DELETE) {
+            return "DELETE FROM " + name(table) + " WHERE id = ?";
+        }
+        String[] columns = columns(table);
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        return (operation == INSERT ? "INSERT INTO " : "MERGE INTO ") + name(table) + " (" + String.join(", ", columns)
+                + ")" + (operation == MERGE ? " KEY (id)" : "") + " VALUES (" + placeholders + ")";
+    }
+
+    private static void bind(PreparedStatement statement, JournalRecord record) throws SQLException {
+        if (record instanceof JournalRecord.UserRow user) {
+            statement.setLong(1, user.id());
+            statement.setString(2, user.firstName());
+            statement.setString(3, user.lastName());
+            statement.setString(4, user.email());
+            statement.setObject(5, user.createdAt());
+        } else if (record instanceof JournalRecord.AccountRow account) {
+            statement.setLong(1, account.id());
+            statement.setLong(2, account.userId());
+            statement.setString(3, account.accountName());
+            statement.setString(4, account.accountType().name());
+            statement.setBigDecimal(5, account.initialBalance());
+            statement.setBigDecimal(6, account.currentBalance());
+            statement.setString(7, account.currency());
+            statement.setObject(8, account.createdAt());
+            if (account.version() != null) {
+                statement.setLong(9, account.version());
+            } else {
+                statement.setNull(9, Types.BIGINT);
+            }
+        } else if (record instanceof JournalRecord.BudgetRow budget) {
+            statement.setLong(1, budget.id());
+            statement.setLong(2, budget.userId());
+            statement.setString(3, budget.category().name());
+            statement.setBigDecimal(4, budget.budgetAmount());
+            statement.setBytes(5, serialize(budget.budgetMonth()));
+            statement.setObject(6, budget.createdAt());
+        } else if (record instanceof JournalRecord.TransactionRow transaction) {
+            statement.setLong(1, transaction.id());
+            statement.setLong(2, transaction.accountId());
+            statement.setString(3, transaction.description());
+            statement.setBigDecimal(4, transaction.amount());
+            statement.setString(5, transaction.transactionType().name());
+            statement.setString(6, transaction.category().name());
+            statement.setObject(7, transaction.transactionDate());
+            statement.setObject(8, transaction.createdAt());
+            statement.setString(9, transaction.idempotencyKey());
+            statement.setLong(10, transaction.dedupHash());
+        }
+    }
+
+    private static JournalRecord read(JournalRecord.Table table, ResultSet result) throws SQLException {
+        switch (table) {
+            case USERS:
+                return new JournalRecord.UserRow(result.getLong(1), result.getString(2), result.getString(3),
+                        result.getString(4), result.getObject(5, LocalDateTime.class));
+            case ACCOUNTS: {
+                long version = result.getLong(9);
+                return new JournalRecord.AccountRow(result.getLong(1), result.getLong(2), result.getString(3),
+                        Account.AccountType.valueOf(result.getString(4)), result.getBigDecimal(5), result.getBigDecimal(6),
+                        result.getString(7), result.getObject(8, LocalDateTime.class), result.wasNull() ? null : version);
+            }
+            case BUDGETS:
+                return new JournalRecord.BudgetRow(result.getLong(1), result.getLong(2),
+                        Transaction.Category.valueOf(result.getString(3)), result.getBigDecimal(4),
+                        deserialize(result.getBytes(5)), result.getObject(6, LocalDateTime.class));
+            default:
+                return new JournalRecord.TransactionRow(result.getLong(1), result.getLong(2), result.getString(3),
+                        result.getBigDecimal(4), Transaction.TransactionType.valueOf(result.getString(5)),
+                        Transaction.Category.valueOf(result.getString(6)), result.getObject(7, LocalDate.class),
+                        result.getObject(8, LocalDateTime.class), result.getString(9), result.getLong(10));
+        }
+    }
+
+    private static String name(JournalRecord.Table table) {
+        return table.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] columns(JournalRecord.Table table) {
+        switch (table) {
+            case USERS:
+                return USER_COLUMNS;
+            case ACCOUNTS:
+                return ACCOUNT_COLUMNS;
+            case BUDGETS:
+                return BUDGET_COLUMNS;
+            default:
+                return TRANSACTION_COLUMNS;
+        }
+    }
+
+    /**
+     * budget_month has no column type of its own, so Hibernate stores the serialized YearMonth
+     */
+    private static byte[] serialize(YearMonth month) throws SQLException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(month);
+        } catch (IOException e) {
+            throw new SQLException("Could not serialize budget month " + month, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static YearMonth deserialize(byte[] bytes) throws SQLException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(ObjectInputFilter.Config.createFilter("java.time.*;!*"));
+            return (YearMonth) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new SQLException("Unreadable budget month", e);
+        }
+    }
+}
@@ -5,7 +5,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
@@ -29,4 +32,80 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
      * Find accounts with balance above a threshold
      */
     List<Account> findByUserAndCurrentBalanceGreaterThanOrderByCurrentBalanceDesc(User user, BigDecimal threshold);
-}
\ No newline at end of file
+
+    /**
+     * Total balance per user, account type and currency, for a batch of users
+     */
+    @Query("SELECT a.user.id AS userId, a.accountType AS accountType, a.currency AS currency, " +
+            "COALESCE(SUM(a.currentBalance), 0) AS total " +
+            "FROM Account a WHERE a.user.id IN :userIds GROUP BY a.user.id, a.accountType, a.currency")
+    List<UserBalanceByType> summarizeBalancesByUserAndType(Collection<Long> userIds);
+
+    /**
+     * Per-user, per-account-type balance in one currency returned by grouped queries
+     */
+    interface UserBalanceByType {
+        Long getUserId();
+        Account.AccountType getAccountType();
+        String getCurrency();
+        BigDecimal getTotal();
+    }
+
+    /**
+     * Balance columns of a user's accounts, without hydrating entities
+     */
+    @Query("SELECT a.id AS id, a.accountType AS accountType, a.currency AS currency, a.currentBalance AS currentBalance " +
+            "FROM Account a WHERE a.user.id = :userId ORDER BY a.id")
+    List<AccountBalanceRow> findBalanceRowsByUserId(Long userId);
+
+    /**
+     * Scalar account columns used to build in-memory analytics
+     */
+    interface AccountBalanceRow {
+        Long getId();
+        Account.AccountType getAccountType();
+        String getCurrency();
+        BigDecimal getCurrentBalance();
+    }
+
+    /**
+     * Number of transactions on each of a user's accounts, without loading them
+     */
+    @Query("SELECT a.id AS accountId, COUNT(t) AS transactionCount " +
+            "FROM Account a LEFT JOIN a.transactions t WHERE a.user.id = :userId GROUP BY a.id")
+    List<TransactionCountRow> countTransactionsByUserId(Long userId);
+
+    /**
+     * One account's transaction count
+     */
+    record TransactionCountRow(Long accountId, Long transactionCount) {
+    }
+
+    /**
+     * A user's accounts for the JSON API, by name
+     */
+    @Query("SELECT a.id AS id, a.accountName AS accountName, a.accountType AS accountType, a.currency AS currency, " +
+            "a.initialBalance AS initialBalance, a.currentBalance AS currentBalance, a.createdAt AS createdAt " +
+            "FROM Account a WHERE a.user.id = :userId ORDER BY a.accountName")
+    List<AccountSummaryRow> findSummaryRowsByUserId(Long userId);
+
+    /**
+     * One of a user's accounts for the JSON API
+     */
+    @Query("SELECT a.id AS id, a.accountName AS accountName, a.accountType AS accountType, a.currency AS currency, " +
+            "a.initialBalance AS initialBalance, a.currentBalance AS currentBalance, a.createdAt AS createdAt " +
+            "FROM Account a WHERE a.id = :id AND a.user.id = :userId")
+    Optional<AccountSummaryRow> findSummaryRowByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Account columns served by the JSON API, balances in the account's currency
+     */
+    record AccountSummaryRow(Long id,
+                             String accountName,
+                             Account.AccountType accountType,
+                             String currency,
+                             BigDecimal initialBalance,
+                             BigDecimal currentBalance,
+                             LocalDateTime createdAt) {
+    }
+}
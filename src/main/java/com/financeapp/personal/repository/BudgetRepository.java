@@ -1,8 +1,10 @@
 package com.financeapp.personal.repository;
 import com.financeapp.personal.entity.Budget;
+import com.financeapp.personal.entity.Money;
 import com.financeapp.personal.entity.Transaction;
 import com.financeapp.personal.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.YearMonth;
 import java.util.List;
@@ -29,4 +31,17 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
      * Check if budget exists for user, category, and month
      */
     boolean existsByUserAndCategoryAndBudgetMonth(User user, Transaction.Category category, YearMonth budgetMonth);
-}
\ No newline at end of file
+
+    /**
+     * A user's budgets for one month, without hydrating entities
+     */
+    @Query("SELECT b.id AS id, b.category AS category, b.budgetAmount AS budgetAmount " +
+            "FROM Budget b WHERE b.user.id = :userId AND b.budgetMonth = :budgetMonth ORDER BY b.category")
+    List<BudgetRow> findRowsByUserIdAndMonth(Long userId, YearMonth budgetMonth);
+
+    /**
+     * Budget columns served by the JSON API
+     */
+    record BudgetRow(Long id, Transaction.Category category, Money budgetAmount) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+
+    /**
+     * Every rate as scalar columns, for building the in-memory snapshot
+     */
+    @Query("SELECT r.currency AS currency, r.rateDate AS rateDate, r.usdPerUnit AS usdPerUnit FROM FxRate r " +
+            "ORDER BY r.currency, r.rateDate")
+    List<RateRow> findAllRows();
+
+    interface RateRow {
+        String getCurrency();
+        LocalDate getRateDate();
+        BigDecimal getUsdPerUnit();
+    }
+}
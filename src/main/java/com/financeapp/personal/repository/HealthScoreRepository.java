@@ -0,0 +1,19 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.HealthScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+@Repository
+public interface HealthScoreRepository extends JpaRepository<HealthScore, Long> {
+
+    /**
+     * Find the most recent score for a user
+     */
+    Optional<HealthScore> findFirstByUserIdOrderByComputedAtDesc(Long userId);
+
+    /**
+     * Find a user's score history, newest first
+     */
+    List<HealthScore> findByUserIdOrderByComputedAtDesc(Long userId);
+}
@@ -0,0 +1,34 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.InsightSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+@Repository
+public interface InsightSnapshotRepository extends JpaRepository<InsightSnapshot, Long> {
+
+    /**
+     * Find the stored insights for a user
+     */
+    Optional<InsightSnapshot> findByUserId(Long userId);
+
+    /**
+     * The stored insights' columns for the JSON API, without the snapshot entity or its user
+     */
+    @Query("SELECT s.generalInsights AS generalInsights, s.spendingAnalysis AS spendingAnalysis, " +
+            "s.budgetRecommendations AS budgetRecommendations, s.healthScore AS healthScore, " +
+            "s.aiRefined AS aiRefined, s.generatedAt AS generatedAt FROM InsightSnapshot s WHERE s.user.id = :userId")
+    Optional<SnapshotRow> findRowByUserId(Long userId);
+
+    /**
+     * Insight snapshot columns served by the JSON API
+     */
+    record SnapshotRow(String generalInsights,
+                       String spendingAnalysis,
+                       String budgetRecommendations,
+                       int healthScore,
+                       boolean aiRefined,
+                       LocalDateTime generatedAt) {
+    }
+}
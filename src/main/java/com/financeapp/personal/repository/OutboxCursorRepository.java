@@ -0,0 +1,7 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.OutboxCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+@Repository
+public interface OutboxCursorRepository extends JpaRepository<OutboxCursor, String> {
+}
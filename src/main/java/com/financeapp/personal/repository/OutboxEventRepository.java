@@ -0,0 +1,32 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Next events after a consumer's position, oldest first
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Oldest event a consumer has not handled yet
+     */
+    Optional<OutboxEvent> findFirstByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+
+    /**
+     * Delete events every consumer has handled
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :id")
+    int deleteUpTo(Long id);
+}
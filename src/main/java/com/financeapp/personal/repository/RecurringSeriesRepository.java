@@ -0,0 +1,43 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.RecurringSeries;
+import com.financeapp.personal.entity.Transaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+@Repository
+public interface RecurringSeriesRepository extends JpaRepository<RecurringSeries, Long> {
+
+    /**
+     * Series an incoming transaction may belong to
+     */
+    List<RecurringSeries> findByAccountIdAndMerchantKeyAndTransactionType(Long accountId, String merchantKey,
+                                                                        Transaction.TransactionType transactionType);
+
+    /**
+     * A user's series in one status, largest first
+     */
+    @Query("SELECT s FROM RecurringSeries s JOIN FETCH s.account a WHERE a.user.id = :userId AND s.status = :status " +
+            "ORDER BY s.averageAmount DESC")
+    List<RecurringSeries> findByUserIdAndStatus(Long userId, RecurringSeries.Status status);
+
+    @Modifying
+    @Query("DELETE FROM RecurringSeries s WHERE s.account.id = :accountId")
+    void deleteByAccountId(Long accountId);
+
+    /**
+     * Drop candidates that have not recurred for a long time
+     */
+    @Modifying
+    @Query("DELETE FROM RecurringSeries s WHERE s.status = 'CANDIDATE' AND s.lastDate < :cutoff")
+    int deleteCandidatesLastSeenBefore(LocalDate cutoff);
+
+    /**
+     * Accounts with transactions that have never been scanned
+     */
+    @Query("SELECT a.id FROM Account a WHERE EXISTS (SELECT 1 FROM Transaction t WHERE t.account = a) " +
+            "AND NOT EXISTS (SELECT 1 FROM RecurringSeries s WHERE s.account = a)")
+    List<Long> findUnscannedAccountIds();
+}
@@ -0,0 +1,46 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.SpendingAnomaly;
+import com.financeapp.personal.entity.Transaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+@Repository
+public interface SpendingAnomalyRepository extends JpaRepository<SpendingAnomaly, Long> {
+
+    /**
+     * A user's flagged transactions since a date, newest first
+     */
+    @Query("SELECT a FROM SpendingAnomaly a WHERE a.user.id = :userId AND a.transactionDate >= :since " +
+            "ORDER BY a.transactionDate DESC, a.id DESC")
+    List<SpendingAnomaly> findRecentByUserId(Long userId, LocalDate since, Pageable pageable);
+
+    /**
+     * A user's flagged transactions since a date for the JSON API, newest first
+     */
+    @Query("SELECT a.transactionId AS transactionId, a.description AS description, a.category AS category, " +
+            "a.amount AS amount, a.usualAmount AS usualAmount, a.comparedWith AS comparedWith, " +
+            "a.transactionDate AS transactionDate FROM SpendingAnomaly a " +
+            "WHERE a.user.id = :userId AND a.transactionDate >= :since ORDER BY a.transactionDate DESC, a.id DESC")
+    List<AnomalyRow> findRecentRowsByUserId(Long userId, LocalDate since, Pageable pageable);
+
+    /**
+     * Anomaly columns served by the JSON API
+     */
+    record AnomalyRow(Long transactionId,
+                      String description,
+                      Transaction.Category category,
+                      Money amount,
+                      Money usualAmount,
+                      String comparedWith,
+                      LocalDate transactionDate) {
+    }
+
+    @Modifying
+    @Query("DELETE FROM SpendingAnomaly a WHERE a.transactionId = :transactionId")
+    void deleteByTransactionId(Long transactionId);
+}
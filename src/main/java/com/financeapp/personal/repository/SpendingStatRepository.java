@@ -0,0 +1,21 @@
+package com.financeapp.personal.repository;
+import com.financeapp.personal.entity.SpendingStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+@Repository
+public interface SpendingStatRepository extends JpaRepository<SpendingStat, Long> {
+
+    Optional<SpendingStat> findByUserIdAndScopeAndStatKey(Long userId, SpendingStat.Scope scope, String statKey);
+
+    List<SpendingStat> findByUserId(Long userId);
+
+    /**
+     * Users with expenses whose statistics have never been built
+     */
+    @Query("SELECT u.id FROM User u WHERE EXISTS (SELECT 1 FROM Transaction t WHERE t.account.user = u " +
+            "AND t.transactionType = 'EXPENSE') AND NOT EXISTS (SELECT 1 FROM SpendingStat s WHERE s.user = u)")
+    List<Long> findUserIdsWithoutStats();
+}
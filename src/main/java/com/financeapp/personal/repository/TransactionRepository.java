@@ -1,13 +1,21 @@
 package com.financeapp.personal.repository;
+import com.financeapp.personal.dto.TransactionSearchPage;
 import com.financeapp.personal.entity.Account;
 import com.financeapp.personal.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
@@ -16,6 +24,11 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     List<Transaction> findByAccountOrderByTransactionDateDescCreatedAtDesc(Account account);
 
+    /**
+     * Find a transaction only if it is on one of the user's accounts
+     */
+    Optional<Transaction> findByIdAndAccountUserId(Long id, Long userId);
+
     /**
      * Find transactions by category and date range
      */
@@ -53,4 +66,230 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             "WHERE a.user.id = :userId AND t.transactionType = 'EXPENSE' " +
             "AND t.transactionDate BETWEEN :startDate AND :endDate")
     BigDecimal calculateTotalExpensesForUserInPeriod(Long userId, LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+    /**
+     * Daily totals per account currency, type and category for a user in a date range
+     *
+     * One grouped query instead of one per category and type; the caller converts
+     * each day's totals into the reporting currency in a single pass.
+     */
+    @Query("SELECT a.currency AS currency, t.transactionDate AS transactionDate, t.transactionType AS transactionType, " +
+            "t.category AS category, SUM(t.amount) AS total FROM Transaction t JOIN t.account a " +
+            "WHERE a.user.id = :userId AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY a.currency, t.transactionDate, t.transactionType, t.category")
+    List<DailyTotalRow> findDailyTotalsByUserId(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * One day's total in one account currency, type and category
+     */
+    record DailyTotalRow(String currency,
+                         LocalDate transactionDate,
+                         Transaction.TransactionType transactionType,
+                         Transaction.Category category,
+                         BigDecimal total) {
+    }
+
+    /**
+     * Sum of one transaction type per user in a date range, for a batch of users, over accounts in one currency
+     */
+    @Query("SELECT a.user.id AS userId, COALESCE(SUM(t.amount), 0) AS total FROM Transaction t JOIN t.account a " +
+            "WHERE a.user.id IN :userIds AND t.transactionType = :transactionType AND a.currency = :currency " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY a.user.id")
+    List<UserTotal> sumByUserForTypeInPeriod(Collection<Long> userIds, Transaction.TransactionType transactionType,
+                                             String currency, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Daily sums of one transaction type per user and currency, over accounts not in the given currency
+     *
+     * Kept apart from the per-user sums so only foreign-currency accounts, usually few, are grouped by day.
+     */
+    @Query("SELECT a.user.id AS userId, a.currency AS currency, t.transactionDate AS transactionDate, SUM(t.amount) AS total " +
+            "FROM Transaction t JOIN t.account a " +
+            "WHERE a.user.id IN :userIds AND t.transactionType = :transactionType AND a.currency <> :currency " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY a.user.id, a.currency, t.transactionDate")
+    List<UserDailyTotalRow> sumOtherCurrenciesByUserAndDay(Collection<Long> userIds,
+                                                           Transaction.TransactionType transactionType,
+                                                           String currency, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * One user's total on one day in one account currency
+     */
+    record UserDailyTotalRow(Long userId, String currency, LocalDate transactionDate, BigDecimal total) {
+    }
+
+    /**
+     * Per-user total returned by grouped queries
+     */
+    interface UserTotal {
+        Long getUserId();
+        BigDecimal getTotal();
+    }
+
+    /**
+     * Scalar columns of every transaction for a user, without hydrating entities
+     */
+    @Query("SELECT t.id AS id, t.account.id AS accountId, t.amount AS amount, t.transactionType AS transactionType, " +
+            "t.category AS category, t.transactionDate AS transactionDate " +
+            "FROM Transaction t WHERE t.account.user.id = :userId ORDER BY t.id")
+    List<TransactionRow> findRowsByUserId(Long userId);
+
+    /**
+     * Scalar transaction columns used to build in-memory analytics
+     */
+    interface TransactionRow {
+        Long getId();
+        Long getAccountId();
+        BigDecimal getAmount();
+        Transaction.TransactionType getTransactionType();
+        Transaction.Category getCategory();
+        LocalDate getTransactionDate();
+    }
+
+    /**
+     * Description and filter columns of every transaction for a user, for the search index
+     */
+    @Query("SELECT t.id AS id, t.description AS description, t.category AS category, " +
+            "t.transactionDate AS transactionDate " +
+            "FROM Transaction t WHERE t.account.user.id = :userId ORDER BY t.id")
+    List<SearchRow> findSearchRowsByUserId(Long userId);
+
+    /**
+     * Transaction columns used to build the search index
+     */
+    interface SearchRow {
+        Long getId();
+        String getDescription();
+        Transaction.Category getCategory();
+        LocalDate getTransactionDate();
+    }
+
+    /**
+     * Labelled description, amount and category of every transaction, streamed to train the global categorizer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.account.user.id AS userId, t.description AS description, t.amount AS amount, " +
+            "t.category AS category FROM Transaction t")
+    Stream<CategorizationRow> streamCategorizationRows();
+
+    /**
+     * Labelled transactions of one user, to train their categorizer
+     */
+    @Query("SELECT t.account.user.id AS userId, t.description AS description, t.amount AS amount, " +
+            "t.category AS category FROM Transaction t WHERE t.account.user.id = :userId")
+    List<CategorizationRow> findCategorizationRowsByUserId(Long userId);
+
+    /**
+     * Transaction columns used to train the categorizer
+     */
+    interface CategorizationRow {
+        Long getUserId();
+        String getDescription();
+        BigDecimal getAmount();
+        Transaction.Category getCategory();
+    }
+
+    /**
+     * Every transaction on an account in date order, streamed for recurring payment detection
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, t.description AS description, t.amount AS amount, " +
+            "t.transactionType AS transactionType, t.category AS category, t.transactionDate AS transactionDate " +
+            "FROM Transaction t WHERE t.account.id = :accountId ORDER BY t.transactionDate, t.id")
+    Stream<RecurringRow> streamRecurringRowsByAccountId(Long accountId);
+
+    /**
+     * Transaction columns used to detect recurring payments
+     */
+    interface RecurringRow {
+        Long getId();
+        String getDescription();
+        BigDecimal getAmount();
+        Transaction.TransactionType getTransactionType();
+        Transaction.Category getCategory();
+        LocalDate getTransactionDate();
+    }
+
+    /**
+     * One user's expenses, to build their spending statistics
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.description AS description, t.amount AS amount, t.category AS category, " +
+            "t.transactionDate AS transactionDate, t.account.currency AS currency " +
+            "FROM Transaction t WHERE t.account.user.id = :userId AND t.transactionType = 'EXPENSE'")
+    Stream<SpendingRow> streamExpenseRowsByUserId(Long userId);
+
+    /**
+     * Transaction columns used to build spending statistics
+     */
+    interface SpendingRow {
+        String getDescription();
+        BigDecimal getAmount();
+        Transaction.Category getCategory();
+        LocalDate getTransactionDate();
+        String getCurrency();
+    }
+
+    /**
+     * Monthly totals per account, type and category since a date, for seasonal forecasting
+     */
+    @Query("SELECT t.account.id AS accountId, t.transactionType AS transactionType, t.category AS category, " +
+            "YEAR(t.transactionDate) AS year, MONTH(t.transactionDate) AS month, SUM(t.amount) AS total " +
+            "FROM Transaction t WHERE t.account.user.id = :userId " +
+            "AND t.transactionDate >= :startDate AND t.transactionDate < :endDate " +
+            "GROUP BY t.account.id, t.transactionType, t.category, YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<MonthlyTotalRow> findMonthlyTotalsByUserId(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * One account's total for one type, category and month
+     *
+     * A record rather than an interface projection: a user's two years of
+     * totals are thousands of rows, and proxy getters cost more than the query.
+     */
+    record MonthlyTotalRow(Long accountId,
+                           Transaction.TransactionType transactionType,
+                           Transaction.Category category,
+                           Integer year,
+                           Integer month,
+                           BigDecimal total) {
+    }
+
+    /**
+     * Search results by ID, with only the columns the search API returns
+     */
+    @Query("SELECT t.id AS id, t.description AS description, t.amount AS amount, " +
+            "t.transactionType AS transactionType, t.category AS category, t.transactionDate AS transactionDate, " +
+            "a.id AS accountId, a.accountName AS accountName FROM Transaction t JOIN t.account a WHERE t.id IN :ids")
+    List<TransactionSearchPage.Item> findSearchItemsByIds(Collection<Long> ids);
+
+    /**
+     * A user's transactions for the JSON API, newest first, streamed; null filters match everything
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, t.account.id AS accountId, t.description AS description, t.amount AS amount, " +
+            "t.transactionType AS transactionType, t.category AS category, t.transactionDate AS transactionDate " +
+            "FROM Transaction t WHERE t.account.user.id = :userId " +
+            "AND (:accountId IS NULL OR t.account.id = :accountId) " +
+            "AND (:category IS NULL OR t.category = :category) " +
+            "AND (:fromDate IS NULL OR t.transactionDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR t.transactionDate <= :toDate) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    Stream<ApiTransactionRow> streamApiRowsByUserId(Long userId, Long accountId, Transaction.Category category,
+                                                    LocalDate fromDate, LocalDate toDate, Limit limit);
+
+    /**
+     * Transaction columns served by the JSON API
+     *
+     * A record rather than an interface projection, like MonthlyTotalRow:
+     * a page is up to ten thousand rows, written out as they are read.
+     */
+    record ApiTransactionRow(Long id,
+                             Long accountId,
+                             String description,
+                             BigDecimal amount,
+                             Transaction.TransactionType transactionType,
+                             Transaction.Category category,
+                             LocalDate transactionDate) {
+    }
+}
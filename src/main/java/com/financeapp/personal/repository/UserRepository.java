@@ -1,7 +1,9 @@
 package com.financeapp.personal.repository;
 import com.financeapp.personal.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 /**
  * UserRepository provides data access for User entities
@@ -29,4 +31,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Used for user search functionality
      */
     Optional<User> findByFirstNameIgnoreCaseAndLastNameIgnoreCase(String firstName, String lastName);
+
+    /**
+     * All user IDs in ascending order
+     * Used to partition batch jobs without loading user entities
+     */
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
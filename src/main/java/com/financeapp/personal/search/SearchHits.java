@@ -0,0 +1,7 @@
+package com.financeapp.personal.search;
+import java.util.List;
+/**
+ * One page of matching transaction IDs, newest first, and the total match count
+ */
+public record SearchHits(List<Long> transactionIds, int totalHits) {
+}
@@ -0,0 +1,56 @@
+package com.financeapp.personal.search;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * One term of a search query and how it matches indexed terms
+ *
+ * Query syntax:
+ * - starbucks   matches the term exactly
+ * - star*       matches every term starting with "star"
+ * - starbcks~   matches terms within a small edit distance
+ */
+public record SearchTerm(String text, MatchMode mode) {
+
+    public enum MatchMode {
+        EXACT, PREFIX, FUZZY
+    }
+
+    /**
+     * Parse query text into terms
+     *
+     * @param fuzzyByDefault match plain terms fuzzily instead of exactly
+     */
+    public static List<SearchTerm> parse(String query, boolean fuzzyByDefault) {
+        List<SearchTerm> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+
+        for (String word : query.trim().split("\\s+")) {
+            MatchMode mode = fuzzyByDefault ? MatchMode.FUZZY : MatchMode.EXACT;
+            if (word.endsWith("*")) {
+                mode = MatchMode.PREFIX;
+            } else if (word.endsWith("~")) {
+                mode = MatchMode.FUZZY;
+            }
+
+            // "coffee-shop*" tokenizes to two terms; the operator applies to the last one
+            List<String> tokens = SearchTokenizer.tokenize(word);
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean last = i == tokens.size() - 1;
+                terms.add(new SearchTerm(tokens.get(i), last ? mode : (fuzzyByDefault ? MatchMode.FUZZY : MatchMode.EXACT)));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Maximum edit distance for a fuzzy term, scaled by its length
+     */
+    public int maxEdits() {
+        if (text.length() <= 2) {
+            return 0;
+        }
+        return text.length() <= 5 ? 1 : 2;
+    }
+}
@@ -0,0 +1,39 @@
+package com.financeapp.personal.search;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+/**
+ * SearchTokenizer splits descriptions into lowercase terms
+ *
+ * Anything that is not a letter or digit separates terms, so
+ * "STARBUCKS #1234 SEATTLE" becomes [starbucks, 1234, seattle].
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.isLetterOrDigit(lower.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            terms.add(lower.substring(start));
+        }
+        return terms;
+    }
+}
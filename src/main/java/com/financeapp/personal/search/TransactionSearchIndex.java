@@ -0,0 +1,258 @@
+package com.financeapp.personal.search;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.EventConsumer;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.service.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * TransactionSearchIndex keeps a full-text index of transaction descriptions per user
+ *
+ * - A user's index is built on first search from one scalar query
+ * - Posted and edited transactions are indexed as they commit
+ * - Transactions indexed while a build is running are replayed onto its result
+ * - Indexes with many superseded edits are rebuilt on next use
+ * - Least recently used users are evicted to stay within the memory budget
+ */
+@Component
+public class TransactionSearchIndex implements EventConsumer {
+
+    private static final double REBUILD_DELETED_RATIO = 0.5;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate loadTransaction;
+    private final long memoryBudgetBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, UserSearchIndex> indexesByUser = new LinkedHashMap<>(16, 0.75f, true);
+    private final SingleFlight<Long, UserSearchIndex> inFlightLoads = new SingleFlight<>();
+    private final Map<Long, PendingBuild> pendingBuilds = new HashMap<>();
+    private long usedBytes;
+
+    @Autowired
+    public TransactionSearchIndex(TransactionRepository transactionRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${search.index.max-memory-mb:128}") long maxMemoryMb) {
+        this.transactionRepository = transactionRepository;
+        this.memoryBudgetBytes = maxMemoryMb * 1024 * 1024;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Search one user's transactions
+     *
+     * @param query    terms, with "term*" for prefix and "term~" for fuzzy matching
+     * @param fuzzy    match plain terms fuzzily
+     * @param category only this category, or null
+     * @param from     earliest date (inclusive), or null
+     * @param to       latest date (inclusive), or null
+     */
+    public SearchHits search(Long userId, String query, boolean fuzzy, Transaction.Category category,
+                             LocalDate from, LocalDate to, int page, int size) {
+        return indexFor(userId).search(SearchTerm.parse(query, fuzzy), category, from, to, page, size);
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "search-index";
+    }
+
+    @Override
+    public boolean changesViews() {
+        return true;
+    }
+
+    @Override
+    public void consume(List<FinanceEvent> events) {
+        for (FinanceEvent event : events) {
+            if (event instanceof TransactionPostedEvent posted) {
+                onTransactionPosted(posted);
+            } else if (event instanceof TransactionEditedEvent edited) {
+                onTransactionEdited(edited);
+            } else if (event instanceof TransactionsImportedEvent imported) {
+                onTransactionsImported(imported);
+            }
+        }
+    }
+
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        index(event.userId(), new IndexedTransaction(event.transactionId(), event.description(), event.category(),
+                event.transactionDate()));
+    }
+
+    public void onTransactionEdited(TransactionEditedEvent event) {
+        index(event.userId(), new IndexedTransaction(event.transactionId(), event.description(), event.category(),
+                event.transactionDate()));
+    }
+
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        event.transactions().forEach(this::onTransactionPosted);
+    }
+
+    public void evict(Long userId) {
+        lock.lock();
+        try {
+            UserSearchIndex removed = indexesByUser.remove(userId);
+            if (removed != null) {
+                usedBytes -= removed.estimatedBytes();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserSearchIndex indexFor(Long userId) {
+        UserSearchIndex cached = get(userId);
+        if (cached != null && cached.deletedRatio() < REBUILD_DELETED_RATIO) {
+            return cached;
+        }
+
+        return inFlightLoads.execute(userId, () -> {
+            UserSearchIndex existing = get(userId);
+            if (existing != null && existing.deletedRatio() < REBUILD_DELETED_RATIO) {
+                return existing;
+            }
+
+            // Register before the snapshot starts so nothing indexed after it is missed
+            PendingBuild pending = beginBuild(userId);
+            try {
+                UserSearchIndex built = loadTransaction.execute(status -> build(userId));
+                finishBuild(userId, pending, built);
+                return built;
+            } finally {
+                abandonBuild(userId, pending);
+            }
+        });
+    }
+
+    /**
+     * Index into the cached index, and queue for a build that is running
+     *
+     * On the rebuild path both exist: the old index keeps serving searches until it is replaced.
+     */
+    private void index(Long userId, IndexedTransaction transaction) {
+        UserSearchIndex index;
+        lock.lock();
+        try {
+            index = indexesByUser.get(userId);
+            PendingBuild pending = pendingBuilds.get(userId);
+            if (pending != null) {
+                pending.indexed.add(transaction); // The running build's snapshot may predate this commit
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (index != null) {
+            transaction.indexInto(index);
+        }
+    }
+
+    private PendingBuild beginBuild(Long userId) {
+        PendingBuild pending = new PendingBuild();
+        lock.lock();
+        try {
+            pendingBuilds.put(userId, pending);
+        } finally {
+            lock.unlock();
+        }
+        return pending;
+    }
+
+    /**
+     * Replay what was indexed during the build, in order, and cache the result
+     *
+     * Replaying a transaction the snapshot already read replaces it with the same values.
+     */
+    private void finishBuild(Long userId, PendingBuild pending, UserSearchIndex built) {
+        lock.lock();
+        try {
+            pendingBuilds.remove(userId, pending);
+            for (IndexedTransaction transaction : pending.indexed) {
+                transaction.indexInto(built);
+            }
+            put(userId, built);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandonBuild(Long userId, PendingBuild pending) {
+        lock.lock();
+        try {
+            pendingBuilds.remove(userId, pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserSearchIndex get(Long userId) {
+        lock.lock();
+        try {
+            return indexesByUser.get(userId); // Access-ordered: marks the user as recently used
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Long userId, UserSearchIndex index) {
+        long bytes = index.estimatedBytes();
+        lock.lock();
+        try {
+            UserSearchIndex previous = indexesByUser.put(userId, index);
+            usedBytes += bytes - (previous == null ? 0 : previous.estimatedBytes());
+
+            // Evict least recently used users until we fit, but always keep the newest entry
+            Iterator<Map.Entry<Long, UserSearchIndex>> eldest = indexesByUser.entrySet().iterator();
+            while (usedBytes > memoryBudgetBytes && indexesByUser.size() > 1 && eldest.hasNext()) {
+                Map.Entry<Long, UserSearchIndex> entry = eldest.next();
+                if (entry.getKey().equals(userId)) {
+                    continue;
+                }
+                usedBytes -= entry.getValue().estimatedBytes();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserSearchIndex build(Long userId) {
+        List<TransactionRepository.SearchRow> rows = transactionRepository.findSearchRowsByUserId(userId);
+        UserSearchIndex index = new UserSearchIndex(rows.size());
+        for (TransactionRepository.SearchRow row : rows) {
+            index.index(row.getId(), row.getDescription(), row.getCategory(), row.getTransactionDate());
+        }
+        return index;
+    }
+
+    private record IndexedTransaction(long transactionId, String description, Transaction.Category category,
+                                      LocalDate date) {
+
+        void indexInto(UserSearchIndex index) {
+            index.index(transactionId, description, category, date);
+        }
+    }
+
+    /**
+     * Transactions indexed for a user while their index is being built
+     */
+    private static final class PendingBuild {
+        final List<IndexedTransaction> indexed = new ArrayList<>();
+    }
+}
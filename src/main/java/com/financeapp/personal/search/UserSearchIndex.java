@@ -0,0 +1,416 @@
+package com.financeapp.personal.search;
+import com.financeapp.personal.entity.Transaction;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * UserSearchIndex is an inverted index over one user's transaction descriptions
+ *
+ * Each indexed transaction is a document number. The index holds:
+ * - a sorted term dictionary, so prefix queries are a range scan
+ * - a postings list of document numbers per term
+ * - per-document transaction ID, date (epoch day) and category for filtering
+ *
+ * Edits append a new document and mark the old one deleted, so postings
+ * stay append-only. Reads take a shared lock so updates are safe.
+ */
+public class UserSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_POSTINGS = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> documentByTransaction = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    // Document columns
+    private long[] transactionIds;
+    private int[] epochDays;
+    private byte[] categories;
+    private int documentCount;
+
+    public UserSearchIndex(int expectedDocuments) {
+        int capacity = Math.max(INITIAL_CAPACITY, expectedDocuments);
+        this.transactionIds = new long[capacity];
+        this.epochDays = new int[capacity];
+        this.categories = new byte[capacity];
+    }
+
+    /**
+     * Add a transaction, replacing any earlier version of it
+     */
+    public void index(long transactionId, String description, Transaction.Category category, LocalDate date) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = documentByTransaction.get(transactionId);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+
+            ensureCapacity(documentCount + 1);
+            int document = documentCount++;
+            transactionIds[document] = transactionId;
+            epochDays[document] = (int) date.toEpochDay();
+            categories[document] = (byte) category.ordinal();
+            documentByTransaction.put(transactionId, document);
+
+            for (String term : SearchTokenizer.tokenize(description)) {
+                Postings postings = dictionary.computeIfAbsent(term, t -> new Postings());
+                if (postings.last() != document) {
+                    postings.add(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find transactions matching every query term, newest first
+     *
+     * @param category only this category, or null for all
+     * @param from     earliest date (inclusive), or null
+     * @param to       latest date (inclusive), or null
+     */
+    public SearchHits search(List<SearchTerm> terms, Transaction.Category category, LocalDate from, LocalDate to,
+                             int page, int size) {
+        int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+        int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        int wantedCategory = category == null ? -1 : category.ordinal();
+
+        lock.readLock().lock();
+        try {
+            // Resolve each term to the postings it expands to, then intersect starting from the rarest
+            List<List<Postings>> termPostings = new ArrayList<>(terms.size());
+            for (SearchTerm term : terms) {
+                List<Postings> expanded = expand(term);
+                if (expanded.isEmpty()) {
+                    return new SearchHits(List.of(), 0);
+                }
+                termPostings.add(expanded);
+            }
+            termPostings.sort(Comparator.comparingLong(UserSearchIndex::totalPostings));
+
+            int[] candidates;
+            if (termPostings.isEmpty()) {
+                // No terms: filters only
+                candidates = new int[documentCount];
+                Arrays.setAll(candidates, doc -> doc);
+            } else {
+                candidates = union(termPostings.get(0));
+            }
+            for (int t = 1; t < termPostings.size() && candidates.length > 0; t++) {
+                candidates = retainMatching(candidates, termPostings.get(t));
+            }
+
+            // Sort key packs the date above the document number: newest, then latest posted, is largest
+            long[] keys = new long[candidates.length];
+            int hits = 0;
+            for (int doc : candidates) {
+                int day = epochDays[doc];
+                if (deleted.get(doc) || day < fromDay || day > toDay
+                        || (wantedCategory >= 0 && categories[doc] != wantedCategory)) {
+                    continue;
+                }
+                keys[hits++] = ((long) day << 32) | doc;
+            }
+
+            int first = (int) Math.min(hits, (long) page * size);
+            int end = (int) Math.min(hits, (long) first + size);
+            long[] newest = largestDescending(keys, hits, end);
+
+            List<Long> pageIds = new ArrayList<>(end - first);
+            for (int rank = first; rank < end; rank++) {
+                pageIds.add(transactionIds[(int) newest[rank]]);
+            }
+            return new SearchHits(pageIds, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Share of documents that are superseded edits
+     */
+    public double deletedRatio() {
+        lock.readLock().lock();
+        try {
+            return documentCount == 0 ? 0 : (double) deleted.cardinality() / documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint, used to bound the number of cached indexes
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = transactionIds.length * 13L + documentByTransaction.size() * 48L + 256;
+            for (Map.Entry<String, Postings> entry : dictionary.entrySet()) {
+                bytes += 64 + entry.getKey().length() * 2L + entry.getValue().documents.length * 4L;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Postings> expand(SearchTerm term) {
+        List<Postings> expanded = new ArrayList<>();
+        switch (term.mode()) {
+            case EXACT -> {
+                Postings postings = dictionary.get(term.text());
+                if (postings != null) {
+                    expanded.add(postings);
+                }
+            }
+            case PREFIX -> expanded.addAll(
+                    dictionary.subMap(term.text(), true, term.text() + Character.MAX_VALUE, false).values());
+            case FUZZY -> {
+                int maxEdits = term.maxEdits();
+                EditDistance distance = new EditDistance(term.text().length() + maxEdits);
+                for (Map.Entry<String, Postings> entry : dictionary.entrySet()) {
+                    String candidate = entry.getKey();
+                    if (Math.abs(candidate.length() - term.text().length()) <= maxEdits
+                            && distance.within(term.text(), candidate, maxEdits)) {
+                        expanded.add(entry.getValue());
+                    }
+                }
+            }
+        }
+        return expanded;
+    }
+
+    private int[] union(List<Postings> postingsList) {
+        if (postingsList.size() == 1) {
+            Postings only = postingsList.get(0);
+            return Arrays.copyOf(only.documents, only.size);
+        }
+        BitSet documents = new BitSet(documentCount);
+        for (Postings postings : postingsList) {
+            postings.addTo(documents);
+        }
+        return documents.stream().toArray();
+    }
+
+    /**
+     * Keep the candidates that appear in any of the postings
+     */
+    private int[] retainMatching(int[] candidates, List<Postings> postingsList) {
+        int[] retained = new int[candidates.length];
+        int kept = 0;
+
+        // Few candidates against long postings: binary search each list instead of walking it
+        if ((long) candidates.length * postingsList.size() * 16 < totalPostings(postingsList)) {
+            for (int doc : candidates) {
+                for (Postings postings : postingsList) {
+                    if (Arrays.binarySearch(postings.documents, 0, postings.size, doc) >= 0) {
+                        retained[kept++] = doc;
+                        break;
+                    }
+                }
+            }
+        } else {
+            BitSet documents = new BitSet(documentCount);
+            for (Postings postings : postingsList) {
+                postings.addTo(documents);
+            }
+            for (int doc : candidates) {
+                if (documents.get(doc)) {
+                    retained[kept++] = doc;
+                }
+            }
+        }
+        return Arrays.copyOf(retained, kept);
+    }
+
+    private static long totalPostings(List<Postings> postingsList) {
+        long total = 0;
+        for (Postings postings : postingsList) {
+            total += postings.size;
+        }
+        return total;
+    }
+
+    /**
+     * The largest {@code limit} of the first {@code count} keys, in descending order
+     *
+     * Small pages keep a bounded min-heap instead of sorting every hit.
+     */
+    static long[] largestDescending(long[] keys, int count, int limit) {
+        long[] largest;
+        if (limit * 4L >= count) {
+            Arrays.sort(keys, 0, count);
+            largest = Arrays.copyOfRange(keys, count - limit, count);
+        } else {
+            largest = new long[limit];
+            int heapSize = 0;
+            for (int i = 0; i < count; i++) {
+                long key = keys[i];
+                if (heapSize < limit) {
+                    largest[heapSize] = key;
+                    siftUp(largest, heapSize++);
+                } else if (key > largest[0]) {
+                    largest[0] = key;
+                    siftDown(largest, limit);
+                }
+            }
+            Arrays.sort(largest);
+        }
+
+        for (int i = 0, j = largest.length - 1; i < j; i++, j--) {
+            long swap = largest[i];
+            largest[i] = largest[j];
+            largest[j] = swap;
+        }
+        return largest;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            long swap = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = swap;
+            index = smallest;
+        }
+    }
+
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        return new EditDistance(b.length()).within(a, b, maxEdits);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= transactionIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, transactionIds.length + (transactionIds.length >> 1));
+        transactionIds = Arrays.copyOf(transactionIds, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+
+    /**
+     * Growable, ascending list of document numbers for one term
+     */
+    private static final class Postings {
+        private int[] documents = new int[INITIAL_POSTINGS];
+        private int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        int last() {
+            return size == 0 ? -1 : documents[size - 1];
+        }
+
+        void addTo(BitSet target) {
+            for (int i = 0; i < size; i++) {
+                target.set(documents[i]);
+            }
+        }
+    }
+
+    /**
+     * Optimal string alignment distance (adjacent transpositions count as one edit),
+     * abandoning a row as soon as every cell exceeds the limit. Rows are reused
+     * across the candidates of one fuzzy term.
+     */
+    private static final class EditDistance {
+        private int[] previousPrevious;
+        private int[] previous;
+        private int[] current;
+
+        EditDistance(int maxLength) {
+            resize(maxLength);
+        }
+
+        boolean within(String a, String b, int maxEdits) {
+            if (maxEdits == 0) {
+                return a.equals(b);
+            }
+            if (b.length() >= previous.length) {
+                resize(b.length());
+            }
+            for (int j = 0; j <= b.length(); j++) {
+                previous[j] = j;
+            }
+
+            for (int i = 1; i <= a.length(); i++) {
+                current[0] = i;
+                int rowMin = current[0];
+                for (int j = 1; j <= b.length(); j++) {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        distance = Math.min(distance, previousPrevious[j - 2] + 1);
+                    }
+                    current[j] = distance;
+                    rowMin = Math.min(rowMin, distance);
+                }
+                if (rowMin > maxEdits) {
+                    return false;
+                }
+                int[] recycled = previousPrevious;
+                previousPrevious = previous;
+                previous = current;
+                current = recycled;
+            }
+            return previous[b.length()] <= maxEdits;
+        }
+
+        private void resize(int maxLength) {
+            previousPrevious = new int[maxLength + 1];
+            previous = new int[maxLength + 1];
+            current = new int[maxLength + 1];
+        }
+    }
+}
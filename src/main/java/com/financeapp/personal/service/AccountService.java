@@ -1,12 +1,19 @@
 package com.financeapp.personal.service;
 import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
 import com.financeapp.personal.entity.User;
+import com.financeapp.personal.event.FinancialDataChangedEvent;
+import com.financeapp.personal.fx.FxRateSnapshot;
 import com.financeapp.personal.repository.AccountRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 /**
  * AccountService handles business logic for Account operations
@@ -16,10 +23,15 @@ import java.util.Optional;
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateService fxRateService;
 
     @Autowired
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, ApplicationEventPublisher eventPublisher,
+                          FxRateService fxRateService) {
         this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.fxRateService = fxRateService;
     }
 
     /**
@@ -29,11 +41,16 @@ public class AccountService {
         if (account.getUser() == null) {
             throw new IllegalArgumentException("Account must be associated with a user");
         }
+        if (!fxRateService.current().supports(account.getCurrency())) {
+            throw new IllegalArgumentException("Unsupported currency: " + account.getCurrency());
+        }
 
         // Set current balance to initial balance
         account.setCurrentBalance(account.getInitialBalance());
 
-        return accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(savedAccount.getUser().getId()));
+        return savedAccount;
     }
 
     /**
@@ -53,24 +70,56 @@ public class AccountService {
     }
 
     /**
-     * Calculate total net worth for a user
+     * Transaction count per account id for a user's accounts, in one grouped query
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countTransactionsByAccount(Long userId) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (AccountRepository.TransactionCountRow row : accountRepository.countTransactionsByUserId(userId)) {
+            counts.put(row.accountId(), row.transactionCount());
+        }
+        return counts;
+    }
+
+    /**
+     * A user's accounts as JSON API rows, without loading the entities
+     */
+    @Transactional(readOnly = true)
+    public List<AccountRepository.AccountSummaryRow> findAccountRows(Long userId) {
+        return accountRepository.findSummaryRowsByUserId(userId);
+    }
+
+    /**
+     * One of a user's accounts as a JSON API row; empty if it belongs to someone else
+     */
+    @Transactional(readOnly = true)
+    public Optional<AccountRepository.AccountSummaryRow> findAccountRow(Long userId, Long accountId) {
+        return accountRepository.findSummaryRowByIdAndUserId(accountId, userId);
+    }
+
+    /**
+     * Calculate total net worth for a user, in the reporting currency at today's rates
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateNetWorth(User user) {
         List<Account> accounts = accountRepository.findByUserOrderByAccountNameAsc(user);
-        BigDecimal netWorth = BigDecimal.ZERO;
+        FxRateSnapshot rates = fxRateService.current();
+        long today = LocalDate.now().toEpochDay();
+        long netWorthCents = 0;
 
         for (Account account : accounts) {
+            long balanceCents = rates.toReportingCents(Money.toCents(account.getCurrentBalance()),
+                    rates.indexOf(account.getCurrency()), today);
             if (account.getAccountType() == Account.AccountType.CREDIT_CARD) {
                 // Credit card balances are liabilities (subtract from net worth)
-                netWorth = netWorth.subtract(account.getCurrentBalance());
+                netWorthCents = Math.subtractExact(netWorthCents, balanceCents);
             } else {
                 // Checking and savings are assets (add to net worth)
-                netWorth = netWorth.add(account.getCurrentBalance());
+                netWorthCents = Math.addExact(netWorthCents, balanceCents);
             }
         }
 
-        return netWorth;
+        return Money.ofCents(netWorthCents).toBigDecimal();
     }
 
     /**
@@ -84,7 +133,9 @@ public class AccountService {
 
         Account account = accountOpt.get();
         account.setCurrentBalance(newBalance);
-        return accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(savedAccount.getUser().getId()));
+        return savedAccount;
     }
 
     /**
@@ -101,6 +152,8 @@ public class AccountService {
             throw new IllegalStateException("Cannot delete account with existing transactions");
         }
 
+        Long userId = account.getUser().getId();
         accountRepository.deleteById(id);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
     }
 }
\ No newline at end of file
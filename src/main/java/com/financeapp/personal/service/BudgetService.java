@@ -0,0 +1,67 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.dto.BudgetView;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.BudgetRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * BudgetService reports how a month's spending compares with its budgets
+ *
+ * - Budgets are read as rows, without loading Budget entities or their user
+ * - Spending comes from one grouped query of daily totals, converted to the
+ *   reporting currency at each day's rate
+ * Budgets are in the reporting currency, like the rest of the dashboard.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final TransactionRepository transactionRepository;
+    private final FxRateService fxRateService;
+
+    @Autowired
+    public BudgetService(BudgetRepository budgetRepository,
+                         TransactionRepository transactionRepository,
+                         FxRateService fxRateService) {
+        this.budgetRepository = budgetRepository;
+        this.transactionRepository = transactionRepository;
+        this.fxRateService = fxRateService;
+    }
+
+    /**
+     * A user's budgets for a month with what has been spent against each so far
+     */
+    public BudgetView getBudgetStatus(Long userId, YearMonth month) {
+        FxRateSnapshot rates = fxRateService.current();
+        List<BudgetRepository.BudgetRow> budgets = budgetRepository.findRowsByUserIdAndMonth(userId, month);
+
+        long[] spentByCategory = new long[Transaction.Category.values().length];
+        if (!budgets.isEmpty()) {
+            for (TransactionRepository.DailyTotalRow row : transactionRepository.findDailyTotalsByUserId(
+                    userId, month.atDay(1), month.atEndOfMonth())) {
+                if (row.transactionType() != Transaction.TransactionType.EXPENSE) {
+                    continue;
+                }
+                int category = row.category().ordinal();
+                spentByCategory[category] = Math.addExact(spentByCategory[category], rates.toReportingCents(
+                        Money.toCents(row.total()), rates.indexOf(row.currency()), row.transactionDate().toEpochDay()));
+            }
+        }
+
+        List<BudgetView.Line> lines = new ArrayList<>(budgets.size());
+        for (BudgetRepository.BudgetRow budget : budgets) {
+            Money spent = Money.ofCents(spentByCategory[budget.category().ordinal()]);
+            lines.add(new BudgetView.Line(budget.id(), budget.category(), budget.budgetAmount().toBigDecimal(),
+                    spent.toBigDecimal(), budget.budgetAmount().minus(spent).toBigDecimal()));
+        }
+        return new BudgetView(month, rates.getReportingCurrency(), lines);
+    }
+}
@@ -0,0 +1,246 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.RecurringSeries;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.forecast.AccountForecast;
+import com.financeapp.personal.forecast.AccountForecastInput;
+import com.financeapp.personal.forecast.CashFlowForecast;
+import com.financeapp.personal.forecast.CashFlowProjector;
+import com.financeapp.personal.forecast.RecurringFlow;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * CashFlowForecastService projects a user's account balances and net worth into the coming months
+ *
+ * Each account's projection combines:
+ * - Detected recurring payments and income, placed on their expected dates
+ * - Seasonal averages of everything else, per category and calendar month, from the last two years
+ * Inputs are loaded with three queries; the projection itself runs on a fork-join pool, one task per few accounts.
+ * Accounts project in their own currency; net worth adds them up at today's FX rates.
+ */
+@Service
+public class CashFlowForecastService {
+
+    public static final int MIN_MONTHS = 3;
+    public static final int MAX_MONTHS = 12;
+    private static final int HISTORY_MONTHS = 24;
+    // Without a detected paycheck, look this far ahead for a shortfall
+    private static final int DEFAULT_PAYDAY_HORIZON_DAYS = 31;
+
+    private final AccountService accountService;
+    private final TransactionRepository transactionRepository;
+    private final RecurringSeriesService recurringSeriesService;
+    private final FxRateService fxRateService;
+    private final ForkJoinPool projectionPool;
+
+    @Autowired
+    public CashFlowForecastService(AccountService accountService,
+                                   TransactionRepository transactionRepository,
+                                   RecurringSeriesService recurringSeriesService,
+                                   FxRateService fxRateService,
+                                   @Value("${forecast.parallelism:0}") int parallelism) {
+        this.accountService = accountService;
+        this.transactionRepository = transactionRepository;
+        this.recurringSeriesService = recurringSeriesService;
+        this.fxRateService = fxRateService;
+        this.projectionPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * A shortfall found before the next paycheck
+     *
+     * @param nextPayday   expected date of the next recurring income, or null if none is known
+     * @param atRisk       accounts that go negative, with the first negative date and lowest balance
+     */
+    public record PaydayCheck(LocalDate nextPayday, List<AccountShortfall> atRisk) {
+
+        public boolean goesNegative() {
+            return !atRisk.isEmpty();
+        }
+    }
+
+    public record AccountShortfall(Long accountId, String accountName, LocalDate firstNegativeDate,
+                                   LocalDate lowestDate, BigDecimal lowestBalance) {
+    }
+
+    private record FlowKey(Transaction.TransactionType type, Transaction.Category category) {}
+
+    /**
+     * Project every account of a user, day by day
+     *
+     * @param months forecast length, clamped to 3..12
+     */
+    public CashFlowForecast forecast(User user, int months) {
+        LocalDate today = LocalDate.now();
+        int clamped = Math.max(MIN_MONTHS, Math.min(MAX_MONTHS, months));
+        int days = (int) ChronoUnit.DAYS.between(today, today.plusMonths(clamped));
+        return CashFlowProjector.project(loadInputs(user, today), today, days, projectionPool);
+    }
+
+    /**
+     * Will any account go negative before the next paycheck arrives?
+     *
+     * Only checking and savings accounts count; the projection stops at payday.
+     */
+    public PaydayCheck checkBeforePayday(User user) {
+        LocalDate today = LocalDate.now();
+        List<RecurringSeries> series = recurringSeriesService.findCurrentSeries(user.getId());
+        LocalDate payday = nextPayday(series, today);
+        int days = payday == null ? DEFAULT_PAYDAY_HORIZON_DAYS : (int) ChronoUnit.DAYS.between(today, payday);
+
+        CashFlowForecast forecast = CashFlowProjector.project(loadInputs(user, today, series), today, days, projectionPool);
+        // Balances on payday itself are excluded: the paycheck lands that day
+        int end = payday == null ? days + 1 : days;
+
+        List<AccountShortfall> atRisk = new ArrayList<>();
+        for (AccountForecast account : forecast.accounts()) {
+            int firstNegative = account.firstNegativeDay(end);
+            if (account.canOverdraw() && firstNegative >= 0) {
+                int lowest = account.lowestDay(end);
+                atRisk.add(new AccountShortfall(account.accountId(), account.accountName(),
+                        forecast.dateOf(firstNegative), forecast.dateOf(lowest),
+                        Money.ofCents(account.dailyBalanceCents()[lowest]).toBigDecimal()));
+            }
+        }
+        return new PaydayCheck(payday, atRisk);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        projectionPool.shutdownNow();
+    }
+
+    private List<AccountForecastInput> loadInputs(User user, LocalDate today) {
+        return loadInputs(user, today, recurringSeriesService.findCurrentSeries(user.getId()));
+    }
+
+    private List<AccountForecastInput> loadInputs(User user, LocalDate today, List<RecurringSeries> series) {
+        Map<Long, List<RecurringSeries>> seriesByAccount = new HashMap<>();
+        for (RecurringSeries recurring : series) {
+            seriesByAccount.computeIfAbsent(recurring.getAccount().getId(), id -> new ArrayList<>()).add(recurring);
+        }
+
+        // Full months only; the current month is still incomplete
+        YearMonth lastFullMonth = YearMonth.from(today).minusMonths(1);
+        YearMonth firstMonth = lastFullMonth.minusMonths(HISTORY_MONTHS - 1);
+        Map<Long, List<TransactionRepository.MonthlyTotalRow>> totalsByAccount = new HashMap<>();
+        for (TransactionRepository.MonthlyTotalRow row : transactionRepository.findMonthlyTotalsByUserId(
+                user.getId(), firstMonth.atDay(1), lastFullMonth.plusMonths(1).atDay(1))) {
+            totalsByAccount.computeIfAbsent(row.accountId(), id -> new ArrayList<>()).add(row);
+        }
+
+        FxRateSnapshot rates = fxRateService.current();
+        List<AccountForecastInput> inputs = new ArrayList<>();
+        for (Account account : accountService.findAccountsByUser(user)) {
+            List<RecurringSeries> accountSeries = seriesByAccount.getOrDefault(account.getId(), List.of());
+            List<RecurringFlow> flows = new ArrayList<>(accountSeries.size());
+            for (RecurringSeries recurring : accountSeries) {
+                flows.add(new RecurringFlow(recurring.getNextExpectedDate(), recurring.getPeriod(),
+                        signed(recurring.getTransactionType(), recurring.getAverageAmount().getCents())));
+            }
+
+            inputs.add(new AccountForecastInput(account.getId(), account.getAccountName(), account.getAccountType(),
+                    Money.of(account.getCurrentBalance()).getCents(), flows,
+                    seasonalNet(totalsByAccount.getOrDefault(account.getId(), List.of()), accountSeries, lastFullMonth),
+                    rates.rate(rates.indexOf(account.getCurrency()), today.toEpochDay())));
+        }
+        return inputs;
+    }
+
+    /**
+     * Typical non-recurring net flow of one account for each calendar month
+     *
+     * Each type and category is averaged over the years of history that cover
+     * that calendar month; months the account has no history for use its
+     * average month. The monthly equivalent of detected recurring flows is
+     * subtracted, since those are placed on their own dates.
+     */
+    private static long[] seasonalNet(List<TransactionRepository.MonthlyTotalRow> rows, List<RecurringSeries> series,
+                                      YearMonth lastFullMonth) {
+        long[] net = new long[12];
+        if (rows.isEmpty()) {
+            return net;
+        }
+
+        YearMonth firstMonth = lastFullMonth;
+        Map<FlowKey, long[]> totalsByCategory = new HashMap<>();
+        for (TransactionRepository.MonthlyTotalRow row : rows) {
+            YearMonth month = YearMonth.of(row.year(), row.month());
+            if (month.isBefore(firstMonth)) {
+                firstMonth = month;
+            }
+            long[] totals = totalsByCategory.computeIfAbsent(new FlowKey(row.transactionType(), row.category()),
+                    key -> new long[12]);
+            totals[row.month() - 1] = Math.addExact(totals[row.month() - 1], Money.of(row.total()).getCents());
+        }
+
+        // How many times each calendar month occurs in the account's history
+        int[] covered = new int[12];
+        int coveredMonths = 0;
+        for (YearMonth month = firstMonth; !month.isAfter(lastFullMonth); month = month.plusMonths(1)) {
+            covered[month.getMonthValue() - 1]++;
+            coveredMonths++;
+        }
+
+        Map<FlowKey, Long> recurringMonthly = new HashMap<>();
+        for (RecurringSeries recurring : series) {
+            recurringMonthly.merge(new FlowKey(recurring.getTransactionType(), recurring.getCategory()),
+                    recurring.getMonthlyEquivalent().getCents(), Long::sum);
+        }
+
+        for (Map.Entry<FlowKey, long[]> entry : totalsByCategory.entrySet()) {
+            long[] totals = entry.getValue();
+            long overall = 0;
+            for (long total : totals) {
+                overall += total;
+            }
+            long averageMonth = overall / coveredMonths;
+            long recurring = recurringMonthly.getOrDefault(entry.getKey(), 0L);
+            Transaction.TransactionType type = entry.getKey().type();
+
+            for (int m = 0; m < 12; m++) {
+                long typical = covered[m] > 0 ? totals[m] / covered[m] : averageMonth;
+                net[m] += signed(type, Math.max(0, typical - recurring));
+            }
+        }
+        return net;
+    }
+
+    /**
+     * Earliest expected recurring income; like the projection, a late one is expected tomorrow
+     */
+    private static LocalDate nextPayday(List<RecurringSeries> series, LocalDate today) {
+        LocalDate payday = null;
+        for (RecurringSeries recurring : series) {
+            if (recurring.getTransactionType() != Transaction.TransactionType.INCOME) {
+                continue;
+            }
+            LocalDate expected = recurring.getNextExpectedDate().isAfter(today)
+                    ? recurring.getNextExpectedDate()
+                    : today.plusDays(1);
+            if (payday == null || expected.isBefore(payday)) {
+                payday = expected;
+            }
+        }
+        return payday;
+    }
+
+    private static long signed(Transaction.TransactionType type, long cents) {
+        return type == Transaction.TransactionType.INCOME ? cents : -cents;
+    }
+}
@@ -0,0 +1,219 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.analytics.CategorySpendingTrend;
+import com.financeapp.personal.analytics.ColumnarTransactionStore;
+import com.financeapp.personal.analytics.UserTransactionColumns;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.EventConsumer;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.FinancialDataChangedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * CategoryTrendService builds multi-month category spending trends
+ *
+ * - All missing months come from one grouped query over the date range (or one
+ *   pass over the in-memory columns), never one query per month or category
+ * - Months that have ended are kept per user until a change touches them; the
+ *   current month is recomputed on every request
+ * - Backdated postings drop the month they land in, edits and deletes drop the user's months,
+ *   and a new FX rate snapshot drops everything converted with the old one
+ * - Least recently used users are evicted beyond insights.trend.max-cached-users
+ */
+@Service
+public class CategoryTrendService implements EventConsumer {
+
+    private static final int CATEGORY_COUNT = Transaction.Category.values().length;
+
+    private final TransactionRepository transactionRepository;
+    private final ColumnarTransactionStore columnarStore;
+    private final FxRateService fxRateService;
+    private final int rollingMonths;
+    private final int maxMonths;
+    private final int maxCachedUsers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, ClosedMonths> closedMonthsByUser = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * One user's totals for months that have ended, as converted with one rate snapshot
+     */
+    private static final class ClosedMonths {
+        final FxRateSnapshot rates;
+        final Map<YearMonth, long[]> totals = new HashMap<>(); // Guarded by lock
+        long generation; // Guarded by lock; bumped whenever a month is dropped
+
+        ClosedMonths(FxRateSnapshot rates) {
+            this.rates = rates;
+        }
+    }
+
+    @Autowired
+    public CategoryTrendService(TransactionRepository transactionRepository,
+                                ColumnarTransactionStore columnarStore,
+                                FxRateService fxRateService,
+                                @Value("${insights.trend.rolling-months:3}") int rollingMonths,
+                                @Value("${insights.trend.max-months:36}") int maxMonths,
+                                @Value("${insights.trend.max-cached-users:10000}") int maxCachedUsers) {
+        this.transactionRepository = transactionRepository;
+        this.columnarStore = columnarStore;
+        this.fxRateService = fxRateService;
+        this.rollingMonths = Math.max(1, rollingMonths);
+        this.maxMonths = Math.max(1, maxMonths);
+        this.maxCachedUsers = Math.max(1, maxCachedUsers);
+    }
+
+    /**
+     * Expenses per category for the last {@code months} months, up to and including the current one
+     */
+    @Transactional(readOnly = true)
+    public CategorySpendingTrend trend(Long userId, int months) {
+        int shown = Math.min(Math.max(1, months), maxMonths);
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth historyStart = currentMonth.minusMonths(shown - 1L + CategorySpendingTrend.historyMonthsBefore(rollingMonths));
+        int historyMonths = (int) ChronoUnit.MONTHS.between(historyStart, currentMonth) + 1;
+        FxRateSnapshot rates = fxRateService.current();
+
+        long[][] history = new long[historyMonths][];
+        ClosedMonths cached;
+        long generation;
+        lock.lock();
+        try {
+            cached = closedMonthsByUser.get(userId);
+            if (cached == null || cached.rates != rates) {
+                cached = new ClosedMonths(rates);
+                closedMonthsByUser.put(userId, cached);
+                evictEldest(userId);
+            }
+            generation = cached.generation;
+            for (int m = 0; m < historyMonths - 1; m++) {
+                history[m] = cached.totals.get(historyStart.plusMonths(m));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // One load from the earliest missing month through the current month
+        int firstMissing = 0;
+        while (firstMissing < historyMonths - 1 && history[firstMissing] != null) {
+            firstMissing++;
+        }
+        YearMonth loadStart = historyStart.plusMonths(firstMissing);
+        long[][] loaded = load(userId, loadStart, historyMonths - firstMissing, rates);
+        for (int m = firstMissing; m < historyMonths; m++) {
+            history[m] = loaded[m - firstMissing];
+        }
+
+        lock.lock();
+        try {
+            // Skip the store if a change raced with the load; the next request reloads
+            if (closedMonthsByUser.get(userId) == cached && cached.generation == generation) {
+                for (int m = firstMissing; m < historyMonths - 1; m++) {
+                    cached.totals.put(historyStart.plusMonths(m), history[m]);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return CategorySpendingTrend.compute(historyStart, history, shown, rollingMonths);
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "category-trends";
+    }
+
+    @Override
+    public boolean changesViews() {
+        return true;
+    }
+
+    @Override
+    public void consume(List<FinanceEvent> events) {
+        YearMonth currentMonth = YearMonth.now();
+        for (FinanceEvent event : events) {
+            if (event instanceof TransactionPostedEvent posted) {
+                onTransactionPosted(posted, currentMonth);
+            } else if (event instanceof TransactionsImportedEvent imported) {
+                imported.transactions().forEach(posted -> onTransactionPosted(posted, currentMonth));
+            } else if (event instanceof FinancialDataChangedEvent changed) {
+                // Edits and deletes don't say which month they touched, so drop them all
+                evict(changed.userId());
+            }
+        }
+    }
+
+    public void evict(Long userId) {
+        lock.lock();
+        try {
+            closedMonthsByUser.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onTransactionPosted(TransactionPostedEvent event, YearMonth currentMonth) {
+        YearMonth month = YearMonth.from(event.transactionDate());
+        if (event.transactionType() == Transaction.TransactionType.INCOME || !month.isBefore(currentMonth)) {
+            return;
+        }
+        lock.lock();
+        try {
+            ClosedMonths cached = closedMonthsByUser.get(event.userId());
+            if (cached != null) {
+                cached.totals.remove(month);
+                cached.generation++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Expense totals per month and category in the reporting currency, [months][category ordinal]
+     */
+    private long[][] load(Long userId, YearMonth firstMonth, int months, FxRateSnapshot rates) {
+        Optional<UserTransactionColumns> columns = columnarStore.columnsFor(userId);
+        if (columns.isPresent()) {
+            return columns.get().expensesByMonthAndCategory(firstMonth, months, rates);
+        }
+
+        long[][] totals = new long[months][CATEGORY_COUNT];
+        for (TransactionRepository.DailyTotalRow row : transactionRepository.findDailyTotalsByUserId(
+                userId, firstMonth.atDay(1), firstMonth.plusMonths(months - 1L).atEndOfMonth())) {
+            if (row.transactionType() == Transaction.TransactionType.INCOME) {
+                continue;
+            }
+            int month = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(row.transactionDate()));
+            long cents = rates.toReportingCents(Money.toCents(row.total()), rates.indexOf(row.currency()),
+                    row.transactionDate().toEpochDay());
+            totals[month][row.category().ordinal()] = Math.addExact(totals[month][row.category().ordinal()], cents);
+        }
+        return totals;
+    }
+
+    private void evictEldest(Long keep) {
+        Iterator<Long> eldest = closedMonthsByUser.keySet().iterator();
+        while (closedMonthsByUser.size() > maxCachedUsers && eldest.hasNext()) {
+            if (!eldest.next().equals(keep)) {
+                eldest.remove();
+            }
+        }
+    }
+}
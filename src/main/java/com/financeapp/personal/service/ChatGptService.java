@@ -1,9 +1,12 @@
 package com.financeapp.personal.service;
+import com.financeapp.personal.dto.DashboardInsights;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.util.HashMap;
@@ -17,10 +20,23 @@ import java.util.Map;
  * - JSON request/response handling
  * - Business context for AI prompts
  * - Error handling for external services
+ * - Rate limiting and load shedding in front of the upstream
+ * - Rewording locally generated insights rather than starting from nothing
  */
 @Service
 public class ChatGptService {
 
+    private static final int SINGLE_PANEL_MAX_TOKENS = 400;
+    private static final int COMBINED_MAX_TOKENS = 1000;
+
+    // Placeholder key in application.properties; no request is sent while it is set
+    private static final String DEMO_MODE_KEY = "demo-mode";
+
+    private static final String SPENDING_FALLBACK =
+            "Unable to analyze spending patterns at this time. Please check your budget categories and try again.";
+    private static final String BUDGET_FALLBACK =
+            "Consider following the 50/30/20 rule: 50% for needs, 30% for wants, and 20% for savings and debt repayment.";
+
     @Value("${openai.api.key}")
     private String apiKey;
 
@@ -29,10 +45,27 @@ public class ChatGptService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final LlmRequestGate requestGate;
 
-    public ChatGptService() {
+    @Autowired
+    public ChatGptService(LlmRequestGate requestGate) {
         this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.requestGate = requestGate;
+    }
+
+    /**
+     * Whether a real API key is set; without one every call returns its fallback at once
+     */
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank() && !DEMO_MODE_KEY.equals(apiKey);
+    }
+
+    /**
+     * Whether a single-panel answer is the canned text returned when ChatGPT is unavailable
+     */
+    public boolean isFallback(String text) {
+        return SPENDING_FALLBACK.equals(text) || BUDGET_FALLBACK.equals(text) || getFallbackAdvice().equals(text);
     }
 
     /**
@@ -57,7 +90,7 @@ public class ChatGptService {
             return callChatGpt(prompt);
         } catch (Exception e) {
             System.err.println("Error analyzing spending: " + e.getMessage());
-            return "Unable to analyze spending patterns at this time. Please check your budget categories and try again.";
+            return SPENDING_FALLBACK;
         }
     }
 
@@ -70,8 +103,66 @@ public class ChatGptService {
             return callChatGpt(prompt);
         } catch (Exception e) {
             System.err.println("Error generating budget recommendations: " + e.getMessage());
-            return "Consider following the 50/30/20 rule: 50% for needs, 30% for wants, and 20% for savings and debt repayment.";
+            return BUDGET_FALLBACK;
+        }
+    }
+
+    /**
+     * Refine locally generated dashboard panels in a single round-trip
+     *
+     * The financial snapshot and the local panels are sent once, and the model
+     * answers with a JSON object holding one section per panel. Any section that
+     * is missing or empty keeps the local text.
+     */
+    public DashboardInsights generateDashboardInsights(Map<String, Object> financialData,
+                                                       BigDecimal totalBudget,
+                                                       BigDecimal monthlyIncome,
+                                                       DashboardInsights local) {
+        JsonNode sections = null;
+        try {
+            String prompt = buildDashboardPrompt(financialData, totalBudget, monthlyIncome, local);
+            sections = parseJsonContent(callChatGpt(prompt, COMBINED_MAX_TOKENS, true));
+        } catch (Exception e) {
+            System.err.println("Error generating dashboard insights: " + e.getMessage());
         }
+
+        String advice = sectionOrFallback(sections, "advice", local.getGeneralInsights());
+        String spendingAnalysis = sectionOrFallback(sections, "spendingAnalysis", local.getSpendingAnalysis());
+        String budgetRecommendations = sectionOrFallback(sections, "budgetRecommendations", local.getBudgetRecommendations());
+        boolean refined = !advice.equals(local.getGeneralInsights())
+                || !spendingAnalysis.equals(local.getSpendingAnalysis())
+                || !budgetRecommendations.equals(local.getBudgetRecommendations());
+        return new DashboardInsights(advice, spendingAnalysis, budgetRecommendations, refined);
+    }
+
+    /**
+     * Build the combined dashboard prompt (shared context sent once)
+     */
+    private String buildDashboardPrompt(Map<String, Object> financialData, BigDecimal totalBudget, BigDecimal monthlyIncome,
+                                        DashboardInsights local) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("As a professional financial advisor, analyze this monthly financial snapshot:\n\n");
+
+        financialData.forEach((key, value) -> {
+            prompt.append(key).append(": ").append(value).append("\n");
+        });
+        prompt.append("Average Monthly Income (last 3 months): $").append(monthlyIncome).append("\n");
+        prompt.append("Total Spending Budget: $").append(totalBudget).append("\n\n");
+
+        prompt.append("These findings were computed from the data; keep their numbers and build on them:\n");
+        prompt.append("[advice]\n").append(local.getGeneralInsights()).append("\n");
+        prompt.append("[spendingAnalysis]\n").append(local.getSpendingAnalysis()).append("\n");
+        prompt.append("[budgetRecommendations]\n").append(local.getBudgetRecommendations()).append("\n\n");
+
+        prompt.append("Respond with a JSON object containing exactly these string fields:\n");
+        prompt.append("\"advice\": assessment of financial health, specific actionable recommendations, ");
+        prompt.append("areas for improvement and positive reinforcement for good habits (under 300 words)\n");
+        prompt.append("\"spendingAnalysis\": spending patterns by category, concerning areas and suggested optimizations (under 200 words)\n");
+        prompt.append("\"budgetRecommendations\": an optimized budget allocation with specific dollar amounts per category, ");
+        prompt.append("including emergency fund and savings recommendations (under 250 words)\n");
+        prompt.append("\nReturn only the JSON object. Keep the advice practical and encouraging.");
+
+        return prompt.toString();
     }
 
     /**
@@ -144,6 +235,30 @@ public class ChatGptService {
      * Make the actual API call to ChatGPT
      */
     private String callChatGpt(String prompt) throws Exception {
+        return callChatGpt(prompt, SINGLE_PANEL_MAX_TOKENS, false);
+    }
+
+    private String callChatGpt(String prompt, int maxTokens, boolean jsonMode) throws Exception {
+        if (!isConfigured()) {
+            throw new IllegalStateException("ChatGPT is not configured (openai.api.key)");
+        }
+
+        // Shed load to the fallback texts rather than queueing without bound
+        if (!requestGate.tryAcquire()) {
+            throw new IllegalStateException("ChatGPT request shed: upstream is at capacity");
+        }
+
+        try {
+            return sendChatCompletion(prompt, maxTokens, jsonMode);
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            requestGate.onRateLimited();
+            throw e;
+        } finally {
+            requestGate.release();
+        }
+    }
+
+    private String sendChatCompletion(String prompt, int maxTokens, boolean jsonMode) throws Exception {
         // Build request headers
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -152,8 +267,11 @@ public class ChatGptService {
         // Build request body
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", "gpt-3.5-turbo");
-        requestBody.put("max_tokens", 400);
+        requestBody.put("max_tokens", maxTokens);
         requestBody.put("temperature", 0.7);
+        if (jsonMode) {
+            requestBody.put("response_format", Map.of("type", "json_object"));
+        }
 
         // Build messages array
         Map<String, String> message = new HashMap<>();
@@ -170,6 +288,29 @@ public class ChatGptService {
         return jsonResponse.get("choices").get(0).get("message").get("content").asText().trim();
     }
 
+    /**
+     * Parse a JSON reply, tolerating a surrounding markdown code fence
+     */
+    private JsonNode parseJsonContent(String content) throws Exception {
+        String json = content.trim();
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1);
+            int fenceEnd = json.lastIndexOf("```");
+            if (fenceEnd >= 0) {
+                json = json.substring(0, fenceEnd);
+            }
+        }
+        return objectMapper.readTree(json);
+    }
+
+    private String sectionOrFallback(JsonNode sections, String field, String fallback) {
+        if (sections == null || !sections.hasNonNull(field)) {
+            return fallback;
+        }
+        String text = sections.get(field).asText().trim();
+        return text.isEmpty() ? fallback : text;
+    }
+
     /**
      * Fallback advice when ChatGPT is unavailable
      */
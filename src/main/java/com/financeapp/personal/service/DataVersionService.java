@@ -0,0 +1,105 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.event.EventsDeliveredEvent;
+import com.financeapp.personal.event.FinancialDataChangedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * DataVersionService answers conditional GETs from a per-user data version
+ *
+ * - Every account, transaction or budget change bumps the user's version once committed,
+ *   as does a newly generated insight snapshot, and again once event consumers have
+ *   applied the change to derived data (search index, recurring series, anomaly flags)
+ * - Pages and JSON endpoints derive their ETag and Last-Modified from it, and answer a
+ *   matching If-None-Match with 304 before loading anything
+ * - Versions live in memory; the ETag includes the start time of this instance, so tags
+ *   handed out before a restart never match, and the current date, since several views
+ *   (recent anomalies, forecasts) move on with the calendar
+ */
+@Service
+public class DataVersionService {
+
+    private final long startedAtMillis = System.currentTimeMillis();
+    private final String instanceTag = Long.toString(startedAtMillis, 36);
+    private final Map<Long, DataVersion> versions = new ConcurrentHashMap<>();
+
+    /**
+     * A user's data version and when it last changed
+     */
+    public record DataVersion(long counter, long modifiedAtMillis) {}
+
+    public DataVersion currentVersion(Long userId) {
+        return versions.getOrDefault(userId, new DataVersion(0, startedAtMillis));
+    }
+
+    /**
+     * Record a change to the user's data
+     *
+     * Last-Modified has one-second precision, so each change moves it at least a second on;
+     * otherwise a page fetched in the same second as a change would revalidate as unchanged.
+     */
+    public void bump(Long userId) {
+        versions.compute(userId, (id, current) -> {
+            long previous = current == null ? startedAtMillis : current.modifiedAtMillis();
+            long counter = current == null ? 1 : current.counter() + 1;
+            return new DataVersion(counter, Math.max(System.currentTimeMillis(), previous + 1000));
+        });
+    }
+
+    /**
+     * Check a GET against the user's current data version
+     *
+     * Sets ETag, Last-Modified and Cache-Control on the response; when this returns true the
+     * response is already a 304 and the handler should return null without doing any work.
+     * Requests carrying flash attributes (the GET after a form redirect) are always rendered,
+     * and not stored, so the one-off message is not replayed from cache.
+     */
+    public boolean checkNotModified(Long userId, ServletWebRequest request) {
+        Map<String, ?> flashAttributes = RequestContextUtils.getInputFlashMap(request.getRequest());
+        if (flashAttributes != null && !flashAttributes.isEmpty()) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            return false;
+        }
+
+        LocalDate today = LocalDate.now();
+        long startOfToday = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        DataVersion version = currentVersion(userId);
+        String etag = "W/\"" + instanceTag + "-" + version.counter() + "-" + today.toEpochDay() + "\"";
+
+        // Revalidate on every use; the response belongs to one user
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return request.checkNotModified(etag, Math.max(version.modifiedAtMillis(), startOfToday));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        bump(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        bump(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        bump(event.userId());
+    }
+
+    /**
+     * Derived data lands after the commit; responses cached in between are stale now
+     */
+    @EventListener
+    public void onEventsDelivered(EventsDeliveredEvent event) {
+        event.userIds().forEach(this::bump);
+    }
+}
@@ -0,0 +1,51 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.search.SearchTokenizer;
+import java.util.Set;
+/**
+ * DescriptionNormalizer reduces a bank description to a stable merchant key
+ *
+ * "POS DEBIT NETFLIX.COM #88231 CA" and "Netflix.com 1123" both become
+ * "netflix com": words are lowercased, and numbers and card-processing
+ * filler words are dropped.
+ */
+public final class DescriptionNormalizer {
+
+    private static final int MAX_WORDS = 4;
+    private static final int MAX_LENGTH = 100;
+    private static final Set<String> FILLER_WORDS = Set.of(
+            "pos", "debit", "credit", "card", "purchase", "payment", "ach", "online", "recurring",
+            "autopay", "www", "inc", "llc", "co");
+
+    private DescriptionNormalizer() {
+    }
+
+    public static String merchantKey(String description) {
+        StringBuilder key = new StringBuilder();
+        int words = 0;
+        for (String token : SearchTokenizer.tokenize(description)) {
+            if (words == MAX_WORDS) {
+                break;
+            }
+            if (FILLER_WORDS.contains(token) || !hasLetter(token)) {
+                continue;
+            }
+            if (key.length() > 0) {
+                key.append(' ');
+            }
+            key.append(token);
+            words++;
+        }
+        // Descriptions with nothing but filler still need a key
+        String normalized = key.length() > 0 ? key.toString() : String.join(" ", SearchTokenizer.tokenize(description));
+        return normalized.length() > MAX_LENGTH ? normalized.substring(0, MAX_LENGTH) : normalized;
+    }
+
+    private static boolean hasLetter(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isLetter(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
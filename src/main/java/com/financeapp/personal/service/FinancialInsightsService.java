@@ -1,9 +1,27 @@
 package com.financeapp.personal.service;
+import com.financeapp.personal.analytics.ColumnarTransactionStore;
+import com.financeapp.personal.analytics.UserTransactionColumns;
+import com.financeapp.personal.dto.DashboardInsights;
 import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Budget;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.RecurringSeries;
+import com.financeapp.personal.entity.SpendingAnomaly;
 import com.financeapp.personal.entity.Transaction;
 import com.financeapp.personal.entity.User;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.insights.InsightFacts;
+import com.financeapp.personal.insights.LocalInsightEngine;
+import com.financeapp.personal.repository.BudgetRepository;
 import com.financeapp.personal.repository.TransactionRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,6 +29,8 @@ import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 /**
  * FinancialInsightsService aggregates financial data for AI analysis
  *
@@ -21,50 +41,206 @@ import java.util.Map;
  * - Preparing context for AI recommendations
  */
 @Service
-public class FinancialInsightsService {
+public class FinancialInsightsService implements SmartInitializingSingleton {
+
+    // Keep the prompt short: the largest recurring items carry most of the signal
+    private static final int MAX_RECURRING_IN_PROMPT = 10;
+    private static final int MAX_ANOMALIES_IN_PROMPT = 5;
+
+    // Monthly income and the local insights average over this many months
+    private static final int INCOME_WINDOW_MONTHS = 3;
+
+    // No real user has this id, so warm-up queries match nothing
+    private static final long WARM_UP_USER_ID = -1L;
 
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
     private final ChatGptService chatGptService;
+    private final ColumnarTransactionStore columnarStore;
+    private final RecurringSeriesService recurringSeriesService;
+    private final SpendingAnomalyService spendingAnomalyService;
+    private final FxRateService fxRateService;
+    private final BudgetRepository budgetRepository;
+
+    // Runs the three separate panel requests concurrently when virtual threads are enabled, inline otherwise
+    private final TaskExecutor panelExecutor;
+
+    // Concurrent requests for the same user and insight kind share one ChatGPT call
+    private final SingleFlight<InsightKey, String> inFlightInsights = new SingleFlight<>();
+    private final SingleFlight<Long, DashboardInsights> inFlightDashboards = new SingleFlight<>();
+
+    // Generate all dashboard panels with one ChatGPT round-trip instead of three
+    @Value("${openai.combined-mode:true}")
+    private boolean combinedMode = true;
+
+    // Send the local panels to ChatGPT for rewording when an API key is configured
+    @Value("${insights.local.refine-with-llm:true}")
+    private boolean refineWithLlm = true;
+
+    // Passes over the dashboard queries at startup; 0 disables the warm-up
+    @Value("${insights.warm-up.iterations:0}")
+    private int warmUpIterations;
+
+    /**
+     * Kinds of AI insight generated for the dashboard
+     */
+    public enum InsightKind {
+        GENERAL,
+        SPENDING,
+        BUDGET
+    }
+
+    private record InsightKey(Long userId, InsightKind kind) {}
 
     @Autowired
     public FinancialInsightsService(TransactionRepository transactionRepository,
                                     AccountService accountService,
-                                    ChatGptService chatGptService) {
+                                    ChatGptService chatGptService,
+                                    ColumnarTransactionStore columnarStore,
+                                    RecurringSeriesService recurringSeriesService,
+                                    SpendingAnomalyService spendingAnomalyService,
+                                    FxRateService fxRateService,
+                                    BudgetRepository budgetRepository,
+                                    Environment environment) {
         this.transactionRepository = transactionRepository;
         this.accountService = accountService;
         this.chatGptService = chatGptService;
+        this.columnarStore = columnarStore;
+        this.recurringSeriesService = recurringSeriesService;
+        this.spendingAnomalyService = spendingAnomalyService;
+        this.fxRateService = fxRateService;
+        this.budgetRepository = budgetRepository;
+        this.panelExecutor = newPanelExecutor(environment);
+    }
+
+    /**
+     * Generate the three dashboard panels for a user
+     *
+     * The panels come from the local insight rules first. When ChatGPT is configured
+     * they are refined: in combined mode the shared financial context and the local
+     * panels are sent once; otherwise each panel is requested separately (in parallel
+     * on virtual threads). Any panel ChatGPT can't produce keeps its local text.
+     */
+    public DashboardInsights generateDashboardInsights(User user) {
+        if (!canRefineWithLlm()) {
+            return generateLocalInsights(user);
+        }
+
+        if (!combinedMode) {
+            DashboardInsights local = generateLocalInsights(user);
+            CompletableFuture<String> general = CompletableFuture.supplyAsync(() -> generateFinancialInsights(user), panelExecutor);
+            CompletableFuture<String> spending = CompletableFuture.supplyAsync(() -> analyzeMonthlySpending(user), panelExecutor);
+            CompletableFuture<String> budget = CompletableFuture.supplyAsync(() -> generateBudgetRecommendations(user), panelExecutor);
+            String advice = general.join();
+            String analysis = spending.join();
+            String plan = budget.join();
+            boolean refined = !chatGptService.isFallback(advice) || !chatGptService.isFallback(analysis)
+                    || !chatGptService.isFallback(plan);
+            return new DashboardInsights(
+                    chatGptService.isFallback(advice) ? local.getGeneralInsights() : advice,
+                    chatGptService.isFallback(analysis) ? local.getSpendingAnalysis() : analysis,
+                    chatGptService.isFallback(plan) ? local.getBudgetRecommendations() : plan,
+                    refined);
+        }
+
+        return inFlightDashboards.execute(user.getId(), () -> {
+            DashboardInsights local = generateLocalInsights(user);
+            Map<String, Object> financialData = gatherFinancialData(user);
+            BigDecimal monthlyIncome = calculateMonthlyIncome(user);
+            BigDecimal totalBudget = estimateBudgetFromIncome(monthlyIncome);
+
+            return chatGptService.generateDashboardInsights(financialData, totalBudget, monthlyIncome, local);
+        });
+    }
+
+    /**
+     * The dashboard panels from the local insight rules alone, without calling ChatGPT
+     */
+    public DashboardInsights generateLocalInsights(User user) {
+        return LocalInsightEngine.generate(gatherInsightFacts(user));
+    }
+
+    /**
+     * Whether generated panels go to ChatGPT for refinement
+     */
+    public boolean canRefineWithLlm() {
+        return refineWithLlm && chatGptService.isConfigured();
+    }
+
+    /**
+     * Warm up once every bean exists, before the web server opens its port
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        warmUp();
+    }
+
+    /**
+     * Run the dashboard's data gathering at startup, before the first real request does
+     *
+     * Each pass runs every query behind the dashboard and health score for a user
+     * with no data, so Hibernate has translated and cached the query plans and the
+     * aggregation code is loaded and compiled. The ChatGPT call is not made and
+     * nothing is written. In the fast-start build the CDS training run gets here too,
+     * so the classes these paths load are archived as well.
+     */
+    public void warmUp() {
+        if (warmUpIterations <= 0) {
+            return;
+        }
+        User placeholder = new User("Warm", "Up", "warm-up@localhost");
+        placeholder.setId(WARM_UP_USER_ID);
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < warmUpIterations; i++) {
+                gatherFinancialData(placeholder);
+                generateLocalInsights(placeholder);
+                calculateFinancialHealthScore(placeholder);
+            }
+            System.out.println("Insights warm-up: " + warmUpIterations + " passes in "
+                    + (System.nanoTime() - started) / 1_000_000 + " ms");
+        } catch (Exception e) {
+            System.err.println("Insights warm-up failed: " + e.getMessage());
+        } finally {
+            columnarStore.evict(WARM_UP_USER_ID);
+        }
     }
 
     /**
      * Generate comprehensive financial insights for a user
      */
     public String generateFinancialInsights(User user) {
-        Map<String, Object> financialData = gatherFinancialData(user);
-        return chatGptService.generateFinancialAdvice(financialData);
+        return inFlightInsights.execute(new InsightKey(user.getId(), InsightKind.GENERAL), () -> {
+            Map<String, Object> financialData = gatherFinancialData(user);
+            return chatGptService.generateFinancialAdvice(financialData);
+        });
     }
 
     /**
      * Analyze spending patterns for current month
      */
     public String analyzeMonthlySpending(User user) {
-        YearMonth currentMonth = YearMonth.now();
-        Map<String, BigDecimal> categorySpending = getCategorySpendingForMonth(user, currentMonth);
+        return inFlightInsights.execute(new InsightKey(user.getId(), InsightKind.SPENDING), () -> {
+            YearMonth currentMonth = YearMonth.now();
+            Map<String, BigDecimal> categorySpending = getCategorySpendingForMonth(user, currentMonth);
 
-        // Calculate total budget (simplified - could be enhanced with actual budget data)
-        BigDecimal totalBudget = calculateEstimatedBudget(user);
+            // Calculate total budget (simplified - could be enhanced with actual budget data)
+            BigDecimal totalBudget = calculateEstimatedBudget(user);
 
-        return chatGptService.analyzeSpendingPatterns(categorySpending, totalBudget);
+            return chatGptService.analyzeSpendingPatterns(categorySpending, totalBudget);
+        });
     }
 
     /**
      * Generate budget recommendations based on income and spending
      */
     public String generateBudgetRecommendations(User user) {
-        BigDecimal monthlyIncome = calculateMonthlyIncome(user);
-        Map<String, BigDecimal> currentSpending = getCategorySpendingForMonth(user, YearMonth.now());
+        return inFlightInsights.execute(new InsightKey(user.getId(), InsightKind.BUDGET), () -> {
+            BigDecimal monthlyIncome = calculateMonthlyIncome(user);
+            Map<String, BigDecimal> currentSpending = getCategorySpendingForMonth(user, YearMonth.now());
 
-        return chatGptService.generateBudgetRecommendations(monthlyIncome, currentSpending);
+            return chatGptService.generateBudgetRecommendations(monthlyIncome, currentSpending);
+        });
     }
 
     /**
@@ -75,7 +251,7 @@ public class FinancialInsightsService {
 
         // Account information
         List<Account> accounts = accountService.findAccountsByUser(user);
-        BigDecimal netWorth = accountService.calculateNetWorth(user);
+        BigDecimal netWorth = calculateNetWorth(user);
 
         data.put("Total Accounts", accounts.size());
         data.put("Net Worth", "$" + netWorth);
@@ -85,10 +261,8 @@ public class FinancialInsightsService {
         LocalDate startDate = currentMonth.atDay(1);
         LocalDate endDate = currentMonth.atEndOfMonth();
 
-        BigDecimal monthlyIncome = transactionRepository.calculateTotalIncomeForUserInPeriod(
-                user.getId(), startDate, endDate);
-        BigDecimal monthlyExpenses = transactionRepository.calculateTotalExpensesForUserInPeriod(
-                user.getId(), startDate, endDate);
+        BigDecimal monthlyIncome = sumForPeriod(user, Transaction.TransactionType.INCOME, startDate, endDate);
+        BigDecimal monthlyExpenses = sumForPeriod(user, Transaction.TransactionType.EXPENSE, startDate, endDate);
 
         data.put("Monthly Income", "$" + monthlyIncome);
         data.put("Monthly Expenses", "$" + monthlyExpenses);
@@ -106,47 +280,183 @@ public class FinancialInsightsService {
                     account.getFormattedCurrentBalance());
         }
 
+        addRecurringPayments(user, data);
+        addSpendingAnomalies(user, data);
+
         return data;
     }
 
     /**
-     * Get spending by category for a specific month
+     * Detected recurring payments and income, largest first
+     */
+    private void addRecurringPayments(User user, Map<String, Object> data) {
+        List<RecurringSeries> series = recurringSeriesService.findCurrentSeries(user.getId());
+        if (series.isEmpty()) {
+            return;
+        }
+
+        long committedCents = 0;
+        int listed = 0;
+        for (RecurringSeries recurring : series) {
+            boolean expense = recurring.getTransactionType() == Transaction.TransactionType.EXPENSE;
+            if (expense) {
+                committedCents = Math.addExact(committedCents, recurring.getMonthlyEquivalent().getCents());
+            }
+            if (listed++ < MAX_RECURRING_IN_PROMPT) {
+                data.put("Recurring " + (expense ? "payment: " : "income: ") + recurring.getMerchantKey(),
+                        "$" + recurring.getAverageAmount() + " " + recurring.getPeriod().getDisplayName().toLowerCase()
+                                + ", next expected " + recurring.getNextExpectedDate());
+            }
+        }
+        data.put("Recurring Monthly Commitments", "$" + Money.ofCents(committedCents));
+    }
+
+    /**
+     * Recent expenses that were unusually large for their category or merchant
+     */
+    private void addSpendingAnomalies(User user, Map<String, Object> data) {
+        for (SpendingAnomaly anomaly : spendingAnomalyService.findRecentAnomalies(user.getId(), MAX_ANOMALIES_IN_PROMPT)) {
+            data.put("Unusual expense: " + anomaly.getDescription() + " on " + anomaly.getTransactionDate(),
+                    "$" + anomaly.getAmount() + ", " + anomaly.getExplanation());
+        }
+    }
+
+    /**
+     * Get spending by category for a specific month, in the reporting currency
      */
     private Map<String, BigDecimal> getCategorySpendingForMonth(User user, YearMonth month) {
         Map<String, BigDecimal> categorySpending = new HashMap<>();
+        FxRateSnapshot rates = fxRateService.current();
 
+        // One pass over the in-memory columns, or over one grouped query, instead of one query per category
+        long[] totals = columnarStore.columnsFor(user.getId())
+                .map(columns -> columns.expensesByCategory(month.atDay(1), month.atEndOfMonth(), rates))
+                .orElseGet(() -> totalsForPeriod(user, month.atDay(1), month.atEndOfMonth(), rates)
+                        [Transaction.TransactionType.EXPENSE.ordinal()]);
         for (Transaction.Category category : Transaction.Category.getExpenseCategories()) {
-            BigDecimal amount = transactionRepository.calculateSpendingByCategoryAndMonth(
-                    user.getId(), category, month.getYear(), month.getMonthValue());
-
-            if (amount.compareTo(BigDecimal.ZERO) > 0) {
-                categorySpending.put(category.getDisplayName(), amount);
+            if (totals[category.ordinal()] > 0) {
+                categorySpending.put(category.getDisplayName(), Money.ofCents(totals[category.ordinal()]).toBigDecimal());
             }
         }
 
         return categorySpending;
     }
 
+    /**
+     * Totals for the local insight rules: one pass over the columns, or one grouped daily query
+     */
+    private InsightFacts gatherInsightFacts(User user) {
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = today.minusMonths(INCOME_WINDOW_MONTHS);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate previousMonthStart = monthStart.minusMonths(1);
+        LocalDate previousMonthToDateEnd = InsightFacts.previousMonthToDateEnd(today);
+        FxRateSnapshot rates = fxRateService.current();
+
+        long windowIncome = 0;
+        long[] windowExpenses;
+        long[] monthToDate;
+        long[] previousMonthToDate;
+        Optional<UserTransactionColumns> columns = columnarStore.columnsFor(user.getId());
+        if (columns.isPresent()) {
+            windowIncome = columns.get().sumByType(Transaction.TransactionType.INCOME, windowStart, today, rates);
+            windowExpenses = columns.get().expensesByCategory(windowStart, today, rates);
+            monthToDate = columns.get().expensesByCategory(monthStart, today, rates);
+            previousMonthToDate = columns.get().expensesByCategory(previousMonthStart, previousMonthToDateEnd, rates);
+        } else {
+            windowExpenses = new long[Transaction.Category.values().length];
+            monthToDate = new long[Transaction.Category.values().length];
+            previousMonthToDate = new long[Transaction.Category.values().length];
+            // The window starts at least a month before the first of last month, so one range covers all three
+            for (TransactionRepository.DailyTotalRow row : transactionRepository.findDailyTotalsByUserId(
+                    user.getId(), windowStart, today)) {
+                long cents = rates.toReportingCents(Money.toCents(row.total()), rates.indexOf(row.currency()),
+                        row.transactionDate().toEpochDay());
+                if (row.transactionType() == Transaction.TransactionType.INCOME) {
+                    windowIncome = Math.addExact(windowIncome, cents);
+                    continue;
+                }
+                int category = row.category().ordinal();
+                windowExpenses[category] = Math.addExact(windowExpenses[category], cents);
+                if (!row.transactionDate().isBefore(monthStart)) {
+                    monthToDate[category] = Math.addExact(monthToDate[category], cents);
+                } else if (!row.transactionDate().isBefore(previousMonthStart)
+                        && !row.transactionDate().isAfter(previousMonthToDateEnd)) {
+                    previousMonthToDate[category] = Math.addExact(previousMonthToDate[category], cents);
+                }
+            }
+        }
+
+        long[] budgets = new long[Transaction.Category.values().length];
+        for (Budget budget : budgetRepository.findByUserAndBudgetMonthOrderByCategoryAsc(user, YearMonth.from(today))) {
+            budgets[budget.getCategory().ordinal()] = budget.getBudgetMoney().getCents();
+        }
+        return new InsightFacts(today, INCOME_WINDOW_MONTHS, windowIncome, windowExpenses, monthToDate,
+                previousMonthToDate, budgets);
+    }
+
     /**
      * Calculate monthly income for a user (average of last 3 months)
      */
     private BigDecimal calculateMonthlyIncome(User user) {
-        LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
+        LocalDate threeMonthsAgo = LocalDate.now().minusMonths(INCOME_WINDOW_MONTHS);
         LocalDate now = LocalDate.now();
 
-        BigDecimal totalIncome = transactionRepository.calculateTotalIncomeForUserInPeriod(
-                user.getId(), threeMonthsAgo, now);
+        BigDecimal totalIncome = sumForPeriod(user, Transaction.TransactionType.INCOME, threeMonthsAgo, now);
 
         // Average over 3 months
-        return totalIncome.divide(BigDecimal.valueOf(3), 2, BigDecimal.ROUND_HALF_UP);
+        return Money.of(totalIncome).dividedBy(INCOME_WINDOW_MONTHS).toBigDecimal();
+    }
+
+    /**
+     * Total income or expenses for a user in a date range, in the reporting currency
+     */
+    private BigDecimal sumForPeriod(User user, Transaction.TransactionType type, LocalDate startDate, LocalDate endDate) {
+        FxRateSnapshot rates = fxRateService.current();
+        Optional<UserTransactionColumns> columns = columnarStore.columnsFor(user.getId());
+        if (columns.isPresent()) {
+            return Money.ofCents(columns.get().sumByType(type, startDate, endDate, rates)).toBigDecimal();
+        }
+
+        long total = 0;
+        for (long categoryTotal : totalsForPeriod(user, startDate, endDate, rates)[type.ordinal()]) {
+            total = Math.addExact(total, categoryTotal);
+        }
+        return Money.ofCents(total).toBigDecimal();
+    }
+
+    /**
+     * Reporting currency cents by type and category ([type ordinal][category ordinal]) from one grouped query
+     */
+    private long[][] totalsForPeriod(User user, LocalDate startDate, LocalDate endDate, FxRateSnapshot rates) {
+        long[][] totals = new long[Transaction.TransactionType.values().length][Transaction.Category.values().length];
+        for (TransactionRepository.DailyTotalRow row : transactionRepository.findDailyTotalsByUserId(
+                user.getId(), startDate, endDate)) {
+            long cents = rates.toReportingCents(Money.toCents(row.total()), rates.indexOf(row.currency()),
+                    row.transactionDate().toEpochDay());
+            long[] byCategory = totals[row.transactionType().ordinal()];
+            byCategory[row.category().ordinal()] = Math.addExact(byCategory[row.category().ordinal()], cents);
+        }
+        return totals;
+    }
+
+    /**
+     * Net worth for a user in the reporting currency, from the in-memory columns when available
+     */
+    private BigDecimal calculateNetWorth(User user) {
+        return columnarStore.columnsFor(user.getId())
+                .map(columns -> Money.ofCents(columns.netWorthCents(fxRateService.current(), LocalDate.now())).toBigDecimal())
+                .orElseGet(() -> accountService.calculateNetWorth(user));
     }
 
     /**
      * Estimate total budget based on income (simplified calculation)
      */
     private BigDecimal calculateEstimatedBudget(User user) {
-        BigDecimal monthlyIncome = calculateMonthlyIncome(user);
+        return estimateBudgetFromIncome(calculateMonthlyIncome(user));
+    }
 
+    private BigDecimal estimateBudgetFromIncome(BigDecimal monthlyIncome) {
         // Use 80% of income as spending budget (20% for savings)
         return monthlyIncome.multiply(BigDecimal.valueOf(0.8));
     }
@@ -155,42 +465,38 @@ public class FinancialInsightsService {
      * Get financial health score (0-100)
      */
     public int calculateFinancialHealthScore(User user) {
-        int score = 50; // Base score
-
         try {
-            // Factor 1: Savings rate (up to 25 points)
             BigDecimal monthlyIncome = calculateMonthlyIncome(user);
             LocalDate startOfMonth = YearMonth.now().atDay(1);
             LocalDate endOfMonth = YearMonth.now().atEndOfMonth();
 
-            BigDecimal monthlyExpenses = transactionRepository.calculateTotalExpensesForUserInPeriod(
-                    user.getId(), startOfMonth, endOfMonth);
-
-            if (monthlyIncome.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal savingsRate = monthlyIncome.subtract(monthlyExpenses)
-                        .divide(monthlyIncome, 4, BigDecimal.ROUND_HALF_UP);
-
-                score += Math.min(25, (int)(savingsRate.doubleValue() * 100));
-            }
+            BigDecimal monthlyExpenses = sumForPeriod(user, Transaction.TransactionType.EXPENSE, startOfMonth, endOfMonth);
 
-            // Factor 2: Account diversity (up to 15 points)
             List<Account> accounts = accountService.findAccountsByUser(user);
             boolean hasChecking = accounts.stream().anyMatch(a -> a.getAccountType() == Account.AccountType.CHECKING);
             boolean hasSavings = accounts.stream().anyMatch(a -> a.getAccountType() == Account.AccountType.SAVINGS);
 
-            if (hasChecking) score += 5;
-            if (hasSavings) score += 10;
+            BigDecimal netWorth = calculateNetWorth(user);
 
-            // Factor 3: Positive net worth (up to 10 points)
-            BigDecimal netWorth = accountService.calculateNetWorth(user);
-            if (netWorth.compareTo(BigDecimal.ZERO) > 0) {
-                score += 10;
-            }
+            return HealthScoreCalculator.score(monthlyIncome, monthlyExpenses, hasChecking, hasSavings, netWorth);
 
         } catch (Exception e) {
             System.err.println("Error calculating financial health score: " + e.getMessage());
+            return HealthScoreCalculator.BASE_SCORE;
         }
+    }
 
-        return Math.max(0, Math.min(100, score));
+    /**
+     * A thread per panel request is only cheap with virtual threads; platform threads keep the calls sequential
+     */
+    private static TaskExecutor newPanelExecutor(Environment environment) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            return new SyncTaskExecutor();
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("insights-panel-");
+        executor.setVirtualThreads(true);
+        // Background refreshes must stay behind interactive requests in the LLM gate
+        executor.setTaskDecorator(LlmRequestGate::inheritPriority);
+        return executor;
     }
-}
\ No newline at end of file
+}
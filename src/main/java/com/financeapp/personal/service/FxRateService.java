@@ -0,0 +1,159 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.entity.FxRate;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.FxRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * FxRateService keeps the current FX rate snapshot used to convert amounts into the reporting currency
+ *
+ * - Rates live in the fx_rates table; an empty table is filled from a local
+ *   CSV file (fx.rates-file) the first time rates are needed
+ * - The snapshot is built once and swapped on refresh, so conversions never query
+ * - Without usable rates only the reporting currency is supported
+ */
+@Service
+public class FxRateService {
+
+    private final FxRateRepository fxRateRepository;
+    private final String reportingCurrency;
+    private final Resource ratesFile;
+    private final TransactionTemplate primaryTransaction;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile FxRateSnapshot snapshot;
+
+    @Autowired
+    public FxRateService(FxRateRepository fxRateRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${fx.reporting-currency:USD}") String reportingCurrency,
+                         @Value("${fx.rates-file:classpath:fx-rates.csv}") Resource ratesFile) {
+        this.fxRateRepository = fxRateRepository;
+        this.reportingCurrency = reportingCurrency;
+        this.ratesFile = ratesFile;
+
+        // Own transaction on the primary: the first caller may be inside a read-only one
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The current rates, loading them on first use
+     */
+    public FxRateSnapshot current() {
+        FxRateSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = loadOrReportingOnly();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getReportingCurrency() {
+        return reportingCurrency;
+    }
+
+    /**
+     * Currency codes accounts can be opened in
+     */
+    public List<String> getSupportedCurrencies() {
+        return current().getCurrencies();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    /**
+     * Pick up rates added to the table since the last load
+     */
+    @Scheduled(cron = "${fx.refresh-cron:0 0 * * * *}")
+    public void refresh() {
+        FxRateSnapshot refreshed = loadOrReportingOnly();
+        lock.lock();
+        try {
+            snapshot = refreshed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FxRateSnapshot loadOrReportingOnly() {
+        try {
+            return primaryTransaction.execute(status -> {
+                if (fxRateRepository.count() == 0) {
+                    fxRateRepository.saveAll(readRatesFile());
+                }
+
+                Map<String, NavigableMap<LocalDate, Double>> ratesByCurrency = new HashMap<>();
+                for (FxRateRepository.RateRow row : fxRateRepository.findAllRows()) {
+                    ratesByCurrency.computeIfAbsent(row.getCurrency(), currency -> new TreeMap<>())
+                            .put(row.getRateDate(), row.getUsdPerUnit().doubleValue());
+                }
+                return FxRateSnapshot.build(reportingCurrency, FxRate.QUOTE_CURRENCY, ratesByCurrency);
+            });
+        } catch (Exception e) {
+            System.err.println("Error loading FX rates, only " + reportingCurrency + " is supported: " + e.getMessage());
+            return snapshot != null ? snapshot : FxRateSnapshot.reportingOnly(reportingCurrency);
+        }
+    }
+
+    /**
+     * Parse "date,currency,usd_per_unit" lines; blank lines and lines starting with # are skipped
+     */
+    private List<FxRate> readRatesFile() {
+        List<FxRate> rates = new ArrayList<>();
+        if (!ratesFile.exists()) {
+            return rates;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ratesFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IllegalStateException("Bad FX rate on line " + lineNumber + ": " + line);
+                }
+                rates.add(new FxRate(fields[1].strip(), LocalDate.parse(fields[0].strip()), new BigDecimal(fields[2].strip())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rates;
+    }
+}
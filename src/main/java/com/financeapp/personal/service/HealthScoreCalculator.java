@@ -0,0 +1,50 @@
+package com.financeapp.personal.service;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+/**
+ * HealthScoreCalculator holds the financial health scoring rules (0-100)
+ *
+ * Shared by the per-user dashboard calculation and the batch job so both
+ * always produce the same score for the same inputs.
+ */
+public final class HealthScoreCalculator {
+
+    public static final int BASE_SCORE = 50;
+
+    private HealthScoreCalculator() {}
+
+    /**
+     * Score a user's finances from pre-aggregated figures
+     */
+    public static int score(BigDecimal monthlyIncome, BigDecimal monthlyExpenses,
+                            boolean hasChecking, boolean hasSavings, BigDecimal netWorth) {
+        int score = BASE_SCORE;
+
+        // Factor 1: Savings rate (up to 25 points)
+        BigDecimal savingsRate = savingsRate(monthlyIncome, monthlyExpenses);
+        if (savingsRate != null) {
+            score += Math.min(25, (int)(savingsRate.doubleValue() * 100));
+        }
+
+        // Factor 2: Account diversity (up to 15 points)
+        if (hasChecking) score += 5;
+        if (hasSavings) score += 10;
+
+        // Factor 3: Positive net worth (up to 10 points)
+        if (netWorth.compareTo(BigDecimal.ZERO) > 0) {
+            score += 10;
+        }
+
+        return Math.max(0, Math.min(100, score));
+    }
+
+    /**
+     * Share of income left after expenses, or null when there is no income
+     */
+    public static BigDecimal savingsRate(BigDecimal monthlyIncome, BigDecimal monthlyExpenses) {
+        if (monthlyIncome.compareTo(BigDecimal.ZERO) <= 0) {
+            return null;
+        }
+        return monthlyIncome.subtract(monthlyExpenses).divide(monthlyIncome, 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,195 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.HealthScore;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.repository.HealthScoreRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.*;
+/**
+ * HealthScoreService computes financial health scores for all users in bulk
+ *
+ * Instead of running the per-user queries once per user, each partition
+ * of users is scored with grouped queries (income, expenses and balances
+ * GROUP BY user). Amounts in other currencies than the reporting currency
+ * come back per day and are converted with the FX rate snapshot. Partitions
+ * run in parallel and every run appends to the health_scores history, so
+ * dashboards and reports can read a precomputed score.
+ */
+@Service
+public class HealthScoreService {
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final HealthScoreRepository healthScoreRepository;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitionSize;
+    private final ExecutorService partitionPool;
+
+    @Autowired
+    public HealthScoreService(UserRepository userRepository,
+                              TransactionRepository transactionRepository,
+                              AccountRepository accountRepository,
+                              HealthScoreRepository healthScoreRepository,
+                              FxRateService fxRateService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${health-score.batch.partition-size:500}") int partitionSize,
+                              @Value("${health-score.batch.parallelism:4}") int parallelism) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.healthScoreRepository = healthScoreRepository;
+        this.fxRateService = fxRateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionSize = Math.max(1, partitionSize);
+        this.partitionPool = Executors.newFixedThreadPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Find the most recent precomputed score for a user
+     */
+    public Optional<HealthScore> findLatestScore(Long userId) {
+        return healthScoreRepository.findFirstByUserIdOrderByComputedAtDesc(userId);
+    }
+
+    /**
+     * Find a user's score history, newest first
+     */
+    public List<HealthScore> findScoreHistory(Long userId) {
+        return healthScoreRepository.findByUserIdOrderByComputedAtDesc(userId);
+    }
+
+    /**
+     * Nightly batch run
+     */
+    @Scheduled(cron = "${health-score.batch.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        try {
+            int scored = scoreAllUsers();
+            System.out.println("Health score batch scored " + scored + " users");
+        } catch (Exception e) {
+            System.err.println("Health score batch failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Score every user, one partition per task
+     *
+     * @return number of users scored
+     */
+    public int scoreAllUsers() throws InterruptedException, ExecutionException {
+        List<Long> userIds = userRepository.findAllIds();
+        LocalDateTime computedAt = LocalDateTime.now();
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += partitionSize) {
+            List<Long> partition = userIds.subList(from, Math.min(from + partitionSize, userIds.size()));
+            results.add(partitionPool.submit(() -> scorePartition(partition, computedAt)));
+        }
+
+        int scored = 0;
+        for (Future<Integer> result : results) {
+            scored += result.get();
+        }
+        return scored;
+    }
+
+    /**
+     * Score one partition of users with grouped queries and store the results
+     */
+    private int scorePartition(List<Long> userIds, LocalDateTime computedAt) {
+        LocalDate today = computedAt.toLocalDate();
+        YearMonth currentMonth = YearMonth.from(today);
+
+        FxRateSnapshot rates = fxRateService.current();
+
+        // Same windows as FinancialInsightsService: 3-month average income, current month expenses
+        Map<Long, Long> incomeByUser = sumInReportingCurrency(userIds, Transaction.TransactionType.INCOME,
+                today.minusMonths(3), today, rates);
+        Map<Long, Long> expensesByUser = sumInReportingCurrency(userIds, Transaction.TransactionType.EXPENSE,
+                currentMonth.atDay(1), currentMonth.atEndOfMonth(), rates);
+
+        // Balances convert at today's rates, like AccountService.calculateNetWorth
+        Map<Long, EnumMap<Account.AccountType, Long>> balancesByUser = new HashMap<>();
+        for (AccountRepository.UserBalanceByType row : accountRepository.summarizeBalancesByUserAndType(userIds)) {
+            long cents = rates.toReportingCents(Money.toCents(row.getTotal()), rates.indexOf(row.getCurrency()),
+                    today.toEpochDay());
+            balancesByUser.computeIfAbsent(row.getUserId(), id -> new EnumMap<>(Account.AccountType.class))
+                    .merge(row.getAccountType(), cents, Math::addExact);
+        }
+
+        return transactionTemplate.execute(status -> {
+            List<HealthScore> scores = new ArrayList<>(userIds.size());
+
+            for (Long userId : userIds) {
+                BigDecimal monthlyIncome = Money.ofCents(incomeByUser.getOrDefault(userId, 0L))
+                        .dividedBy(3).toBigDecimal();
+                BigDecimal monthlyExpenses = Money.ofCents(expensesByUser.getOrDefault(userId, 0L)).toBigDecimal();
+                EnumMap<Account.AccountType, Long> balances =
+                        balancesByUser.getOrDefault(userId, new EnumMap<>(Account.AccountType.class));
+
+                long netWorthCents = 0;
+                for (Map.Entry<Account.AccountType, Long> entry : balances.entrySet()) {
+                    // Credit card balances are liabilities
+                    long balanceCents = entry.getValue();
+                    netWorthCents = entry.getKey() == Account.AccountType.CREDIT_CARD
+                            ? Math.subtractExact(netWorthCents, balanceCents)
+                            : Math.addExact(netWorthCents, balanceCents);
+                }
+                BigDecimal netWorth = Money.ofCents(netWorthCents).toBigDecimal();
+
+                int score = HealthScoreCalculator.score(monthlyIncome, monthlyExpenses,
+                        balances.containsKey(Account.AccountType.CHECKING),
+                        balances.containsKey(Account.AccountType.SAVINGS),
+                        netWorth);
+
+                scores.add(new HealthScore(userRepository.getReferenceById(userId), score,
+                        HealthScoreCalculator.savingsRate(monthlyIncome, monthlyExpenses), netWorth, computedAt));
+            }
+
+            healthScoreRepository.saveAll(scores);
+            return scores.size();
+        });
+    }
+
+    /**
+     * Per-user totals in reporting currency cents; other currencies convert at each day's rate
+     */
+    private Map<Long, Long> sumInReportingCurrency(List<Long> userIds, Transaction.TransactionType type,
+                                                   LocalDate startDate, LocalDate endDate, FxRateSnapshot rates) {
+        Map<Long, Long> totals = new HashMap<>();
+        for (TransactionRepository.UserTotal total : transactionRepository.sumByUserForTypeInPeriod(
+                userIds, type, rates.getReportingCurrency(), startDate, endDate)) {
+            totals.merge(total.getUserId(), Money.toCents(total.getTotal()), Math::addExact);
+        }
+        for (TransactionRepository.UserDailyTotalRow row : transactionRepository.sumOtherCurrenciesByUserAndDay(
+                userIds, type, rates.getReportingCurrency(), startDate, endDate)) {
+            long cents = rates.toReportingCents(Money.toCents(row.total()), rates.indexOf(row.currency()),
+                    row.transactionDate().toEpochDay());
+            totals.merge(row.userId(), cents, Math::addExact);
+        }
+        return totals;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partitionPool.shutdownNow();
+    }
+}
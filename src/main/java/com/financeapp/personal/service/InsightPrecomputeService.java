@@ -0,0 +1,236 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.dto.DashboardInsights;
+import com.financeapp.personal.entity.HealthScore;
+import com.financeapp.personal.entity.InsightSnapshot;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.event.EventConsumer;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.repository.InsightSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+/**
+ * InsightPrecomputeService generates dashboard insights in the background
+ *
+ * This keeps ChatGPT latency off the request path:
+ * - Data changes schedule a debounced refresh for the affected user
+ * - A nightly sweep refreshes every user
+ * - Work runs on a bounded worker pool; each user holds at most one
+ *   queued slot, so a user with frequent changes cannot starve others
+ * - The dashboard reads the stored snapshot instantly
+ * - A user's first visit stores the local rule-based insights right away and
+ *   queues the ChatGPT refinement, rather than waiting on it
+ * - The health score comes from the nightly batch's latest row; it is only
+ *   calculated live for a user the batch has not scored yet
+ */
+@Service
+public class InsightPrecomputeService implements EventConsumer {
+
+    private static final long SWEEP_RETRY_PAUSE_MS = 250;
+
+    private final FinancialInsightsService financialInsightsService;
+    private final HealthScoreService healthScoreService;
+    private final InsightSnapshotRepository snapshotRepository;
+    private final UserService userService;
+    private final LlmRequestGate llmRequestGate;
+    private final DataVersionService dataVersionService;
+    private final long debounceMillis;
+
+    private final ScheduledExecutorService debounceTimer;
+    private final ThreadPoolExecutor workers;
+    private final Map<Long, ScheduledFuture<?>> pendingDebounce = new ConcurrentHashMap<>();
+    private final Set<Long> queuedUsers = ConcurrentHashMap.newKeySet();
+    private final SingleFlight<Long, InsightSnapshot> inFlightRefreshes = new SingleFlight<>();
+
+    @Autowired
+    public InsightPrecomputeService(FinancialInsightsService financialInsightsService,
+                                    HealthScoreService healthScoreService,
+                                    InsightSnapshotRepository snapshotRepository,
+                                    UserService userService,
+                                    LlmRequestGate llmRequestGate,
+                                    DataVersionService dataVersionService,
+                                    @Value("${insights.precompute.workers:2}") int workerCount,
+                                    @Value("${insights.precompute.queue-capacity:100}") int queueCapacity,
+                                    @Value("${insights.precompute.debounce-ms:5000}") long debounceMillis) {
+        this.financialInsightsService = financialInsightsService;
+        this.healthScoreService = healthScoreService;
+        this.snapshotRepository = snapshotRepository;
+        this.userService = userService;
+        this.llmRequestGate = llmRequestGate;
+        this.dataVersionService = dataVersionService;
+        this.debounceMillis = debounceMillis;
+
+        this.debounceTimer = Executors.newSingleThreadScheduledExecutor(namedThreads("insights-debounce"));
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("insights-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Get the stored insights for a user, generating the local ones inline only when none exist yet
+     */
+    public InsightSnapshot getOrCompute(User user) {
+        return snapshotRepository.findByUserId(user.getId())
+                .orElseGet(() -> {
+                    InsightSnapshot local = inFlightRefreshes.execute(user.getId(),
+                            () -> storeSnapshot(user, financialInsightsService.generateLocalInsights(user)));
+                    if (!local.isAiRefined() && financialInsightsService.canRefineWithLlm()) {
+                        requestRefresh(user.getId());
+                    }
+                    return local;
+                });
+    }
+
+    /**
+     * Find the stored insights for a user without generating anything
+     */
+    public Optional<InsightSnapshot> findSnapshot(Long userId) {
+        return snapshotRepository.findByUserId(userId);
+    }
+
+    /**
+     * The stored insights as a row, for the JSON API
+     *
+     * Reads only the snapshot's columns; a user without insights yet gets them
+     * generated once, as on the dashboard.
+     */
+    public InsightSnapshotRepository.SnapshotRow getOrComputeRow(Long userId) {
+        return snapshotRepository.findRowByUserId(userId)
+                .orElseGet(() -> {
+                    InsightSnapshot snapshot = getOrCompute(userService.findById(userId)
+                            .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId)));
+                    return new InsightSnapshotRepository.SnapshotRow(snapshot.getGeneralInsights(),
+                            snapshot.getSpendingAnalysis(), snapshot.getBudgetRecommendations(),
+                            snapshot.getHealthScore(), snapshot.isAiRefined(), snapshot.getGeneratedAt());
+                });
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "insight-precompute";
+    }
+
+    /**
+     * Any change schedules a refresh; a batch with many changes for a user schedules it once
+     */
+    @Override
+    public void consume(List<FinanceEvent> events) {
+        events.stream().map(FinanceEvent::userId).distinct().forEach(this::scheduleRefresh);
+    }
+
+    /**
+     * Debounce refreshes: a burst of changes results in a single regeneration
+     */
+    public void scheduleRefresh(Long userId) {
+        pendingDebounce.compute(userId, (id, existing) -> {
+            if (existing != null) {
+                existing.cancel(false);
+            }
+            return debounceTimer.schedule(() -> {
+                pendingDebounce.remove(id);
+                requestRefresh(id);
+            }, debounceMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Queue a refresh for a user right away
+     *
+     * @return false if the worker queue is full
+     */
+    public boolean requestRefresh(Long userId) {
+        if (!queuedUsers.add(userId)) {
+            return true; // Already queued; the queued run will see the latest data
+        }
+
+        try {
+            workers.execute(() -> {
+                queuedUsers.remove(userId);
+                try {
+                    // Background jobs yield to users waiting on a page
+                    userService.findById(userId).ifPresent(user ->
+                            llmRequestGate.withPriority(LlmRequestGate.Priority.BACKGROUND, () -> refreshNow(user)));
+                } catch (Exception e) {
+                    System.err.println("Error precomputing insights for user " + userId + ": " + e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queuedUsers.remove(userId);
+            System.err.println("Insight refresh queue full, skipping user " + userId);
+            return false;
+        }
+    }
+
+    /**
+     * Nightly sweep that refreshes insights for every user
+     */
+    @Scheduled(cron = "${insights.precompute.nightly-cron:0 0 3 * * *}")
+    public void nightlySweep() {
+        for (User user : userService.findAllUsers()) {
+            try {
+                // Wait for queue space rather than dropping users from the sweep
+                while (!requestRefresh(user.getId())) {
+                    Thread.sleep(SWEEP_RETRY_PAUSE_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Generate and store all dashboard insights for a user
+     */
+    public InsightSnapshot refreshNow(User user) {
+        // An inline refresh and a background refresh for the same user share one run
+        return inFlightRefreshes.execute(user.getId(),
+                () -> storeSnapshot(user, financialInsightsService.generateDashboardInsights(user)));
+    }
+
+    private InsightSnapshot storeSnapshot(User user, DashboardInsights insights) {
+        // The batch runs before the nightly sweep, so swept snapshots carry that night's score
+        int healthScore = healthScoreService.findLatestScore(user.getId())
+                .map(HealthScore::getScore)
+                .orElseGet(() -> financialInsightsService.calculateFinancialHealthScore(user));
+
+        InsightSnapshot snapshot = snapshotRepository.findByUserId(user.getId())
+                .orElseGet(() -> new InsightSnapshot(user));
+        snapshot.setGeneralInsights(insights.getGeneralInsights());
+        snapshot.setSpendingAnalysis(insights.getSpendingAnalysis());
+        snapshot.setBudgetRecommendations(insights.getBudgetRecommendations());
+        snapshot.setAiRefined(insights.isAiRefined());
+        snapshot.setHealthScore(healthScore);
+        snapshot.setGeneratedAt(LocalDateTime.now());
+
+        InsightSnapshot saved = snapshotRepository.save(snapshot);
+        // Cached copies of the insights page are stale now
+        dataVersionService.bump(user.getId());
+        return saved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        debounceTimer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        ThreadFactory delegate = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = delegate.newThread(runnable);
+            thread.setName(prefix + "-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,216 @@
+package com.financeapp.personal.service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+/**
+ * LlmRequestGate protects the ChatGPT upstream from overload
+ *
+ * Every call must pass three checks before it is sent:
+ * - A token bucket caps the sustained request rate (with a small burst)
+ * - A concurrency limit caps how many calls are in flight at once
+ * - A bounded wait queue sheds load instead of queueing forever
+ *
+ * Interactive requests always go ahead of waiting background jobs.
+ * A caller that is shed should serve its fallback text.
+ */
+@Component
+public class LlmRequestGate {
+
+    /**
+     * Who is waiting for the upstream: a user on a page, or a background job
+     */
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private static final ThreadLocal<Priority> CURRENT_PRIORITY = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+
+    private final double tokensPerNano;
+    private final double burstCapacity;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long interactiveMaxWaitNanos;
+    private final long backgroundMaxWaitNanos;
+
+    // Guarded by lock
+    private double availableTokens;
+    private long lastRefillNanos;
+    private int inFlight;
+    private int waitingInteractive;
+    private int waitingBackground;
+
+    private final AtomicLong shedCount = new AtomicLong();
+
+    @Autowired
+    public LlmRequestGate(@Value("${openai.rate-limit.requests-per-second:3}") double requestsPerSecond,
+                          @Value("${openai.rate-limit.burst:5}") int burst,
+                          @Value("${openai.max-concurrent-requests:4}") int maxConcurrent,
+                          @Value("${openai.max-queued-requests:50}") int maxQueued,
+                          @Value("${openai.max-queue-wait-ms:3000}") long interactiveMaxWaitMillis,
+                          @Value("${openai.background-max-queue-wait-ms:30000}") long backgroundMaxWaitMillis) {
+        this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burstCapacity = Math.max(1, burst);
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.interactiveMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(interactiveMaxWaitMillis);
+        this.backgroundMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(backgroundMaxWaitMillis);
+        this.availableTokens = burstCapacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Run work with the given priority for any upstream calls it makes on this thread
+     */
+    public <T> T withPriority(Priority priority, Supplier<T> work) {
+        Priority previous = CURRENT_PRIORITY.get();
+        CURRENT_PRIORITY.set(priority);
+        try {
+            return work.get();
+        } finally {
+            CURRENT_PRIORITY.set(previous);
+        }
+    }
+
+    /**
+     * Wrap a task so it runs with the calling thread's priority, wherever it is executed
+     */
+    public static Runnable inheritPriority(Runnable task) {
+        Priority priority = CURRENT_PRIORITY.get();
+        return () -> {
+            Priority previous = CURRENT_PRIORITY.get();
+            CURRENT_PRIORITY.set(priority);
+            try {
+                task.run();
+            } finally {
+                CURRENT_PRIORITY.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Wait for permission to call the upstream
+     *
+     * @return false if the request was shed (queue full or waited too long)
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        Priority priority = CURRENT_PRIORITY.get();
+        long maxWait = priority == Priority.INTERACTIVE ? interactiveMaxWaitNanos : backgroundMaxWaitNanos;
+        long deadline = System.nanoTime() + maxWait;
+
+        lock.lock();
+        try {
+            if (waitingInteractive + waitingBackground >= maxQueued && !canProceed(priority)) {
+                shedCount.incrementAndGet();
+                return false;
+            }
+
+            adjustWaiting(priority, 1);
+            try {
+                while (true) {
+                    if (canProceed(priority)) {
+                        availableTokens -= 1;
+                        inFlight++;
+                        return true;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        shedCount.incrementAndGet();
+                        return false;
+                    }
+
+                    // Waiting on the bucket needs a timed wake-up; everything else is signalled
+                    if (inFlight < maxConcurrent && availableTokens < 1) {
+                        remaining = Math.min(remaining, nanosUntilNextToken());
+                    }
+                    stateChanged.awaitNanos(remaining);
+                }
+            } finally {
+                adjustWaiting(priority, -1);
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the concurrency slot taken by a successful tryAcquire
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empty the bucket after the upstream answers 429 so waiting callers back off
+     */
+    public void onRateLimited() {
+        lock.lock();
+        try {
+            refill();
+            availableTokens = Math.min(availableTokens, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of requests waiting for permission right now
+     */
+    public int getWaitingCount() {
+        lock.lock();
+        try {
+            return waitingInteractive + waitingBackground;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of requests shed since startup
+     */
+    public long getShedCount() {
+        return shedCount.get();
+    }
+
+    private boolean canProceed(Priority priority) {
+        refill();
+        if (priority == Priority.BACKGROUND && waitingInteractive > 0) {
+            return false; // Interactive callers go first
+        }
+        return inFlight < maxConcurrent && availableTokens >= 1;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        availableTokens = Math.min(burstCapacity, availableTokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+
+    private long nanosUntilNextToken() {
+        return Math.max(1, (long) Math.ceil((1 - availableTokens) / tokensPerNano));
+    }
+
+    private void adjustWaiting(Priority priority, int delta) {
+        if (priority == Priority.INTERACTIVE) {
+            waitingInteractive += delta;
+        } else {
+            waitingBackground += delta;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.RecurringSeries;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.EventConsumer;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.repository.RecurringSeriesRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+/**
+ * RecurringSeriesService detects recurring payments and keeps them current
+ *
+ * - An account is scanned once, in date order, in a single streaming pass
+ * - After that, each posted transaction extends or starts a series incrementally;
+ *   a batch or import is applied per account in date order
+ * - Edits, and transactions dated before a series' last occurrence, rescan that account
+ */
+@Service
+public class RecurringSeriesService implements EventConsumer {
+
+    private static final int CANDIDATE_RETENTION_DAYS = 400;
+
+    private final RecurringSeriesRepository recurringSeriesRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate writeTransaction;
+
+    @Autowired
+    public RecurringSeriesService(RecurringSeriesRepository recurringSeriesRepository,
+                                  TransactionRepository transactionRepository,
+                                  AccountRepository accountRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.recurringSeriesRepository = recurringSeriesRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+
+        // Events are consumed after the posting transaction has committed, so they need their own
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * A user's active recurring payments that are still being charged, largest first
+     */
+    public List<RecurringSeries> findCurrentSeries(Long userId) {
+        LocalDate today = LocalDate.now();
+        List<RecurringSeries> current = new ArrayList<>();
+        for (RecurringSeries series : recurringSeriesRepository.findByUserIdAndStatus(userId, RecurringSeries.Status.ACTIVE)) {
+            if (series.isCurrent(today)) {
+                current.add(series);
+            }
+        }
+        current.sort(Comparator.comparingLong((RecurringSeries series) -> series.getMonthlyEquivalent().getCents()).reversed());
+        return current;
+    }
+
+    /**
+     * Rebuild all series of one account from its full history
+     *
+     * @return number of series (including candidates) stored
+     */
+    public int rescanAccount(Long accountId) {
+        return writeTransaction.execute(status -> {
+            Account account = accountRepository.getReferenceById(accountId);
+            recurringSeriesRepository.deleteByAccountId(accountId);
+
+            Map<String, List<RecurringSeries>> seriesByMerchant = new HashMap<>();
+            List<RecurringSeries> allSeries = new ArrayList<>();
+            try (Stream<TransactionRepository.RecurringRow> rows = transactionRepository.streamRecurringRowsByAccountId(accountId)) {
+                rows.forEach(row -> {
+                    String merchantKey = DescriptionNormalizer.merchantKey(row.getDescription());
+                    List<RecurringSeries> candidates = seriesByMerchant.computeIfAbsent(
+                            row.getTransactionType() + "|" + merchantKey, key -> new ArrayList<>());
+
+                    RecurringSeries created = recordOccurrence(candidates, account, merchantKey, row.getTransactionType(),
+                            row.getId(), row.getTransactionDate(), Money.of(row.getAmount()), row.getDescription(),
+                            row.getCategory());
+                    if (created != null) {
+                        allSeries.add(created);
+                    }
+                });
+            }
+
+            recurringSeriesRepository.saveAll(allSeries);
+            return allSeries.size();
+        });
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "recurring-series";
+    }
+
+    @Override
+    public boolean changesViews() {
+        return true;
+    }
+
+    @Override
+    public void consume(List<FinanceEvent> events) {
+        // A rescan reads every committed transaction, so it covers the rest of the batch for that account.
+        // Failures propagate for a retry; rescans and already-recorded postings are safe to repeat.
+        Set<Long> rescanned = new HashSet<>();
+        Map<Long, List<TransactionPostedEvent>> postedByAccount = new LinkedHashMap<>();
+        for (FinanceEvent event : events) {
+            if (event instanceof TransactionPostedEvent posted) {
+                postedByAccount.computeIfAbsent(posted.accountId(), id -> new ArrayList<>()).add(posted);
+            } else if (event instanceof TransactionsImportedEvent imported) {
+                for (TransactionPostedEvent posted : imported.transactions()) {
+                    postedByAccount.computeIfAbsent(posted.accountId(), id -> new ArrayList<>()).add(posted);
+                }
+            } else if (event instanceof TransactionEditedEvent edited) {
+                rescanOnce(edited.accountId(), rescanned);
+            }
+        }
+
+        postedByAccount.forEach((accountId, postings) -> {
+            if (!rescanned.contains(accountId)) {
+                onTransactionsPosted(accountId, postings);
+            }
+        });
+    }
+
+    /**
+     * Extend or start a series for a newly posted transaction
+     *
+     * @return true if the account had to be rescanned
+     */
+    public boolean onTransactionPosted(TransactionPostedEvent event) {
+        return onTransactionsPosted(event.accountId(), List.of(event));
+    }
+
+    /**
+     * Apply one account's new postings in date order, in one transaction
+     *
+     * @return true if the account had to be rescanned
+     */
+    private boolean onTransactionsPosted(Long accountId, List<TransactionPostedEvent> postings) {
+        List<TransactionPostedEvent> inDateOrder = new ArrayList<>(postings);
+        inDateOrder.sort(Comparator.comparing(TransactionPostedEvent::transactionDate)
+                .thenComparing(TransactionPostedEvent::transactionId));
+
+        boolean needsRescan = writeTransaction.execute(status -> {
+            for (TransactionPostedEvent posted : inDateOrder) {
+                if (recordPosting(posted)) {
+                    return true; // The rescan replaces whatever was recorded before this one
+                }
+            }
+            return false;
+        });
+
+        if (needsRescan) {
+            rescanAccount(accountId);
+        }
+        return needsRescan;
+    }
+
+    /**
+     * @return true if the posting is dated before a series' last occurrence, so the account needs a rescan
+     */
+    private boolean recordPosting(TransactionPostedEvent event) {
+        String merchantKey = DescriptionNormalizer.merchantKey(event.description());
+        List<RecurringSeries> candidates = recurringSeriesRepository.findByAccountIdAndMerchantKeyAndTransactionType(
+                event.accountId(), merchantKey, event.transactionType());
+
+        for (RecurringSeries series : candidates) {
+            if (event.transactionId().equals(series.getLastTransactionId())) {
+                return false; // Redelivered, or already picked up by a rescan
+            }
+            if (event.transactionDate().isBefore(series.getLastDate())) {
+                return true; // Backdated: the gaps of this series change
+            }
+        }
+
+        RecurringSeries created = recordOccurrence(candidates, accountRepository.getReferenceById(event.accountId()),
+                merchantKey, event.transactionType(), event.transactionId(), event.transactionDate(),
+                Money.of(event.amount()), event.description(), event.category());
+        if (created != null) {
+            recurringSeriesRepository.save(created);
+        }
+        return false;
+    }
+
+    /**
+     * An edit can change any occurrence, so rebuild the account
+     */
+    public void onTransactionEdited(TransactionEditedEvent event) {
+        rescanOnce(event.accountId(), new HashSet<>());
+    }
+
+    private void rescanOnce(Long accountId, Set<Long> rescanned) {
+        if (!rescanned.add(accountId)) {
+            return;
+        }
+        rescanAccount(accountId);
+    }
+
+    /**
+     * Scan accounts that have history but no series yet, e.g. after an upgrade
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scanUnscannedAccounts() {
+        try {
+            List<Long> accountIds = recurringSeriesRepository.findUnscannedAccountIds();
+            for (Long accountId : accountIds) {
+                rescanAccount(accountId);
+            }
+            if (!accountIds.isEmpty()) {
+                System.out.println("Recurring series scan covered " + accountIds.size() + " accounts");
+            }
+        } catch (Exception e) {
+            System.err.println("Recurring series scan failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Nightly cleanup of candidates that never recurred
+     */
+    @Scheduled(cron = "${recurring.cleanup-cron:0 15 3 * * *}")
+    public void removeStaleCandidates() {
+        writeTransaction.executeWithoutResult(status ->
+                recurringSeriesRepository.deleteCandidatesLastSeenBefore(LocalDate.now().minusDays(CANDIDATE_RETENTION_DAYS)));
+    }
+
+    /**
+     * Add an occurrence to the first series whose amount matches, or start a new one
+     *
+     * @return the new series if one was started, otherwise null
+     */
+    private static RecurringSeries recordOccurrence(List<RecurringSeries> candidates, Account account, String merchantKey,
+                                                    Transaction.TransactionType transactionType, Long transactionId,
+                                                    LocalDate date, Money amount, String description,
+                                                    Transaction.Category category) {
+        for (RecurringSeries series : candidates) {
+            if (series.amountMatches(amount) && series.record(transactionId, date, amount, description, category)) {
+                return null;
+            }
+        }
+
+        RecurringSeries series = new RecurringSeries(account, merchantKey, transactionType);
+        series.record(transactionId, date, amount, description, category);
+        candidates.add(series);
+        return series;
+    }
+}
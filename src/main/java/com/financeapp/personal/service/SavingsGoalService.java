@@ -0,0 +1,132 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.forecast.SavingsGoalInput;
+import com.financeapp.personal.forecast.SavingsGoalSimulation;
+import com.financeapp.personal.forecast.SavingsGoalSimulator;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * SavingsGoalService answers "how likely am I to have X by date Y"
+ *
+ * - Starts from today's net worth, as AccountService calculates it
+ * - Samples each month's income and per-category spending from the last two years of monthly
+ *   totals (one query), converted to the reporting currency at today's FX rates
+ * - Runs simulation.trajectories trajectories on its own fork-join pool
+ * The seed is fixed, so asking the same question of the same data gives the same answer.
+ */
+@Service
+public class SavingsGoalService {
+
+    public static final int MAX_MONTHS = 120;
+    private static final int HISTORY_MONTHS = 24;
+    private static final long SEED = 0x5A71_4E65L;
+
+    private final AccountService accountService;
+    private final TransactionRepository transactionRepository;
+    private final FxRateService fxRateService;
+    private final int trajectories;
+    private final ForkJoinPool simulationPool;
+
+    @Autowired
+    public SavingsGoalService(AccountService accountService,
+                              TransactionRepository transactionRepository,
+                              FxRateService fxRateService,
+                              @Value("${simulation.trajectories:100000}") int trajectories,
+                              @Value("${simulation.parallelism:0}") int parallelism) {
+        this.accountService = accountService;
+        this.transactionRepository = transactionRepository;
+        this.fxRateService = fxRateService;
+        this.trajectories = Math.max(1, trajectories);
+        this.simulationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Simulate the user's net worth up to the target date
+     *
+     * The simulation steps in whole months, so it runs to the first month step on or after the target
+     * date; {@link SavingsGoalSimulation#dateOf} of the last month is that effective horizon.
+     *
+     * @throws IllegalArgumentException if the target date is not in the future or more than MAX_MONTHS away
+     */
+    public SavingsGoalSimulation simulate(User user, BigDecimal goal, LocalDate targetDate) {
+        LocalDate today = LocalDate.now();
+        if (!targetDate.isAfter(today)) {
+            throw new IllegalArgumentException("The target date must be in the future");
+        }
+        long months = ChronoUnit.MONTHS.between(today, targetDate);
+        if (today.plusMonths(months).isBefore(targetDate)) {
+            months++;
+        }
+        if (months > MAX_MONTHS) {
+            throw new IllegalArgumentException("The target date must be at most " + MAX_MONTHS + " months away");
+        }
+        long goalCents = Money.of(goal.setScale(2, RoundingMode.HALF_UP)).getCents();
+        return SavingsGoalSimulator.simulate(loadInput(user, today), goalCents, today, (int) months, trajectories, SEED,
+                simulationPool);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        simulationPool.shutdownNow();
+    }
+
+    private SavingsGoalInput loadInput(User user, LocalDate today) {
+        long startCents = Money.of(accountService.calculateNetWorth(user)).getCents();
+
+        FxRateSnapshot rates = fxRateService.current();
+        Map<Long, Integer> currencyByAccount = new HashMap<>();
+        for (Account account : accountService.findAccountsByUser(user)) {
+            currencyByAccount.put(account.getId(), rates.indexOf(account.getCurrency()));
+        }
+
+        // Full months only; the current month is still incomplete
+        YearMonth lastFullMonth = YearMonth.from(today).minusMonths(1);
+        YearMonth firstMonth = lastFullMonth.minusMonths(HISTORY_MONTHS - 1);
+        List<TransactionRepository.MonthlyTotalRow> rows = transactionRepository.findMonthlyTotalsByUserId(
+                user.getId(), firstMonth.atDay(1), lastFullMonth.plusMonths(1).atDay(1));
+        if (rows.isEmpty()) {
+            return new SavingsGoalInput(startCents, new long[0], new long[0][]);
+        }
+
+        // Sample only from the months since the user's history starts
+        YearMonth historyStart = lastFullMonth;
+        for (TransactionRepository.MonthlyTotalRow row : rows) {
+            YearMonth month = YearMonth.of(row.year(), row.month());
+            if (month.isBefore(historyStart)) {
+                historyStart = month;
+            }
+        }
+        int historyMonths = (int) ChronoUnit.MONTHS.between(historyStart, lastFullMonth) + 1;
+
+        long[] income = new long[historyMonths];
+        Map<Transaction.Category, long[]> spending = new EnumMap<>(Transaction.Category.class);
+        long epochDay = today.toEpochDay();
+        for (TransactionRepository.MonthlyTotalRow row : rows) {
+            int index = (int) ChronoUnit.MONTHS.between(historyStart, YearMonth.of(row.year(), row.month()));
+            long cents = rates.toReportingCents(Money.of(row.total()).getCents(),
+                    currencyByAccount.getOrDefault(row.accountId(), FxRateSnapshot.REPORTING), epochDay);
+            long[] totals = row.transactionType() == Transaction.TransactionType.INCOME
+                    ? income
+                    : spending.computeIfAbsent(row.category(), category -> new long[historyMonths]);
+            totals[index] = Math.addExact(totals[index], cents);
+        }
+        return new SavingsGoalInput(startCents, income, spending.values().toArray(new long[0][]));
+    }
+}
@@ -0,0 +1,61 @@
+package com.financeapp.personal.service;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+/**
+ * SingleFlight coalesces concurrent calls that share the same key
+ *
+ * The first caller for a key runs the work; every caller that arrives while
+ * it is still running waits on the same pending future instead of starting
+ * a duplicate call. Once the work finishes the key is released, so the next
+ * caller triggers a fresh run.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run the supplier for this key, or join the call that is already running
+     */
+    public V execute(K key, Supplier<V> work) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, pending);
+
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            pending.complete(work.get());
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, pending);
+        }
+
+        return join(pending);
+    }
+
+    /**
+     * Number of keys that currently have a call running
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
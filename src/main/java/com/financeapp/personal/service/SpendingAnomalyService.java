@@ -0,0 +1,405 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.SpendingAnomaly;
+import com.financeapp.personal.entity.SpendingStat;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.event.EventConsumer;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.repository.OutboxEventRepository;
+import com.financeapp.personal.repository.SpendingAnomalyRepository;
+import com.financeapp.personal.repository.SpendingStatRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+/**
+ * SpendingAnomalyService flags unusually large expenses as they are posted
+ *
+ * - Each user has running statistics per category and per merchant ({@link SpendingStat})
+ * - A posted expense is scored against them, then added to them; nothing re-reads history
+ * - Edits take the old amount out of the statistics and score the new one
+ * - Flags are stored, for the insights dashboard and the AI prompt
+ * - Each statistic records the last outbox event it includes, so a redelivered event is skipped
+ * - Amounts are compared in the reporting currency, converted at the transaction date
+ */
+@Service
+public class SpendingAnomalyService implements EventConsumer {
+
+    // Score with a deviation of at least $5 or 10% of the mean, so steady amounts don't flag small changes
+    private static final double MIN_DEVIATION_CENTS = 500;
+    private static final double MIN_DEVIATION_RATIO = 0.10;
+    private static final int LOCK_STRIPES = 64;
+
+    private final SpendingStatRepository spendingStatRepository;
+    private final SpendingAnomalyRepository spendingAnomalyRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate buildTransaction;
+    private final double zThreshold;
+    private final int minSamples;
+    private final int recentDays;
+
+    // Statistic rows are read-modify-write, so updates for one user are serialized
+    private final ReentrantLock[] userLocks = new ReentrantLock[LOCK_STRIPES];
+
+    @Autowired
+    public SpendingAnomalyService(SpendingStatRepository spendingStatRepository,
+                                  SpendingAnomalyRepository spendingAnomalyRepository,
+                                  TransactionRepository transactionRepository,
+                                  UserRepository userRepository,
+                                  AccountRepository accountRepository,
+                                  OutboxEventRepository outboxEventRepository,
+                                  FxRateService fxRateService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${anomaly.z-threshold:3.0}") double zThreshold,
+                                  @Value("${anomaly.min-samples:5}") int minSamples,
+                                  @Value("${anomaly.recent-days:30}") int recentDays) {
+        this.spendingStatRepository = spendingStatRepository;
+        this.spendingAnomalyRepository = spendingAnomalyRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.fxRateService = fxRateService;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        this.recentDays = recentDays;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+
+        // Events are consumed after the posting transaction has committed, so they need their own
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // Building reads the history and the outbox position from one snapshot
+        this.buildTransaction = new TransactionTemplate(transactionManager);
+        this.buildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * A user's flagged expenses from the last few weeks, newest first
+     */
+    public List<SpendingAnomaly> findRecentAnomalies(Long userId, int limit) {
+        return spendingAnomalyRepository.findRecentByUserId(userId, LocalDate.now().minusDays(recentDays),
+                PageRequest.of(0, limit));
+    }
+
+    /**
+     * The same anomalies as rows, for the JSON API
+     */
+    public List<SpendingAnomalyRepository.AnomalyRow> findRecentAnomalyRows(Long userId, int limit) {
+        return spendingAnomalyRepository.findRecentRowsByUserId(userId, LocalDate.now().minusDays(recentDays),
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    public String getConsumerName() {
+        return "spending-anomalies";
+    }
+
+    @Override
+    public boolean changesViews() {
+        return true;
+    }
+
+    /**
+     * Events from outside the outbox carry no id and are always applied
+     */
+    @Override
+    public void consume(List<FinanceEvent> events) {
+        consume(events, new long[events.size()]);
+    }
+
+    /**
+     * Postings are scored per user in one transaction; an edit first applies what came before it
+     *
+     * A failure propagates, so the dispatcher keeps its position and retries the batch; what
+     * was committed before the failure is recognized and skipped on the retry.
+     */
+    @Override
+    public void consume(List<FinanceEvent> events, long[] eventIds) {
+        Map<Long, List<Posting>> postedByUser = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            FinanceEvent event = events.get(i);
+            long eventId = eventIds[i];
+            if (event instanceof TransactionPostedEvent posted) {
+                postedByUser.computeIfAbsent(posted.userId(), id -> new ArrayList<>()).add(new Posting(posted, eventId));
+            } else if (event instanceof TransactionsImportedEvent imported) {
+                List<Posting> postings = postedByUser.computeIfAbsent(imported.userId(), id -> new ArrayList<>());
+                for (TransactionPostedEvent posted : imported.transactions()) {
+                    postings.add(new Posting(posted, eventId));
+                }
+            } else if (event instanceof TransactionEditedEvent edited) {
+                observeAll(postedByUser);
+                onTransactionEdited(edited, eventId);
+            }
+        }
+        observeAll(postedByUser);
+    }
+
+    public void onTransactionEdited(TransactionEditedEvent event, long eventId) {
+        withUserLock(event.userId(), () -> writeTransaction.executeWithoutResult(status -> {
+            // A user's events are applied in order, so any statistic of theirs that includes this
+            // event or a later one means it was applied before
+            List<SpendingStat> involved = new ArrayList<>(4);
+            if (event.previousTransactionType() == Transaction.TransactionType.EXPENSE) {
+                addExistingStats(involved, event.userId(), event.previousDescription(), event.previousCategory());
+            }
+            if (event.transactionType() == Transaction.TransactionType.EXPENSE) {
+                addExistingStats(involved, event.userId(), event.description(), event.category());
+            }
+            if (involved.stream().anyMatch(stat -> stat.hasApplied(eventId))) {
+                return;
+            }
+
+            spendingAnomalyRepository.deleteByTransactionId(event.transactionId());
+            FxRateSnapshot rates = fxRateService.current();
+            int currency = currencyIndexByAccount(event.userId(), rates).get(event.accountId());
+            if (event.previousTransactionType() == Transaction.TransactionType.EXPENSE) {
+                // The event carries only the current date; edits rarely move a transaction far enough for the rate to differ
+                forget(event.userId(), event.previousDescription(), event.previousCategory(),
+                        toReporting(rates, currency, event.previousAmount(), event.transactionDate()), eventId);
+            }
+            if (event.transactionType() == Transaction.TransactionType.EXPENSE) {
+                observe(userRepository.getReferenceById(event.userId()), eventId, event.transactionId(),
+                        event.description(), event.category(),
+                        toReporting(rates, currency, event.amount(), event.transactionDate()), event.transactionDate());
+            }
+        }));
+    }
+
+    /**
+     * Score each user's postings under one lock and in one database transaction, then forget them
+     */
+    private void observeAll(Map<Long, List<Posting>> postedByUser) {
+        postedByUser.forEach(this::observePostings);
+        postedByUser.clear();
+    }
+
+    private void observePostings(Long userId, List<Posting> postings) {
+        withUserLock(userId, () -> writeTransaction.executeWithoutResult(status -> {
+            User user = userRepository.getReferenceById(userId);
+            // Load every statistic once; a lookup per row would flush the growing session each time
+            Map<String, SpendingStat> stats = new HashMap<>();
+            for (SpendingStat stat : spendingStatRepository.findByUserId(userId)) {
+                stats.put(stat.getScope() + "|" + stat.getStatKey(), stat);
+            }
+            BiFunction<SpendingStat.Scope, String, SpendingStat> statFor = (scope, statKey) ->
+                    stats.computeIfAbsent(scope + "|" + statKey, key -> new SpendingStat(user, scope, statKey));
+            FxRateSnapshot rates = fxRateService.current();
+            Map<Long, Integer> currencyByAccount = currencyIndexByAccount(userId, rates);
+
+            // An import's postings share one event, so whether it was applied is decided at its first expense
+            long checkedEventId = -1;
+            boolean redelivered = false;
+            for (Posting posting : postings) {
+                TransactionPostedEvent posted = posting.event();
+                if (posted.transactionType() != Transaction.TransactionType.EXPENSE) {
+                    continue;
+                }
+                if (posting.eventId() != checkedEventId) {
+                    checkedEventId = posting.eventId();
+                    String merchantKey = DescriptionNormalizer.merchantKey(posted.description());
+                    redelivered = statFor.apply(SpendingStat.Scope.CATEGORY, posted.category().name())
+                            .hasApplied(checkedEventId) || !merchantKey.isEmpty()
+                            && statFor.apply(SpendingStat.Scope.MERCHANT, merchantKey).hasApplied(checkedEventId);
+                }
+                if (redelivered) {
+                    // Its flag, if it raised one, was stored with it
+                    continue;
+                }
+                observe(user, statFor, posting.eventId(), posted.transactionId(), posted.description(),
+                        posted.category(), toReporting(rates, currencyByAccount.get(posted.accountId()), posted.amount(),
+                                posted.transactionDate()), posted.transactionDate());
+            }
+        }));
+    }
+
+    /**
+     * Build statistics once for users whose expenses predate this feature; no flags are raised for history
+     *
+     * The dispatcher may still hold events for transactions the build reads, so each built
+     * statistic is marked with the last outbox id in the build's snapshot and those events are
+     * skipped when they arrive. The consumer's position is left alone, since it is shared by
+     * every user. This runs before the dispatcher starts, so no event creates a user's
+     * statistics ahead of the build.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void buildMissingStatistics() {
+        try {
+            List<Long> userIds = spendingStatRepository.findUserIdsWithoutStats();
+            for (Long userId : userIds) {
+                withUserLock(userId, () -> buildTransaction.executeWithoutResult(status -> buildStatistics(userId)));
+            }
+            if (!userIds.isEmpty()) {
+                System.out.println("Spending statistics built for " + userIds.size() + " users");
+            }
+        } catch (Exception e) {
+            System.err.println("Building spending statistics failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Score an expense against the statistics it belongs to, then add it to them
+     */
+    private void observe(User user, long eventId, Long transactionId, String description,
+                         Transaction.Category category, Money amount, LocalDate transactionDate) {
+        observe(user, (scope, statKey) -> findOrCreate(user, scope, statKey), eventId, transactionId, description,
+                category, amount, transactionDate);
+    }
+
+    /**
+     * @param statFor finds or creates the statistic for a scope and key
+     * @param eventId the outbox event being applied, recorded on the statistics
+     */
+    private void observe(User user, BiFunction<SpendingStat.Scope, String, SpendingStat> statFor, long eventId,
+                         Long transactionId, String description, Transaction.Category category, Money amount,
+                         LocalDate transactionDate) {
+        SpendingStat byCategory = statFor.apply(SpendingStat.Scope.CATEGORY, category.name());
+        String merchantKey = DescriptionNormalizer.merchantKey(description);
+        SpendingStat byMerchant = merchantKey.isEmpty() ? null
+                : statFor.apply(SpendingStat.Scope.MERCHANT, merchantKey);
+
+        SpendingStat deviatedFrom = null;
+        double highestScore = zThreshold;
+        for (SpendingStat stat : new SpendingStat[]{byCategory, byMerchant}) {
+            if (stat == null || stat.getCount() < minSamples) {
+                continue;
+            }
+            double score = stat.zScore(amount, Math.max(MIN_DEVIATION_CENTS, stat.getMeanCents() * MIN_DEVIATION_RATIO));
+            if (score >= highestScore) {
+                highestScore = score;
+                deviatedFrom = stat;
+            }
+        }
+        if (deviatedFrom != null) {
+            spendingAnomalyRepository.save(new SpendingAnomaly(user, transactionId, description, category, amount,
+                    transactionDate, deviatedFrom, highestScore));
+        }
+
+        byCategory.add(amount);
+        byCategory.markApplied(eventId);
+        spendingStatRepository.save(byCategory);
+        if (byMerchant != null) {
+            byMerchant.add(amount);
+            byMerchant.markApplied(eventId);
+            spendingStatRepository.save(byMerchant);
+        }
+    }
+
+    private void forget(Long userId, String description, Transaction.Category category, Money amount, long eventId) {
+        List<SpendingStat> stats = new ArrayList<>(2);
+        addExistingStats(stats, userId, description, category);
+        for (SpendingStat stat : stats) {
+            stat.remove(amount);
+            stat.markApplied(eventId);
+        }
+    }
+
+    /**
+     * Add the user's stored category and merchant statistics for an expense, where they exist
+     */
+    private void addExistingStats(List<SpendingStat> stats, Long userId, String description,
+                                  Transaction.Category category) {
+        spendingStatRepository.findByUserIdAndScopeAndStatKey(userId, SpendingStat.Scope.CATEGORY, category.name())
+                .ifPresent(stats::add);
+        String merchantKey = DescriptionNormalizer.merchantKey(description);
+        if (!merchantKey.isEmpty()) {
+            spendingStatRepository.findByUserIdAndScopeAndStatKey(userId, SpendingStat.Scope.MERCHANT, merchantKey)
+                    .ifPresent(stats::add);
+        }
+    }
+
+    private void buildStatistics(Long userId) {
+        // Read first, so every event at or below it is for a transaction streamed below
+        long builtThroughEventId = outboxEventRepository.findMaxId();
+
+        User user = userRepository.getReferenceById(userId);
+        FxRateSnapshot rates = fxRateService.current();
+        Map<String, Integer> currencyIndexes = new HashMap<>();
+        Map<String, SpendingStat> stats = new HashMap<>();
+        try (Stream<TransactionRepository.SpendingRow> rows = transactionRepository.streamExpenseRowsByUserId(userId)) {
+            rows.forEach(row -> {
+                Money amount = toReporting(rates, currencyIndexes.computeIfAbsent(row.getCurrency(), rates::indexOf),
+                        row.getAmount(), row.getTransactionDate());
+                stats.computeIfAbsent("C|" + row.getCategory().name(),
+                        key -> new SpendingStat(user, SpendingStat.Scope.CATEGORY, row.getCategory().name())).add(amount);
+                String merchantKey = DescriptionNormalizer.merchantKey(row.getDescription());
+                if (!merchantKey.isEmpty()) {
+                    stats.computeIfAbsent("M|" + merchantKey,
+                            key -> new SpendingStat(user, SpendingStat.Scope.MERCHANT, merchantKey)).add(amount);
+                }
+            });
+        }
+        stats.values().forEach(stat -> stat.markApplied(builtThroughEventId));
+        spendingStatRepository.saveAll(stats.values());
+    }
+
+    /**
+     * Index of each of the user's account currencies in the rate snapshot
+     */
+    private Map<Long, Integer> currencyIndexByAccount(Long userId, FxRateSnapshot rates) {
+        Map<Long, Integer> currencyByAccount = new HashMap<>();
+        for (AccountRepository.AccountBalanceRow account : accountRepository.findBalanceRowsByUserId(userId)) {
+            currencyByAccount.put(account.getId(), rates.indexOf(account.getCurrency()));
+        }
+        return currencyByAccount;
+    }
+
+    private static Money toReporting(FxRateSnapshot rates, int currency, BigDecimal amount, LocalDate date) {
+        return Money.ofCents(rates.toReportingCents(Money.toCents(amount), currency, date.toEpochDay()));
+    }
+
+    private SpendingStat findOrCreate(User user, SpendingStat.Scope scope, String statKey) {
+        return spendingStatRepository.findByUserIdAndScopeAndStatKey(user.getId(), scope, statKey)
+                .orElseGet(() -> new SpendingStat(user, scope, statKey));
+    }
+
+    /**
+     * A posted expense and the outbox event that carried it
+     */
+    private record Posting(TransactionPostedEvent event, long eventId) {
+    }
+
+    private void withUserLock(Long userId, Runnable action) {
+        ReentrantLock lock = userLocks[Math.floorMod(userId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.categorization.TransactionCategorizer;
+import com.financeapp.personal.dto.TransactionBatchRequest;
+import com.financeapp.personal.dto.TransactionBatchResult;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.ingest.DuplicateIndex;
+import com.financeapp.personal.ingest.TransactionFingerprint;
+import com.financeapp.personal.journal.JournalRecord;
+import com.financeapp.personal.journal.StoreJournal;
+import com.financeapp.personal.repository.AccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+/**
+ * TransactionIngestService posts batches of transactions from bank-sync clients
+ *
+ * A batch is handled as a whole rather than row by row:
+ * - Every row is validated up front; invalid rows are rejected without stopping the rest
+ * - Rows with an idempotency key are duplicates when the key was already used on the account
+ * - Rows without one are duplicates when the account already holds as many transactions with
+ *   the same date, signed amount and normalized description, so resending a batch is safe
+ *   while two identical coffees on one day still both go in the first time
+ * - New rows are inserted in one JDBC batch, and each account balance is updated once
+ * - The batch bypasses Hibernate, so its rows are handed to the StoreJournal here
+ * - Derived data is updated from a single TransactionsImportedEvent after commit
+ */
+@Service
+public class TransactionIngestService {
+
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+    private static final String INSERT_SQL = "INSERT INTO transactions (description, amount, transaction_type, category, " +
+            "transaction_date, created_at, account_id, idempotency_key, dedup_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DuplicateIndex duplicateIndex;
+    private final TransactionCategorizer transactionCategorizer;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+    private final StoreJournal storeJournal;
+    private final int maxBatchSize;
+
+    /**
+     * A valid row on its way in
+     */
+    private static final class PendingRow {
+        final int index;
+        final TransactionBatchRequest.Item item;
+        final Account account;
+        final long fingerprint;
+        Transaction.Category category;
+        Long transactionId;
+
+        PendingRow(int index, TransactionBatchRequest.Item item, Account account, long fingerprint) {
+            this.index = index;
+            this.item = item;
+            this.account = account;
+            this.fingerprint = fingerprint;
+            this.category = item.category();
+        }
+    }
+
+    @Autowired
+    public TransactionIngestService(AccountRepository accountRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    DuplicateIndex duplicateIndex,
+                                    TransactionCategorizer transactionCategorizer,
+                                    Validator validator,
+                                    ApplicationEventPublisher eventPublisher,
+                                    EntityManagerFactory entityManagerFactory,
+                                    StoreJournal storeJournal,
+                                    @Value("${ingest.max-batch-size:5000}") int maxBatchSize) {
+        this.accountRepository = accountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.duplicateIndex = duplicateIndex;
+        this.transactionCategorizer = transactionCategorizer;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.storeJournal = storeJournal;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Post a batch of transactions to the user's accounts
+     *
+     * @throws IllegalArgumentException if the batch is larger than ingest.max-batch-size
+     */
+    @Transactional
+    public TransactionBatchResult ingest(User user, List<TransactionBatchRequest.Item> items) {
+        if (items == null || items.isEmpty()) {
+            return new TransactionBatchResult(0, 0, 0, List.of());
+        }
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch can hold at most " + maxBatchSize + " transactions");
+        }
+
+        Map<Long, Account> accounts = accountRepository.findByUserOrderByAccountNameAsc(user).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        TransactionBatchResult.ItemResult[] results = new TransactionBatchResult.ItemResult[items.size()];
+
+        List<PendingRow> keyed = new ArrayList<>();
+        List<PendingRow> unkeyed = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            TransactionBatchRequest.Item item = items.get(i);
+            String error = validate(item, accounts);
+            if (error != null) {
+                results[i] = new TransactionBatchResult.ItemResult(i, TransactionBatchResult.Status.REJECTED, null, error);
+                continue;
+            }
+            PendingRow row = new PendingRow(i, item, accounts.get(item.accountId()), TransactionFingerprint.of(item.accountId(),
+                    item.transactionDate(), item.amount(), item.transactionType(), item.description()));
+            (item.idempotencyKey() != null ? keyed : unkeyed).add(row);
+        }
+
+        Map<PendingRow, PendingRow> repeatedKeys = new LinkedHashMap<>();
+        List<PendingRow> accepted = new ArrayList<>(items.size());
+        acceptNewKeys(keyed, results, repeatedKeys, accepted);
+        acceptNewContent(unkeyed, results, accepted);
+        accepted.sort((a, b) -> Integer.compare(a.index, b.index));
+
+        for (PendingRow row : accepted) {
+            if (row.category == null) {
+                row.category = transactionCategorizer.categorize(user.getId(), row.item.description(), row.item.amount(),
+                        row.item.transactionType());
+            }
+        }
+        insert(accepted);
+        applyBalances(accepted);
+
+        List<TransactionPostedEvent> posted = new ArrayList<>(accepted.size());
+        for (PendingRow row : accepted) {
+            duplicateIndex.record(row.account.getId(), row.fingerprint, row.item.idempotencyKey());
+            results[row.index] = new TransactionBatchResult.ItemResult(row.index, TransactionBatchResult.Status.CREATED,
+                    row.transactionId, null);
+            posted.add(new TransactionPostedEvent(row.transactionId, row.account.getId(), user.getId(), row.item.amount(),
+                    row.item.transactionType(), row.category, row.item.transactionDate(), row.item.description()));
+        }
+        // A key repeated within the batch refers to the row that went in first
+        repeatedKeys.forEach((repeat, first) -> results[repeat.index] = new TransactionBatchResult.ItemResult(
+                repeat.index, TransactionBatchResult.Status.DUPLICATE, first.transactionId, null));
+
+        if (!posted.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionsImportedEvent(user.getId(), posted));
+        }
+
+        int duplicates = 0;
+        int rejected = 0;
+        for (TransactionBatchResult.ItemResult result : results) {
+            if (result.status() == TransactionBatchResult.Status.DUPLICATE) {
+                duplicates++;
+            } else if (result.status() == TransactionBatchResult.Status.REJECTED) {
+                rejected++;
+            }
+        }
+        return new TransactionBatchResult(accepted.size(), duplicates, rejected, List.of(results));
+    }
+
+    private String validate(TransactionBatchRequest.Item item, Map<Long, Account> accounts) {
+        if (item == null) {
+            return "Empty row";
+        }
+        List<String> errors = validator.validate(item).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+        if (!errors.isEmpty()) {
+            return String.join("; ", errors);
+        }
+        if (!accounts.containsKey(item.accountId())) {
+            return "Account not found with ID: " + item.accountId();
+        }
+        if (item.amount().stripTrailingZeros().scale() > 2) {
+            return "Amount must be in whole cents";
+        }
+        if (item.amount().compareTo(MAX_AMOUNT) > 0) {
+            return "Amount must be at most " + MAX_AMOUNT;
+        }
+        return null;
+    }
+
+    /**
+     * Keyed rows: the first row per new (account, key) goes in, everything else is a duplicate
+     */
+    private void acceptNewKeys(List<PendingRow> keyed, TransactionBatchResult.ItemResult[] results,
+                               Map<PendingRow, PendingRow> repeatedKeys, List<PendingRow> accepted) {
+        Map<Long, Map<String, PendingRow>> firstByAccountAndKey = new HashMap<>();
+        for (PendingRow row : keyed) {
+            PendingRow first = firstByAccountAndKey.computeIfAbsent(row.account.getId(), id -> new LinkedHashMap<>())
+                    .putIfAbsent(row.item.idempotencyKey(), row);
+            if (first != null) {
+                repeatedKeys.put(row, first);
+            }
+        }
+
+        firstByAccountAndKey.forEach((accountId, rowsByKey) -> {
+            Map<String, Long> existing = duplicateIndex.findExistingKeys(accountId, rowsByKey.keySet());
+            for (PendingRow row : rowsByKey.values()) {
+                Long existingId = existing.get(row.item.idempotencyKey());
+                if (existingId != null) {
+                    results[row.index] = new TransactionBatchResult.ItemResult(row.index,
+                            TransactionBatchResult.Status.DUPLICATE, existingId, null);
+                } else {
+                    accepted.add(row);
+                }
+            }
+        });
+
+        // Repeats of a key that was already stored point at the stored transaction
+        repeatedKeys.entrySet().removeIf(entry -> {
+            TransactionBatchResult.ItemResult firstResult = results[entry.getValue().index];
+            if (firstResult == null) {
+                return false;
+            }
+            results[entry.getKey().index] = new TransactionBatchResult.ItemResult(entry.getKey().index,
+                    TransactionBatchResult.Status.DUPLICATE, firstResult.transactionId(), null);
+            return true;
+        });
+    }
+
+    /**
+     * Unkeyed rows: the n-th row with a fingerprint is a duplicate when n transactions with it are stored
+     */
+    private void acceptNewContent(List<PendingRow> unkeyed, TransactionBatchResult.ItemResult[] results,
+                                  List<PendingRow> accepted) {
+        Map<Long, Integer> stored = duplicateIndex.countExisting(
+                unkeyed.stream().map(row -> row.fingerprint).distinct().toList());
+        Map<Long, Integer> seenInBatch = new HashMap<>();
+        for (PendingRow row : unkeyed) {
+            int occurrence = seenInBatch.merge(row.fingerprint, 1, Integer::sum);
+            if (occurrence <= stored.getOrDefault(row.fingerprint, 0)) {
+                results[row.index] = new TransactionBatchResult.ItemResult(row.index,
+                        TransactionBatchResult.Status.DUPLICATE, null, null);
+            } else {
+                accepted.add(row);
+            }
+        }
+    }
+
+    /**
+     * One JDBC batch for all rows; Hibernate cannot batch inserts with IDENTITY ids
+     */
+    private void insert(List<PendingRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+        GeneratedKeyHolder generatedKeys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        PendingRow row = rows.get(i);
+                        statement.setString(1, row.item.description());
+                        statement.setBigDecimal(2, row.item.amount());
+                        statement.setString(3, row.item.transactionType().name());
+                        statement.setString(4, row.category.name());
+                        statement.setObject(5, row.item.transactionDate());
+                        statement.setTimestamp(6, Timestamp.valueOf(createdAt));
+                        statement.setLong(7, row.account.getId());
+                        statement.setString(8, row.item.idempotencyKey());
+                        statement.setLong(9, row.fingerprint);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, generatedKeys);
+
+        List<Map<String, Object>> keys = generatedKeys.getKeyList();
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).transactionId = ((Number) keys.get(i).values().iterator().next()).longValue();
+        }
+
+        if (storeJournal.isEnabled()) {
+            // The transaction's own session; the shared EntityManager proxy cannot register with its transaction
+            Session session = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory).unwrap(Session.class);
+            for (PendingRow row : rows) {
+                storeJournal.record(session, new JournalRecord.TransactionRow(row.transactionId, row.account.getId(),
+                        row.item.description(), row.item.amount(), row.item.transactionType(), row.category,
+                        row.item.transactionDate(), createdAt, row.item.idempotencyKey(), row.fingerprint));
+            }
+        }
+    }
+
+    /**
+     * Net each account's rows and move its balance once; the version check catches concurrent posts
+     */
+    private void applyBalances(List<PendingRow> rows) {
+        Map<Account, Money> netByAccount = new HashMap<>();
+        for (PendingRow row : rows) {
+            Money amount = Money.of(row.item.amount());
+            netByAccount.merge(row.account,
+                    row.item.transactionType() == Transaction.TransactionType.INCOME ? amount : amount.negate(),
+                    Money::plus);
+        }
+        netByAccount.forEach((account, net) ->
+                account.setCurrentBalance(Money.of(account.getCurrentBalance()).plus(net).toBigDecimal()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.financeapp.personal.service;
+import com.financeapp.personal.dto.TransactionSearchPage;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Money;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.FinancialDataChangedEvent;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.ingest.DuplicateIndex;
+import com.financeapp.personal.ingest.TransactionFingerprint;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.search.SearchHits;
+import com.financeapp.personal.search.TransactionSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+/**
+ * TransactionService handles business logic for Transaction operations
+ */
+@Service
+@Transactional
+public class TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionSearchIndex searchIndex;
+    private final DuplicateIndex duplicateIndex;
+
+    @Autowired
+    public TransactionService(TransactionRepository transactionRepository,
+                              AccountRepository accountRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              TransactionSearchIndex searchIndex,
+                              DuplicateIndex duplicateIndex) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.duplicateIndex = duplicateIndex;
+    }
+
+    /**
+     * Post a transaction to an account and update the account balance
+     */
+    public Transaction postTransaction(Long accountId, Transaction transaction) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found with ID: " + accountId));
+
+        account.addTransaction(transaction);
+        transaction.setDedupHash(TransactionFingerprint.of(transaction));
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        duplicateIndex.record(accountId, savedTransaction.getDedupHash(), savedTransaction.getIdempotencyKey());
+
+        eventPublisher.publishEvent(TransactionPostedEvent.of(savedTransaction));
+        return savedTransaction;
+    }
+
+    /**
+     * Edit a transaction, moving the account balance by the difference
+     */
+    public Transaction updateTransaction(Long id, Transaction changes) {
+        Transaction transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Transaction not found with ID: " + id));
+        Account account = transaction.getAccount();
+
+        Money previousEffect = balanceEffect(transaction);
+        String previousDescription = transaction.getDescription();
+        BigDecimal previousAmount = transaction.getAmount();
+        Transaction.TransactionType previousTransactionType = transaction.getTransactionType();
+        Transaction.Category previousCategory = transaction.getCategory();
+        transaction.setDescription(changes.getDescription());
+        transaction.setAmount(changes.getAmount());
+        transaction.setTransactionType(changes.getTransactionType());
+        transaction.setCategory(changes.getCategory());
+        transaction.setTransactionDate(changes.getTransactionDate());
+        Money balance = Money.of(account.getCurrentBalance()).minus(previousEffect).plus(balanceEffect(transaction));
+        account.setCurrentBalance(balance.toBigDecimal());
+        transaction.setDedupHash(TransactionFingerprint.of(transaction));
+
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        duplicateIndex.record(account.getId(), savedTransaction.getDedupHash(), savedTransaction.getIdempotencyKey());
+
+        eventPublisher.publishEvent(TransactionEditedEvent.of(savedTransaction, previousDescription, previousAmount,
+                previousTransactionType, previousCategory));
+        // Amount, type or date may have changed, so derived totals must be rebuilt
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(account.getUser().getId()));
+        return savedTransaction;
+    }
+
+    /**
+     * Full-text search over a user's transaction descriptions, newest first
+     *
+     * @param query    terms, with "term*" for prefix and "term~" for fuzzy matching
+     * @param category only this category, or null
+     */
+    @Transactional(readOnly = true)
+    public TransactionSearchPage searchTransactions(Long userId, String query, boolean fuzzy,
+                                                    Transaction.Category category, LocalDate from, LocalDate to,
+                                                    int page, int size) {
+        SearchHits hits = searchIndex.search(userId, query, fuzzy, category, from, to, page, size);
+
+        // Load only the page's columns, then restore the index's ordering
+        Map<Long, TransactionSearchPage.Item> byId = transactionRepository.findSearchItemsByIds(hits.transactionIds())
+                .stream()
+                .collect(Collectors.toMap(TransactionSearchPage.Item::id, Function.identity()));
+        List<TransactionSearchPage.Item> items = hits.transactionIds().stream()
+                .map(byId::get)
+                .filter(item -> item != null)
+                .toList();
+
+        return new TransactionSearchPage(items, page, size, hits.totalHits());
+    }
+
+    /**
+     * Hand a user's transactions, newest first, to the action one row at a time
+     *
+     * Rows are streamed from the database rather than collected, so the JSON API
+     * can write each one out as it is read.
+     *
+     * @param accountId only this account, or null; like category, from and to
+     * @param limit     at most this many rows
+     */
+    @Transactional(readOnly = true)
+    public void forEachTransactionRow(Long userId, Long accountId, Transaction.Category category,
+                                      LocalDate from, LocalDate to, int limit,
+                                      Consumer<TransactionRepository.ApiTransactionRow> action) {
+        try (Stream<TransactionRepository.ApiTransactionRow> rows = transactionRepository.streamApiRowsByUserId(
+                userId, accountId, category, from, to, Limit.of(limit))) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Find transaction by ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<Transaction> findById(Long id) {
+        return transactionRepository.findById(id);
+    }
+
+    /**
+     * Find a transaction on one of the user's accounts; empty if it belongs to someone else
+     */
+    @Transactional(readOnly = true)
+    public Optional<Transaction> findByIdForUser(Long userId, Long id) {
+        return transactionRepository.findByIdAndAccountUserId(id, userId);
+    }
+
+    /**
+     * Find transactions for an account, most recent first
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> findTransactionsByAccount(Account account) {
+        return transactionRepository.findByAccountOrderByTransactionDateDescCreatedAtDesc(account);
+    }
+
+    private static Money balanceEffect(Transaction transaction) {
+        Money amount = Money.of(transaction.getAmount());
+        return transaction.getTransactionType() == Transaction.TransactionType.INCOME ? amount : amount.negate();
+    }
+}
@@ -3,9 +3,12 @@ import com.financeapp.personal.entity.User;
 import com.financeapp.personal.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 /**
  * UserService handles business logic for User operations
  *
@@ -21,6 +24,9 @@ public class UserService {
 
     private final UserRepository userRepository;
 
+    // Email to id, so requests can identify their user without a query (ids never change)
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+
     @Autowired
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
@@ -53,6 +59,20 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
+    /**
+     * Find a user's id by email, from memory after the first lookup
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Long> findIdByEmail(String email) {
+        Long id = userIdsByEmail.get(email);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Long> found = userRepository.findByEmail(email).map(User::getId);
+        found.ifPresent(userId -> userIdsByEmail.put(email, userId));
+        return found;
+    }
+
     /**
      * Get all users
      */
@@ -79,6 +99,7 @@ public class UserService {
                 userRepository.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("Email " + user.getEmail() + " is already in use");
         }
+        userIdsByEmail.remove(existingUser.get().getEmail());
 
         return userRepository.save(user);
     }
@@ -91,6 +112,7 @@ public class UserService {
             throw new IllegalArgumentException("User not found with ID: " + id);
         }
         userRepository.deleteById(id);
+        userIdsByEmail.values().remove(id);
     }
 
     /**
@@ -2,8 +2,12 @@ package com.financeapp.personal.smart_finance_assistant;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = "com.financeapp.personal")
+@EntityScan("com.financeapp.personal")
+@EnableJpaRepositories("com.financeapp.personal")
 public class SmartFinanceAssistantApplication {
 
 	public static void main(String[] args) {
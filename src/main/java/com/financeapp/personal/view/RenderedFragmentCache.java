@@ -0,0 +1,138 @@
+package com.financeapp.personal.view;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * RenderedFragmentCache keeps the rendered HTML of per-entity page fragments
+ *
+ * - A fragment is rendered on its own from a Thymeleaf template and stored under
+ *   the template, fragment and entity id, together with the entity's version
+ * - A lookup with a different version renders again and replaces the entry, so an
+ *   updated entity evicts its old HTML; entities without a version are never cached
+ * - Least recently used fragments are evicted to stay within the memory budget
+ * - Off by default: in development templates change under a running application
+ */
+@Component
+public class RenderedFragmentCache {
+
+    // Object header, key and map entry overhead on top of the characters
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+    private final ITemplateEngine templateEngine;
+    private final boolean enabled;
+    private final long memoryBudgetBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<FragmentId, RenderedFragment> fragments = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private record FragmentId(String template, String fragment, Long entityId) {}
+
+    private record RenderedFragment(Object version, String html) {
+
+        long estimatedBytes() {
+            return ENTRY_OVERHEAD_BYTES + 2L * html.length();
+        }
+    }
+
+    @Autowired
+    public RenderedFragmentCache(ITemplateEngine templateEngine,
+                                 @Value("${view.fragment-cache.enabled:false}") boolean enabled,
+                                 @Value("${view.fragment-cache.max-memory-mb:16}") long maxMemoryMb) {
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+        this.memoryBudgetBytes = maxMemoryMb * 1024 * 1024;
+    }
+
+    /**
+     * Rendered HTML of one fragment for one entity, from the cache when its version is unchanged
+     *
+     * @param template  template holding the fragment, e.g. "accounts/card"
+     * @param fragment  th:fragment name inside the template
+     * @param version   changes whenever the output would: the entity's version, or a value
+     *                  combining it with anything else the fragment shows
+     * @param variables everything the fragment reads; it must not depend on anything else
+     */
+    public String render(String template, String fragment, Long entityId, Object version,
+                         Map<String, Object> variables, ServletWebRequest request) {
+        if (!enabled || entityId == null || version == null) {
+            return process(template, fragment, variables, request);
+        }
+
+        FragmentId id = new FragmentId(template, fragment, entityId);
+        RenderedFragment cached = get(id);
+        if (cached != null && cached.version().equals(version)) {
+            hits.incrementAndGet();
+            return cached.html();
+        }
+
+        misses.incrementAndGet();
+        String html = process(template, fragment, variables, request);
+        put(id, new RenderedFragment(version, html));
+        return html;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private String process(String template, String fragment, Map<String, Object> variables, ServletWebRequest request) {
+        // A web context, so link expressions (@{...}) resolve as they do in the full page
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getRequest().getServletContext())
+                        .buildExchange(request.getRequest(), request.getResponse()),
+                RequestContextUtils.getLocale(request.getRequest()),
+                variables);
+        return templateEngine.process(new TemplateSpec(template, Set.of(fragment), TemplateMode.HTML, null), context);
+    }
+
+    private RenderedFragment get(FragmentId id) {
+        lock.lock();
+        try {
+            return fragments.get(id); // Access-ordered: marks the fragment as recently used
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(FragmentId id, RenderedFragment fragment) {
+        lock.lock();
+        try {
+            RenderedFragment previous = fragments.put(id, fragment);
+            usedBytes += fragment.estimatedBytes() - (previous == null ? 0 : previous.estimatedBytes());
+
+            // Evict least recently used fragments until we fit, but always keep the newest entry
+            Iterator<Map.Entry<FragmentId, RenderedFragment>> eldest = fragments.entrySet().iterator();
+            while (usedBytes > memoryBudgetBytes && fragments.size() > 1 && eldest.hasNext()) {
+                Map.Entry<FragmentId, RenderedFragment> entry = eldest.next();
+                if (entry.getKey().equals(id)) {
+                    continue;
+                }
+                usedBytes -= entry.getValue().estimatedBytes();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
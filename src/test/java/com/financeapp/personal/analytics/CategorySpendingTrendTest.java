@@ -0,0 +1,40 @@
+package com.financeapp.personal.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CategorySpendingTrendTest {
+
+	private static final YearMonth JAN = YearMonth.of(2026, 1);
+
+	@Test
+	void derivesChangesAndTrailingAveragesFromTheHistory() {
+		// Two categories; January and February are history only
+		long[][] history = {{300, 0}, {600, 100}, {900, 0}, {0, 200}, {301, 0}};
+
+		CategorySpendingTrend trend = CategorySpendingTrend.compute(JAN, history, 3, 3);
+
+		assertEquals(3, trend.months());
+		assertEquals(YearMonth.of(2026, 3), trend.firstMonth());
+		assertArrayEquals(new long[]{900, 0}, trend.spendingCents()[0]);
+		assertArrayEquals(new long[]{300, -100}, trend.changeCents()[0]);
+		assertArrayEquals(new long[]{-900, 200}, trend.changeCents()[1]);
+		assertArrayEquals(new long[]{600, 33}, trend.rollingAverageCents()[0]);
+		assertArrayEquals(new long[]{500, 100}, trend.rollingAverageCents()[1]);
+		// (0 + 900 + 301) / 3 = 400.33 rounds to 400; (200 + 0 + 0) / 3 = 66.67 rounds to 67
+		assertArrayEquals(new long[]{400, 67}, trend.rollingAverageCents()[2]);
+	}
+
+	@Test
+	void rejectsHistoryShorterThanTheWindow() {
+		long[][] history = {{100}, {200}, {300}};
+
+		assertThrows(IllegalArgumentException.class, () -> CategorySpendingTrend.compute(JAN, history, 2, 3));
+		assertEquals(1, CategorySpendingTrend.compute(JAN, history, 2, 1).rollingMonths());
+	}
+}
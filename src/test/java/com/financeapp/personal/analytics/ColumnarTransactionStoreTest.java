@@ -0,0 +1,103 @@
+package com.financeapp.personal.analytics;
+
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.FinancialDataChangedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ColumnarTransactionStoreTest {
+
+	private static final Long USER = 1L;
+	private static final Long ACCOUNT = 10L;
+
+	private TransactionRepository transactionRepository;
+	private ColumnarTransactionStore store;
+
+	@BeforeEach
+	void setUp() {
+		AccountRepository accountRepository = mock(AccountRepository.class);
+		AccountRepository.AccountBalanceRow account = mock(AccountRepository.AccountBalanceRow.class);
+		when(account.getId()).thenReturn(ACCOUNT);
+		when(account.getAccountType()).thenReturn(Account.AccountType.CHECKING);
+		when(account.getCurrency()).thenReturn("USD");
+		when(account.getCurrentBalance()).thenReturn(new BigDecimal("1000.00"));
+		when(accountRepository.findBalanceRowsByUserId(USER)).thenReturn(List.of(account));
+
+		transactionRepository = mock(TransactionRepository.class);
+		store = new ColumnarTransactionStore(transactionRepository, accountRepository,
+				mock(PlatformTransactionManager.class), true, 64);
+	}
+
+	@Test
+	void transactionCommittedAfterAHigherIdIsStillAppended() {
+		// 2 was still committing when the load read 1 and 3
+		List<TransactionRepository.TransactionRow> rows = List.of(row(1), row(3));
+		when(transactionRepository.findRowsByUserId(USER)).thenReturn(rows);
+		UserTransactionColumns columns = store.columnsFor(USER).orElseThrow();
+
+		store.onTransactionPosted(posted(3));
+		store.onTransactionPosted(posted(2));
+		store.onTransactionPosted(posted(2));
+
+		assertEquals(3, columns.size());
+	}
+
+	@Test
+	void transactionPostedDuringTheLoadIsReplayed() {
+		List<TransactionRepository.TransactionRow> rows = List.of(row(1), row(4));
+		when(transactionRepository.findRowsByUserId(USER)).thenAnswer(invocation -> {
+			store.onTransactionPosted(posted(4)); // Committed before the snapshot, also read below
+			store.onTransactionPosted(posted(5)); // Committed after the snapshot
+			return rows;
+		});
+
+		assertEquals(3, store.columnsFor(USER).orElseThrow().size());
+	}
+
+	@Test
+	void accountChangeDuringTheLoadIsNotCached() {
+		List<TransactionRepository.TransactionRow> rows = List.of(row(1));
+		when(transactionRepository.findRowsByUserId(USER)).thenAnswer(invocation -> {
+			store.onFinancialDataChanged(new FinancialDataChangedEvent(USER));
+			return rows;
+		});
+		assertTrue(store.columnsFor(USER).isEmpty());
+
+		when(transactionRepository.findRowsByUserId(USER)).thenReturn(rows);
+		assertEquals(1, store.columnsFor(USER).orElseThrow().size());
+		store.columnsFor(USER);
+		verify(transactionRepository, times(2)).findRowsByUserId(USER);
+	}
+
+	private static TransactionRepository.TransactionRow row(long id) {
+		TransactionRepository.TransactionRow row = mock(TransactionRepository.TransactionRow.class);
+		when(row.getId()).thenReturn(id);
+		when(row.getAccountId()).thenReturn(ACCOUNT);
+		when(row.getAmount()).thenReturn(new BigDecimal("12.50"));
+		when(row.getTransactionType()).thenReturn(Transaction.TransactionType.EXPENSE);
+		when(row.getCategory()).thenReturn(Transaction.Category.GROCERIES);
+		when(row.getTransactionDate()).thenReturn(LocalDate.of(2026, 3, 1));
+		return row;
+	}
+
+	private static TransactionPostedEvent posted(long id) {
+		return new TransactionPostedEvent(id, ACCOUNT, USER, new BigDecimal("12.50"), Transaction.TransactionType.EXPENSE,
+				Transaction.Category.GROCERIES, LocalDate.of(2026, 3, 1), "Corner Market");
+	}
+}
@@ -0,0 +1,105 @@
+package com.financeapp.personal.benchmark;
+
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.RecurringSeries;
+import com.financeapp.personal.forecast.AccountForecast;
+import com.financeapp.personal.forecast.AccountForecastInput;
+import com.financeapp.personal.forecast.CashFlowForecast;
+import com.financeapp.personal.forecast.CashFlowProjector;
+import com.financeapp.personal.forecast.RecurringFlow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Day-by-day projection of a user's accounts for a year, fork-join versus one thread.
+ *
+ * Each account has a handful of recurring flows and seasonal monthly amounts,
+ * as the forecast service builds them from history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CashFlowForecastBenchmark {
+
+	private static final LocalDate START = LocalDate.of(2025, 3, 1);
+	private static final int DAYS = 365;
+
+	@Param({"12", "48"})
+	public int accounts;
+
+	private List<AccountForecastInput> inputs;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(5);
+		RecurringSeries.Period[] periods = RecurringSeries.Period.values();
+		inputs = new ArrayList<>();
+		for (int a = 0; a < accounts; a++) {
+			List<RecurringFlow> flows = new ArrayList<>();
+			for (int f = 0; f < 8; f++) {
+				flows.add(new RecurringFlow(START.plusDays(random.nextInt(-10, 30)), periods[random.nextInt(periods.length)],
+						random.nextLong(-200_000, 300_000)));
+			}
+			long[] seasonal = new long[12];
+			for (int m = 0; m < 12; m++) {
+				seasonal[m] = -random.nextLong(20_000, 400_000);
+			}
+			inputs.add(new AccountForecastInput((long) a, "Account " + a, Account.AccountType.CHECKING,
+					random.nextLong(0, 2_000_000), flows, seasonal));
+		}
+		pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Benchmark
+	public CashFlowForecast forkJoin() {
+		return CashFlowProjector.project(inputs, START, DAYS, pool);
+	}
+
+	@Benchmark
+	public long[] sequential() {
+		long[] netWorth = new long[DAYS + 1];
+		for (AccountForecastInput input : inputs) {
+			AccountForecast forecast = CashFlowProjector.projectAccount(input, START, DAYS);
+			for (int day = 0; day <= DAYS; day++) {
+				netWorth[day] += forecast.dailyBalanceCents()[day];
+			}
+		}
+		return netWorth;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.include(CashFlowForecastBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
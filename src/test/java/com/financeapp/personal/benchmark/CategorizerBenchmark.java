@@ -0,0 +1,244 @@
+package com.financeapp.personal.benchmark;
+
+import com.financeapp.personal.categorization.CategoryFeatures;
+import com.financeapp.personal.categorization.NaiveBayesModel;
+import com.financeapp.personal.entity.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accuracy and inference latency of the naive Bayes categorizer.
+ *
+ * The labelled data is synthetic: merchant names per category with store
+ * numbers, cities, filler words, 3% label noise, and users who file some
+ * merchants under their own category. main() prints held-out accuracy for the
+ * global model alone and with per-user models, then runs the latency benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategorizerBenchmark {
+
+	private static final int USERS = 200;
+	private static final int TRANSACTIONS = 200_000;
+	private static final boolean[] ALL = allCategories();
+
+	private static final String[][] MERCHANTS = {
+			/* SALARY */ {"acme payroll", "direct deposit salary", "globex corp payroll"},
+			/* FREELANCE */ {"upwork payout", "fiverr transfer", "stripe transfer client"},
+			/* INVESTMENT */ {"vanguard dividend", "fidelity interest", "schwab dividend"},
+			/* OTHER_INCOME */ {"venmo cashout", "tax refund irs", "paypal transfer"},
+			/* GROCERIES */ {"whole foods market", "safeway store", "trader joes", "kroger", "aldi market"},
+			/* DINING_OUT */ {"starbucks", "chipotle mexican grill", "mcdonalds", "olive garden", "dunkin"},
+			/* TRANSPORTATION */ {"shell oil", "chevron gas", "uber trip", "lyft ride", "metro transit"},
+			/* ENTERTAINMENT */ {"netflix", "spotify premium", "amc theatres", "steam games"},
+			/* UTILITIES */ {"pacific gas electric", "comcast xfinity", "city water utility", "verizon wireless"},
+			/* RENT_MORTGAGE */ {"greystar rent payment", "wells fargo mortgage", "apartment rent portal"},
+			/* HEALTHCARE */ {"cvs pharmacy", "walgreens", "kaiser permanente copay", "dental clinic"},
+			/* SHOPPING */ {"amazon marketplace", "target store", "best buy", "ikea", "walmart supercenter"},
+			/* EDUCATION */ {"coursera", "udemy course", "university bookstore", "tuition payment"},
+			/* TRAVEL */ {"delta air lines", "marriott hotel", "airbnb", "expedia booking", "hertz rental"},
+			/* OTHER_EXPENSE */ {"atm withdrawal", "bank fee", "usps postage", "misc purchase"}
+	};
+	private static final int[][] AMOUNT_RANGES = {
+			{2000, 6000}, {200, 3000}, {10, 500}, {10, 800},
+			{20, 200}, {4, 80}, {5, 90}, {8, 60}, {40, 250}, {1200, 3500}, {10, 300}, {10, 400}, {15, 900}, {80, 1500},
+			{5, 200}
+	};
+	private static final String[] CITIES = {"seattle", "portland", "austin", "denver", "boston", "chicago"};
+	private static final String[] FILLER = {"pos", "purchase", "debit", "card", "ach", "online"};
+
+	private NaiveBayesModel global;
+	private NaiveBayesModel user;
+	private List<List<String>> queries;
+	private String[] descriptions;
+	private BigDecimal[] amounts;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Dataset data = Dataset.generate(TRANSACTIONS, 7);
+		global = new NaiveBayesModel();
+		user = new NaiveBayesModel();
+		for (int i = 0; i < data.size; i++) {
+			global.add(data.features.get(i), data.labels[i]);
+			if (data.users[i] == 0) {
+				user.add(data.features.get(i), data.labels[i]);
+			}
+		}
+
+		queries = new ArrayList<>();
+		descriptions = new String[1024];
+		amounts = new BigDecimal[1024];
+		Dataset probes = Dataset.generate(1024, 11);
+		for (int i = 0; i < probes.size; i++) {
+			queries.add(probes.features.get(i));
+			descriptions[i] = probes.descriptions[i];
+			amounts[i] = probes.amounts[i];
+		}
+	}
+
+	@Benchmark
+	public double[] globalModel() {
+		return global.logPosterior(queries.get(next++ & 1023), null, 0, ALL);
+	}
+
+	@Benchmark
+	public double[] userModelWithGlobalPrior() {
+		return user.logPosterior(queries.get(next++ & 1023), global, 10, ALL);
+	}
+
+	@Benchmark
+	public double[] extractAndScore() {
+		int i = next++ & 1023;
+		return user.logPosterior(CategoryFeatures.extract(descriptions[i], amounts[i]), global, 10, ALL);
+	}
+
+	public static void main(String[] args) throws Exception {
+		reportAccuracy();
+
+		Options options = new OptionsBuilder()
+				.include(CategorizerBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+	/**
+	 * Train on 80% of the transactions in order, test on the rest
+	 */
+	static void reportAccuracy() {
+		Dataset data = Dataset.generate(TRANSACTIONS, 7);
+		int split = data.size * 8 / 10;
+
+		NaiveBayesModel global = new NaiveBayesModel();
+		NaiveBayesModel[] users = new NaiveBayesModel[USERS];
+		for (int u = 0; u < USERS; u++) {
+			users[u] = new NaiveBayesModel();
+		}
+		for (int i = 0; i < split; i++) {
+			global.add(data.features.get(i), data.labels[i]);
+			users[data.users[i]].add(data.features.get(i), data.labels[i]);
+		}
+
+		int globalCorrect = 0;
+		int userCorrect = 0;
+		for (int i = split; i < data.size; i++) {
+			List<String> features = data.features.get(i);
+			if (argMax(global.logPosterior(features, null, 0, ALL)) == data.labels[i].ordinal()) {
+				globalCorrect++;
+			}
+			if (argMax(users[data.users[i]].logPosterior(features, global, 10, ALL)) == data.labels[i].ordinal()) {
+				userCorrect++;
+			}
+		}
+
+		int tested = data.size - split;
+		System.out.printf("Held-out accuracy on %d transactions: global %.1f%%, per-user with global prior %.1f%%%n",
+				tested, 100.0 * globalCorrect / tested, 100.0 * userCorrect / tested);
+	}
+
+	private static int argMax(double[] scores) {
+		int best = 0;
+		for (int c = 1; c < scores.length; c++) {
+			if (scores[c] > scores[best]) {
+				best = c;
+			}
+		}
+		return best;
+	}
+
+	private static boolean[] allCategories() {
+		boolean[] allowed = new boolean[Transaction.Category.values().length];
+		Arrays.fill(allowed, true);
+		return allowed;
+	}
+
+	private static final class Dataset {
+		final int size;
+		final String[] descriptions;
+		final BigDecimal[] amounts;
+		final List<List<String>> features;
+		final Transaction.Category[] labels;
+		final int[] users;
+
+		private Dataset(int size) {
+			this.size = size;
+			this.descriptions = new String[size];
+			this.amounts = new BigDecimal[size];
+			this.features = new ArrayList<>(size);
+			this.labels = new Transaction.Category[size];
+			this.users = new int[size];
+		}
+
+		static Dataset generate(int size, long seed) {
+			SplittableRandom random = new SplittableRandom(seed);
+			Transaction.Category[] categories = Transaction.Category.values();
+
+			// Each user files one merchant under a category of their own choosing
+			int[][] userOverrides = new int[USERS][3];
+			for (int u = 0; u < USERS; u++) {
+				userOverrides[u][0] = random.nextInt(4, categories.length);
+				userOverrides[u][1] = random.nextInt(MERCHANTS[userOverrides[u][0]].length);
+				userOverrides[u][2] = random.nextInt(4, categories.length);
+			}
+
+			Dataset data = new Dataset(size);
+			for (int i = 0; i < size; i++) {
+				int user = random.nextInt(USERS);
+				// Expenses dominate real transaction streams
+				int category = random.nextInt(10) == 0 ? random.nextInt(4) : random.nextInt(4, categories.length);
+				int merchant = random.nextInt(MERCHANTS[category].length);
+
+				StringBuilder description = new StringBuilder();
+				if (random.nextInt(3) == 0) {
+					description.append(FILLER[random.nextInt(FILLER.length)]).append(' ');
+				}
+				description.append(MERCHANTS[category][merchant]);
+				if (random.nextBoolean()) {
+					description.append(" #").append(random.nextInt(1, 9999));
+				}
+				if (random.nextBoolean()) {
+					description.append(' ').append(CITIES[random.nextInt(CITIES.length)]);
+				}
+
+				int[] range = AMOUNT_RANGES[category];
+				BigDecimal amount = BigDecimal.valueOf(random.nextLong(range[0] * 100L, range[1] * 100L), 2);
+
+				int label = category;
+				if (userOverrides[user][0] == category && userOverrides[user][1] == merchant) {
+					label = userOverrides[user][2];
+				} else if (random.nextInt(100) < 3) {
+					label = random.nextInt(categories.length);
+				}
+
+				data.descriptions[i] = description.toString();
+				data.amounts[i] = amount;
+				data.features.add(CategoryFeatures.extract(data.descriptions[i], amount));
+				data.labels[i] = categories[label];
+				data.users[i] = user;
+			}
+			return data;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.financeapp.personal.benchmark;
+
+import com.financeapp.personal.analytics.UserTransactionColumns;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregations over one user's in-memory transaction columns, as the insights use them.
+ *
+ * Two years of history over four accounts, one of them in euros so every
+ * query converts at daily rates.
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.financeapp.personal.benchmark.ColumnarAggregationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarAggregationBenchmark {
+
+	private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+	private static final int HISTORY_DAYS = 730;
+
+	@Param({"10000", "50000"})
+	public int rows;
+
+	private UserTransactionColumns columns;
+	private FxRateSnapshot rates;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(31);
+		NavigableMap<LocalDate, Double> euroRates = new TreeMap<>();
+		for (int d = 0; d <= HISTORY_DAYS; d++) {
+			euroRates.put(TODAY.minusDays(d), 1.05 + random.nextDouble(-0.05, 0.05));
+		}
+		rates = FxRateSnapshot.build("USD", "USD", Map.of("EUR", euroRates));
+
+		columns = new UserTransactionColumns(new long[]{1, 2, 3, 4},
+				new Account.AccountType[]{Account.AccountType.CHECKING, Account.AccountType.SAVINGS,
+						Account.AccountType.CREDIT_CARD, Account.AccountType.CHECKING},
+				new String[]{"USD", "USD", "USD", "EUR"}, new long[4], rows);
+		Transaction.Category[] categories = Transaction.Category.values();
+		for (int i = 0; i < rows; i++) {
+			boolean income = random.nextInt(10) == 0;
+			columns.append(i + 1, random.nextLong(1, 5), random.nextLong(100, 200_000),
+					income ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE,
+					income ? Transaction.Category.SALARY : categories[random.nextInt(4, categories.length)],
+					TODAY.minusDays(random.nextInt(HISTORY_DAYS)), false);
+		}
+	}
+
+	@Benchmark
+	public long[] expensesByCategoryForAYear() {
+		return columns.expensesByCategory(TODAY.minusYears(1), TODAY, rates);
+	}
+
+	@Benchmark
+	public long incomeForThreeMonths() {
+		return columns.sumByType(Transaction.TransactionType.INCOME, TODAY.minusMonths(3), TODAY, rates);
+	}
+
+	@Benchmark
+	public long[][] expensesByMonthAndCategoryForTwoYears() {
+		return columns.expensesByMonthAndCategory(YearMonth.from(TODAY).minusMonths(23), 24, rates);
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.include(ColumnarAggregationBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,183 @@
+package com.financeapp.personal.benchmark;
+
+import com.financeapp.personal.service.ChatGptService;
+import com.financeapp.personal.service.LlmRequestGate;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How many concurrent dashboard users one instance serves while ChatGPT is slow, at a fixed p99.
+ *
+ * A stub upstream answers every chat completion after a fixed delay. Each simulated user
+ * requests an insight panel through the real ChatGptService, waits for the answer and asks
+ * again. The user count doubles until the p99 latency exceeds 1.5x the upstream delay.
+ * The LLM gate limits are lifted so only request-thread capacity is measured.
+ *
+ * Run with "platform" or "virtual" (Java 21) as the first argument.
+ */
+public class InsightServingLoadBenchmark {
+
+	private static final long UPSTREAM_DELAY_MS = 1000;
+	private static final long P99_TARGET_MS = UPSTREAM_DELAY_MS * 3 / 2;
+	private static final long LEVEL_DURATION_MS = 8000;
+	private static final int MAX_USERS = 3200;
+	private static final String COMPLETION = "{\"choices\":[{\"message\":{\"content\":\"Keep saving.\"}}]}";
+
+	// Deliberately not a @Configuration, so component scans of the real application never pick it up
+	@EnableAutoConfiguration
+	@Import({LlmRequestGate.class, ChatGptService.class, AdviceEndpoint.class})
+	static class ServingApp {
+	}
+
+	@RestController
+	static class AdviceEndpoint {
+
+		private final ChatGptService chatGptService;
+
+		AdviceEndpoint(ChatGptService chatGptService) {
+			this.chatGptService = chatGptService;
+		}
+
+		@GetMapping("/load-test/advice")
+		String advice() {
+			return chatGptService.generateFinancialAdvice(Map.of("Monthly Income", "$5000", "Monthly Expenses", "$4200"));
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		boolean virtual = args.length > 0 && args[0].equals("virtual");
+		if (virtual && Runtime.version().feature() < 21) {
+			System.err.println("Virtual threads need Java 21; this JVM is " + Runtime.version());
+			System.exit(1);
+		}
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		ScheduledExecutorService upstreamTimer = Executors.newSingleThreadScheduledExecutor();
+		HttpServer upstream = startUpstream(upstreamTimer);
+		// Command-line arguments, so they override application.properties
+		ConfigurableApplicationContext app = new SpringApplicationBuilder(ServingApp.class).run(
+				"--server.port=0",
+				"--spring.autoconfigure.exclude=" + DataSourceAutoConfiguration.class.getName(),
+				"--spring.threads.virtual.enabled=" + virtual,
+				"--openai.api.key=load-test",
+				"--openai.api.url=http://localhost:" + upstream.getAddress().getPort() + "/v1/chat/completions",
+				"--openai.rate-limit.requests-per-second=1000000",
+				"--openai.rate-limit.burst=1000000",
+				"--openai.max-concurrent-requests=1000000",
+				"--openai.max-queued-requests=1000000",
+				"--logging.level.com.financeapp.personal=WARN",
+				"--logging.level.org.springframework.web=WARN");
+
+		try {
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			URI uri = URI.create("http://localhost:" + port + "/load-test/advice");
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+			System.out.printf("%s threads, upstream delay %d ms, p99 target %d ms%n",
+					virtual ? "virtual" : "platform", UPSTREAM_DELAY_MS, P99_TARGET_MS);
+			runLevel(client, uri, 50); // Warm-up: JIT, connection pools
+			int maxUsersWithinTarget = 0;
+			for (int users = 50; users <= MAX_USERS; users *= 2) {
+				List<Long> latencies = runLevel(client, uri, users);
+				long p50 = percentile(latencies, 0.50);
+				long p99 = percentile(latencies, 0.99);
+				System.out.printf("users=%5d requests=%6d p50=%5d ms p99=%5d ms%n", users, latencies.size(), p50, p99);
+				if (p99 > P99_TARGET_MS) {
+					break;
+				}
+				maxUsersWithinTarget = users;
+			}
+			System.out.println("Max concurrent users within the p99 target: " + maxUsersWithinTarget);
+		} finally {
+			app.close();
+			upstream.stop(0);
+			((ExecutorService) upstream.getExecutor()).shutdownNow(); // Non-daemon threads would keep the JVM alive
+			upstreamTimer.shutdownNow();
+		}
+	}
+
+	/**
+	 * Closed loop: each user sends its next request as soon as the previous one completes
+	 */
+	private static List<Long> runLevel(HttpClient client, URI uri, int users) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LEVEL_DURATION_MS);
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		List<CompletableFuture<Void>> loops = new ArrayList<>();
+		for (int i = 0; i < users; i++) {
+			loops.add(userLoop(client, uri, deadline, latencies));
+		}
+		CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).join();
+		return new ArrayList<>(latencies);
+	}
+
+	private static CompletableFuture<Void> userLoop(HttpClient client, URI uri, long deadline, List<Long> latencies) {
+		if (System.nanoTime() >= deadline) {
+			return CompletableFuture.completedFuture(null);
+		}
+		long start = System.nanoTime();
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+				.thenCompose(response -> {
+					latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+					return userLoop(client, uri, deadline, latencies);
+				});
+	}
+
+	/**
+	 * Chat completion stub; responses are scheduled so waiting requests hold no threads here
+	 */
+	private static HttpServer startUpstream(ScheduledExecutorService timer) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+		server.createContext("/v1/chat/completions", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			timer.schedule(() -> respond(exchange), UPSTREAM_DELAY_MS, TimeUnit.MILLISECONDS);
+		});
+		server.setExecutor(Executors.newFixedThreadPool(2));
+		server.start();
+		return server;
+	}
+
+	private static void respond(HttpExchange exchange) {
+		byte[] body = COMPLETION.getBytes(StandardCharsets.UTF_8);
+		try (OutputStream out = exchange.getResponseBody()) {
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			out.write(body);
+		} catch (IOException e) {
+			System.err.println("Stub upstream failed to respond: " + e.getMessage());
+		}
+	}
+
+	private static long percentile(List<Long> values, double fraction) {
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.isEmpty() ? 0 : sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(fraction * sorted.size()) - 1));
+	}
+}
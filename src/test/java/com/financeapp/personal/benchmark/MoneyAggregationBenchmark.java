@@ -0,0 +1,104 @@
+package com.financeapp.personal.benchmark;
+
+import com.financeapp.personal.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares summing transaction amounts as BigDecimal against long cents.
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.financeapp.personal.benchmark.MoneyAggregationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+
+	@Param({"1000", "100000"})
+	private int rows;
+
+	private BigDecimal[] decimalAmounts;
+	private Money[] moneyAmounts;
+	private long[] centAmounts;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		decimalAmounts = new BigDecimal[rows];
+		moneyAmounts = new Money[rows];
+		centAmounts = new long[rows];
+		for (int i = 0; i < rows; i++) {
+			long cents = random.nextLong(1, 500_000);
+			decimalAmounts[i] = BigDecimal.valueOf(cents, 2);
+			moneyAmounts[i] = Money.ofCents(cents);
+			centAmounts[i] = cents;
+		}
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalSum() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (BigDecimal amount : decimalAmounts) {
+			total = total.add(amount);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public Money moneySum() {
+		Money total = Money.ZERO;
+		for (Money amount : moneyAmounts) {
+			total = total.plus(amount);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long centsSum() {
+		long total = 0;
+		for (long cents : centAmounts) {
+			total = Math.addExact(total, cents);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long bigDecimalToCentsSum() {
+		// The path used when amounts still arrive from JPA as BigDecimal
+		long total = 0;
+		for (BigDecimal amount : decimalAmounts) {
+			total = Math.addExact(total, Money.toCents(amount));
+		}
+		return total;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.include(MoneyAggregationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
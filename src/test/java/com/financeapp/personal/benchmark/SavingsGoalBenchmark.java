@@ -0,0 +1,89 @@
+package com.financeapp.personal.benchmark;
+
+import com.financeapp.personal.forecast.SavingsGoalInput;
+import com.financeapp.personal.forecast.SavingsGoalSimulation;
+import com.financeapp.personal.forecast.SavingsGoalSimulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100,000 savings goal trajectories, fork-join versus one thread.
+ *
+ * The history is two years of income and eleven spending categories, as the
+ * savings goal service builds it from monthly totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SavingsGoalBenchmark {
+
+	private static final LocalDate START = LocalDate.of(2025, 3, 1);
+	private static final int TRAJECTORIES = 100_000;
+
+	@Param({"12", "60"})
+	public int months;
+
+	private SavingsGoalInput input;
+	private ForkJoinPool pool;
+	private ForkJoinPool single;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(11);
+		long[] income = new long[24];
+		long[][] spending = new long[11][24];
+		for (int m = 0; m < 24; m++) {
+			income[m] = random.nextLong(400_000, 650_000);
+			for (long[] category : spending) {
+				category[m] = random.nextInt(4) == 0 ? 0 : random.nextLong(5_000, 80_000);
+			}
+		}
+		input = new SavingsGoalInput(1_500_000, income, spending);
+		pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		single = new ForkJoinPool(1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdownNow();
+		single.shutdownNow();
+	}
+
+	@Benchmark
+	public SavingsGoalSimulation forkJoin() {
+		return SavingsGoalSimulator.simulate(input, 5_000_000, START, months, TRAJECTORIES, 1, pool);
+	}
+
+	@Benchmark
+	public SavingsGoalSimulation oneThread() {
+		return SavingsGoalSimulator.simulate(input, 5_000_000, START, months, TRAJECTORIES, 1, single);
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.include(SavingsGoalBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
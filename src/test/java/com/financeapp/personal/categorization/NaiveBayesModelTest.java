@@ -0,0 +1,95 @@
+package com.financeapp.personal.categorization;
+
+import com.financeapp.personal.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NaiveBayesModelTest {
+
+	private static final boolean[] ALL = allCategories();
+
+	private NaiveBayesModel global;
+
+	@BeforeEach
+	void setUp() {
+		global = new NaiveBayesModel();
+		train(global, "STARBUCKS #1234 SEATTLE", "5.25", Transaction.Category.DINING_OUT);
+		train(global, "Starbucks Reserve", "7.80", Transaction.Category.DINING_OUT);
+		train(global, "Whole Foods Market", "84.10", Transaction.Category.GROCERIES);
+		train(global, "Safeway Store 221", "63.00", Transaction.Category.GROCERIES);
+		train(global, "Shell Oil 5531", "40.00", Transaction.Category.TRANSPORTATION);
+	}
+
+	@Test
+	void predictsFromDescriptionTokens() {
+		assertEquals(Transaction.Category.DINING_OUT, best(global.logPosterior(features("Starbucks Portland", "6.10"), null, 0, ALL)));
+		assertEquals(Transaction.Category.GROCERIES, best(global.logPosterior(features("whole foods", "51.00"), null, 0, ALL)));
+	}
+
+	@Test
+	void newUserFallsBackToGlobalAndLearnsOwnLabels() {
+		NaiveBayesModel user = new NaiveBayesModel();
+		List<String> coffee = features("Starbucks Airport", "9.00");
+		assertEquals(Transaction.Category.DINING_OUT, best(user.logPosterior(coffee, global, 10, ALL)));
+
+		// This user files airport coffee under travel
+		for (int i = 0; i < 5; i++) {
+			train(user, "Starbucks Airport", "9.00", Transaction.Category.TRAVEL);
+		}
+		assertEquals(Transaction.Category.TRAVEL, best(user.logPosterior(coffee, global, 10, ALL)));
+	}
+
+	@Test
+	void removeUndoesAdd() {
+		List<String> fuel = features("Shell Oil", "40.00");
+		double[] before = global.logPosterior(fuel, null, 0, ALL);
+
+		global.add(features("Shell gift shop", "40.00"), Transaction.Category.SHOPPING);
+		global.remove(features("Shell gift shop", "40.00"), Transaction.Category.SHOPPING);
+
+		assertEquals(Arrays.toString(before), Arrays.toString(global.logPosterior(fuel, null, 0, ALL)));
+	}
+
+	@Test
+	void removingWhatWasNeverAddedChangesNothing() {
+		List<String> fuel = features("Shell Oil", "40.00");
+		double[] before = global.logPosterior(fuel, null, 0, ALL);
+
+		// Neither category has any documents, e.g. a correction redelivered to a freshly trained model
+		global.remove(features("Shell Oil 5531", "40.00"), Transaction.Category.HEALTHCARE);
+		global.remove(features("Unknown Merchant", "12.00"), Transaction.Category.TRAVEL);
+
+		assertEquals(Arrays.toString(before), Arrays.toString(global.logPosterior(fuel, null, 0, ALL)));
+		assertEquals(5, global.documentCount());
+	}
+
+	private static void train(NaiveBayesModel model, String description, String amount, Transaction.Category category) {
+		model.add(features(description, amount), category);
+	}
+
+	private static List<String> features(String description, String amount) {
+		return CategoryFeatures.extract(description, new BigDecimal(amount));
+	}
+
+	private static Transaction.Category best(double[] scores) {
+		int best = 0;
+		for (int c = 1; c < scores.length; c++) {
+			if (scores[c] > scores[best]) {
+				best = c;
+			}
+		}
+		return Transaction.Category.values()[best];
+	}
+
+	private static boolean[] allCategories() {
+		boolean[] allowed = new boolean[Transaction.Category.values().length];
+		Arrays.fill(allowed, true);
+		return allowed;
+	}
+}
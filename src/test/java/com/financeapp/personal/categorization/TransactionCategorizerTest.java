@@ -0,0 +1,102 @@
+package com.financeapp.personal.categorization;
+
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.repository.OutboxEventRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionCategorizerTest {
+
+	private static final Long USER = 1L;
+
+	private TransactionCategorizer categorizer;
+
+	@BeforeEach
+	void setUp() {
+		TransactionRepository transactionRepository = mock(TransactionRepository.class);
+		when(transactionRepository.streamCategorizationRows()).thenReturn(Stream.empty());
+		when(transactionRepository.findCategorizationRowsByUserId(anyLong())).thenReturn(List.of());
+		OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+		// The models are trained from a snapshot that already includes events up to 10
+		when(outboxEventRepository.findMaxId()).thenReturn(10L);
+
+		categorizer = new TransactionCategorizer(transactionRepository, outboxEventRepository,
+				mock(PlatformTransactionManager.class), 10, 100);
+		categorizer.suggest(USER, "anything", BigDecimal.ONE, null, 1);
+	}
+
+	@Test
+	void redeliveredBatchIsLearnedOnce() {
+		List<FinanceEvent> events = List.of(
+				posted(101, "Blue Bottle Coffee", "4.50", Transaction.Category.DINING_OUT),
+				posted(102, "Shell Oil 5531", "40.00", Transaction.Category.SHOPPING),
+				new TransactionEditedEvent(102L, 1L, USER, new BigDecimal("40.00"), Transaction.TransactionType.EXPENSE,
+						Transaction.Category.TRANSPORTATION, LocalDate.now(), "Shell Oil 5531", "Shell Oil 5531",
+						new BigDecimal("40.00"), Transaction.TransactionType.EXPENSE, Transaction.Category.SHOPPING),
+				new TransactionsImportedEvent(USER, List.of(
+						posted(103, "Blue Bottle Coffee", "5.00", Transaction.Category.DINING_OUT),
+						posted(104, "Chevron 88", "35.00", Transaction.Category.TRANSPORTATION))));
+		long[] eventIds = {11, 12, 13, 14};
+
+		categorizer.consume(events, eventIds);
+		List<CategorySuggestion> coffee = suggest("Blue Bottle Coffee", "4.75");
+		List<CategorySuggestion> fuel = suggest("Shell Oil 1200", "38.00");
+
+		categorizer.consume(events, eventIds);
+
+		assertEquals(coffee, suggest("Blue Bottle Coffee", "4.75"));
+		assertEquals(fuel, suggest("Shell Oil 1200", "38.00"));
+		assertEquals(Transaction.Category.TRANSPORTATION, fuel.get(0).category());
+	}
+
+	@Test
+	void eventsTheTrainingSnapshotIncludedAreSkipped() {
+		List<CategorySuggestion> before = suggest("Blue Bottle Coffee", "4.75");
+
+		categorizer.consume(List.of(posted(99, "Blue Bottle Coffee", "4.50", Transaction.Category.DINING_OUT)), new long[]{10});
+		assertEquals(before, suggest("Blue Bottle Coffee", "4.75"));
+
+		categorizer.consume(List.of(posted(100, "Blue Bottle Coffee", "4.50", Transaction.Category.DINING_OUT)), new long[]{11});
+		assertNotEquals(before, suggest("Blue Bottle Coffee", "4.75"));
+	}
+
+	@Test
+	void correctionOfAnUnlearnedTransactionStillCategorizes() {
+		// The models never learned the previous label, so there is nothing to take out of them
+		categorizer.consume(List.of(new TransactionEditedEvent(7L, 1L, USER, new BigDecimal("12.00"),
+				Transaction.TransactionType.EXPENSE, Transaction.Category.GROCERIES, LocalDate.now(), "Corner Market",
+				"Corner Market", new BigDecimal("12.00"), Transaction.TransactionType.EXPENSE,
+				Transaction.Category.HEALTHCARE)), new long[]{11});
+
+		assertEquals(Transaction.Category.GROCERIES,
+				categorizer.categorize(USER, "Corner Market", new BigDecimal("15.00"), Transaction.TransactionType.EXPENSE));
+		assertEquals(3, suggest("Corner Market", "15.00").size());
+	}
+
+	private List<CategorySuggestion> suggest(String description, String amount) {
+		return categorizer.suggest(USER, description, new BigDecimal(amount), Transaction.TransactionType.EXPENSE, 3);
+	}
+
+	private static TransactionPostedEvent posted(long transactionId, String description, String amount,
+												 Transaction.Category category) {
+		return new TransactionPostedEvent(transactionId, 1L, USER, new BigDecimal(amount),
+				Transaction.TransactionType.EXPENSE, category, LocalDate.now(), description);
+	}
+}
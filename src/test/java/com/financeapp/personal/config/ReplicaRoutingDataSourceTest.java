@@ -0,0 +1,93 @@
+package com.financeapp.personal.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two separate in-memory H2 databases stand in for the primary and the replica;
+ * each holds a marker row naming itself, so a query shows where it was routed.
+ */
+class ReplicaRoutingDataSourceTest {
+
+	private JdbcTemplate jdbc;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = database("routing_primary", "primary");
+		DataSource replica = database("routing_replica", "replica");
+		DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, 60_000));
+
+		jdbc = new JdbcTemplate(routing);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReplicaRoutingDataSource.clearPin();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		assertEquals("replica", readOnly.execute(status -> whereAmI()));
+		assertEquals("primary", readWrite.execute(status -> whereAmI()));
+		assertEquals("primary", whereAmI());
+	}
+
+	@Test
+	void readsFollowingACommittedWriteUseThePrimary() {
+		assertEquals("replica", readOnly.execute(status -> whereAmI()));
+
+		readWrite.executeWithoutResult(status -> jdbc.update("UPDATE marker SET writes = writes + 1"));
+		assertEquals("primary", readOnly.execute(status -> whereAmI()));
+
+		ReplicaRoutingDataSource.clearPin();
+		assertEquals("replica", readOnly.execute(status -> whereAmI()));
+	}
+
+	@Test
+	void rolledBackWritesDoNotPin() {
+		readWrite.executeWithoutResult(status -> {
+			jdbc.update("UPDATE marker SET writes = writes + 1");
+			status.setRollbackOnly();
+		});
+		assertEquals("replica", readOnly.execute(status -> whereAmI()));
+	}
+
+	@Test
+	void pinExpiresAfterTheLagWindow() {
+		ReplicaRoutingDataSource.pinToPrimaryUntil(System.currentTimeMillis() - 1);
+		assertEquals("replica", readOnly.execute(status -> whereAmI()));
+
+		ReplicaRoutingDataSource.pinToPrimaryUntil(System.currentTimeMillis() + 60_000);
+		assertEquals("primary", readOnly.execute(status -> whereAmI()));
+	}
+
+	private String whereAmI() {
+		return jdbc.queryForObject("SELECT name FROM marker", String.class);
+	}
+
+	private static DataSource database(String name, String marker) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(16), writes INT)");
+		jdbc.update("DELETE FROM marker");
+		jdbc.update("INSERT INTO marker VALUES (?, 0)", marker);
+		return dataSource;
+	}
+}
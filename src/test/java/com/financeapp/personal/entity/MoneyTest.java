@@ -0,0 +1,39 @@
+package com.financeapp.personal.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+	@Test
+	void convertsExactlyToAndFromBigDecimal() {
+		Money amount = Money.of(new BigDecimal("1234.5"));
+		assertEquals(123450, amount.getCents());
+		assertEquals(new BigDecimal("1234.50"), amount.toBigDecimal());
+		assertEquals("1234.50", amount.toString());
+	}
+
+	@Test
+	void rejectsFractionsOfACent() {
+		assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.005")));
+	}
+
+	@Test
+	void arithmeticIsOverflowChecked() {
+		Money max = Money.ofCents(Long.MAX_VALUE);
+		assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+		assertThrows(ArithmeticException.class, () -> max.times(2));
+	}
+
+	@Test
+	void divisionRoundsHalfUp() {
+		assertEquals(Money.ofCents(33), Money.ofCents(100).dividedBy(3));
+		assertEquals(Money.ofCents(67), Money.ofCents(200).dividedBy(3));
+		assertEquals(Money.ofCents(-67), Money.ofCents(-200).dividedBy(3));
+		assertEquals(Money.ofCents(1), Money.ofCents(1).dividedBy(2));
+	}
+}
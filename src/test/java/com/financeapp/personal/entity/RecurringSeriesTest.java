@@ -0,0 +1,61 @@
+package com.financeapp.personal.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurringSeriesTest {
+
+	@Test
+	void monthlyChargeBecomesActiveAfterThreeOccurrences() {
+		RecurringSeries series = newSeries();
+		record(series, 1, LocalDate.of(2025, 1, 15), 1549);
+		record(series, 2, LocalDate.of(2025, 2, 14), 1549);
+		assertEquals(RecurringSeries.Status.CANDIDATE, series.getStatus());
+
+		record(series, 3, LocalDate.of(2025, 3, 17), 1549);
+		assertEquals(RecurringSeries.Status.ACTIVE, series.getStatus());
+		assertEquals(RecurringSeries.Period.MONTHLY, series.getPeriod());
+		assertEquals(LocalDate.of(2025, 4, 17), series.getNextExpectedDate());
+	}
+
+	@Test
+	void skippedMonthKeepsTheSeriesButIrregularGapResetsIt() {
+		RecurringSeries series = newSeries();
+		record(series, 1, LocalDate.of(2025, 1, 1), 120000);
+		record(series, 2, LocalDate.of(2025, 2, 1), 120000);
+		record(series, 3, LocalDate.of(2025, 3, 1), 120000);
+		record(series, 4, LocalDate.of(2025, 5, 1), 120000);
+		assertEquals(RecurringSeries.Status.ACTIVE, series.getStatus());
+
+		record(series, 5, LocalDate.of(2025, 5, 20), 120000);
+		assertEquals(RecurringSeries.Status.CANDIDATE, series.getStatus());
+	}
+
+	@Test
+	void amountToleranceAndWeeklyPeriod() {
+		RecurringSeries series = newSeries();
+		LocalDate date = LocalDate.of(2025, 6, 2);
+		for (int week = 0; week < 4; week++) {
+			record(series, week + 1, date.plusWeeks(week), 2500 + week * 50);
+		}
+		assertEquals(RecurringSeries.Period.WEEKLY, series.getPeriod());
+		assertEquals(RecurringSeries.Status.ACTIVE, series.getStatus());
+		assertTrue(series.amountMatches(Money.ofCents(2700)));
+		assertFalse(series.amountMatches(Money.ofCents(9900)));
+		assertTrue(series.isCurrent(date.plusWeeks(4)));
+		assertFalse(series.isCurrent(date.plusWeeks(8)));
+	}
+
+	private static RecurringSeries newSeries() {
+		return new RecurringSeries(new Account(), "netflix com", Transaction.TransactionType.EXPENSE);
+	}
+
+	private static void record(RecurringSeries series, long id, LocalDate date, long cents) {
+		assertTrue(series.record(id, date, Money.ofCents(cents), "NETFLIX.COM", Transaction.Category.ENTERTAINMENT));
+	}
+}
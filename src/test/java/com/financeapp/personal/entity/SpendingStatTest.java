@@ -0,0 +1,65 @@
+package com.financeapp.personal.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpendingStatTest {
+
+	@Test
+	void runningStatisticsMatchTwoPassComputation() {
+		SplittableRandom random = new SplittableRandom(42);
+		long[] cents = new long[1000];
+		SpendingStat stat = new SpendingStat(new User(), SpendingStat.Scope.CATEGORY, "GROCERIES");
+		for (int i = 0; i < cents.length; i++) {
+			cents[i] = random.nextLong(1000, 25000);
+			stat.add(Money.ofCents(cents[i]));
+		}
+
+		double mean = 0;
+		for (long c : cents) {
+			mean += c;
+		}
+		mean /= cents.length;
+		double squares = 0;
+		for (long c : cents) {
+			squares += (c - mean) * (c - mean);
+		}
+
+		assertEquals(cents.length, stat.getCount());
+		assertEquals(mean, stat.getMeanCents(), 1e-6);
+		assertEquals(Math.sqrt(squares / (cents.length - 1)), stat.getStandardDeviationCents(), 1e-6);
+	}
+
+	@Test
+	void removeUndoesAdd() {
+		SpendingStat stat = new SpendingStat(new User(), SpendingStat.Scope.MERCHANT, "whole foods market");
+		for (long cents : new long[]{8000, 9200, 7600, 10100}) {
+			stat.add(Money.ofCents(cents));
+		}
+		double mean = stat.getMeanCents();
+		double deviation = stat.getStandardDeviationCents();
+
+		stat.add(Money.ofCents(41200));
+		stat.remove(Money.ofCents(41200));
+
+		assertEquals(4, stat.getCount());
+		assertEquals(mean, stat.getMeanCents(), 1e-9);
+		assertEquals(deviation, stat.getStandardDeviationCents(), 1e-6);
+	}
+
+	@Test
+	void deviationFloorKeepsSteadyAmountsFromScoringHigh() {
+		SpendingStat stat = new SpendingStat(new User(), SpendingStat.Scope.MERCHANT, "netflix com");
+		for (int i = 0; i < 6; i++) {
+			stat.add(Money.ofCents(1549));
+		}
+
+		assertEquals(0, stat.getStandardDeviationCents());
+		assertEquals(0.1, stat.zScore(Money.ofCents(1599), 500), 1e-9);
+		assertTrue(stat.zScore(Money.ofCents(4999), 500) > 3);
+	}
+}
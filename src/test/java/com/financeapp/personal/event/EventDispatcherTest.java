@@ -0,0 +1,301 @@
+package com.financeapp.personal.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.personal.entity.OutboxCursor;
+import com.financeapp.personal.entity.OutboxEvent;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.repository.OutboxCursorRepository;
+import com.financeapp.personal.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventDispatcherTest {
+
+	private static final String CONSUMER = "fake";
+	private static final long GAP_TIMEOUT_MS = 500;
+
+	// The outbox and cursor tables, kept in memory
+	private final List<OutboxEvent> outbox = new CopyOnWriteArrayList<>();
+	private final Map<String, OutboxCursor> cursors = new ConcurrentHashMap<>();
+	private final OutboxCodec codec = new OutboxCodec(new ObjectMapper().findAndRegisterModules());
+	private final FakeConsumer consumer = new FakeConsumer();
+
+	private EventDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+		when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+				.thenAnswer(invocation -> {
+					long after = invocation.getArgument(0);
+					Pageable page = invocation.getArgument(1);
+					return outbox.stream()
+							.filter(event -> event.getId() > after)
+							.sorted(Comparator.comparing(OutboxEvent::getId))
+							.limit(page.getPageSize())
+							.toList();
+				});
+		when(outboxEventRepository.findFirstByIdGreaterThanOrderByIdAsc(anyLong()))
+				.thenAnswer(invocation -> {
+					long after = invocation.getArgument(0);
+					return outbox.stream()
+							.filter(event -> event.getId() > after)
+							.min(Comparator.comparing(OutboxEvent::getId));
+				});
+		when(outboxEventRepository.findMaxId())
+				.thenAnswer(invocation -> outbox.stream().mapToLong(OutboxEvent::getId).max().orElse(0));
+
+		OutboxCursorRepository outboxCursorRepository = mock(OutboxCursorRepository.class);
+		when(outboxCursorRepository.findById(any()))
+				.thenAnswer(invocation -> Optional.ofNullable(cursors.get(invocation.<String>getArgument(0))));
+		when(outboxCursorRepository.save(any())).thenAnswer(invocation -> {
+			OutboxCursor cursor = invocation.getArgument(0);
+			cursors.put(cursor.getConsumerName(), copyOf(cursor));
+			return cursor;
+		});
+
+		dispatcher = new EventDispatcher(List.of(consumer), outboxEventRepository, outboxCursorRepository, codec,
+				mock(ApplicationEventPublisher.class), mock(PlatformTransactionManager.class),
+				100, 20, GAP_TIMEOUT_MS, 20);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		consumer.release.countDown();
+		dispatcher.shutdown();
+	}
+
+	@Test
+	void cursorMovesOnlyAfterConsume() throws Exception {
+		append(1, posted(101), LocalDateTime.now());
+		append(2, posted(102), LocalDateTime.now());
+		consumer.blockNextBatch();
+
+		dispatcher.start();
+		assertTrue(consumer.entered.await(5, TimeUnit.SECONDS));
+
+		assertEquals(0, storedCursor());
+		assertEquals(0, lagOf().lastDeliveredEventId());
+
+		consumer.release.countDown();
+		awaitTrue(() -> storedCursor() == 2);
+		assertEquals(2, lagOf().lastDeliveredEventId());
+	}
+
+	@Test
+	void failedBatchIsDeliveredAgain() throws Exception {
+		append(1, posted(101), LocalDateTime.now());
+		append(2, posted(102), LocalDateTime.now());
+		consumer.failures.set(1);
+
+		dispatcher.start();
+
+		Batch failed = consumer.next();
+		Batch retried = consumer.next();
+		assertArrayEquals(new long[]{1, 2}, failed.eventIds());
+		assertArrayEquals(failed.eventIds(), retried.eventIds());
+		assertEquals(failed.events(), retried.events());
+		awaitTrue(() -> storedCursor() == 2);
+		assertEquals(1, lagOf().failedBatches());
+		assertEquals(2, lagOf().deliveredEvents());
+	}
+
+	@Test
+	void stopsAtAnIdGapUntilItIsOldEnoughToSkip() throws Exception {
+		// Id 2 is still in flight: its transaction took an id but has not committed
+		append(1, posted(101), LocalDateTime.now());
+		LocalDateTime afterGap = LocalDateTime.now();
+		append(3, posted(103), afterGap);
+
+		dispatcher.start();
+
+		assertArrayEquals(new long[]{1}, consumer.next().eventIds());
+		Batch skipped = consumer.next();
+		assertArrayEquals(new long[]{3}, skipped.eventIds());
+		assertTrue(Duration.between(afterGap, skipped.receivedAt()).toMillis() >= GAP_TIMEOUT_MS,
+				"Delivered past the gap after " + Duration.between(afterGap, skipped.receivedAt()).toMillis() + " ms");
+		awaitTrue(() -> storedCursor() == 3);
+	}
+
+	@Test
+	void gapThatFillsInTimeIsDeliveredInOrder() throws Exception {
+		append(1, posted(101), LocalDateTime.now());
+		append(3, posted(103), LocalDateTime.now());
+
+		dispatcher.start();
+		assertArrayEquals(new long[]{1}, consumer.next().eventIds());
+
+		append(2, posted(102), LocalDateTime.now());
+		dispatcher.wakeUp();
+
+		assertArrayEquals(new long[]{2, 3}, consumer.next().eventIds());
+	}
+
+	@Test
+	void undecodableRowsAreSkipped() throws Exception {
+		append(1, posted(101), LocalDateTime.now());
+		appendRow(2, "TransactionPosted", "{not json", LocalDateTime.now());
+		appendRow(3, "RetiredEventType", "{}", LocalDateTime.now());
+		append(4, posted(104), LocalDateTime.now());
+
+		dispatcher.start();
+
+		Batch batch = consumer.next();
+		assertArrayEquals(new long[]{1, 4}, batch.eventIds());
+		assertEquals(List.of(posted(101), posted(104)), batch.events());
+		awaitTrue(() -> storedCursor() == 4);
+		assertEquals(0, lagOf().failedBatches());
+	}
+
+	@Test
+	void lagIsMeasuredFromTheCursor() throws Exception {
+		OutboxCursor stored = new OutboxCursor(CONSUMER);
+		stored.setLastEventId(2);
+		cursors.put(CONSUMER, stored);
+		LocalDateTime oldest = LocalDateTime.now().minusSeconds(30);
+		append(1, posted(101), oldest.minusSeconds(10));
+		append(2, posted(102), oldest.minusSeconds(10));
+		append(3, posted(103), oldest);
+		append(4, posted(104), LocalDateTime.now());
+		append(5, posted(105), LocalDateTime.now());
+		consumer.blockNextBatch();
+
+		dispatcher.start();
+		assertTrue(consumer.entered.await(5, TimeUnit.SECONDS));
+
+		EventDispatcher.ConsumerLag behind = lagOf();
+		assertEquals(2, behind.lastDeliveredEventId());
+		assertEquals(3, behind.pendingEvents());
+		assertTrue(behind.oldestPendingAgeMillis() >= 30_000, "Oldest pending age " + behind.oldestPendingAgeMillis());
+
+		consumer.release.countDown();
+		awaitTrue(() -> lagOf().lastDeliveredEventId() == 5);
+
+		EventDispatcher.ConsumerLag caughtUp = lagOf();
+		assertEquals(0, caughtUp.pendingEvents());
+		assertEquals(0, caughtUp.oldestPendingAgeMillis());
+		assertEquals(3, caughtUp.deliveredEvents());
+		assertEquals(3, caughtUp.lastBatchSize());
+	}
+
+	private EventDispatcher.ConsumerLag lagOf() {
+		return dispatcher.getLag().get(0);
+	}
+
+	private long storedCursor() {
+		OutboxCursor cursor = cursors.get(CONSUMER);
+		return cursor == null ? 0 : cursor.getLastEventId();
+	}
+
+	private void append(long id, FinanceEvent event, LocalDateTime createdAt) {
+		appendRow(id, codec.typeOf(event), codec.encode(event), createdAt);
+	}
+
+	private void appendRow(long id, String eventType, String payload, LocalDateTime createdAt) {
+		OutboxEvent row = new OutboxEvent(eventType, 1L, payload);
+		row.setId(id);
+		row.setCreatedAt(createdAt);
+		outbox.add(row);
+	}
+
+	private static OutboxCursor copyOf(OutboxCursor cursor) {
+		OutboxCursor copy = new OutboxCursor(cursor.getConsumerName());
+		copy.setLastEventId(cursor.getLastEventId());
+		copy.setUpdatedAt(cursor.getUpdatedAt());
+		return copy;
+	}
+
+	private static TransactionPostedEvent posted(long transactionId) {
+		return new TransactionPostedEvent(transactionId, 10L, 1L, new BigDecimal("12.50"),
+				Transaction.TransactionType.EXPENSE, Transaction.Category.GROCERIES, LocalDate.of(2026, 3, 1),
+				"Corner Market");
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "Condition never held");
+			Thread.sleep(5);
+		}
+	}
+
+	private record Batch(List<FinanceEvent> events, long[] eventIds, LocalDateTime receivedAt) {
+	}
+
+	/**
+	 * Records every batch it is handed; can fail or block on demand
+	 */
+	private static final class FakeConsumer implements EventConsumer {
+
+		final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+		final AtomicInteger failures = new AtomicInteger();
+		final CountDownLatch entered = new CountDownLatch(1);
+		volatile CountDownLatch release = new CountDownLatch(0);
+
+		void blockNextBatch() {
+			release = new CountDownLatch(1);
+		}
+
+		Batch next() throws InterruptedException {
+			Batch batch = batches.poll(5, TimeUnit.SECONDS);
+			assertNotNull(batch, "No batch delivered");
+			return batch;
+		}
+
+		@Override
+		public String getConsumerName() {
+			return CONSUMER;
+		}
+
+		@Override
+		public void consume(List<FinanceEvent> events) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void consume(List<FinanceEvent> events, long[] eventIds) {
+			batches.add(new Batch(new ArrayList<>(events), eventIds.clone(), LocalDateTime.now()));
+			entered.countDown();
+			try {
+				assertTrue(release.await(5, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			if (failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+				throw new IllegalStateException("Simulated failure");
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.financeapp.personal.forecast;
+
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.RecurringSeries;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CashFlowProjectorTest {
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+	private static final LocalDate START = LocalDate.of(2025, 1, 15);
+
+	@AfterAll
+	static void shutdown() {
+		POOL.shutdownNow();
+	}
+
+	@Test
+	void recurringFlowsLandOnTheirDatesWithoutDrift() {
+		AccountForecastInput input = new AccountForecastInput(1L, "Checking", Account.AccountType.CHECKING, 100_000,
+				List.of(new RecurringFlow(LocalDate.of(2025, 1, 31), RecurringSeries.Period.MONTHLY, -50_000),
+						new RecurringFlow(LocalDate.of(2025, 1, 10), RecurringSeries.Period.BIWEEKLY, 200_000)),
+				new long[12]);
+
+		AccountForecast forecast = CashFlowProjector.projectAccount(input, START, 90);
+		long[] balances = forecast.dailyBalanceCents();
+
+		// The late paycheck (Jan 10) is assumed to arrive tomorrow, then every two weeks from Jan 24
+		assertEquals(100_000, balances[0]);
+		assertEquals(300_000, balances[1]);
+		assertEquals(500_000, balances[day(LocalDate.of(2025, 1, 24))]);
+		assertEquals(450_000, balances[day(LocalDate.of(2025, 1, 31))]);
+		// Rent anchored on the 31st: Feb 28, then Mar 31 rather than Mar 28
+		assertEquals(balances[day(LocalDate.of(2025, 2, 27))] - 50_000, balances[day(LocalDate.of(2025, 2, 28))]);
+		assertEquals(balances[day(LocalDate.of(2025, 3, 27))], balances[day(LocalDate.of(2025, 3, 28))]);
+	}
+
+	@Test
+	void seasonalAmountsAddUpToTheMonthlyTotal() {
+		long[] seasonal = new long[12];
+		seasonal[1] = -28_001; // February
+		AccountForecastInput input = new AccountForecastInput(1L, "Checking", Account.AccountType.CHECKING, 0,
+				List.of(), seasonal);
+
+		long[] balances = CashFlowProjector.projectAccount(input, START, 60).dailyBalanceCents();
+
+		assertEquals(-28_001, balances[day(LocalDate.of(2025, 2, 28))] - balances[day(LocalDate.of(2025, 1, 31))]);
+	}
+
+	@Test
+	void parallelProjectionMatchesSequentialAndSumsNetWorth() {
+		List<AccountForecastInput> inputs = new ArrayList<>();
+		for (int i = 0; i < 37; i++) {
+			long[] seasonal = new long[12];
+			for (int m = 0; m < 12; m++) {
+				seasonal[m] = -(i * 1_000L + m * 137L);
+			}
+			Account.AccountType type = i % 5 == 0 ? Account.AccountType.CREDIT_CARD : Account.AccountType.CHECKING;
+			inputs.add(new AccountForecastInput((long) i, "Account " + i, type, i * 10_000L,
+					List.of(new RecurringFlow(START.plusDays(i), RecurringSeries.Period.WEEKLY, 2_500)), seasonal));
+		}
+
+		CashFlowForecast forecast = CashFlowProjector.project(inputs, START, 365, POOL);
+
+		long[] expectedNetWorth = new long[366];
+		for (int i = 0; i < inputs.size(); i++) {
+			long[] balances = CashFlowProjector.projectAccount(inputs.get(i), START, 365).dailyBalanceCents();
+			assertArrayEquals(balances, forecast.accounts().get(i).dailyBalanceCents());
+			for (int d = 0; d <= 365; d++) {
+				expectedNetWorth[d] += inputs.get(i).accountType() == Account.AccountType.CREDIT_CARD ? -balances[d] : balances[d];
+			}
+		}
+		assertArrayEquals(expectedNetWorth, forecast.netWorthCents());
+	}
+
+	private static int day(LocalDate date) {
+		return (int) (date.toEpochDay() - START.toEpochDay());
+	}
+}
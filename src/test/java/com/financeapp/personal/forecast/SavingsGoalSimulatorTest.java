@@ -0,0 +1,75 @@
+package com.financeapp.personal.forecast;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavingsGoalSimulatorTest {
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+	private static final LocalDate START = LocalDate.of(2025, 1, 15);
+
+	@AfterAll
+	static void shutdown() {
+		POOL.shutdownNow();
+	}
+
+	@Test
+	void fixedHistoryGivesOneCertainPath() {
+		SavingsGoalInput input = new SavingsGoalInput(100_000, new long[]{300_000, 300_000},
+				new long[][]{{120_000, 120_000}, {30_000, 30_000}});
+
+		SavingsGoalSimulation simulation = SavingsGoalSimulator.simulate(input, 550_000, START, 4, 10_000, 1, POOL);
+
+		for (long[] band : simulation.percentileCents()) {
+			assertArrayEquals(new long[]{100_000, 250_000, 400_000, 550_000, 700_000}, band);
+		}
+		assertArrayEquals(new double[]{0, 0, 0, 1, 1}, simulation.goalProbability());
+		assertEquals(START.plusMonths(4), simulation.dateOf(simulation.months()));
+	}
+
+	@Test
+	void sameSeedGivesTheSameResultOnAnyPool() {
+		SavingsGoalInput input = new SavingsGoalInput(0, new long[]{250_000, 310_000, 0, 280_000},
+				new long[][]{{90_000, 140_000, 60_000, 0}, {20_000, 45_000, 35_000, 5_000}});
+		ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			SavingsGoalSimulation parallel = SavingsGoalSimulator.simulate(input, 1_000_000, START, 12, 50_000, 7, POOL);
+			SavingsGoalSimulation sequential = SavingsGoalSimulator.simulate(input, 1_000_000, START, 12, 50_000, 7, single);
+
+			assertTrue(Arrays.deepEquals(parallel.percentileCents(), sequential.percentileCents()));
+			assertArrayEquals(parallel.goalProbability(), sequential.goalProbability());
+			// Average month: 210,000 income - 98,750 spending = 111,250; a year spreads about 470,000 either way
+			long median = parallel.percentileCents()[2][12];
+			assertTrue(Math.abs(median - 12 * 111_250) < 60_000, "median: " + median);
+			assertTrue(parallel.percentileCents()[0][12] < median && median < parallel.percentileCents()[4][12]);
+		} finally {
+			single.shutdownNow();
+		}
+	}
+
+	@Test
+	void selectMatchesSorting() {
+		SplittableRandom random = new SplittableRandom(3);
+		long[] values = new long[5_001];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextLong(-50, 50);
+		}
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+
+		for (int k : new int[]{0, 500, 2_500, 4_999, 5_000}) {
+			long[] copy = values.clone();
+			SavingsGoalSimulator.select(copy, 0, copy.length, k);
+			assertEquals(sorted[k], copy[k]);
+		}
+	}
+}
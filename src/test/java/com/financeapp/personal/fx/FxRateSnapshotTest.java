@@ -0,0 +1,60 @@
+package com.financeapp.personal.fx;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FxRateSnapshotTest {
+
+	private static final LocalDate JAN_1 = LocalDate.of(2026, 1, 1);
+	private static final LocalDate FEB_1 = LocalDate.of(2026, 2, 1);
+
+	@Test
+	void carriesRatesForwardAndClampsOutsideTheTable() {
+		FxRateSnapshot snapshot = FxRateSnapshot.build("USD", "USD", Map.of(
+				"EUR", dated(JAN_1, 1.10, FEB_1, 1.20)));
+		int eur = snapshot.indexOf("EUR");
+
+		assertEquals(11_000, snapshot.toReportingCents(10_000, eur, JAN_1.toEpochDay()));
+		assertEquals(11_000, snapshot.toReportingCents(10_000, eur, FEB_1.minusDays(1).toEpochDay()));
+		assertEquals(12_000, snapshot.toReportingCents(10_000, eur, FEB_1.toEpochDay()));
+		assertEquals(11_000, snapshot.toReportingCents(10_000, eur, JAN_1.minusYears(1).toEpochDay()));
+		assertEquals(12_000, snapshot.toReportingCents(10_000, eur, FEB_1.plusYears(1).toEpochDay()));
+	}
+
+	@Test
+	void crossesThroughTheQuoteCurrency() {
+		FxRateSnapshot snapshot = FxRateSnapshot.build("EUR", "USD", Map.of(
+				"EUR", dated(JAN_1, 1.25, FEB_1, 1.25),
+				"GBP", dated(JAN_1, 1.50, FEB_1, 1.50)));
+
+		assertEquals(FxRateSnapshot.REPORTING, snapshot.indexOf("EUR"));
+		// 100.00 USD is 80.00 EUR; 100.00 GBP is 150.00 USD, so 120.00 EUR
+		assertEquals(8_000, snapshot.toReportingCents(10_000, snapshot.indexOf("USD"), JAN_1.toEpochDay()));
+		assertEquals(12_000, snapshot.toReportingCents(10_000, snapshot.indexOf("GBP"), FEB_1.toEpochDay()));
+		assertEquals(10_000, snapshot.toReportingCents(10_000, FxRateSnapshot.REPORTING, JAN_1.toEpochDay()));
+	}
+
+	@Test
+	void rejectsCurrenciesWithoutRates() {
+		FxRateSnapshot snapshot = FxRateSnapshot.reportingOnly("USD");
+
+		assertFalse(snapshot.supports("EUR"));
+		assertThrows(IllegalArgumentException.class, () -> snapshot.indexOf("EUR"));
+		assertThrows(IllegalArgumentException.class, () -> FxRateSnapshot.build("EUR", "USD", Map.of()));
+	}
+
+	private static NavigableMap<LocalDate, Double> dated(LocalDate first, double firstRate, LocalDate second, double secondRate) {
+		NavigableMap<LocalDate, Double> rates = new TreeMap<>();
+		rates.put(first, firstRate);
+		rates.put(second, secondRate);
+		return rates;
+	}
+}
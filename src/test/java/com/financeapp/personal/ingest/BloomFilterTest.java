@@ -0,0 +1,48 @@
+package com.financeapp.personal.ingest;
+
+import com.financeapp.personal.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+	@Test
+	void neverMissesAKeyAndStaysNearTheTargetRate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		SplittableRandom random = new SplittableRandom(42);
+		long[] keys = new long[10_000];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong();
+			filter.put(keys[i]);
+		}
+
+		for (long key : keys) {
+			assertTrue(filter.mightContain(key));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain(random.nextLong())) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+	}
+
+	@Test
+	void fingerprintIgnoresCaseAndPunctuationButNotNumbersOrSign() {
+		LocalDate date = LocalDate.of(2025, 1, 14);
+		long coffee = TransactionFingerprint.of(1L, date, new BigDecimal("5.25"), Transaction.TransactionType.EXPENSE, "STARBUCKS #12  Seattle");
+
+		assertEquals(coffee, TransactionFingerprint.of(1L, date, new BigDecimal("5.250"), Transaction.TransactionType.EXPENSE, "starbucks 12 SEATTLE"));
+		assertNotEquals(coffee, TransactionFingerprint.of(1L, date, new BigDecimal("5.25"), Transaction.TransactionType.EXPENSE, "starbucks 13 seattle"));
+		assertNotEquals(coffee, TransactionFingerprint.of(1L, date, new BigDecimal("5.25"), Transaction.TransactionType.INCOME, "starbucks 12 seattle"));
+		assertNotEquals(coffee, TransactionFingerprint.of(2L, date, new BigDecimal("5.25"), Transaction.TransactionType.EXPENSE, "starbucks 12 seattle"));
+	}
+}
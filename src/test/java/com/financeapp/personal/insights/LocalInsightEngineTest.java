@@ -0,0 +1,74 @@
+package com.financeapp.personal.insights;
+
+import com.financeapp.personal.dto.DashboardInsights;
+import com.financeapp.personal.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalInsightEngineTest {
+
+	private static final LocalDate OCT_15 = LocalDate.of(2026, 10, 15);
+
+	@Test
+	void backsEachPanelWithTheUsersNumbers() {
+		long[] window = byCategory();
+		window[Transaction.Category.RENT_MORTGAGE.ordinal()] = 450_000;
+		window[Transaction.Category.GROCERIES.ordinal()] = 180_000;
+		window[Transaction.Category.DINING_OUT.ordinal()] = 450_000;
+		window[Transaction.Category.SHOPPING.ordinal()] = 360_000;
+		long[] monthToDate = byCategory();
+		monthToDate[Transaction.Category.DINING_OUT.ordinal()] = 60_000;
+		monthToDate[Transaction.Category.GROCERIES.ordinal()] = 25_000;
+		long[] previousMonthToDate = byCategory();
+		previousMonthToDate[Transaction.Category.DINING_OUT.ordinal()] = 20_000;
+		previousMonthToDate[Transaction.Category.GROCERIES.ordinal()] = 24_000;
+		long[] budgets = byCategory();
+		budgets[Transaction.Category.DINING_OUT.ordinal()] = 50_000;
+		budgets[Transaction.Category.GROCERIES.ordinal()] = 40_000;
+
+		DashboardInsights insights = LocalInsightEngine.generate(new InsightFacts(OCT_15, 3, 1_500_000,
+				window, monthToDate, previousMonthToDate, budgets));
+
+		assertFalse(insights.isAiRefined());
+		String assessment = insights.getGeneralInsights();
+		assertTrue(assessment.contains("Savings rate: 4% of income over the last 3 months ($200.00 of $5,000.00 a month)"), assessment);
+		assertTrue(assessment.contains("saving another $800.00 a month"), assessment);
+		assertTrue(assessment.contains("needs 42%, wants 54%, savings 4%"), assessment);
+		assertTrue(assessment.contains("Wants are $1,200.00 a month above 30% of income; the largest is Dining Out at $1,500.00"), assessment);
+
+		String spending = insights.getSpendingAnalysis();
+		assertTrue(spending.contains("Spent $850.00 this month through Oct 15, against $440.00 over the same days last month (+93%)"), spending);
+		assertTrue(spending.contains("• Dining Out: $600.00 vs $200.00 (+200%)"), spending);
+		assertFalse(spending.contains("• Groceries: $250.00 vs"), spending);
+
+		String budget = insights.getBudgetRecommendations();
+		assertTrue(budget.contains("• Dining Out: $600.00 of $500.00 (120%), over by $100.00"), budget);
+		assertTrue(budget.contains("• Groceries: $250.00 of $400.00 (63%), ahead of pace; $150.00 left for 16 days"), budget);
+		assertTrue(budget.contains("needs $2,500.00, wants $1,500.00, savings $1,000.00"), budget);
+	}
+
+	@Test
+	void explainsWhatIsMissingWithoutIncomeOrSpending() {
+		DashboardInsights insights = LocalInsightEngine.generate(new InsightFacts(OCT_15, 3, 0,
+				byCategory(), byCategory(), byCategory(), byCategory()));
+
+		assertTrue(insights.getGeneralInsights().startsWith("No income was recorded in the last 3 months"));
+		assertEquals("No expenses recorded yet this month.", insights.getSpendingAnalysis());
+		assertTrue(insights.getBudgetRecommendations().startsWith("No budgets are set for October 2026."));
+	}
+
+	@Test
+	void comparesWithTheSameDaysOfAShorterPreviousMonth() {
+		assertEquals(LocalDate.of(2026, 2, 28), InsightFacts.previousMonthToDateEnd(LocalDate.of(2026, 3, 31)));
+		assertEquals(LocalDate.of(2026, 9, 15), InsightFacts.previousMonthToDateEnd(OCT_15));
+	}
+
+	private static long[] byCategory() {
+		return new long[Transaction.Category.values().length];
+	}
+}
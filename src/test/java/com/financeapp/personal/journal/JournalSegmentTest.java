@@ -0,0 +1,104 @@
+package com.financeapp.personal.journal;
+
+import com.financeapp.personal.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalSegmentTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackEveryRecordInOrder() throws IOException {
+		List<JournalRecord> written = List.of(
+				new JournalRecord.UserRow(1, "Ada", "Lovelace", "ada@example.com", LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_000_000)),
+				new JournalRecord.BudgetRow(4, 1, Transaction.Category.GROCERIES, new BigDecimal("250.00"), YearMonth.of(2025, 3),
+						LocalDateTime.of(2025, 3, 1, 9, 31)),
+				new JournalRecord.TransactionRow(7, 2, "Corner shop", new BigDecimal("-12.34"), Transaction.TransactionType.EXPENSE,
+						Transaction.Category.GROCERIES, LocalDate.of(2025, 3, 2), LocalDateTime.of(2025, 3, 2, 18, 0), null, -42L),
+				new JournalRecord.Deleted(JournalRecord.Table.BUDGETS, 4));
+		Path path = directory.resolve("segment.log");
+		JournalSegment segment = JournalSegment.create(path, 3, 64 * 1024);
+		assertTrue(segment.append(encode(written.subList(0, 2)), false));
+		assertTrue(segment.append(encode(written.subList(2, 4)), true));
+		segment.close();
+
+		List<JournalRecord> read = new ArrayList<>();
+		JournalSegment.Scan scan = JournalSegment.scan(path, collector(read));
+
+		assertEquals(written, read);
+		assertEquals(3, scan.sequence());
+		assertEquals(2, scan.frames());
+		assertFalse(scan.torn());
+	}
+
+	@Test
+	void stopsAtAFrameCutShort() throws IOException {
+		Path path = directory.resolve("segment.log");
+		JournalSegment segment = JournalSegment.create(path, 0, 64 * 1024);
+		JournalRecord first = new JournalRecord.Deleted(JournalRecord.Table.TRANSACTIONS, 1);
+		segment.append(encode(List.of(first)), false);
+		segment.append(encode(List.of(new JournalRecord.Deleted(JournalRecord.Table.TRANSACTIONS, 2))), false);
+		segment.close();
+
+		// Damage the last byte of the second frame's payload
+		int secondFrame = JournalSegment.HEADER_BYTES + 8 + encode(List.of(first)).length;
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.seek(secondFrame);
+			int length = file.readInt();
+			file.seek(secondFrame + 8 + length - 1);
+			file.write(0x55);
+		}
+
+		List<JournalRecord> read = new ArrayList<>();
+		JournalSegment.Scan scan = JournalSegment.scan(path, collector(read));
+
+		assertEquals(List.of(first), read);
+		assertEquals(secondFrame, scan.validEnd());
+		assertTrue(scan.torn());
+	}
+
+	@Test
+	void refusesAFrameThatDoesNotFit() throws IOException {
+		JournalSegment segment = JournalSegment.create(directory.resolve("segment.log"), 0, 0);
+		assertFalse(segment.append(new byte[JournalSegment.HEADER_BYTES], false));
+		assertTrue(segment.append(new byte[16], false));
+		segment.close();
+	}
+
+	private static byte[] encode(List<JournalRecord> records) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (JournalRecord record : records) {
+			JournalCodec.write(out, record);
+		}
+		JournalCodec.writeEnd(out);
+		return bytes.toByteArray();
+	}
+
+	private static JournalSegment.FrameHandler collector(List<JournalRecord> read) {
+		return (codec, payload) -> {
+			JournalRecord record;
+			while ((record = codec.read(payload)) != null) {
+				read.add(record);
+			}
+		};
+	}
+}
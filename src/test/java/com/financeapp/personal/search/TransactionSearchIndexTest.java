@@ -0,0 +1,134 @@
+package com.financeapp.personal.search;
+
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionSearchIndexTest {
+
+	private static final Long USER = 1L;
+	private static final LocalDate DATE = LocalDate.of(2026, 3, 1);
+
+	private final ExecutorService searchers = Executors.newSingleThreadExecutor();
+	private final CountDownLatch buildStarted = new CountDownLatch(1);
+	private final CountDownLatch releaseBuild = new CountDownLatch(1);
+
+	private TransactionRepository transactionRepository;
+	private TransactionSearchIndex searchIndex;
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository = mock(TransactionRepository.class);
+		searchIndex = new TransactionSearchIndex(transactionRepository, mock(PlatformTransactionManager.class), 128);
+	}
+
+	@AfterEach
+	void tearDown() {
+		searchers.shutdownNow();
+	}
+
+	@Test
+	void transactionPostedWhileTheFirstBuildIsBlockedIsSearchable() throws Exception {
+		List<TransactionRepository.SearchRow> rows = List.of(row(1, "Whole Foods Market"));
+		blockBuildThenReturn(rows);
+
+		CompletableFuture<SearchHits> firstSearch = searchAsync("whole");
+		assertTrue(buildStarted.await(5, TimeUnit.SECONDS));
+		searchIndex.onTransactionPosted(posted(2, "Blue Bottle Coffee"));
+		releaseBuild.countDown();
+
+		assertEquals(List.of(1L), firstSearch.get(5, TimeUnit.SECONDS).transactionIds());
+		assertEquals(List.of(2L), search("coffee"));
+	}
+
+	@Test
+	void transactionPostedWhileARebuildIsBlockedIsSearchable() throws Exception {
+		List<TransactionRepository.SearchRow> rows = List.of(row(1, "Whole Foods Market"));
+		when(transactionRepository.findSearchRowsByUserId(USER)).thenReturn(rows);
+		search("whole");
+		// Superseded versions push the index over the rebuild threshold
+		for (int i = 0; i < 3; i++) {
+			searchIndex.onTransactionEdited(edited(1, "Whole Foods Market"));
+		}
+
+		blockBuildThenReturn(rows);
+		CompletableFuture<SearchHits> rebuildingSearch = searchAsync("whole");
+		assertTrue(buildStarted.await(5, TimeUnit.SECONDS));
+		searchIndex.onTransactionPosted(posted(2, "Blue Bottle Coffee"));
+		releaseBuild.countDown();
+
+		assertEquals(List.of(1L), rebuildingSearch.get(5, TimeUnit.SECONDS).transactionIds());
+		assertEquals(List.of(2L), search("coffee"));
+	}
+
+	@Test
+	void editWhileTheBuildIsBlockedWinsOverTheSnapshot() throws Exception {
+		// Enough rows that the replaced version stays under the rebuild threshold
+		blockBuildThenReturn(List.of(row(1, "Starbucks Reserve"), row(2, "Whole Foods Market"), row(3, "Shell Oil")));
+
+		CompletableFuture<SearchHits> firstSearch = searchAsync("starbucks");
+		assertTrue(buildStarted.await(5, TimeUnit.SECONDS));
+		searchIndex.onTransactionEdited(edited(1, "Blue Bottle Coffee"));
+		releaseBuild.countDown();
+		firstSearch.get(5, TimeUnit.SECONDS);
+
+		assertEquals(List.of(), search("starbucks"));
+		assertEquals(List.of(1L), search("coffee"));
+	}
+
+	private void blockBuildThenReturn(List<TransactionRepository.SearchRow> rows) {
+		when(transactionRepository.findSearchRowsByUserId(USER)).thenAnswer(invocation -> {
+			buildStarted.countDown();
+			assertTrue(releaseBuild.await(5, TimeUnit.SECONDS));
+			return rows;
+		});
+	}
+
+	private CompletableFuture<SearchHits> searchAsync(String query) {
+		return CompletableFuture.supplyAsync(() -> searchIndex.search(USER, query, false, null, null, null, 0, 10),
+				searchers);
+	}
+
+	private List<Long> search(String query) {
+		return searchIndex.search(USER, query, false, null, null, null, 0, 10).transactionIds();
+	}
+
+	private static TransactionRepository.SearchRow row(long id, String description) {
+		TransactionRepository.SearchRow row = mock(TransactionRepository.SearchRow.class);
+		when(row.getId()).thenReturn(id);
+		when(row.getDescription()).thenReturn(description);
+		when(row.getCategory()).thenReturn(Transaction.Category.GROCERIES);
+		when(row.getTransactionDate()).thenReturn(DATE);
+		return row;
+	}
+
+	private static TransactionPostedEvent posted(long id, String description) {
+		return new TransactionPostedEvent(id, 10L, USER, new BigDecimal("12.50"), Transaction.TransactionType.EXPENSE,
+				Transaction.Category.GROCERIES, DATE, description);
+	}
+
+	private static TransactionEditedEvent edited(long id, String description) {
+		return new TransactionEditedEvent(id, 10L, USER, new BigDecimal("12.50"), Transaction.TransactionType.EXPENSE,
+				Transaction.Category.GROCERIES, DATE, description, "Whole Foods Market", new BigDecimal("12.50"),
+				Transaction.TransactionType.EXPENSE, Transaction.Category.GROCERIES);
+	}
+}
@@ -0,0 +1,81 @@
+package com.financeapp.personal.search;
+
+import com.financeapp.personal.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchIndexTest {
+
+	private UserSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new UserSearchIndex(0);
+		index.index(1, "STARBUCKS #1234 SEATTLE", Transaction.Category.DINING_OUT, LocalDate.of(2025, 1, 5));
+		index.index(2, "Whole Foods Market", Transaction.Category.GROCERIES, LocalDate.of(2025, 1, 6));
+		index.index(3, "Starbucks Reserve", Transaction.Category.DINING_OUT, LocalDate.of(2025, 2, 1));
+		index.index(4, "Shell Oil 5531", Transaction.Category.TRANSPORTATION, LocalDate.of(2025, 2, 3));
+	}
+
+	@Test
+	void exactPrefixAndFuzzyTerms() {
+		assertEquals(List.of(3L, 1L), search("starbucks").transactionIds());
+		assertEquals(List.of(3L, 1L), search("star*").transactionIds());
+		assertEquals(List.of(3L, 1L), search("starbcuks~").transactionIds());
+		assertEquals(List.of(), search("star").transactionIds());
+	}
+
+	@Test
+	void allTermsMustMatch() {
+		assertEquals(List.of(1L), search("starbucks seattle").transactionIds());
+		assertEquals(List.of(2L), search("whole foo*").transactionIds());
+	}
+
+	@Test
+	void filtersAndPagination() {
+		assertEquals(List.of(1L), index.search(SearchTerm.parse("starbucks", false), null,
+				null, LocalDate.of(2025, 1, 31), 0, 10).transactionIds());
+		assertEquals(List.of(4L), index.search(List.of(), Transaction.Category.TRANSPORTATION,
+				null, null, 0, 10).transactionIds());
+
+		SearchHits secondPage = index.search(List.of(), null, null, null, 1, 3);
+		assertEquals(4, secondPage.totalHits());
+		assertEquals(List.of(1L), secondPage.transactionIds());
+	}
+
+	@Test
+	void editReplacesEarlierVersion() {
+		index.index(1, "Blue Bottle Coffee", Transaction.Category.DINING_OUT, LocalDate.of(2025, 1, 5));
+
+		assertEquals(List.of(3L), search("starbucks").transactionIds());
+		assertEquals(List.of(1L), search("coffee").transactionIds());
+		assertEquals(4, index.search(List.of(), null, null, null, 0, 10).totalHits());
+	}
+
+	@Test
+	void smallPagesSelectNewestWithoutFullSort() {
+		long[] keys = {5, 42, 7, 19, 3, 88, 1, 64, 23, 11, 50, 2};
+		assertArrayEquals(new long[]{88, 64}, UserSearchIndex.largestDescending(keys.clone(), keys.length, 2));
+		assertArrayEquals(new long[]{88, 64, 50, 42, 23, 19, 11, 7, 5, 3, 2, 1},
+				UserSearchIndex.largestDescending(keys.clone(), keys.length, keys.length));
+	}
+
+	@Test
+	void editDistanceCountsTranspositionsOnce() {
+		assertTrue(UserSearchIndex.withinEditDistance("starbucks", "starbcuks", 1));
+		assertTrue(UserSearchIndex.withinEditDistance("shel", "shell", 1));
+		assertFalse(UserSearchIndex.withinEditDistance("shell", "chevron", 2));
+	}
+
+	private SearchHits search(String query) {
+		return index.search(SearchTerm.parse(query, false), null, null, null, 0, 10);
+	}
+}
@@ -0,0 +1,100 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.dto.DashboardInsights;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatGptServiceTest {
+
+	private static final DashboardInsights LOCAL = new DashboardInsights("Local advice", "Local spending analysis",
+			"Local budget recommendations", false);
+
+	private HttpServer upstream;
+	private volatile String content;
+	private ChatGptService chatGptService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		// Chat completion stub answering with whatever content the test sets
+		upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		upstream.createContext("/v1/chat/completions", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			byte[] body = new ObjectMapper().writeValueAsBytes(
+					Map.of("choices", List.of(Map.of("message", Map.of("content", content)))));
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		upstream.start();
+
+		chatGptService = new ChatGptService(new LlmRequestGate(100, 10, 4, 10, 1000, 1000));
+		ReflectionTestUtils.setField(chatGptService, "apiKey", "test-key");
+		ReflectionTestUtils.setField(chatGptService, "apiUrl",
+				"http://localhost:" + upstream.getAddress().getPort() + "/v1/chat/completions");
+	}
+
+	@AfterEach
+	void tearDown() {
+		upstream.stop(0);
+	}
+
+	@Test
+	void jsonFenceAroundTheAnswerIsStripped() {
+		content = "```json\n{\"advice\": \"Refined advice\", \"spendingAnalysis\": \"Refined analysis\", "
+				+ "\"budgetRecommendations\": \"Refined budget\"}\n```";
+
+		DashboardInsights insights = refine();
+
+		assertEquals("Refined advice", insights.getGeneralInsights());
+		assertEquals("Refined analysis", insights.getSpendingAnalysis());
+		assertEquals("Refined budget", insights.getBudgetRecommendations());
+		assertTrue(insights.isAiRefined());
+	}
+
+	@Test
+	void missingOrEmptySectionKeepsTheLocalText() {
+		content = "{\"advice\": \"Refined advice\", \"spendingAnalysis\": \"  \"}";
+
+		DashboardInsights insights = refine();
+
+		assertEquals("Refined advice", insights.getGeneralInsights());
+		assertEquals(LOCAL.getSpendingAnalysis(), insights.getSpendingAnalysis());
+		assertEquals(LOCAL.getBudgetRecommendations(), insights.getBudgetRecommendations());
+		assertTrue(insights.isAiRefined());
+	}
+
+	@Test
+	void malformedJsonKeepsAllLocalText() {
+		content = "{\"advice\": \"Refined advice\", \"spendingAnalysis\": ";
+
+		DashboardInsights insights = refine();
+
+		assertEquals(LOCAL.getGeneralInsights(), insights.getGeneralInsights());
+		assertEquals(LOCAL.getSpendingAnalysis(), insights.getSpendingAnalysis());
+		assertEquals(LOCAL.getBudgetRecommendations(), insights.getBudgetRecommendations());
+		assertFalse(insights.isAiRefined());
+	}
+
+	private DashboardInsights refine() {
+		return chatGptService.generateDashboardInsights(Map.of("Monthly Income", "$5000"), new BigDecimal("4000"),
+				new BigDecimal("5000"), LOCAL);
+	}
+}
@@ -0,0 +1,92 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.event.TransactionPostedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataVersionServiceTest {
+
+	private final DataVersionService service = new DataVersionService();
+
+	@Test
+	void matchingEtagIsNotModified() {
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		assertFalse(service.checkNotModified(1L, request(null, first)));
+		String etag = first.getHeader("ETag");
+
+		MockHttpServletResponse second = new MockHttpServletResponse();
+		assertTrue(service.checkNotModified(1L, request(etag, second)));
+		assertEquals(304, second.getStatus());
+		assertEquals("private, no-cache", second.getHeader("Cache-Control"));
+	}
+
+	@Test
+	void committedChangeInvalidatesOnlyThatUser() {
+		String userOne = etagFor(1L);
+		String userTwo = etagFor(2L);
+
+		service.onTransactionPosted(new TransactionPostedEvent(10L, 20L, 1L, null, null, null, null, "Coffee"));
+
+		assertFalse(service.checkNotModified(1L, request(userOne, new MockHttpServletResponse())));
+		assertTrue(service.checkNotModified(2L, request(userTwo, new MockHttpServletResponse())));
+	}
+
+	@Test
+	void lastModifiedMovesAtLeastOneSecondPerChange() {
+		long before = service.currentVersion(1L).modifiedAtMillis();
+		service.bump(1L);
+		service.bump(1L);
+
+		assertEquals(2, service.currentVersion(1L).counter());
+		assertTrue(service.currentVersion(1L).modifiedAtMillis() >= before + 2000);
+	}
+
+	@Test
+	void flashAttributesAreAlwaysRenderedAndNotStored() {
+		String etag = etagFor(1L);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ServletWebRequest request = request(etag, response);
+		FlashMap flash = new FlashMap();
+		flash.put("successMessage", "Account created");
+		request.getRequest().setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, flash);
+
+		assertFalse(service.checkNotModified(1L, request));
+		assertEquals("no-store", response.getHeader("Cache-Control"));
+		assertNull(response.getHeader("ETag"));
+	}
+
+	@Test
+	void tagsFromAnotherInstanceNeverMatch() throws Exception {
+		String etag = etagFor(1L);
+		Thread.sleep(5);
+		assertNotEquals(etag, etagFor(new DataVersionService(), 1L));
+	}
+
+	private String etagFor(Long userId) {
+		return etagFor(service, userId);
+	}
+
+	private static String etagFor(DataVersionService versions, Long userId) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		versions.checkNotModified(userId, request(null, response));
+		return response.getHeader("ETag");
+	}
+
+	private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/insights");
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		return new ServletWebRequest(request, response);
+	}
+}
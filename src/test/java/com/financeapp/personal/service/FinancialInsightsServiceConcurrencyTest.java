@@ -0,0 +1,139 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.analytics.ColumnarTransactionStore;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.BudgetRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FinancialInsightsServiceConcurrencyTest {
+
+	private static final int CALLERS = 64;
+
+	private TransactionRepository transactionRepository;
+	private AccountService accountService;
+	private ChatGptService chatGptService;
+	private FinancialInsightsService financialInsightsService;
+
+	@BeforeEach
+	void setUp() {
+		transactionRepository = mock(TransactionRepository.class);
+		accountService = mock(AccountService.class);
+		chatGptService = mock(ChatGptService.class);
+
+		when(transactionRepository.findDailyTotalsByUserId(anyLong(), any(), any())).thenReturn(List.of());
+		when(accountService.findAccountsByUser(any())).thenReturn(List.of());
+		when(accountService.calculateNetWorth(any())).thenReturn(BigDecimal.ZERO);
+
+		FxRateService fxRateService = mock(FxRateService.class);
+		when(fxRateService.current()).thenReturn(FxRateSnapshot.reportingOnly("USD"));
+
+		financialInsightsService = new FinancialInsightsService(transactionRepository, accountService, chatGptService,
+				mock(ColumnarTransactionStore.class), mock(RecurringSeriesService.class), mock(SpendingAnomalyService.class),
+				fxRateService, mock(BudgetRepository.class), new StandardEnvironment());
+	}
+
+	@Test
+	void concurrentRequestsForSameUserShareOneUpstreamCall() throws Exception {
+		CountDownLatch upstreamEntered = new CountDownLatch(1);
+		CountDownLatch releaseUpstream = new CountDownLatch(1);
+		AtomicInteger upstreamCalls = new AtomicInteger();
+
+		when(chatGptService.generateFinancialAdvice(any())).thenAnswer(invocation -> {
+			upstreamCalls.incrementAndGet();
+			upstreamEntered.countDown();
+			releaseUpstream.await(5, TimeUnit.SECONDS);
+			return "shared advice";
+		});
+
+		User user = userWithId(1L);
+		ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < CALLERS; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return financialInsightsService.generateFinancialInsights(user);
+				}));
+			}
+
+			start.countDown();
+			assertTrue(upstreamEntered.await(5, TimeUnit.SECONDS));
+			// Give the remaining callers time to pile up behind the running call
+			Thread.sleep(200);
+			releaseUpstream.countDown();
+
+			for (Future<String> result : results) {
+				assertEquals("shared advice", result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	@Test
+	void differentUsersAreNotCoalesced() throws Exception {
+		CountDownLatch bothEntered = new CountDownLatch(2);
+		AtomicInteger upstreamCalls = new AtomicInteger();
+
+		when(chatGptService.generateFinancialAdvice(any())).thenAnswer(invocation -> {
+			upstreamCalls.incrementAndGet();
+			bothEntered.countDown();
+			bothEntered.await(5, TimeUnit.SECONDS);
+			return "advice";
+		});
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> first = pool.submit(() -> financialInsightsService.generateFinancialInsights(userWithId(1L)));
+			Future<String> second = pool.submit(() -> financialInsightsService.generateFinancialInsights(userWithId(2L)));
+
+			assertEquals("advice", first.get(5, TimeUnit.SECONDS));
+			assertEquals("advice", second.get(5, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	@Test
+	void sequentialRequestsTriggerFreshCalls() {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		when(chatGptService.generateFinancialAdvice(any())).thenAnswer(invocation -> "advice " + upstreamCalls.incrementAndGet());
+
+		User user = userWithId(1L);
+		assertEquals("advice 1", financialInsightsService.generateFinancialInsights(user));
+		assertEquals("advice 2", financialInsightsService.generateFinancialInsights(user));
+	}
+
+	private static User userWithId(Long id) {
+		User user = new User("Test", "User", "user" + id + "@example.com");
+		user.setId(id);
+		return user;
+	}
+}
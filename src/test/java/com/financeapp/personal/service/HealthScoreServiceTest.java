@@ -0,0 +1,125 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.HealthScore;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.repository.HealthScoreRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.smart_finance_assistant.SmartFinanceAssistantApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Partitions of two, so a handful of users spans several grouped queries
+@SpringBootTest(classes = SmartFinanceAssistantApplication.class,
+		properties = "health-score.batch.partition-size=2")
+class HealthScoreServiceTest {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Autowired
+	private HealthScoreService healthScoreService;
+
+	@Autowired
+	private HealthScoreRepository healthScoreRepository;
+
+	@Autowired
+	private FinancialInsightsService financialInsightsService;
+
+	@Autowired
+	private InsightPrecomputeService insightPrecomputeService;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Test
+	void batchScoresMatchTheLiveCalculation() throws Exception {
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			User user = userService.createUser(new User("Batch", "User" + i, "batch-" + i + "@example.com"));
+			Account checking = account(user, "Checking", Account.AccountType.CHECKING, "USD", "2500.00");
+			post(checking, "Salary", "4000.00", Transaction.TransactionType.INCOME, TODAY.minusMonths(1));
+			post(checking, "Rent", String.valueOf(1000 + 400 * i) + ".00", Transaction.TransactionType.EXPENSE, TODAY);
+			if (i % 2 == 0) {
+				account(user, "Savings", Account.AccountType.SAVINGS, "EUR", "3000.00");
+			}
+			if (i == 3) {
+				Account card = account(user, "Card", Account.AccountType.CREDIT_CARD, "USD", "6000.00");
+				post(card, "Groceries", "250.00", Transaction.TransactionType.EXPENSE, TODAY);
+			}
+			users.add(user);
+		}
+
+		int scored = healthScoreService.scoreAllUsers();
+
+		assertTrue(scored >= users.size());
+		for (User user : users) {
+			HealthScore latest = healthScoreService.findLatestScore(user.getId()).orElseThrow();
+			assertEquals(financialInsightsService.calculateFinancialHealthScore(user), latest.getScore(),
+					"Score of " + user.getEmail());
+			assertEquals(0, accountService.calculateNetWorth(user).compareTo(latest.getNetWorth()),
+					"Net worth of " + user.getEmail());
+		}
+	}
+
+	@Test
+	void eachRunAppendsToTheHistory() throws Exception {
+		User user = userService.createUser(new User("History", "User", "history@example.com"));
+		account(user, "Checking", Account.AccountType.CHECKING, "USD", "100.00");
+
+		healthScoreService.scoreAllUsers();
+		healthScoreService.scoreAllUsers();
+
+		List<HealthScore> history = healthScoreService.findScoreHistory(user.getId());
+		assertEquals(2, history.size());
+		assertTrue(history.get(0).getComputedAt().isAfter(history.get(1).getComputedAt()));
+	}
+
+	@Test
+	void snapshotTakesTheLatestStoredScore() {
+		User user = userService.createUser(new User("Snapshot", "User", "snapshot-score@example.com"));
+		account(user, "Checking", Account.AccountType.CHECKING, "USD", "100.00");
+		// A score the live calculation would never produce for this user
+		healthScoreRepository.save(new HealthScore(user, 7, BigDecimal.ZERO, BigDecimal.ZERO, LocalDateTime.now()));
+
+		assertEquals(7, insightPrecomputeService.getOrCompute(user).getHealthScore());
+	}
+
+	@Test
+	void snapshotCalculatesLiveWithoutAStoredScore() {
+		User user = userService.createUser(new User("Unscored", "User", "unscored@example.com"));
+		account(user, "Checking", Account.AccountType.CHECKING, "USD", "100.00");
+
+		assertEquals(financialInsightsService.calculateFinancialHealthScore(user),
+				insightPrecomputeService.getOrCompute(user).getHealthScore());
+	}
+
+	private Account account(User user, String name, Account.AccountType type, String currency, String balance) {
+		Account account = new Account(name, type, new BigDecimal(balance), user);
+		account.setCurrency(currency);
+		return accountService.createAccount(account);
+	}
+
+	private void post(Account account, String description, String amount, Transaction.TransactionType type,
+					  LocalDate date) {
+		transactionRepository.save(new Transaction(description, new BigDecimal(amount), type,
+				type == Transaction.TransactionType.INCOME ? Transaction.Category.SALARY
+						: Transaction.Category.OTHER_EXPENSE, date, account));
+	}
+}
@@ -0,0 +1,113 @@
+package com.financeapp.personal.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmRequestGateTest {
+
+	private final ExecutorService callers = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void shedsWhenTheWaitQueueIsFull() throws Exception {
+		LlmRequestGate gate = new LlmRequestGate(1000, 10, 1, 1, 5000, 5000);
+		assertTrue(gate.tryAcquire());
+		CompletableFuture<Boolean> queued = acquire(gate, LlmRequestGate.Priority.INTERACTIVE);
+		awaitWaiting(gate, 1);
+
+		assertFalse(gate.tryAcquire());
+		assertEquals(1, gate.getShedCount());
+
+		gate.release();
+		assertTrue(queued.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void interactiveCallersGoAheadOfBackgroundCallers() throws Exception {
+		LlmRequestGate gate = new LlmRequestGate(1000, 10, 1, 10, 5000, 5000);
+		assertTrue(gate.tryAcquire());
+		CompletableFuture<Boolean> background = acquire(gate, LlmRequestGate.Priority.BACKGROUND);
+		awaitWaiting(gate, 1);
+		CompletableFuture<Boolean> interactive = acquire(gate, LlmRequestGate.Priority.INTERACTIVE);
+		awaitWaiting(gate, 2);
+
+		gate.release();
+		assertTrue(interactive.get(5, TimeUnit.SECONDS));
+		assertFalse(background.isDone());
+
+		gate.release();
+		assertTrue(background.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void backgroundRequestIsShedAfterItsWaitTimeout() throws Exception {
+		LlmRequestGate gate = new LlmRequestGate(1000, 10, 1, 10, 5000, 100);
+		assertTrue(gate.tryAcquire());
+
+		long start = System.nanoTime();
+		assertFalse(acquire(gate, LlmRequestGate.Priority.BACKGROUND).get(5, TimeUnit.SECONDS));
+
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals(1, gate.getShedCount());
+		assertEquals(0, gate.getWaitingCount());
+	}
+
+	@Test
+	void rateLimitResponsePausesTheBucket() throws Exception {
+		// Two requests per second: an empty bucket has its next token in 500ms
+		LlmRequestGate gate = new LlmRequestGate(2, 5, 10, 10, 2000, 2000);
+		gate.onRateLimited();
+
+		long start = System.nanoTime();
+		assertTrue(gate.tryAcquire());
+
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(400));
+	}
+
+	@Test
+	void releaseFreesTheSlotForAWaitingCaller() throws Exception {
+		LlmRequestGate gate = new LlmRequestGate(1000, 10, 1, 10, 5000, 5000);
+		assertTrue(gate.tryAcquire());
+		CompletableFuture<Boolean> waiting = acquire(gate, LlmRequestGate.Priority.INTERACTIVE);
+		awaitWaiting(gate, 1);
+		assertFalse(waiting.isDone());
+
+		gate.release();
+
+		assertTrue(waiting.get(5, TimeUnit.SECONDS));
+		assertEquals(0, gate.getShedCount());
+	}
+
+	private CompletableFuture<Boolean> acquire(LlmRequestGate gate, LlmRequestGate.Priority priority) {
+		return CompletableFuture.supplyAsync(() -> gate.withPriority(priority, () -> {
+			try {
+				return gate.tryAcquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CompletionException(e);
+			}
+		}), callers);
+	}
+
+	private static void awaitWaiting(LlmRequestGate gate, int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (gate.getWaitingCount() < count) {
+			assertTrue(System.nanoTime() < deadline, "Callers never started waiting");
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.RecurringSeries;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.repository.AccountRepository;
+import com.financeapp.personal.repository.RecurringSeriesRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecurringSeriesServiceTest {
+
+	private static final Long USER = 1L;
+	private static final Long ACCOUNT = 10L;
+
+	private final List<RecurringSeries> stored = new ArrayList<>();
+	private TransactionRepository transactionRepository;
+	private RecurringSeriesService recurringSeriesService;
+
+	@BeforeEach
+	void setUp() {
+		// Series are kept in a list standing in for the table
+		RecurringSeriesRepository recurringSeriesRepository = mock(RecurringSeriesRepository.class);
+		when(recurringSeriesRepository.findByAccountIdAndMerchantKeyAndTransactionType(anyLong(), anyString(), any()))
+				.thenAnswer(invocation -> stored.stream()
+						.filter(series -> series.getMerchantKey().equals(invocation.getArgument(1))
+								&& series.getTransactionType() == invocation.getArgument(2))
+						.collect(ArrayList::new, ArrayList::add, ArrayList::addAll));
+		when(recurringSeriesRepository.save(any())).thenAnswer(invocation -> {
+			stored.add(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+
+		AccountRepository accountRepository = mock(AccountRepository.class);
+		when(accountRepository.getReferenceById(ACCOUNT)).thenReturn(new Account());
+		transactionRepository = mock(TransactionRepository.class);
+		when(transactionRepository.streamRecurringRowsByAccountId(ACCOUNT)).thenReturn(Stream.empty());
+
+		recurringSeriesService = new RecurringSeriesService(recurringSeriesRepository, transactionRepository,
+				accountRepository, mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	void importExtendsSeriesInDateOrderWithoutRescanning() {
+		recurringSeriesService.consume(List.of(new TransactionsImportedEvent(USER, List.of(
+				netflix(3, LocalDate.of(2026, 3, 5)),
+				netflix(1, LocalDate.of(2026, 1, 5)),
+				netflix(2, LocalDate.of(2026, 2, 5))))));
+		recurringSeriesService.consume(List.of(new TransactionsImportedEvent(USER, List.of(
+				netflix(4, LocalDate.of(2026, 4, 5))))));
+
+		verify(transactionRepository, never()).streamRecurringRowsByAccountId(anyLong());
+		assertEquals(1, stored.size());
+		assertEquals(4, stored.get(0).getOccurrences());
+		assertEquals(4L, stored.get(0).getLastTransactionId());
+	}
+
+	@Test
+	void backdatedImportRescansTheAccount() {
+		recurringSeriesService.consume(List.of(new TransactionsImportedEvent(USER, List.of(
+				netflix(2, LocalDate.of(2026, 2, 5))))));
+		recurringSeriesService.consume(List.of(new TransactionsImportedEvent(USER, List.of(
+				netflix(1, LocalDate.of(2026, 1, 5))))));
+
+		verify(transactionRepository).streamRecurringRowsByAccountId(ACCOUNT);
+	}
+
+	@Test
+	void editRescansTheAccount() {
+		recurringSeriesService.consume(List.of(new TransactionEditedEvent(1L, ACCOUNT, USER, new BigDecimal("17.99"),
+				Transaction.TransactionType.EXPENSE, Transaction.Category.ENTERTAINMENT, LocalDate.of(2026, 1, 5),
+				"NETFLIX.COM", "NETFLIX.COM", new BigDecimal("15.99"), Transaction.TransactionType.EXPENSE,
+				Transaction.Category.ENTERTAINMENT)));
+
+		verify(transactionRepository).streamRecurringRowsByAccountId(ACCOUNT);
+	}
+
+	private static TransactionPostedEvent netflix(long id, LocalDate date) {
+		return new TransactionPostedEvent(id, ACCOUNT, USER, new BigDecimal("15.99"), Transaction.TransactionType.EXPENSE,
+				Transaction.Category.ENTERTAINMENT, date, "NETFLIX.COM");
+	}
+}
@@ -0,0 +1,84 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.dto.SavingsGoalView;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.forecast.SavingsGoalSimulation;
+import com.financeapp.personal.fx.FxRateSnapshot;
+import com.financeapp.personal.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SavingsGoalServiceTest {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private final User user = new User("Goal", "User", "goal@example.com");
+
+	private SavingsGoalService savingsGoalService;
+
+	@BeforeEach
+	void setUp() {
+		AccountService accountService = mock(AccountService.class);
+		when(accountService.calculateNetWorth(user)).thenReturn(new BigDecimal("1000.00"));
+		when(accountService.findAccountsByUser(user)).thenReturn(List.of());
+		TransactionRepository transactionRepository = mock(TransactionRepository.class);
+		when(transactionRepository.findMonthlyTotalsByUserId(any(), any(), any())).thenReturn(List.of());
+		FxRateService fxRateService = mock(FxRateService.class);
+		FxRateSnapshot rates = FxRateSnapshot.reportingOnly("USD");
+		when(fxRateService.current()).thenReturn(rates);
+
+		savingsGoalService = new SavingsGoalService(accountService, transactionRepository, fxRateService, 100, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		savingsGoalService.shutdown();
+	}
+
+	@Test
+	void partialMonthRunsToTheNextWholeMonth() {
+		LocalDate target = TODAY.plusMonths(3).plusDays(1);
+
+		SavingsGoalSimulation simulation = savingsGoalService.simulate(user, new BigDecimal("500.00"), target);
+		SavingsGoalView view = SavingsGoalView.of(simulation, target);
+
+		assertEquals(4, simulation.months());
+		assertEquals(target, view.targetDate());
+		assertEquals(TODAY.plusMonths(4), view.endDate());
+	}
+
+	@Test
+	void wholeMonthEndsOnTheTargetDate() {
+		LocalDate target = TODAY.plusMonths(SavingsGoalService.MAX_MONTHS);
+
+		SavingsGoalSimulation simulation = savingsGoalService.simulate(user, new BigDecimal("500.00"), target);
+
+		assertEquals(SavingsGoalService.MAX_MONTHS, simulation.months());
+		assertEquals(target, simulation.dateOf(simulation.months()));
+	}
+
+	@Test
+	void targetBeyondTheLongestHorizonIsRejected() {
+		LocalDate target = TODAY.plusMonths(SavingsGoalService.MAX_MONTHS).plusDays(1);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> savingsGoalService.simulate(user, new BigDecimal("500.00"), target));
+	}
+
+	@Test
+	void targetInThePastIsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> savingsGoalService.simulate(user, new BigDecimal("500.00"), TODAY));
+	}
+}
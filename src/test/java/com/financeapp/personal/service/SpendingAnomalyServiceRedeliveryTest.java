@@ -0,0 +1,163 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.SpendingStat;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.event.FinanceEvent;
+import com.financeapp.personal.event.TransactionEditedEvent;
+import com.financeapp.personal.event.TransactionPostedEvent;
+import com.financeapp.personal.event.TransactionsImportedEvent;
+import com.financeapp.personal.repository.OutboxEventRepository;
+import com.financeapp.personal.repository.SpendingAnomalyRepository;
+import com.financeapp.personal.repository.SpendingStatRepository;
+import com.financeapp.personal.repository.TransactionRepository;
+import com.financeapp.personal.smart_finance_assistant.SmartFinanceAssistantApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = SmartFinanceAssistantApplication.class)
+class SpendingAnomalyServiceRedeliveryTest {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Autowired
+	private SpendingAnomalyService spendingAnomalyService;
+
+	@Autowired
+	private SpendingStatRepository spendingStatRepository;
+
+	@Autowired
+	private SpendingAnomalyRepository spendingAnomalyRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Test
+	void redeliveredBatchChangesNothing() {
+		User user = userService.createUser(new User("Redelivery", "Test", "redelivery@example.com"));
+		Long userId = user.getId();
+		Long accountId = account(user, "USD").getId();
+		List<TransactionPostedEvent> usual = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			usual.add(expense(1_000 + i, accountId, userId, "Corner Market " + i, "20.00"));
+		}
+		// Ids far above the outbox, so no statistic could have them from elsewhere
+		List<FinanceEvent> events = List.of(
+				new TransactionsImportedEvent(userId, usual),
+				expense(1_010, accountId, userId, "Corner Market", "400.00"),
+				expense(1_011, accountId, userId, "Corner Market", "22.00"),
+				new TransactionEditedEvent(1_011L, accountId, userId, new BigDecimal("35.00"),
+						Transaction.TransactionType.EXPENSE, Transaction.Category.GROCERIES, TODAY, "Corner Market",
+						"Corner Market", new BigDecimal("22.00"), Transaction.TransactionType.EXPENSE,
+						Transaction.Category.GROCERIES));
+		long[] eventIds = {900_001, 900_002, 900_003, 900_004};
+
+		spendingAnomalyService.consume(events, eventIds);
+		Map<String, String> stats = statsOf(userId);
+		int anomalies = anomalyCount(userId);
+
+		spendingAnomalyService.consume(events, eventIds);
+
+		assertEquals(stats, statsOf(userId));
+		assertEquals(anomalies, anomalyCount(userId));
+		assertEquals(1, anomalies);
+		// Six imported, the outlier and the edited posting, counted once each
+		assertEquals("8", stats.get("CATEGORY|GROCERIES").split("/")[0]);
+	}
+
+	@Test
+	void startupBuildSkipsEventsItAlreadyCounted() {
+		User user = userService.createUser(new User("Startup", "Test", "startup@example.com"));
+		Account account = account(user, "USD");
+		// Saved without events, standing in for history whose events are still in the outbox
+		List<TransactionPostedEvent> pending = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			Transaction transaction = transactionRepository.save(new Transaction("Corner Market " + i,
+					new BigDecimal("20.00"), Transaction.TransactionType.EXPENSE, Transaction.Category.GROCERIES,
+					TODAY, account));
+			pending.add(expense(transaction.getId(), account.getId(), user.getId(), transaction.getDescription(), "20.00"));
+		}
+		long pendingEventId = outboxEventRepository.findMaxId();
+		assertTrue(pendingEventId > 0);
+
+		spendingAnomalyService.buildMissingStatistics();
+		Map<String, String> built = statsOf(user.getId());
+		spendingAnomalyService.consume(List.of(new TransactionsImportedEvent(user.getId(), pending)),
+				new long[]{pendingEventId});
+
+		assertEquals(built, statsOf(user.getId()));
+		assertEquals("6", built.get("CATEGORY|GROCERIES").split("/")[0]);
+
+		// A posting after the build's snapshot still counts
+		spendingAnomalyService.consume(List.of(expense(2_000, account.getId(), user.getId(), "Corner Market", "21.00")),
+				new long[]{900_100});
+		assertEquals("7", statsOf(user.getId()).get("CATEGORY|GROCERIES").split("/")[0]);
+	}
+
+	@Test
+	void expensesInOtherCurrenciesAreScoredInTheReportingCurrency() {
+		User user = userService.createUser(new User("Currency", "Test", "currency@example.com"));
+		Long dollars = account(user, "USD").getId();
+		Long yen = account(user, "JPY").getId();
+		List<TransactionPostedEvent> usual = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			usual.add(expense(3_000 + i, dollars, user.getId(), "Corner Market " + i, i % 2 == 0 ? "20.00" : "24.00"));
+		}
+		spendingAnomalyService.consume(List.of(new TransactionsImportedEvent(user.getId(), usual)), new long[]{900_200});
+
+		// Roughly twenty dollars, but 3,000 in raw units
+		spendingAnomalyService.consume(List.of(expense(3_010, yen, user.getId(), "Corner Market", "3000.00")),
+				new long[]{900_201});
+
+		assertEquals(0, anomalyCount(user.getId()));
+		double meanCents = Double.parseDouble(statsOf(user.getId()).get("CATEGORY|GROCERIES").split("/")[1]);
+		assertTrue(meanCents > 1_500 && meanCents < 3_000, "Mean stays in dollars: " + meanCents);
+	}
+
+	private Account account(User user, String currency) {
+		Account account = new Account(currency + " Checking", Account.AccountType.CHECKING, new BigDecimal("1000.00"), user);
+		account.setCurrency(currency);
+		return accountService.createAccount(account);
+	}
+
+	private TransactionPostedEvent expense(long transactionId, Long accountId, Long userId, String description,
+										   String amount) {
+		return new TransactionPostedEvent(transactionId, accountId, userId, new BigDecimal(amount),
+				Transaction.TransactionType.EXPENSE, Transaction.Category.GROCERIES, TODAY, description);
+	}
+
+	private Map<String, String> statsOf(Long userId) {
+		Map<String, String> stats = new TreeMap<>();
+		for (SpendingStat stat : spendingStatRepository.findByUserId(userId)) {
+			stats.put(stat.getScope() + "|" + stat.getStatKey(),
+					stat.getCount() + "/" + stat.getMeanCents() + "/" + stat.getStandardDeviationCents());
+		}
+		return stats;
+	}
+
+	private int anomalyCount(Long userId) {
+		return spendingAnomalyRepository.findRecentByUserId(userId, TODAY.minusDays(1), PageRequest.of(0, 100)).size();
+	}
+}
@@ -0,0 +1,232 @@
+package com.financeapp.personal.service;
+
+import com.financeapp.personal.categorization.TransactionCategorizer;
+import com.financeapp.personal.controller.TransactionIngestController;
+import com.financeapp.personal.dto.TransactionBatchRequest;
+import com.financeapp.personal.dto.TransactionBatchResult;
+import com.financeapp.personal.entity.Account;
+import com.financeapp.personal.entity.Transaction;
+import com.financeapp.personal.entity.User;
+import com.financeapp.personal.smart_finance_assistant.SmartFinanceAssistantApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(classes = SmartFinanceAssistantApplication.class)
+class TransactionIngestServiceTest {
+
+	private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+
+	@Autowired
+	private TransactionIngestService transactionIngestService;
+
+	@Autowired
+	private TransactionIngestController transactionIngestController;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockitoSpyBean
+	private TransactionCategorizer transactionCategorizer;
+
+	@Test
+	void resentBatchIsAllDuplicatesAndStoresNothing() {
+		User user = user();
+		Account account = account(user, "1000.00");
+		List<TransactionBatchRequest.Item> batch = List.of(
+				item(key(), account, "Payroll", "2500.00", Transaction.TransactionType.INCOME),
+				item(null, account, "Corner Market", "42.10", Transaction.TransactionType.EXPENSE));
+
+		TransactionBatchResult first = transactionIngestService.ingest(user, batch);
+		BigDecimal balance = balanceOf(account);
+		TransactionBatchResult resent = transactionIngestService.ingest(user, batch);
+
+		assertEquals(2, first.created());
+		assertEquals(0, resent.created());
+		assertEquals(2, resent.duplicates());
+		assertEquals(List.of(TransactionBatchResult.Status.DUPLICATE, TransactionBatchResult.Status.DUPLICATE),
+				statuses(resent));
+		// A keyed duplicate points at the stored transaction
+		assertEquals(first.items().get(0).transactionId(), resent.items().get(0).transactionId());
+		assertEquals(2, rowCount(account));
+		assertEquals(0, balance.compareTo(balanceOf(account)));
+	}
+
+	@Test
+	void keyRepeatedWithinABatchPointsAtTheFirstRow() {
+		User user = user();
+		Account account = account(user, "1.00");
+		String key = key();
+
+		TransactionBatchResult result = transactionIngestService.ingest(user, List.of(
+				item(key, account, "Streaming", "15.99", Transaction.TransactionType.EXPENSE),
+				item(key, account, "Streaming", "15.99", Transaction.TransactionType.EXPENSE)));
+
+		assertEquals(List.of(TransactionBatchResult.Status.CREATED, TransactionBatchResult.Status.DUPLICATE),
+				statuses(result));
+		assertNotNull(result.items().get(0).transactionId());
+		assertEquals(result.items().get(0).transactionId(), result.items().get(1).transactionId());
+		assertEquals(1, rowCount(account));
+	}
+
+	@Test
+	void identicalUnkeyedRowsInTheFirstBatchAreBothAccepted() {
+		User user = user();
+		Account account = account(user, "1.00");
+		List<TransactionBatchRequest.Item> twoCoffees = List.of(
+				item(null, account, "Blue Bottle Coffee", "4.50", Transaction.TransactionType.EXPENSE),
+				item(null, account, "Blue Bottle Coffee", "4.50", Transaction.TransactionType.EXPENSE));
+
+		TransactionBatchResult first = transactionIngestService.ingest(user, twoCoffees);
+		TransactionBatchResult resent = transactionIngestService.ingest(user, twoCoffees);
+
+		assertEquals(2, first.created());
+		assertEquals(2, resent.duplicates());
+		assertEquals(2, rowCount(account));
+	}
+
+	@Test
+	void rejectedRowsDoNotStopTheBatch() {
+		User user = user();
+		Account account = account(user, "1.00");
+
+		TransactionBatchResult result = transactionIngestService.ingest(user, List.of(
+				item(null, account, "Groceries", "30.00", Transaction.TransactionType.EXPENSE),
+				item(null, account, "Nothing", "0.00", Transaction.TransactionType.EXPENSE),
+				new TransactionBatchRequest.Item(null, -1L, "Elsewhere", new BigDecimal("5.00"),
+						Transaction.TransactionType.EXPENSE, Transaction.Category.GROCERIES, DATE),
+				item(null, account, "Fraction", "1.234", Transaction.TransactionType.EXPENSE),
+				item(null, account, "Pharmacy", "12.00", Transaction.TransactionType.EXPENSE)));
+
+		assertEquals(List.of(TransactionBatchResult.Status.CREATED, TransactionBatchResult.Status.REJECTED,
+						TransactionBatchResult.Status.REJECTED, TransactionBatchResult.Status.REJECTED,
+						TransactionBatchResult.Status.CREATED),
+				statuses(result));
+		assertEquals(2, result.created());
+		assertEquals(3, result.rejected());
+		assertNull(result.items().get(0).error());
+		assertEquals("Account not found with ID: -1", result.items().get(2).error());
+		assertEquals("Amount must be in whole cents", result.items().get(3).error());
+		assertEquals(2, rowCount(account));
+	}
+
+	@Test
+	void eachAccountBalanceMovesOnceByTheNetAmount() {
+		User user = user();
+		Account checking = account(user, "1000.00");
+		Account savings = account(user, "500.00");
+		long checkingVersion = versionOf(checking);
+		long savingsVersion = versionOf(savings);
+
+		transactionIngestService.ingest(user, List.of(
+				item(null, checking, "Payroll", "2500.00", Transaction.TransactionType.INCOME),
+				item(null, savings, "Interest", "1.25", Transaction.TransactionType.INCOME),
+				item(null, checking, "Rent", "1800.00", Transaction.TransactionType.EXPENSE),
+				item(null, checking, "Corner Market", "42.10", Transaction.TransactionType.EXPENSE),
+				item(null, savings, "Transfer out", "100.00", Transaction.TransactionType.EXPENSE)));
+
+		assertEquals(0, new BigDecimal("1657.90").compareTo(balanceOf(checking)));
+		assertEquals(0, new BigDecimal("401.25").compareTo(balanceOf(savings)));
+		// One update per account, however many rows it got
+		assertEquals(checkingVersion + 1, versionOf(checking));
+		assertEquals(savingsVersion + 1, versionOf(savings));
+	}
+
+	@Test
+	void versionConflictIsAConflictResponseAndStoresNothing() {
+		User user = testUser();
+		Account account = account(user, "100.00");
+		// Another write to the account commits while the batch is being categorized
+		TransactionTemplate concurrentWrite = new TransactionTemplate(transactionManager);
+		concurrentWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		doAnswer(invocation -> {
+			concurrentWrite.executeWithoutResult(status ->
+					accountService.updateBalance(account.getId(), new BigDecimal("75.00")));
+			return invocation.callRealMethod();
+		}).when(transactionCategorizer).categorize(anyLong(), eq("Racing write"), any(), any());
+
+		ResponseEntity<?> response = transactionIngestController.ingest(new TransactionBatchRequest(List.of(
+				new TransactionBatchRequest.Item(null, account.getId(), "Racing write", new BigDecimal("20.00"),
+						Transaction.TransactionType.EXPENSE, null, DATE))));
+
+		assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+		assertEquals(0, rowCount(account));
+		assertEquals(0, new BigDecimal("75.00").compareTo(balanceOf(account)));
+	}
+
+	private User user() {
+		String name = UUID.randomUUID().toString();
+		return userService.createUser(new User("Ingest", "Test", "ingest-" + name + "@example.com"));
+	}
+
+	private User testUser() {
+		// The controller posts for the test user
+		return userService.findByEmail("test@example.com")
+				.orElseGet(() -> userService.createUser(new User("Test", "User", "test@example.com")));
+	}
+
+	private Account account(User user, String balance) {
+		return accountService.createAccount(new Account("Checking", Account.AccountType.CHECKING,
+				new BigDecimal(balance), user));
+	}
+
+	private BigDecimal balanceOf(Account account) {
+		return accountService.findById(account.getId()).orElseThrow().getCurrentBalance();
+	}
+
+	private long versionOf(Account account) {
+		return accountService.findById(account.getId()).orElseThrow().getVersion();
+	}
+
+	private int rowCount(Account account) {
+		return transactionService.findTransactionsByAccount(account).size();
+	}
+
+	private static String key() {
+		return "bank-" + UUID.randomUUID();
+	}
+
+	private static TransactionBatchRequest.Item item(String key, Account account, String description, String amount,
+													 Transaction.TransactionType type) {
+		return new TransactionBatchRequest.Item(key, account.getId(), description, new BigDecimal(amount), type,
+				type == Transaction.TransactionType.INCOME ? Transaction.Category.SALARY
+						: Transaction.Category.GROCERIES, DATE);
+	}
+
+	private static List<TransactionBatchResult.Status> statuses(TransactionBatchResult result) {
+		List<TransactionBatchResult.Status> statuses = new ArrayList<>();
+		for (TransactionBatchResult.ItemResult item : result.items()) {
+			statuses.add(item.status());
+		}
+		return statuses;
+	}
+}